@@ -0,0 +1,140 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.api;
+
+import java.util.Objects;
+
+/**
+ * A range of IP addresses as the victim of a punishment. The range is identified by a network
+ * address and a prefix length, as in CIDR notation: for example, {@code 192.168.0.0/16}. <br>
+ * <br>
+ * A range victim applies to players connecting from any address within the range. Unlike
+ * {@link AddressVictim}, address strictness does not extend a range punishment to the alts of
+ * users who previously used an address within the range.
+ *
+ */
+public final class RangeVictim extends Victim {
+
+	private final NetworkAddress network;
+	private final int prefixLength;
+
+	private RangeVictim(NetworkAddress network, int prefixLength) {
+		this.network = network;
+		this.prefixLength = prefixLength;
+	}
+
+	/**
+	 * Gets a victim for the range of addresses starting with the given prefix. <br>
+	 * <br>
+	 * Bits of the network address beyond the prefix length are cleared, so that equal ranges
+	 * are always represented by the same network address.
+	 *
+	 * @param network the network address
+	 * @param prefixLength the prefix length in bits, at most 32 for IPv4 and 128 for IPv6
+	 * @return a range victim
+	 * @throws IllegalArgumentException if the prefix length is negative or exceeds the address length
+	 */
+	public static RangeVictim of(NetworkAddress network, int prefixLength) {
+		byte[] address = network.getRawAddress();
+		if (prefixLength < 0 || prefixLength > address.length * 8) {
+			throw new IllegalArgumentException("Prefix length " + prefixLength + " is out of range for " + network);
+		}
+		for (int bit = prefixLength; bit < address.length * 8; bit++) {
+			address[bit >>> 3] &= (byte) ~(0x80 >>> (bit & 7));
+		}
+		return new RangeVictim(NetworkAddress.of(address), prefixLength);
+	}
+
+	/**
+	 * Gets this victim's type: {@link VictimType#RANGE}
+	 *
+	 */
+	@Override
+	public VictimType getType() {
+		return VictimType.RANGE;
+	}
+
+	/**
+	 * Gets the network address of this range, whose bits beyond the prefix length are cleared
+	 *
+	 * @return the network address
+	 */
+	public NetworkAddress getNetwork() {
+		return network;
+	}
+
+	/**
+	 * Gets the length in bits of the prefix which addresses within this range share
+	 *
+	 * @return the prefix length
+	 */
+	public int getPrefixLength() {
+		return prefixLength;
+	}
+
+	/**
+	 * Determines whether the given address lies within this range. An IPv4 address is never
+	 * within an IPv6 range, and vice-versa.
+	 *
+	 * @param address the network address
+	 * @return true if the address is within this range
+	 */
+	public boolean contains(NetworkAddress address) {
+		Objects.requireNonNull(address, "address");
+		byte[] networkBytes = network.getRawAddress();
+		byte[] addressBytes = address.getRawAddress();
+		if (networkBytes.length != addressBytes.length) {
+			return false;
+		}
+		int fullBytes = prefixLength >>> 3;
+		for (int n = 0; n < fullBytes; n++) {
+			if (networkBytes[n] != addressBytes[n]) {
+				return false;
+			}
+		}
+		int remainingBits = prefixLength & 7;
+		if (remainingBits == 0) {
+			return true;
+		}
+		int mask = (0xFF00 >>> remainingBits) & 0xFF;
+		return (networkBytes[fullBytes] & mask) == (addressBytes[fullBytes] & mask);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		RangeVictim that = (RangeVictim) o;
+		return prefixLength == that.prefixLength && network.equals(that.network);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * network.hashCode() + prefixLength;
+	}
+
+	@Override
+	public String toString() {
+		return "RangeVictim{" +
+				"network=" + network +
+				", prefixLength=" + prefixLength +
+				'}';
+	}
+}
@@ -58,7 +58,12 @@ public abstract class Victim {
 		 * A combination of a UUID and an IP address
 		 *
 		 */
-		COMPOSITE;
+		COMPOSITE,
+		/**
+		 * A range of IP addresses, identified by a network address and prefix length
+		 *
+		 */
+		RANGE;
 		
 	}
 	
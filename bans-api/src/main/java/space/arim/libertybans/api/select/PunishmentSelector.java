@@ -20,6 +20,7 @@
 package space.arim.libertybans.api.select;
 
 import java.net.InetAddress;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,6 +28,7 @@ import space.arim.omnibus.util.concurrent.ReactionStage;
 
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.Punishment;
 
 /**
@@ -156,6 +158,38 @@ public interface PunishmentSelector {
 				.getFirstSpecificPunishment(SortPunishments.LATEST_END_DATE_FIRST);
 	}
 
+	/**
+	 * Gets the first punishment, of a certain type, which is <i>applicable</i> to each of many users,
+	 * where each user is represented by a UUID and IP address. <br>
+	 * <br>
+	 * For each user, the result is the same as that of {@link #getApplicablePunishment(UUID, NetworkAddress, PunishmentType)}.
+	 * However, this method evaluates all users together in a few queries, rather than querying once per user.
+	 * It is therefore suited to re-checking many players at once, such as all online players after the
+	 * scope configuration changes.
+	 *
+	 * @param users   each user's UUID mapped to the user's current address
+	 * @param type    the punishment type
+	 * @return a future which yields the first applicable punishment for each user's UUID. Users to whom
+	 * no punishment is applicable are absent from the map
+	 */
+	ReactionStage<Map<UUID, Punishment>> getApplicablePunishments(Map<UUID, NetworkAddress> users, PunishmentType type);
+
+	/**
+	 * Counts the active warns of a specific victim. <br>
+	 * <br>
+	 * Unlike counting warns using {@link #selectionBuilder()}, this reads a count which is maintained
+	 * as warns are added, revoked, expunged, and purged after expiration. It is therefore inexpensive
+	 * and suitable for being called every time a warn is added. The victim is matched exactly: for example,
+	 * the warns of a composite victim are not included in the count for a player victim. <br>
+	 * <br>
+	 * Expired warns are purged periodically and before a new warn is added. Thus, a warn which expired
+	 * after the last purge may still be counted.
+	 *
+	 * @param victim the victim whose warns to count
+	 * @return a future which yields the number of active warns for the victim
+	 */
+	ReactionStage<Integer> countActiveWarns(Victim victim);
+
 	/**
 	 * Gets a cached mute for an online player, including the player's UUID and
 	 * address. <br>
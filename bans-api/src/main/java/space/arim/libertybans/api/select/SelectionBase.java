@@ -76,6 +76,14 @@ public interface SelectionBase {
 	 */
 	boolean selectActiveOnly();
 
+	/**
+	 * Whether this selection will also match archived punishments. Archived punishments
+	 * are never active, so this is irrelevant if only active punishments are selected.
+	 *
+	 * @return true to select archived punishments as well
+	 */
+	boolean includeArchived();
+
 	/**
 	 * Gets the initial amount of punishments skipped. <br>
 	 * <br>
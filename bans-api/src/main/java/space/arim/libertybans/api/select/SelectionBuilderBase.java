@@ -145,6 +145,18 @@ public interface SelectionBuilderBase<B extends SelectionBuilderBase<B, S>, S ex
 		return selectActiveOnly(false);
 	}
 
+	/**
+	 * Sets whether archived punishments should be matched. False by default. <br>
+	 * <br>
+	 * Punishments which expired long ago may be moved to an archive, if configured by the server.
+	 * Archived punishments are never active, so this option has no effect when only active punishments
+	 * are selected.
+	 *
+	 * @param includeArchived whether to select archived punishments as well
+	 * @return this builder
+	 */
+	B includeArchived(boolean includeArchived);
+
 	/**
 	 * Sets the amount of punishments to skip when retrieving. No punishments are
 	 * skipped by default. <br>
@@ -38,6 +38,7 @@ import java.util.Locale;
 import java.util.Objects;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
 
 enum DependencyBundle {
 
@@ -58,13 +59,13 @@ enum DependencyBundle {
 		return name().toLowerCase(Locale.ROOT).replace("_", "-");
 	}
 
-	ExistingDependency existingDependency() {
-		String jarResourceName = this + "-bundle.jar";
-		URL jarResource = getClass().getResource("/dependencies/jars/" + jarResourceName);
+	ExistingDependency existingDependency(Executor executor) {
+		String bundleName = this + "-bundle";
+		URL jarResource = getClass().getResource("/dependencies/jars/" + bundleName + ".jar");
 		if (jarResource == null) {
 			throw new IllegalStateException("Cannot find nested jar resource for " + this);
 		}
-		return new ExtractNestedJars(jarResource, jarResourceName);
+		return new ExtractNestedJars(jarResource, bundleName, executor);
 	}
 
 	void prepareToDownload(DependencyLoaderBuilder loader) {
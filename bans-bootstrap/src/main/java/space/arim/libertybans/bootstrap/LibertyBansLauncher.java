@@ -37,6 +37,7 @@ import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -157,6 +158,7 @@ public final class LibertyBansLauncher {
 	}
 
 	public CompletableFuture<ClassLoader> attemptLaunch() {
+		long startTime = System.nanoTime();
 
 		Path internalFolder = folder.resolve("internal");
 		// Migrate legacy directories from LibertyBans 1.0.x
@@ -179,11 +181,12 @@ public final class LibertyBansLauncher {
 				bundle.prepareToDownload(loader);
 			}
 			case DEPLOY_AND_DOWNLOAD -> bundle.prepareToDownload(loader);
-			case JAR_OF_JARS -> existingDependencies.add(bundle.existingDependency());
+			case JAR_OF_JARS -> existingDependencies.add(bundle.existingDependency(executor));
 			default -> throw new IllegalArgumentException("Unknown distributionMode " + distributionMode);
 			}
 		}
 		filterLibrariesAndWarnRelocation(librariesRequiringProtection);
+		long preparedTime = System.nanoTime();
 		// Begin to download dependencies
 		BootstrapLauncher<AttachableClassLoader> launcher = new BootstrapLauncher<>(
 				new AttachableClassLoader(
@@ -219,13 +222,23 @@ public final class LibertyBansLauncher {
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
+		long detectedAddonsTime = System.nanoTime();
 		return futureClassLoader.thenApply((classLoader) -> {
+			long loadedDependenciesTime = System.nanoTime();
 			// Attach additional libraries here
 			additionalLibraries.forEach(classLoader::addJarPath);
+			logger.info("Bootstrapped in " + millisBetween(startTime, System.nanoTime()) + "ms "
+					+ "(preparation: " + millisBetween(startTime, preparedTime) + "ms, "
+					+ "addon detection: " + millisBetween(preparedTime, detectedAddonsTime) + "ms, "
+					+ "dependencies: " + millisBetween(preparedTime, loadedDependenciesTime) + "ms)");
 			return classLoader;
 		});
 	}
 
+	private static long millisBetween(long startNanos, long endNanos) {
+		return TimeUnit.NANOSECONDS.toMillis(endNanos - startNanos);
+	}
+
 	public static final class Builder {
 
 		public Step0 folder(Path folder) {
@@ -23,7 +23,9 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -83,31 +85,54 @@ public final class BootstrapLauncher<J extends JarAttachment> {
 			}
 			throw ex;
 		}
-		try {
-			Path targetDirectory = dependencyLoader.getOutputDirectory();
-			// Add existing dependencies
-			for (ExistingDependency existingDependency : existingDependencies) {
-				jarPaths.addAll(existingDependency.onDependencyDownload(targetDirectory));
-			}
-			// Cleanup unused jars
-			try (Stream<Path> fileStream = Files.list(targetDirectory)) {
-				fileStream.filter((file) -> !jarPaths.contains(file)).forEach((toDelete) -> {
-					try {
-						Files.delete(toDelete);
-					} catch (IOException ex) {
-						throw new UncheckedIOException(ex);
-					}
-				});
+		return jarPaths;
+	}
+
+	private CompletableFuture<Set<Path>> extractExistingDependency(ExistingDependency existingDependency,
+																  Path targetDirectory) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return existingDependency.onDependencyDownload(targetDirectory);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
 			}
+		}, dependencyLoader.getExecutor());
+	}
+
+	private static void cleanupUnusedFiles(Path targetDirectory, Set<Path> jarPaths) {
+		try (Stream<Path> fileStream = Files.list(targetDirectory)) {
+			fileStream.filter((file) -> {
+				return !jarPaths.contains(file) && !ExtractNestedJars.isManifest(file);
+			}).forEach((toDelete) -> {
+				try {
+					Files.delete(toDelete);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
 		} catch (IOException ex) {
 			throw new UncheckedIOException(ex);
 		}
-		return jarPaths;
 	}
 
 	public CompletableFuture<J> load() {
-		return dependencyLoader.execute()
-				.thenApply(this::loadJarPaths)
+		Path targetDirectory = dependencyLoader.getOutputDirectory();
+		CompletableFuture<Map<Dependency, DownloadResult>> futureDownloads = dependencyLoader.execute();
+		// Extract existing dependencies while downloads are in progress
+		List<CompletableFuture<Set<Path>>> futureExtractions = new ArrayList<>(existingDependencies.size());
+		for (ExistingDependency existingDependency : existingDependencies) {
+			futureExtractions.add(extractExistingDependency(existingDependency, targetDirectory));
+		}
+		CompletableFuture<?> allExtractions = CompletableFuture.allOf(futureExtractions.toArray(CompletableFuture[]::new));
+		return futureDownloads.thenCombine(allExtractions, (results, ignore) -> {
+					Set<Path> jarPaths = loadJarPaths(results);
+					for (CompletableFuture<Set<Path>> futureExtraction : futureExtractions) {
+						// Will not block, because the future must already be complete
+						jarPaths.addAll(futureExtraction.join());
+					}
+					cleanupUnusedFiles(targetDirectory, jarPaths);
+					return jarPaths;
+				})
 				.thenApply((jarPaths) -> {
 					jarPaths.forEach(jarAttachment::addJarPath);
 					return jarAttachment;
@@ -57,6 +57,7 @@ class DefaultDependencyLoader implements DependencyLoader {
 
 	private CompletableFuture<DownloadResult> downloadDependency(Dependency dependency, Repository repository) {
 		Path outputJar = outputDir.resolve(dependency.getFullName() + ".jar");
+		// Downloads are moved into place only once verified and fully written
 		if (Files.exists(outputJar)) {
 			return CompletableFuture.completedFuture(DownloadResult.success(outputJar));
 		}
@@ -24,7 +24,9 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
@@ -73,12 +75,20 @@ class DependencyDownload {
 			return dependency.hashMismatchResult(actualHash);
 		}
 
-		// Write to file
-		try (FileChannel fc = FileChannel.open(outputJar, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+		// Write to a temporary file, then move it into place, so that the existence of the output jar
+		// implies it was fully written
+		Path temporaryJar = outputJar.resolveSibling(outputJar.getFileName() + ".tmp");
+		try (FileChannel fc = FileChannel.open(temporaryJar,
+				StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
 			fc.write(ByteBuffer.wrap(jarBytes));
 		} catch (IOException ex) {
 			return DownloadResult.exception(ex);
 		}
+		try {
+			Files.move(temporaryJar, outputJar, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException ex) {
+			return DownloadResult.exception(ex);
+		}
 		return DownloadResult.success(outputJar);
 	}
 
@@ -21,7 +21,10 @@ package space.arim.libertybans.bootstrap.depend;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
 import java.net.URL;
+import java.net.URLConnection;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -29,27 +32,152 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
 
+/**
+ * Extracts the jars nested inside a bundle resource. <br>
+ * <br>
+ * A manifest is kept next to the extracted jars, recording a fingerprint of the bundle and the
+ * checksum, size and modification time of each nested jar. If the bundle is unchanged and every
+ * extracted jar still matches, the bundle is not opened at all. Otherwise, the bundle is streamed
+ * once and only those jars whose contents differ are replaced. <br>
+ * <br>
+ * An extracted jar whose size and modification time match the manifest is trusted without reading
+ * it. Otherwise, it is checksummed; checksumming happens in parallel using the given executor.
+ *
+ */
 public final class ExtractNestedJars implements ExistingDependency {
 
 	private final URL jarResource;
-	private final String intermediateFileName;
+	private final String bundleName;
+	private final Executor executor;
 
-	public ExtractNestedJars(URL jarResource, String intermediateFileName) {
+	static final String MANIFEST_SUFFIX = ".manifest";
+	private static final String BUNDLE_KEY = "bundle";
+	private static final String JAR_KEY_PREFIX = "jar.";
+	private static final String MODIFIED_KEY_PREFIX = "modified.";
+
+	public ExtractNestedJars(URL jarResource, String bundleName, Executor executor) {
 		this.jarResource = Objects.requireNonNull(jarResource, "jarResource");
-		this.intermediateFileName = Objects.requireNonNull(intermediateFileName, "intermediateFileName");
+		this.bundleName = Objects.requireNonNull(bundleName, "bundleName");
+		this.executor = Objects.requireNonNull(executor, "executor");
+	}
+
+	static boolean isManifest(Path file) {
+		return file.getFileName().toString().endsWith(MANIFEST_SUFFIX);
 	}
 
 	@Override
 	public Set<Path> onDependencyDownload(Path targetDirectory) throws IOException {
+		Path manifestFile = targetDirectory.resolve(bundleName + MANIFEST_SUFFIX);
+		Properties previousManifest = readManifest(manifestFile);
+		String bundleFingerprint = bundleFingerprint();
+		// Begin checksumming the previously extracted jars
+		Map<String, CompletableFuture<Boolean>> intact = verifyExtracted(targetDirectory, previousManifest);
+
+		// Fast path: the bundle is unchanged, and all its jars were already extracted
+		if (bundleFingerprint != null && bundleFingerprint.equals(previousManifest.getProperty(BUNDLE_KEY))
+				&& !intact.isEmpty() && intact.values().stream().allMatch(CompletableFuture::join)) {
+			// Jars which were checksummed because their modification time changed need not be next time
+			Properties manifest = new Properties();
+			manifest.putAll(previousManifest);
+			for (String entryName : intact.keySet()) {
+				recordModified(manifest, entryName, targetDirectory.resolve(entryName));
+			}
+			if (!manifest.equals(previousManifest)) {
+				writeManifest(manifestFile, manifest);
+			}
+			return outputPaths(targetDirectory, manifest);
+		}
+		Properties manifest = extractChanged(targetDirectory, previousManifest, intact);
+		if (bundleFingerprint != null) {
+			manifest.setProperty(BUNDLE_KEY, bundleFingerprint);
+		}
+		writeManifest(manifestFile, manifest);
+		return outputPaths(targetDirectory, manifest);
+	}
+
+	private static Set<Path> outputPaths(Path targetDirectory, Properties manifest) {
 		Set<Path> outputPaths = new HashSet<>();
-		// First, determine if we need to extract any jars. Snapshots must always be updated
-		Map<String, Path> jarsToExtract = new HashMap<>();
+		for (String key : manifest.stringPropertyNames()) {
+			if (key.startsWith(JAR_KEY_PREFIX)) {
+				outputPaths.add(targetDirectory.resolve(key.substring(JAR_KEY_PREFIX.length())));
+			}
+		}
+		return outputPaths;
+	}
+
+	/**
+	 * Computes a fingerprint of the bundle without reading its contents. When the bundle is
+	 * itself inside a jar, the checksum recorded in that jar's central directory is used.
+	 *
+	 * @return the fingerprint, or null if none is available
+	 * @throws IOException if an I/O error occurs
+	 */
+	private String bundleFingerprint() throws IOException {
+		URLConnection connection = jarResource.openConnection();
+		if (connection instanceof JarURLConnection jarConnection) {
+			jarConnection.setUseCaches(false);
+			try (JarFile outerJar = jarConnection.getJarFile()) {
+				JarEntry bundleEntry = outerJar.getJarEntry(jarConnection.getEntryName());
+				if (bundleEntry == null || bundleEntry.getCrc() == -1L || bundleEntry.getSize() == -1L) {
+					return null;
+				}
+				return Long.toHexString(bundleEntry.getCrc()) + ':' + bundleEntry.getSize();
+			}
+		}
+		long lastModified = connection.getLastModified();
+		long length = connection.getContentLengthLong();
+		// Release the connection's resources, if any
+		connection.getInputStream().close();
+		if (lastModified == 0L || length == -1L) {
+			return null;
+		}
+		return lastModified + ":" + length;
+	}
 
+	/**
+	 * Checks, in parallel, whether each jar in the manifest is extracted with the recorded checksum.
+	 * Jars with the recorded size and modification time are not read.
+	 *
+	 * @param targetDirectory the target directory
+	 * @param manifest the manifest
+	 * @return for each nested jar name in the manifest, whether its extracted file is intact
+	 */
+	private Map<String, CompletableFuture<Boolean>> verifyExtracted(Path targetDirectory, Properties manifest) {
+		Map<String, CompletableFuture<Boolean>> intact = new HashMap<>();
+		for (String key : manifest.stringPropertyNames()) {
+			if (!key.startsWith(JAR_KEY_PREFIX)) {
+				continue;
+			}
+			String entryName = key.substring(JAR_KEY_PREFIX.length());
+			Path extracted = targetDirectory.resolve(entryName);
+			JarChecksum checksum = JarChecksum.parse(manifest.getProperty(key));
+			CompletableFuture<Boolean> extractedIntact;
+			if (checksum == null) {
+				extractedIntact = CompletableFuture.completedFuture(false);
+			} else if (checksum.matchesAttributes(extracted, manifest.getProperty(MODIFIED_KEY_PREFIX + entryName))) {
+				extractedIntact = CompletableFuture.completedFuture(true);
+			} else {
+				extractedIntact = CompletableFuture.supplyAsync(() -> checksum.equals(JarChecksum.ofFile(extracted)), executor);
+			}
+			intact.put(entryName, extractedIntact);
+		}
+		return intact;
+	}
+
+	private Properties extractChanged(Path targetDirectory, Properties previousManifest,
+									  Map<String, CompletableFuture<Boolean>> intact) throws IOException {
+		Properties manifest = new Properties();
+		// Read the bundle once, sequentially, streaming each nested jar to a temporary file
 		try (InputStream resourceInput = jarResource.openStream();
 			 JarInputStream jarResourceInput = new JarInputStream(resourceInput)) {
 
@@ -60,35 +188,155 @@ public final class ExtractNestedJars implements ExistingDependency {
 					continue;
 				}
 				Path extractTo = targetDirectory.resolve(entryName);
-				if (entryName.endsWith("-SNAPSHOT.jar") || Files.notExists(extractTo)) {
-					jarsToExtract.put(entryName, extractTo);
+				JarChecksum previous = JarChecksum.parse(previousManifest.getProperty(JAR_KEY_PREFIX + entryName));
+				CompletableFuture<Boolean> previousIntact = intact.get(entryName);
+				boolean unchanged = previous != null && previousIntact != null && previousIntact.join();
+
+				// Stored entries declare their checksum up front, so an unchanged jar need not be read
+				JarChecksum declared = JarChecksum.declaredBy(entry);
+				if (unchanged && previous.equals(declared)) {
+					manifest.setProperty(JAR_KEY_PREFIX + entryName, previous.toString());
+					recordModified(manifest, entryName, extractTo);
+					continue;
+				}
+				Path temporary = extractTo.resolveSibling(extractTo.getFileName() + ".tmp");
+				CRC32 crc = new CRC32();
+				long size;
+				try (OutputStream output = Files.newOutputStream(temporary)) {
+					size = new CheckedInputStream(jarResourceInput, crc).transferTo(output);
 				}
-				outputPaths.add(extractTo);
-			}
-		}
-		// Second, extract those jars which require it, creating an intermediate jar file if necessary
-		if (!jarsToExtract.isEmpty()) {
-			Path intermediateFile = targetDirectory.resolve(intermediateFileName);
-			try (InputStream resourceInput = jarResource.openStream()) {
-				Files.copy(resourceInput, intermediateFile, StandardCopyOption.REPLACE_EXISTING);
-			}
-			try (JarFile intermediatejarFile = new JarFile(intermediateFile.toFile())) {
-				for (Map.Entry<String, Path> jarToExtract : jarsToExtract.entrySet()) {
-					extractNestedJar(
-							intermediatejarFile,
-							jarToExtract.getKey(),
-							jarToExtract.getValue()
-					);
+				JarChecksum checksum = new JarChecksum(crc.getValue(), size);
+				if (unchanged && previous.equals(checksum)) {
+					Files.delete(temporary);
+				} else {
+					Files.move(temporary, extractTo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
 				}
+				manifest.setProperty(JAR_KEY_PREFIX + entryName, checksum.toString());
+				recordModified(manifest, entryName, extractTo);
 			}
 		}
-		return outputPaths;
+		return manifest;
+	}
+
+	private static void recordModified(Properties manifest, String entryName, Path extracted) {
+		String lastModified = JarChecksum.lastModified(extracted);
+		if (lastModified == null) {
+			manifest.remove(MODIFIED_KEY_PREFIX + entryName);
+		} else {
+			manifest.setProperty(MODIFIED_KEY_PREFIX + entryName, lastModified);
+		}
+	}
+
+	private static Properties readManifest(Path manifestFile) {
+		Properties manifest = new Properties();
+		if (Files.exists(manifestFile)) {
+			try (InputStream manifestInput = Files.newInputStream(manifestFile)) {
+				manifest.load(manifestInput);
+			} catch (IOException | IllegalArgumentException ex) {
+				// A corrupt manifest simply means everything is extracted again
+				return new Properties();
+			}
+		}
+		return manifest;
 	}
 
-	private void extractNestedJar(JarFile sourceJarFile, String entryName, Path destination) throws IOException {
-		JarEntry entry = sourceJarFile.getJarEntry(entryName);
-		try (InputStream nestedJarStream = sourceJarFile.getInputStream(entry)) {
-			Files.copy(nestedJarStream, destination, StandardCopyOption.REPLACE_EXISTING);
+	private static void writeManifest(Path manifestFile, Properties manifest) throws IOException {
+		Path temporary = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+		try (OutputStream manifestOutput = Files.newOutputStream(temporary)) {
+			manifest.store(manifestOutput, null);
+		}
+		Files.move(temporary, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	record JarChecksum(long crc, long size) {
+
+		/**
+		 * Computes the checksum of a file, streaming its contents
+		 *
+		 * @param file the file
+		 * @return the checksum, or null if the file could not be read
+		 */
+		static JarChecksum ofFile(Path file) {
+			CRC32 crc = new CRC32();
+			long size;
+			try (InputStream input = new CheckedInputStream(Files.newInputStream(file), crc)) {
+				size = input.transferTo(OutputStream.nullOutputStream());
+			} catch (IOException ex) {
+				return null;
+			}
+			return new JarChecksum(crc.getValue(), size);
+		}
+
+		/**
+		 * Checks whether a file has this size and the given modification time, without reading it
+		 *
+		 * @param file the file
+		 * @param lastModified the recorded modification time, or null if none was recorded
+		 * @return true if the file's attributes match
+		 */
+		boolean matchesAttributes(Path file, String lastModified) {
+			if (lastModified == null) {
+				return false;
+			}
+			try {
+				return Files.size(file) == size
+						&& lastModified.equals(Files.getLastModifiedTime(file).toString());
+			} catch (IOException ex) {
+				return false;
+			}
+		}
+
+		/**
+		 * Gets the modification time of a file, at the file system's full precision
+		 *
+		 * @param file the file
+		 * @return the modification time, or null if it could not be read
+		 */
+		static String lastModified(Path file) {
+			try {
+				return Files.getLastModifiedTime(file).toString();
+			} catch (IOException ex) {
+				return null;
+			}
+		}
+
+		/**
+		 * Gets the checksum declared in an entry's local header, which is usually present
+		 * for stored (uncompressed) entries
+		 *
+		 * @param entry the entry
+		 * @return the checksum, or null if not declared
+		 */
+		static JarChecksum declaredBy(JarEntry entry) {
+			long crc = entry.getCrc();
+			long size = entry.getSize();
+			if (crc == -1L || size == -1L) {
+				return null;
+			}
+			return new JarChecksum(crc, size);
+		}
+
+		static JarChecksum parse(String value) {
+			if (value == null) {
+				return null;
+			}
+			int separator = value.indexOf(':');
+			if (separator == -1) {
+				return null;
+			}
+			try {
+				return new JarChecksum(
+						Long.parseLong(value, 0, separator, 16),
+						Long.parseLong(value, separator + 1, value.length(), 10)
+				);
+			} catch (NumberFormatException ex) {
+				return null;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return Long.toHexString(crc) + ':' + size;
 		}
 	}
 
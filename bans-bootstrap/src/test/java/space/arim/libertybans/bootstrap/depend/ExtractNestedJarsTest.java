@@ -0,0 +1,142 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.bootstrap.depend;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExtractNestedJarsTest {
+
+	private Path bundle;
+	private Path targetDirectory;
+	private ExecutorService executor;
+
+	@BeforeEach
+	public void setDirectories(@TempDir Path tempDir) throws IOException {
+		bundle = tempDir.resolve("test-bundle.jar");
+		targetDirectory = tempDir.resolve("libraries");
+		Files.createDirectories(targetDirectory);
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@AfterEach
+	public void shutdownExecutor() {
+		executor.shutdown();
+	}
+
+	private void writeBundle(Map<String, String> nestedJars) throws IOException {
+		try (OutputStream output = Files.newOutputStream(bundle);
+			 JarOutputStream jarOutput = new JarOutputStream(output)) {
+			for (Map.Entry<String, String> nestedJar : nestedJars.entrySet()) {
+				jarOutput.putNextEntry(new JarEntry(nestedJar.getKey()));
+				jarOutput.write(nestedJar.getValue().getBytes(StandardCharsets.UTF_8));
+				jarOutput.closeEntry();
+			}
+		}
+	}
+
+	private Set<Path> extract() throws IOException {
+		return new ExtractNestedJars(bundle.toUri().toURL(), "test-bundle", executor).onDependencyDownload(targetDirectory);
+	}
+
+	@Test
+	public void extractAndWriteManifest() throws IOException {
+		writeBundle(Map.of("first.jar", "first", "second-SNAPSHOT.jar", "second", "notajar.txt", "ignored"));
+		Set<Path> extracted = extract();
+		Path first = targetDirectory.resolve("first.jar");
+		Path second = targetDirectory.resolve("second-SNAPSHOT.jar");
+		assertEquals(Set.of(first, second), extracted);
+		assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(first));
+		assertArrayEquals("second".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(second));
+		assertTrue(ExtractNestedJars.isManifest(targetDirectory.resolve("test-bundle.manifest")));
+		assertTrue(Files.exists(targetDirectory.resolve("test-bundle.manifest")));
+	}
+
+	@Test
+	public void skipUnchangedJars() throws IOException {
+		writeBundle(Map.of("first.jar", "first", "second-SNAPSHOT.jar", "second"));
+		extract();
+		Path first = targetDirectory.resolve("first.jar");
+		FileTime marker = FileTime.fromMillis(1_000_000L);
+		Files.setLastModifiedTime(first, marker);
+
+		assertEquals(Set.of(first, targetDirectory.resolve("second-SNAPSHOT.jar")), extract());
+		assertEquals(marker, Files.getLastModifiedTime(first), "Unchanged jar should not be rewritten");
+	}
+
+	@Test
+	public void rewriteChangedJars() throws IOException {
+		writeBundle(Map.of("first.jar", "first", "second-SNAPSHOT.jar", "second"));
+		extract();
+		Path first = targetDirectory.resolve("first.jar");
+		Path second = targetDirectory.resolve("second-SNAPSHOT.jar");
+		FileTime marker = FileTime.fromMillis(1_000_000L);
+		Files.setLastModifiedTime(first, marker);
+
+		writeBundle(Map.of("first.jar", "first", "second-SNAPSHOT.jar", "second, but updated"));
+		// Ensure the bundle fingerprint differs even on coarse-grained file systems
+		Files.setLastModifiedTime(bundle, FileTime.fromMillis(System.currentTimeMillis() + 5_000L));
+		assertEquals(Set.of(first, second), extract());
+		assertEquals(marker, Files.getLastModifiedTime(first), "Unchanged jar should not be rewritten");
+		assertArrayEquals("second, but updated".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(second));
+	}
+
+	@Test
+	public void replaceMissingJar() throws IOException {
+		writeBundle(Map.of("first.jar", "first"));
+		extract();
+		Path first = targetDirectory.resolve("first.jar");
+		Files.delete(first);
+
+		assertEquals(Set.of(first), extract());
+		assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(first));
+	}
+
+	@Test
+	public void replaceCorruptedJarOfSameSize() throws IOException {
+		writeBundle(Map.of("first.jar", "first"));
+		extract();
+		Path first = targetDirectory.resolve("first.jar");
+		Files.writeString(first, "fir5t");
+
+		assertEquals(Set.of(first), extract());
+		assertArrayEquals("first".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(first));
+	}
+
+}
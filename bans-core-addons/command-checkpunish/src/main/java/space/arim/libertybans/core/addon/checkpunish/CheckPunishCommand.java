@@ -54,7 +54,7 @@ public final class CheckPunishCommand extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		return Stream.empty();
 	}
 
@@ -50,7 +50,7 @@ public final class ExpungeCommand extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		return Stream.empty();
 	}
 
@@ -57,7 +57,7 @@ public final class ExtendCommand extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		return Stream.empty();
 	}
 
@@ -68,9 +68,9 @@ public final class StaffRollbackCommand extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		if (argIndex == 0) {
-			return tabCompletion.completeOfflinePlayerNames(sender);
+			return tabCompletion.completeOfflinePlayerNames(sender, lastArg);
 		}
 		return Stream.empty();
 	}
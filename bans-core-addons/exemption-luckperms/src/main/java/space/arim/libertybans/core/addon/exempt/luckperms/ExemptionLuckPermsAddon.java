@@ -23,28 +23,45 @@ import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import net.luckperms.api.LuckPerms;
 import net.luckperms.api.LuckPermsProvider;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.EventSubscription;
+import net.luckperms.api.event.group.GroupDataRecalculateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import space.arim.libertybans.core.addon.AbstractAddon;
 import space.arim.libertybans.core.addon.AddonCenter;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
+import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.ThisClass;
 
+import java.time.Duration;
+import java.util.List;
+
 @Singleton
 public final class ExemptionLuckPermsAddon extends AbstractAddon<ExemptionLuckPermsConfig> {
 
+	private final Time time;
 	private volatile LuckPerms luckPerms;
+	private volatile ExemptionLevelCache weightCache;
+	private List<EventSubscription<?>> subscriptions = List.of();
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	@Inject
-	public ExemptionLuckPermsAddon(AddonCenter addonCenter) {
+	public ExemptionLuckPermsAddon(AddonCenter addonCenter, Time time) {
 		super(addonCenter);
+		this.time = time;
 	}
 
 	LuckPerms luckPerms() {
 		return luckPerms;
 	}
 
+	ExemptionLevelCache weightCache() {
+		return weightCache;
+	}
+
 	@Override
 	public void startup() {
 		LuckPerms luckPerms;
@@ -55,12 +72,28 @@ public final class ExemptionLuckPermsAddon extends AbstractAddon<ExemptionLuckPe
 			luckPerms = null;
 			logger.warn("LuckPerms is not initialized. Exemption will not function.");
 		}
+		ExemptionLevelCache weightCache = new ExemptionLevelCache(
+				time, Duration.ofSeconds(config().cacheWeightsForSeconds())
+		);
+		if (luckPerms != null) {
+			EventBus eventBus = luckPerms.getEventBus();
+			subscriptions = List.of(
+					eventBus.subscribe(UserDataRecalculateEvent.class,
+							(event) -> weightCache.invalidate(event.getUser().getUniqueId())),
+					// Group weights affect all users inheriting the group
+					eventBus.subscribe(GroupDataRecalculateEvent.class, (event) -> weightCache.invalidateAll())
+			);
+		}
+		this.weightCache = weightCache;
 		this.luckPerms = luckPerms;
 	}
 
 	@Override
 	public void shutdown() {
 		luckPerms = null;
+		subscriptions.forEach(EventSubscription::close);
+		subscriptions = List.of();
+		weightCache.invalidateAll();
 	}
 
 	@Override
@@ -29,4 +29,13 @@ public interface ExemptionLuckPermsConfig extends AddonConfig {
     @ConfComments("Whether to exempt victims with the same weight as the operator.")
     @ConfDefault.DefaultBoolean(false)
     boolean exemptSame();
+
+    @ConfKey("cache-weights-for-seconds")
+    @ConfComments({
+            "How long to remember the weights of operators and punished players, in seconds.",
+            "Weights are forgotten sooner when LuckPerms reports that a user's or group's data changed.",
+            "Use 0 to disable."
+    })
+    @ConfDefault.DefaultInteger(300)
+    int cacheWeightsForSeconds();
 }
@@ -30,10 +30,12 @@ import space.arim.libertybans.api.PlayerOperator;
 import space.arim.libertybans.api.PlayerVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.core.addon.exempt.ExemptProvider;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
 import space.arim.libertybans.core.env.CmdSender;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 
 public final class LuckPermsExemptProvider implements ExemptProvider {
@@ -70,14 +72,20 @@ public final class LuckPermsExemptProvider implements ExemptProvider {
 			return futuresFactory.completedFuture(false);
 		}
 		UserManager userManager = luckPerms.getUserManager();
-		return userManager.loadUser(senderUuid).thenCombine(userManager.loadUser(targetUuid), (senderUser, targetUser) -> {
-			int senderWeight = calculateUserMaxWeight(senderUser);
-			int targetWeight = calculateUserMaxWeight(targetUser);
+		ExemptionLevelCache weightCache = addon.weightCache();
+		return userWeight(userManager, weightCache, senderUuid, category).thenCombine(
+				userWeight(userManager, weightCache, targetUuid, category), (senderWeight, targetWeight) -> {
 			if (senderWeight == -1 && targetWeight == -1) return false;
 			return addon.config().exemptSame() ? targetWeight >= senderWeight : targetWeight > senderWeight;
 		});
 	}
 
+	private CompletableFuture<Integer> userWeight(UserManager userManager, ExemptionLevelCache weightCache,
+												  UUID uuid, String category) {
+		// Loading a user may require LuckPerms to query its storage
+		return weightCache.level(uuid, category, () -> userManager.loadUser(uuid).thenApply(this::calculateUserMaxWeight));
+	}
+
 	private int calculateUserMaxWeight(User user) {
 		int maxWeight = -1;
 		for (Group group : user.getInheritedGroups(user.getQueryOptions())) {
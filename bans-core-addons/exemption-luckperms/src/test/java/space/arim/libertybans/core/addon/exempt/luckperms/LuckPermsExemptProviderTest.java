@@ -30,10 +30,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import space.arim.libertybans.api.PlayerOperator;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
 import space.arim.libertybans.core.env.CmdSender;
+import space.arim.libertybans.core.service.LiveTime;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 import space.arim.omnibus.util.concurrent.impl.IndifferentFactoryOfTheFuture;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.OptionalInt;
 import java.util.Set;
@@ -41,6 +44,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +58,8 @@ public class LuckPermsExemptProviderTest {
 	private User senderUser;
 	private User targetUser;
 	private ExemptionLuckPermsConfig config;
+	private UserManager userManager;
+	private ExemptionLevelCache weightCache;
 	private LuckPermsExemptProvider exemptProvider;
 
 	public LuckPermsExemptProviderTest(@Mock ExemptionLuckPermsAddon addon) {
@@ -71,6 +78,9 @@ public class LuckPermsExemptProviderTest {
 		this.config = config;
 		when(addon.config()).thenReturn(config);
 		when(addon.luckPerms()).thenReturn(luckPerms);
+		weightCache = new ExemptionLevelCache(LiveTime.INSTANCE, Duration.ofMinutes(1L));
+		when(addon.weightCache()).thenReturn(weightCache);
+		this.userManager = userManager;
 		when(luckPerms.getUserManager()).thenReturn(userManager);
 		when(userManager.loadUser(senderUuid)).thenReturn(futuresFactory.completedFuture(senderUser));
 		when(userManager.loadUser(targetUuid)).thenReturn(futuresFactory.completedFuture(targetUser));
@@ -140,4 +150,26 @@ public class LuckPermsExemptProviderTest {
 		assertIsExempted(true);
 	}
 
+	@Test
+	public void reuseCachedWeights() {
+		setGroups(senderUser, 5);
+		setGroups(targetUser, 10);
+		assertIsExempted(true);
+		assertIsExempted(true);
+		verify(userManager, times(1)).loadUser(senderUuid);
+		verify(userManager, times(1)).loadUser(targetUuid);
+	}
+
+	@Test
+	public void reloadInvalidatedWeight() {
+		setGroups(senderUser, 5);
+		setGroups(targetUser, 10);
+		assertIsExempted(true);
+		weightCache.invalidate(targetUuid);
+		setGroups(targetUser, 1);
+		assertIsExempted(false);
+		verify(userManager, times(1)).loadUser(senderUuid);
+		verify(userManager, times(2)).loadUser(targetUuid);
+	}
+
 }
@@ -27,26 +27,37 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import space.arim.libertybans.core.addon.AbstractAddon;
 import space.arim.libertybans.core.addon.AddonCenter;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
+import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.ThisClass;
 
+import java.time.Duration;
+
 @Singleton
 public final class ExemptionVaultAddon extends AbstractAddon<ExemptionVaultConfig> {
 
 	private final Server server;
+	private final Time time;
 	private volatile Permission permissions;
+	private volatile ExemptionLevelCache levelCache;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	@Inject
-	public ExemptionVaultAddon(AddonCenter addonCenter, Server server) {
+	public ExemptionVaultAddon(AddonCenter addonCenter, Server server, Time time) {
 		super(addonCenter);
 		this.server = server;
+		this.time = time;
 	}
 
 	Permission permissions() {
 		return permissions;
 	}
 
+	ExemptionLevelCache levelCache() {
+		return levelCache;
+	}
+
 	@Override
 	public void startup() {
 		Permission permissions = server.getServicesManager().load(Permission.class);
@@ -56,12 +67,14 @@ public final class ExemptionVaultAddon extends AbstractAddon<ExemptionVaultConfi
 		} else {
 			logger.info("Detected permissions provider {}", permissions);
 		}
+		levelCache = new ExemptionLevelCache(time, Duration.ofSeconds(config().cacheLevelsForSeconds()));
 		this.permissions = permissions;
 	}
 
 	@Override
 	public void shutdown() {
 		permissions = null;
+		levelCache.invalidateAll();
 	}
 
 	@Override
@@ -33,6 +33,15 @@ public interface ExemptionVaultConfig extends AddonConfig {
 	@ConfDefault.DefaultInteger(50)
 	int maxLevelToScanFor();
 
+	@ConfKey("cache-levels-for-seconds")
+	@ConfComments({
+			"How long to remember the exemption level of a punished player, in seconds.",
+			"Repeated punishments of the same player, such as during a rollback, then need not query the permissions plugin.",
+			"Vault does not report permission changes, so a changed level may take this long to apply. Use 0 to disable."
+	})
+	@ConfDefault.DefaultInteger(30)
+	int cacheLevelsForSeconds();
+
 	@ConfKey("permission-check-thread-context")
 	@ConfComments({
 			"This option provides technical compatibility with different permissions plugins.",
@@ -28,11 +28,13 @@ import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.PlayerVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.core.addon.exempt.ExemptProvider;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
 import space.arim.libertybans.core.env.CmdSender;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.util.UUID;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
 
 public final class VaultExemptProvider implements ExemptProvider {
 
@@ -62,7 +64,10 @@ public final class VaultExemptProvider implements ExemptProvider {
 		} else {
 			return futuresFactory.completedFuture(false);
 		}
-		ExemptionCheck check = new ExemptionCheck(sender, category, targetUuid, permissions, config.maxLevelToScanFor());
+		ExemptionLevelCache levelCache = addon.levelCache();
+		ExemptionCheck check = new ExemptionCheck(
+				sender, category, targetUuid, permissions, levelCache, config.maxLevelToScanFor()
+		);
 		return switch (config.permissionCheckThreadContext()) {
 
 			case RUN_ANYWHERE -> futuresFactory.completedFuture(check.check());
@@ -71,10 +76,13 @@ public final class VaultExemptProvider implements ExemptProvider {
 
 			case USE_ASYNC_FOR_OFFLINE_PLAYERS -> futuresFactory.supplySync(() -> {
 				Player player = server.getPlayer(targetUuid);
-				if (player == null) {
-					return futuresFactory.supplyAsync(check::check);
+				if (player != null) {
+					return futuresFactory.completedFuture(check.checkWith(() -> player));
+				} else if (levelCache.isCached(targetUuid, category)) {
+					// The offline player need not be loaded
+					return futuresFactory.completedFuture(check.check());
 				} else {
-					return futuresFactory.completedFuture(check.checkWith(player));
+					return futuresFactory.supplyAsync(check::check);
 				}
 			}).thenCompose(future -> future);
 		};
@@ -86,22 +94,24 @@ public final class VaultExemptProvider implements ExemptProvider {
 		private final String category;
 		private final UUID targetUuid;
 		private final Permission permissions;
+		private final ExemptionLevelCache levelCache;
 		private final int maxLevelToScanFor;
 
 		private ExemptionCheck(CmdSender sender, String category, UUID targetUuid,
-							   Permission permissions, int maxLevelToScanFor) {
+							   Permission permissions, ExemptionLevelCache levelCache, int maxLevelToScanFor) {
 			this.sender = sender;
 			this.category = category;
 			this.targetUuid = targetUuid;
 			this.permissions = permissions;
+			this.levelCache = levelCache;
 			this.maxLevelToScanFor = maxLevelToScanFor;
 		}
 
 		private boolean check() {
-			return checkWith(server.getOfflinePlayer(targetUuid));
+			return checkWith(() -> server.getOfflinePlayer(targetUuid));
 		}
 
-		private boolean checkWith(OfflinePlayer targetPlayer) {
+		private boolean checkWith(Supplier<? extends OfflinePlayer> targetPlayer) {
 			String permissionPrefix = "libertybans." + category + ".exempt.level.";
 			// Determine operator's level first; scan descending
 			int operatorLevel = -1;
@@ -111,13 +121,17 @@ public final class VaultExemptProvider implements ExemptProvider {
 					break;
 				}
 			}
-			// Determine whether target's level exceeds operator level
-			for (int n = maxLevelToScanFor; n > operatorLevel; n--) {
-				if (permissions.playerHas(null, targetPlayer, permissionPrefix + n)) {
-					return true;
+			// Determine target's level, which is cached since it may require loading an offline player
+			int targetLevel = levelCache.levelNow(targetUuid, category, () -> {
+				OfflinePlayer player = targetPlayer.get();
+				for (int n = maxLevelToScanFor; n >= 0; n--) {
+					if (permissions.playerHas(null, player, permissionPrefix + n)) {
+						return n;
+					}
 				}
-			}
-			return false;
+				return -1;
+			});
+			return targetLevel > operatorLevel;
 		}
 
 	}
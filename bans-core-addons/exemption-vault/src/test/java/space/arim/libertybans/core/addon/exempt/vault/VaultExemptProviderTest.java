@@ -29,8 +29,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.core.addon.exempt.ExemptionLevelCache;
 import space.arim.libertybans.core.env.CmdSender;
+import space.arim.libertybans.core.service.LiveTime;
 
+import java.time.Duration;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -62,6 +65,7 @@ public class VaultExemptProviderTest {
 	private CmdSender sender;
 	private UUID targetUuid;
 	private Permission permissions;
+	private ExemptionLevelCache levelCache;
 	private VaultExemptProvider exemptProvider;
 
 	public VaultExemptProviderTest(@Mock ExemptionVaultAddon addon, @Mock Server server) {
@@ -74,6 +78,7 @@ public class VaultExemptProviderTest {
 		this.sender = sender;
 		targetUuid = UUID.randomUUID();
 		this.permissions = permissions;
+		levelCache = new ExemptionLevelCache(LiveTime.INSTANCE, Duration.ofMinutes(1L));
 		exemptProvider = new VaultExemptProvider(addon, futuresFactory, server);
 	}
 
@@ -84,6 +89,7 @@ public class VaultExemptProviderTest {
 		when(config.permissionCheckThreadContext()).thenReturn(threadContext);
 		when(addon.config()).thenReturn(config);
 		when(addon.permissions()).thenReturn(permissions);
+		when(addon.levelCache()).thenReturn(levelCache);
 	}
 
 	private CompletableFuture<Boolean> checkExempted() {
@@ -205,4 +211,27 @@ public class VaultExemptProviderTest {
 		verify(permissions, times(5)).playerHas(isNull(), eq(targetPlayer), any());
 	}
 
+	@Test
+	public void reuseCachedTargetLevel(@Mock OfflinePlayer targetPlayer) {
+		setConfig(4, RUN_ANYWHERE);
+		when(server.getOfflinePlayer(targetUuid)).thenReturn(targetPlayer);
+		when(permissions.playerHas(null, targetPlayer, "libertybans.ban.exempt.level.3")).thenReturn(true);
+		assertIsExempted(true);
+		assertIsExempted(true);
+		// Levels 4 and 3 were scanned once
+		verify(permissions, times(2)).playerHas(isNull(), eq(targetPlayer), any());
+	}
+
+	@Test
+	public void useAsyncForOfflinePlayersTargetCached() {
+		setConfig(4, USE_ASYNC_FOR_OFFLINE_PLAYERS);
+		when(server.getPlayer(targetUuid)).thenReturn(null);
+		levelCache.levelNow(targetUuid, "ban", () -> -1);
+		var future = checkExempted();
+		futuresFactory.runSyncTasks();
+		assertTrue(future.isDone(), "Cached level requires no async lookup");
+		assertFalse(future.join());
+		verifyNoInteractions(permissions);
+	}
+
 }
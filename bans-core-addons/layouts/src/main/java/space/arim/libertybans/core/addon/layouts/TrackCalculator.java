@@ -34,6 +34,8 @@ record TrackCalculator(ScopeManager scopeManager, Track.Ladder ladder) implement
 				.victim(victim)
 				.escalationTrack(escalationTrack)
 				.selectActiveOnly(ladder.countActive())
+				// Archived punishments still count towards escalation
+				.includeArchived(true)
 				.build()
 				.countNumberOfPunishments()
 				.toCompletableFuture()
@@ -75,12 +75,7 @@ public final class WarnActionsListener implements AsynchronousEventConsumer<Post
 			controller.continueFire();
 			return;
 		}
-		selector.selectionBuilder()
-				.victim(punishment.getVictim())
-				.seekBefore(punishment.getStartDate(), punishment.getIdentifier())
-				.selectActiveOnly()
-				.build()
-				.countNumberOfPunishments()
+		selector.countActiveWarns(punishment.getVictim())
 				.thenCompose((numberOfWarns) -> {
 					return new Handler(punishment, numberOfWarns).handleActions();
 				})
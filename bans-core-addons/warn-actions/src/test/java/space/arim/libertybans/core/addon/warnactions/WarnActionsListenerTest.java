@@ -38,8 +38,6 @@ import space.arim.libertybans.api.punish.PunishmentDrafter;
 import space.arim.libertybans.api.scope.ScopeManager;
 import space.arim.libertybans.api.scope.ServerScope;
 import space.arim.libertybans.api.select.PunishmentSelector;
-import space.arim.libertybans.api.select.SelectionOrder;
-import space.arim.libertybans.api.select.SelectionOrderBuilder;
 import space.arim.libertybans.core.addon.AddonCenter;
 import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.config.ParsedDuration;
@@ -56,7 +54,6 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -124,26 +121,18 @@ public class WarnActionsListenerTest {
 	}
 
 	@Test
-	public void twoWarnsReachedImpliesNoActions(@Mock SelectionOrderBuilder selectionBuilder,
-											   @Mock SelectionOrder selectionOrder) {
+	public void twoWarnsReachedImpliesNoActions() {
 		enableConfig(
 				Map.of(1, "too low command", 3, "too high command"),
 				Map.of(1, mock(WarnActionsConfig.WarnActionPunishment.class), 3, mock(WarnActionsConfig.WarnActionPunishment.class))
 		);
-		when(selector.selectionBuilder()).thenReturn(selectionBuilder);
-		when(selectionBuilder.victim(any())).thenReturn(selectionBuilder);
-		when(selectionBuilder.seekBefore(any(), anyLong())).thenReturn(selectionBuilder);
-		when(selectionBuilder.selectActiveOnly()).thenReturn(selectionBuilder);
-		when(selectionBuilder.build()).thenReturn(selectionOrder);
-		when(selectionOrder.countNumberOfPunishments()).thenReturn(futuresFactory.completedStage(2));
+		when(selector.countActiveWarns(any())).thenReturn(futuresFactory.completedStage(2));
 		fireEvent();
 		verifyNoInteractions(envEnforcer, drafter);
 	}
 
 	@Test
-	public void theThirdWarnIsReached(@Mock SelectionOrderBuilder selectionBuilder,
-									  @Mock SelectionOrder selectionOrder,
-									  @Mock WarnActionsConfig.WarnActionPunishment autoPunishment,
+	public void theThirdWarnIsReached(@Mock WarnActionsConfig.WarnActionPunishment autoPunishment,
 									  @Mock DraftPunishmentBuilder draftBuilder,
 									  @Mock ServerScope autoPunishmentScope,
 									  @Mock DraftPunishment draftPunishment,
@@ -153,12 +142,7 @@ public class WarnActionsListenerTest {
 				Map.of(1, "too low command", 3, "just right", 4, "too high again"),
 				Map.of(1, mock(WarnActionsConfig.WarnActionPunishment.class), 3, autoPunishment, 4, mock(WarnActionsConfig.WarnActionPunishment.class))
 		);
-		when(selector.selectionBuilder()).thenReturn(selectionBuilder);
-		when(selectionBuilder.victim(any())).thenReturn(selectionBuilder);
-		when(selectionBuilder.seekBefore(any(), anyLong())).thenReturn(selectionBuilder);
-		when(selectionBuilder.selectActiveOnly()).thenReturn(selectionBuilder);
-		when(selectionBuilder.build()).thenReturn(selectionOrder);
-		when(selectionOrder.countNumberOfPunishments()).thenReturn(futuresFactory.completedStage(3));
+		when(selector.countActiveWarns(any())).thenReturn(futuresFactory.completedStage(3));
 
 		when(formatter.formatWithPunishment(any(), eq(punishment))).thenAnswer((invocation) -> {
 			return futuresFactory.completedFuture(invocation.getArgument(0, ComponentText.class).asComponent());
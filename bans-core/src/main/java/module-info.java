@@ -24,6 +24,7 @@ module space.arim.libertybans.core {
 	requires com.zaxxer.hikari;
 	requires jakarta.inject;
 	requires static java.compiler;
+	requires static jdk.jfr;
 	requires net.kyori.adventure;
 	requires net.kyori.examination.api;
 	requires net.kyori.adventure.text.serializer.legacy;
@@ -31,6 +32,7 @@ module space.arim.libertybans.core {
 	requires static org.checkerframework.checker.qual;
 	requires static org.jetbrains.annotations;
 	requires org.jooq;
+	requires static org.postgresql.jdbc;
 	requires org.slf4j;
 	requires space.arim.api.env;
 	requires space.arim.api.jsonchat;
@@ -27,15 +27,23 @@ import space.arim.libertybans.api.LibertyBans;
 import space.arim.libertybans.core.addon.AddonCenter;
 import space.arim.libertybans.core.commands.extra.TabCompletion;
 import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.config.MainConfig;
+import space.arim.libertybans.core.config.SqlConfig;
 import space.arim.libertybans.core.database.DatabaseManager;
 import space.arim.libertybans.core.env.EnvironmentManager;
+import space.arim.libertybans.core.punish.EnactionIdCache;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache;
 import space.arim.libertybans.core.service.AsynchronicityManager;
+import space.arim.libertybans.core.snapshot.CacheSnapshotManager;
 import space.arim.libertybans.core.uuid.UUIDManager;
 import space.arim.omnibus.registry.Registration;
 import space.arim.omnibus.registry.RegistryPriorities;
 import space.arim.omnibus.util.ThisClass;
 
+import java.util.Objects;
+
 @Singleton
 public class LifecycleGodfather extends AbstractBaseFoundation {
 
@@ -44,7 +52,11 @@ public class LifecycleGodfather extends AbstractBaseFoundation {
 	private final DatabaseManager databaseManager;
 	private final UUIDManager uuidManager;
 	private final MuteCache muteCache;
+	private final RangePunishmentCache rangePunishmentCache;
+	private final ScopedBanCache scopedBanCache;
+	private final EnactionIdCache idCache;
 	private final TabCompletion tabCompletion;
+	private final CacheSnapshotManager cacheSnapshotManager;
 	private final EnvironmentManager envManager;
 	private final AddonCenter addonCenter;
 
@@ -55,15 +67,19 @@ public class LifecycleGodfather extends AbstractBaseFoundation {
 
 	@Inject
 	public LifecycleGodfather(AsynchronicityManager asyncManager, Configs configs, DatabaseManager databaseManager,
-							  UUIDManager uuidManager, MuteCache muteCache, TabCompletion tabCompletion,
-							  EnvironmentManager envManager, AddonCenter addonCenter,
-							  LibertyBans api) {
+							  UUIDManager uuidManager, MuteCache muteCache, RangePunishmentCache rangePunishmentCache,
+							  ScopedBanCache scopedBanCache, EnactionIdCache idCache, TabCompletion tabCompletion, CacheSnapshotManager cacheSnapshotManager, EnvironmentManager envManager,
+							  AddonCenter addonCenter, LibertyBans api) {
 		this.asyncManager = asyncManager;
 		this.configs = configs;
 		this.databaseManager = databaseManager;
 		this.uuidManager = uuidManager;
 		this.muteCache = muteCache;
+		this.rangePunishmentCache = rangePunishmentCache;
+		this.scopedBanCache = scopedBanCache;
+		this.idCache = idCache;
 		this.tabCompletion = tabCompletion;
+		this.cacheSnapshotManager = cacheSnapshotManager;
 		this.envManager = envManager;
 		this.addonCenter = addonCenter;
 
@@ -77,6 +93,8 @@ public class LifecycleGodfather extends AbstractBaseFoundation {
 		databaseManager.startup();
 		uuidManager.startup();
 		muteCache.startup();
+		rangePunishmentCache.startup();
+		cacheSnapshotManager.startup();
 		tabCompletion.startup();
 		addonCenter.startup();
 		envManager.startup();
@@ -92,20 +110,63 @@ public class LifecycleGodfather extends AbstractBaseFoundation {
 	void restart0() {
 		envManager.shutdown();
 		asyncManager.restart();
+
+		SqlConfig previousSqlConfig = configs.getSqlConfig();
+		MainConfig previousMainConfig = configs.getMainConfig();
 		configs.restart();
-		databaseManager.restart();
-		uuidManager.restart();
-		muteCache.restart();
-		tabCompletion.restart();
+		SqlConfig sqlConfig = configs.getSqlConfig();
+		MainConfig mainConfig = configs.getMainConfig();
+
+		boolean databaseRestarted = restartIfChanged(databaseManager, "database connection pool",
+				previousSqlConfig, sqlConfig);
+		restartIfChanged(uuidManager, "uuid caches",
+				previousMainConfig.uuidResolution(), mainConfig.uuidResolution());
+		if (databaseRestarted) {
+			// The database may now be a different one, so nothing loaded from the previous one may be kept
+			muteCache.restart();
+			rangePunishmentCache.restart();
+			scopedBanCache.clear();
+			idCache.clear();
+			tabCompletion.restart();
+		} else {
+			restartIfChanged(muteCache, "mute cache",
+					previousSqlConfig.muteCaching(), sqlConfig.muteCaching(),
+					previousSqlConfig.synchronization().enabled(), sqlConfig.synchronization().enabled());
+			restartIfChanged(tabCompletion, "tab completion cache",
+					previousMainConfig.commands().tabCompletion().offlinePlayerNames(),
+					mainConfig.commands().tabCompletion().offlinePlayerNames());
+		}
 		addonCenter.restart();
 		envManager.startup();
 	}
 
+	/*
+	 * Parts whose configuration is unchanged keep their connection pools and warm caches.
+	 * Rebuilding them for an unrelated change would cause a burst of cold-cache queries.
+	 *
+	 * Configuration objects are compared by value. The arguments alternate between the
+	 * previous and current value of each relevant configuration section.
+	 *
+	 * Returns whether the part was restarted.
+	 */
+	static boolean restartIfChanged(Part part, String description, Object... previousAndCurrent) {
+		for (int n = 0; n < previousAndCurrent.length; n += 2) {
+			if (!Objects.equals(previousAndCurrent[n], previousAndCurrent[n + 1])) {
+				part.restart();
+				return true;
+			}
+		}
+		LOGGER.debug("Keeping {} since its configuration is unchanged", description);
+		return false;
+	}
+
 	@Override
 	void shutdown0() {
 		envManager.shutdown();
 		addonCenter.shutdown();
+		cacheSnapshotManager.shutdown();
 		tabCompletion.shutdown();
+		rangePunishmentCache.shutdown();
 		muteCache.shutdown();
 		uuidManager.shutdown();
 		configs.shutdown();
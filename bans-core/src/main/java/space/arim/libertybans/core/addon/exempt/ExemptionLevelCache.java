@@ -0,0 +1,110 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.addon.exempt;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import space.arim.libertybans.core.service.Time;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache of resolved exemption levels, keyed by user and category. Used by exemption providers
+ * whose level lookups are expensive, such as those requiring the permissions backend to load
+ * an offline user. <br>
+ * <br>
+ * Entries expire after a fixed duration. Providers whose permissions backend reports changes
+ * should additionally invalidate entries as the changes occur.
+ *
+ */
+public final class ExemptionLevelCache {
+
+	private final AsyncCache<Key, Integer> cache;
+
+	public ExemptionLevelCache(Time time, Duration expiration) {
+		cache = Caffeine.newBuilder()
+				.ticker(time.toCaffeineTicker())
+				.expireAfterWrite(expiration)
+				.buildAsync();
+	}
+
+	private record Key(UUID uuid, String category) { }
+
+	/**
+	 * Gets the level of a user, computing it asynchronously if not cached. Concurrent requests
+	 * for the same user and category share a single computation.
+	 *
+	 * @param uuid the user
+	 * @param category the exemption category
+	 * @param computeLevel computes the level
+	 * @return a future yielding the level
+	 */
+	public CompletableFuture<Integer> level(UUID uuid, String category,
+											Supplier<? extends CompletionStage<Integer>> computeLevel) {
+		return cache.get(new Key(uuid, category), (key, executor) -> computeLevel.get().toCompletableFuture());
+	}
+
+	/**
+	 * Gets the level of a user, computing it on the current thread if not cached
+	 *
+	 * @param uuid the user
+	 * @param category the exemption category
+	 * @param computeLevel computes the level
+	 * @return the level
+	 */
+	public int levelNow(UUID uuid, String category, IntSupplier computeLevel) {
+		return cache.synchronous().get(new Key(uuid, category), (key) -> computeLevel.getAsInt());
+	}
+
+	/**
+	 * Whether the level of a user is cached and already computed
+	 *
+	 * @param uuid the user
+	 * @param category the exemption category
+	 * @return true if cached
+	 */
+	public boolean isCached(UUID uuid, String category) {
+		CompletableFuture<Integer> level = cache.getIfPresent(new Key(uuid, category));
+		return level != null && level.isDone() && !level.isCompletedExceptionally();
+	}
+
+	/**
+	 * Invalidates the levels of a user in all categories
+	 *
+	 * @param uuid the user
+	 */
+	public void invalidate(UUID uuid) {
+		cache.asMap().keySet().removeIf((key) -> key.uuid().equals(uuid));
+	}
+
+	/**
+	 * Invalidates all levels
+	 *
+	 */
+	public void invalidateAll() {
+		cache.synchronous().invalidateAll();
+	}
+
+}
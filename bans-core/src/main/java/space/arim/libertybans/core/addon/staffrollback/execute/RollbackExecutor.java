@@ -21,11 +21,15 @@ package space.arim.libertybans.core.addon.staffrollback.execute;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
+import org.jooq.Condition;
 import space.arim.libertybans.api.select.PunishmentSelector;
 import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.sql.TrackCounts;
+import space.arim.libertybans.core.database.sql.WarnCounts;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 
 import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.Warns.WARNS;
 
 public final class RollbackExecutor {
 
@@ -51,10 +55,17 @@ public final class RollbackExecutor {
 
 	public CentralisedFuture<Integer> executeRollback(PreparedRollback rollback) {
 		return dbProvider.get().queryWithRetry((context, transaction) -> {
+			Condition rolledBack = PUNISHMENTS.OPERATOR.eq(rollback.operator())
+					.and(PUNISHMENTS.START.between(rollback.minStartTime(), rollback.maxStartTime()));
+			new TrackCounts(context).decrementBeforeDeletion(rolledBack);
+			new WarnCounts(context).decrementBeforeDeletion(WARNS.ID.in(context
+					.select(PUNISHMENTS.ID)
+					.from(PUNISHMENTS)
+					.where(rolledBack)
+			));
 			return context
 					.deleteFrom(PUNISHMENTS)
-					.where(PUNISHMENTS.OPERATOR.eq(rollback.operator()))
-					.and(PUNISHMENTS.START.between(rollback.minStartTime(), rollback.maxStartTime()))
+					.where(rolledBack)
 					.execute();
 		});
 	}
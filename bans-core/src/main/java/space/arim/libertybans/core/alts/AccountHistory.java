@@ -26,6 +26,7 @@ import space.arim.libertybans.api.AddressVictim;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.user.KnownAccount;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
@@ -76,12 +77,12 @@ public final class AccountHistory {
 	}
 
 	/**
-	 * Selects known accounts for a uuid or IP address. <br>
+	 * Selects known accounts for a uuid, IP address, or IP address range. <br>
 	 * <br>
 	 * The returned accounts are sorted with the oldest first. See {@link AltDetection}
 	 * for a description of why this sort order is used.
 	 *
-	 * @param victim the uuid or IP address
+	 * @param victim the uuid, IP address, or IP address range
 	 * @return the detected alts, sorted in order of oldest first
 	 */
 	public CentralisedFuture<List<? extends KnownAccount>> knownAccounts(Victim victim) {
@@ -95,6 +96,17 @@ public final class AccountHistory {
 			return knownAccountsWhere(ADDRESSES.UUID.eq(compositeVictim.getUUID())
 					.or(ADDRESSES.ADDRESS.eq(compositeVictim.getAddress())));
 
+		} else if (victim instanceof RangeVictim rangeVictim) {
+			byte[] lastAddress = rangeVictim.getNetwork().getRawAddress();
+			for (int bit = rangeVictim.getPrefixLength(); bit < lastAddress.length * 8; bit++) {
+				lastAddress[bit >>> 3] |= (byte) (0x80 >>> (bit & 7));
+			}
+			// Binary comparison also admits longer addresses sharing a prefix, which are filtered out
+			return knownAccountsWhere(ADDRESSES.ADDRESS.between(rangeVictim.getNetwork(), NetworkAddress.of(lastAddress)))
+					.thenApply((accounts) -> accounts.stream()
+							.filter((account) -> rangeVictim.contains(account.address()))
+							.toList());
+
 		} else {
 			throw MiscUtil.unknownVictimType(victim.getType());
 		}
@@ -54,7 +54,7 @@ public final class AddonCommands extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		switch (argIndex) {
 		case 0:
 			return Stream.of("list", "reload");
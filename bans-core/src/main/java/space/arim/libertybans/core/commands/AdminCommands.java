@@ -27,11 +27,13 @@ import space.arim.libertybans.bootstrap.BaseFoundation;
 import space.arim.libertybans.bootstrap.plugin.PluginInfo;
 import space.arim.libertybans.core.addon.AddonCenter;
 import space.arim.libertybans.core.config.MessagesConfig;
+import space.arim.libertybans.core.database.InternalDatabase;
 import space.arim.libertybans.core.env.CmdSender;
 import space.arim.libertybans.core.env.Environment;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.ReactionStage;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
@@ -44,15 +46,18 @@ public final class AdminCommands extends AbstractSubCommandGroup {
 	private final Provider<Environment> environment;
 	private final AddonCenter addonCenter;
 	private final PlatformHandle envHandle;
+	private final Provider<InternalDatabase> dbProvider;
 
 	@Inject
 	public AdminCommands(Dependencies dependencies, Provider<BaseFoundation> foundation,
-						 Provider<Environment> environment, AddonCenter addonCenter, PlatformHandle envHandle) {
+						 Provider<Environment> environment, AddonCenter addonCenter, PlatformHandle envHandle,
+						 Provider<InternalDatabase> dbProvider) {
 		super(dependencies, Arrays.stream(Type.values()).map(Type::toString));
 		this.foundation = foundation;
 		this.environment = environment;
 		this.addonCenter = addonCenter;
 		this.envHandle = envHandle;
+		this.dbProvider = dbProvider;
 	}
 
 	private MessagesConfig.Admin adminConfig() {
@@ -65,7 +70,7 @@ public final class AdminCommands extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		return Stream.empty();
 	}
 
@@ -152,10 +157,13 @@ public final class AdminCommands extends AbstractSubCommandGroup {
 
 		private void debugCmd() {
 			String environmentImplName = environment.get().getClass().getSimpleName();
-			List<String> debugInfo = List.of(
+			List<String> debugInfo = new ArrayList<>(List.of(
 					"Version: " + PluginInfo.VERSION,
 					"Platform Category: " + environmentImplName.substring(0, environmentImplName.length() - 3),
-					"Platform Version: " + envHandle.getPlatformVersion()); // TODO add more debug information
+					"Platform Version: " + envHandle.getPlatformVersion())); // TODO add more debug information
+			dbProvider.get().queueWaits().forEach((priority, queueWait) -> {
+				debugInfo.add("Database queue (" + priority + "): " + queueWait);
+			});
 			debugInfo.forEach(sender()::sendLiteralMessage);
 		}
 		
@@ -80,11 +80,14 @@ public final class ImportCommands extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		if (argIndex == 0) {
 			return Stream.of(PluginSourceType.values())
 					.map((pluginSourceType) -> pluginSourceType.name().toLowerCase(Locale.ROOT));
 		}
+		if (argIndex == 1) {
+			return Stream.of("resume");
+		}
 		return Stream.empty();
 	}
 
@@ -121,16 +124,38 @@ public final class ImportCommands extends AbstractSubCommandGroup {
 				sender().sendMessage(importMessages().usage());
 				return null;
 			}
+			boolean resume = false;
+			if (command().hasNext()) {
+				if (sourceType == PluginSourceType.SELF || !command().next().equalsIgnoreCase("resume")) {
+					sender().sendMessage(importMessages().usage());
+					return null;
+				}
+				resume = true;
+			}
+			String progressKey = sourceType.name().toLowerCase(Locale.ROOT);
+			if (!resume) {
+				return startImport(sourceType, progressKey, false);
+			}
+			return executor.hasCheckpoint(progressKey).thenCompose((hasCheckpoint) -> {
+				if (!hasCheckpoint) {
+					sender().sendMessage(importMessages().noCheckpoint());
+					return completedFuture(null);
+				}
+				return startImport(sourceType, progressKey, true);
+			});
+		}
+
+		private CentralisedFuture<Void> startImport(PluginSourceType sourceType, String progressKey, boolean resume) {
 			if (!isImporting.compareAndSet(false, true)) {
 				sender().sendMessage(importMessages().inProgress());
-				return null;
+				return completedFuture(null);
 			}
 			CentralisedFuture<Void> importFuture;
 			if (sourceType == PluginSourceType.SELF) {
 				importFuture = selfImportProcess.transferAllData();
 			} else {
 				ImportSource importSource = importSourceProviders.get(sourceType).get();
-				importFuture = executor.performImport(importSource).thenAccept((ImportStatistics statistics) -> {
+				importFuture = executor.performImport(importSource, progressKey, resume).thenAccept((ImportStatistics statistics) -> {
 					if (statistics.success()) {
 						sender().sendMessage(importMessages().complete());
 						sender().sendLiteralMessage(statistics.toString());
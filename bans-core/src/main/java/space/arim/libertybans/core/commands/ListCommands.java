@@ -27,6 +27,7 @@ import org.checkerframework.checker.nullness.qual.NonNull;
 import space.arim.api.jsonchat.adventure.util.ComponentText;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.scope.ServerScope;
@@ -78,11 +79,11 @@ public class ListCommands extends AbstractSubCommandGroup {
 	}
 
 	@Override
-	public Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		if (argIndex == 0) {
 			ListType listType = ListType.fromString(arg);
 			if (listType.requiresTarget()) {
-				return tabCompletion.completeOfflinePlayerNames(sender);
+				return tabCompletion.completeOfflinePlayerNames(sender, lastArg);
 			}
 		}
 		return Stream.empty();
@@ -137,6 +138,10 @@ public class ListCommands extends AbstractSubCommandGroup {
 									sender(), target, ParseVictim.ofPreferredType(Victim.VictimType.PLAYER)
 							),
 							(victim) -> {
+								if (victim instanceof RangeVictim) {
+									// Ranges have no composite counterpart
+									return selector.selectionBuilder().victim(victim);
+								}
 								// Select punishments made against this user OR against the composite user
 								CompositeVictim compositeWildcard = new AsCompositeWildcard().apply(victim);
 								SelectionPredicate<Victim> victimSelection = matchingAnyOf(victim, compositeWildcard);
@@ -58,9 +58,10 @@ public interface SubCommandGroup {
 	 * @param sender the command sender
 	 * @param arg the sub command matched to this sub command group, lowercased
 	 * @param argIndex the index of the furthest argument
-	 * @return tab complete suggestions
+	 * @param lastArg the furthest argument, as typed so far, lowercased. May be empty
+	 * @return tab complete suggestions. These need not be filtered by the furthest argument
 	 */
-	Stream<String> suggest(CmdSender sender, String arg, int argIndex);
+	Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg);
 
 	/**
 	 * Determines whether the sender has permission for a sub command, for tab completion purposes
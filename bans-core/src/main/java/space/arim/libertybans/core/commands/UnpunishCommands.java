@@ -23,6 +23,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.ComponentLike;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.EnforcementOptions;
 import space.arim.libertybans.api.punish.Punishment;
@@ -79,9 +80,9 @@ abstract class UnpunishCommands extends AbstractSubCommandGroup implements Punis
 	}
 
 	@Override
-	public final Stream<String> suggest(CmdSender sender, String arg, int argIndex) {
+	public final Stream<String> suggest(CmdSender sender, String arg, int argIndex, String lastArg) {
 		if (argIndex == 0) {
-			Stream<String> availableNames = tabCompletion.completeOfflinePlayerNames(sender);
+			Stream<String> availableNames = tabCompletion.completeOfflinePlayerNames(sender, lastArg);
 			PunishmentType type = parseType(arg.toUpperCase(Locale.ROOT));
 			if (type == PunishmentType.BAN) {
 				// Online players are not banned, so exclude names of known online players
@@ -161,9 +162,14 @@ abstract class UnpunishCommands extends AbstractSubCommandGroup implements Punis
 				revocationOrder = revoker.revokeByIdAndType(id, type);
 			} else {
 				assert type.isSingular() : type;
-				// Try to revoke this punishment for either the simple victim or composite wildcard victim
-				CompositeVictim compositeWildcard = new AsCompositeWildcard().apply(victim);
-				revocationOrder = revoker.revokeByTypeAndPossibleVictims(type, List.of(victim, compositeWildcard));
+				if (victim instanceof RangeVictim) {
+					// Ranges have no composite counterpart
+					revocationOrder = revoker.revokeByTypeAndVictim(type, victim);
+				} else {
+					// Try to revoke this punishment for either the simple victim or composite wildcard victim
+					CompositeVictim compositeWildcard = new AsCompositeWildcard().apply(victim);
+					revocationOrder = revoker.revokeByTypeAndPossibleVictims(type, List.of(victim, compositeWildcard));
+				}
 				id = -1;
 			}
 			return fireWithTimeout(new PardonEventImpl(sender().getOperator(), victim, type)).thenCompose((event) -> {
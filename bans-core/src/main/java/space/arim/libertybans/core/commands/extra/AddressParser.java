@@ -20,6 +20,7 @@
 package space.arim.libertybans.core.commands.extra;
 
 import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.RangeVictim;
 
 final class AddressParser {
 
@@ -46,4 +47,25 @@ final class AddressParser {
 		}
 		return NetworkAddress.of(ipv4);
 	}
+
+	static RangeVictim parseIpv4Range(String targetArg) {
+		int slashIndex = targetArg.indexOf('/');
+		if (slashIndex == -1) {
+			return null;
+		}
+		NetworkAddress network = parseIpv4(targetArg.substring(0, slashIndex));
+		if (network == null) {
+			return null;
+		}
+		int prefixLength;
+		try {
+			prefixLength = Integer.parseUnsignedInt(targetArg.substring(slashIndex + 1));
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+		if (prefixLength > 32) {
+			return null;
+		}
+		return RangeVictim.of(network, prefixLength);
+	}
 }
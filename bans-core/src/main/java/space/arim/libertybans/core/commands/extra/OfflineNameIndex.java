@@ -0,0 +1,111 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.commands.extra;
+
+import java.time.Instant;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Case-insensitive, sorted index of recently joined player names, which is looked up by prefix. <br>
+ * <br>
+ * The index is updated incrementally: {@link #latestUpdate()} tells which names need to be
+ * re-queried, and names which are no longer recent are evicted.
+ *
+ */
+final class OfflineNameIndex {
+
+	/**
+	 * Lowercased name to name with its last update
+	 */
+	private final ConcurrentSkipListMap<String, NameEntry> names = new ConcurrentSkipListMap<>();
+	private volatile Instant latestUpdate;
+
+	private record NameEntry(String name, Instant updated) { }
+
+	/**
+	 * Adds or updates a name
+	 *
+	 * @param name the player name
+	 * @param updated when the player last joined with the name
+	 */
+	void add(String name, Instant updated) {
+		names.merge(name.toLowerCase(Locale.ROOT), new NameEntry(name, updated), (oldEntry, newEntry) -> {
+			return newEntry.updated().isBefore(oldEntry.updated()) ? oldEntry : newEntry;
+		});
+		Instant latestUpdate = this.latestUpdate;
+		if (latestUpdate == null || updated.isAfter(latestUpdate)) {
+			this.latestUpdate = updated;
+		}
+	}
+
+	/**
+	 * Removes names last updated at or before the given cutoff
+	 *
+	 * @param cutoff the cutoff
+	 */
+	void evictUpTo(Instant cutoff) {
+		names.values().removeIf((entry) -> !entry.updated().isAfter(cutoff));
+	}
+
+	/**
+	 * Gets the latest update time of any name in the index
+	 *
+	 * @return the latest update, or null if nothing has been added yet
+	 */
+	Instant latestUpdate() {
+		return latestUpdate;
+	}
+
+	/**
+	 * Finds names starting with the given prefix, in alphabetical order
+	 *
+	 * @param prefix the prefix, in any case. May be empty
+	 * @param limit the maximum amount of names to return
+	 * @return the names starting with the prefix
+	 */
+	Stream<String> complete(String prefix, int limit) {
+		String lowerPrefix = prefix.toLowerCase(Locale.ROOT);
+		NavigableMap<String, NameEntry> matching;
+		if (lowerPrefix.isEmpty()) {
+			matching = names;
+		} else {
+			matching = names.subMap(lowerPrefix, true, lowerPrefix + Character.MAX_VALUE, false);
+		}
+		return matching.values().stream().limit(limit).map(NameEntry::name);
+	}
+
+	/**
+	 * Passes every name with its last update to the given action
+	 *
+	 * @param action the action
+	 */
+	void forEach(BiConsumer<String, Instant> action) {
+		names.values().forEach((entry) -> action.accept(entry.name(), entry.updated()));
+	}
+
+	int size() {
+		return names.size();
+	}
+
+}
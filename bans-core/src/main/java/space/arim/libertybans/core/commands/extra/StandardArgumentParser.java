@@ -28,6 +28,7 @@ import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Operator;
 import space.arim.libertybans.api.PlayerOperator;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.formatter.PunishmentFormatter;
 import space.arim.libertybans.api.scope.ServerScope;
@@ -134,6 +135,10 @@ public class StandardArgumentParser implements ArgumentParser {
 		if (parsedAddress != null) {
 			return completedFuture(AddressVictim.of(parsedAddress));
 		}
+		RangeVictim parsedRange = AddressParser.parseIpv4Range(targetArg);
+		if (parsedRange != null) {
+			return completedFuture(parsedRange);
+		}
 		Victim.VictimType preferredType = how.preferredType();
 		return switch (preferredType) {
 			case PLAYER -> parseOrLookupUUID(sender, targetArg).thenApply((uuid) -> {
@@ -152,6 +157,8 @@ public class StandardArgumentParser implements ArgumentParser {
 				}
 				return CompositeVictim.of(uuidAndAddress.uuid(), uuidAndAddress.address());
 			});
+			// Ranges are only given explicitly, and therefore parsed above
+			case RANGE -> throw new IllegalArgumentException("Cannot look up a range from " + targetArg);
 		};
 	}
 
@@ -19,6 +19,7 @@
 
 package space.arim.libertybans.core.commands.extra;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
 import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.inject.Inject;
@@ -32,14 +33,18 @@ import space.arim.libertybans.core.database.InternalDatabase;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.env.CmdSender;
 import space.arim.libertybans.core.service.Time;
+import space.arim.omnibus.util.concurrent.CentralisedFuture;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
+import static org.jooq.impl.DSL.noCondition;
 import static space.arim.libertybans.core.schema.tables.Names.NAMES;
 
 @Singleton
@@ -49,7 +54,20 @@ public final class StandardTabCompletion implements TabCompletion {
 	private final Provider<InternalDatabase> dbProvider;
 	private final Time time;
 
-	private AsyncLoadingCache<Boolean, Set<String>> nameCache;
+	private AsyncLoadingCache<Boolean, OfflineNameIndex> nameCache;
+	private OfflineNameIndex restoredIndex;
+
+	/**
+	 * The maximum amount of offline player names to suggest at once
+	 */
+	static final int MAX_OFFLINE_NAME_COMPLETIONS = 100;
+
+	/*
+	Names written by other instances may carry timestamps slightly older than the latest update,
+	either because their clocks run behind or because their transactions committed late.
+	This allowance accounts for clock desynchronization and server lag.
+	 */
+	private static final Duration UPDATE_OVERLAP_ALLOWANCE = Duration.ofSeconds(30L);
 
 	@Inject
 	public StandardTabCompletion(Configs configs, Provider<InternalDatabase> dbProvider, Time time) {
@@ -64,18 +82,21 @@ public final class StandardTabCompletion implements TabCompletion {
 		if (config.enable()) {
 			Duration retention = Duration.ofMinutes(config.retentionMinutes());
 			Duration cacheRefresh = Duration.ofSeconds(config.cacheRefreshSeconds());
-			AsyncLoadingCache<Boolean, Set<String>> nameCache = Caffeine.newBuilder()
+			OfflineNameIndex initialIndex = (restoredIndex == null) ? new OfflineNameIndex() : restoredIndex;
+			restoredIndex = null;
+			AsyncLoadingCache<Boolean, OfflineNameIndex> nameCache = Caffeine.newBuilder()
 					.refreshAfterWrite(cacheRefresh)
-					.buildAsync((key, executor) -> {
-						InternalDatabase database = dbProvider.get();
-						Instant currentTimeMinusRetention = time.currentTimestamp().minus(retention);
-						return database.query(SQLFunction.readOnly((context) -> {
-							return Set.copyOf(context
-									.select(NAMES.NAME)
-									.from(NAMES)
-									.where(NAMES.UPDATED.greaterThan(currentTimeMinusRetention))
-									.fetchSet(NAMES.NAME));
-						}));
+					.buildAsync(new AsyncCacheLoader<>() {
+						@Override
+						public CentralisedFuture<OfflineNameIndex> asyncLoad(Boolean key, Executor executor) {
+							return updateIndex(initialIndex, retention, cacheRefresh);
+						}
+
+						@Override
+						public CentralisedFuture<OfflineNameIndex> asyncReload(Boolean key, OfflineNameIndex oldValue,
+																			  Executor executor) {
+							return updateIndex(oldValue, retention, cacheRefresh);
+						}
 					});
 			// Load initial value
 			nameCache.get(Boolean.TRUE).join();
@@ -85,6 +106,33 @@ public final class StandardTabCompletion implements TabCompletion {
 		}
 	}
 
+	/*
+	 * Rather than reloading every name, query only those names updated since the last refresh.
+	 * The query overlaps with the previous refresh; names queried again are deduplicated by the index
+	 */
+	private CentralisedFuture<OfflineNameIndex> updateIndex(OfflineNameIndex index, Duration retention,
+															 Duration cacheRefresh) {
+		InternalDatabase database = dbProvider.get();
+		Instant currentTimeMinusRetention = time.currentTimestamp().minus(retention);
+		Instant latestUpdate = index.latestUpdate();
+		Instant updatedSince = (latestUpdate == null) ?
+				null : latestUpdate.minus(cacheRefresh).minus(UPDATE_OVERLAP_ALLOWANCE);
+		return database.query(SQLFunction.readOnly((context) -> {
+			return context
+					.select(NAMES.NAME, NAMES.UPDATED)
+					.from(NAMES)
+					.where(NAMES.UPDATED.greaterThan(currentTimeMinusRetention))
+					.and((updatedSince == null) ? noCondition() : NAMES.UPDATED.greaterOrEqual(updatedSince))
+					.fetch();
+		})).thenApply((newNames) -> {
+			index.evictUpTo(currentTimeMinusRetention);
+			for (var newName : newNames) {
+				index.add(newName.value1(), newName.value2());
+			}
+			return index;
+		});
+	}
+
 	@Override
 	public void restart() {
 		startup();
@@ -95,6 +143,25 @@ public final class StandardTabCompletion implements TabCompletion {
 		nameCache = null;
 	}
 
+	@Override
+	public Map<String, Instant> exportOfflinePlayerNames() {
+		var nameCache = this.nameCache;
+		OfflineNameIndex index;
+		if (nameCache == null || (index = nameCache.synchronous().getIfPresent(Boolean.TRUE)) == null) {
+			return Map.of();
+		}
+		Map<String, Instant> names = new HashMap<>(index.size());
+		index.forEach(names::put);
+		return names;
+	}
+
+	@Override
+	public void restoreOfflinePlayerNames(Map<String, Instant> names) {
+		OfflineNameIndex index = new OfflineNameIndex();
+		names.forEach(index::add);
+		restoredIndex = index;
+	}
+
 	@Override
 	public Stream<String> completeOnlinePlayerNames(CmdSender sender) {
 		if (configs.getMainConfig().commands().tabCompletion().useOnlyPlayersOnSameServer()) {
@@ -104,11 +171,12 @@ public final class StandardTabCompletion implements TabCompletion {
 	}
 
 	@Override
-	public Stream<String> completeOfflinePlayerNames(CmdSender sender) {
+	public Stream<String> completeOfflinePlayerNames(CmdSender sender, String prefix) {
 		if (nameCache == null) {
 			return completeOnlinePlayerNames(sender);
 		}
-		return nameCache.get(Boolean.TRUE).orTimeout(1L, TimeUnit.MILLISECONDS).join().stream();
+		return nameCache.get(Boolean.TRUE).orTimeout(1L, TimeUnit.MILLISECONDS).join()
+				.complete(prefix, MAX_OFFLINE_NAME_COMPLETIONS);
 	}
 
 	@Override
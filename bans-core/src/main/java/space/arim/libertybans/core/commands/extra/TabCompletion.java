@@ -23,6 +23,8 @@ import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.core.Part;
 import space.arim.libertybans.core.env.CmdSender;
 
+import java.time.Instant;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -34,8 +36,36 @@ public interface TabCompletion extends Part {
 
 	Stream<String> completeOnlinePlayerNames(CmdSender sender);
 
-	Stream<String> completeOfflinePlayerNames(CmdSender sender);
+	/**
+	 * Completes the names of players who have recently joined, if enabled, or else the names
+	 * of online players. <br>
+	 * <br>
+	 * Offline player names are looked up using the prefix, and the amount of names returned may be limited.
+	 * Online player names need not be filtered by the prefix.
+	 *
+	 * @param sender the command sender
+	 * @param prefix the start of the name typed so far, lowercased. May be empty
+	 * @return the player names
+	 */
+	Stream<String> completeOfflinePlayerNames(CmdSender sender, String prefix);
 
 	Stream<String> completePunishmentDurations(CmdSender sender, PunishmentType type);
 
+	/**
+	 * Gets the names of recently joined players, if offline player names are enabled
+	 *
+	 * @return the player names and when they last joined, or an empty map if not enabled
+	 */
+	Map<String, Instant> exportOfflinePlayerNames();
+
+	/**
+	 * Supplies the names of recently joined players saved by a previous run. When the names
+	 * are first loaded, only names updated since then are queried. <br>
+	 * <br>
+	 * Must be called before startup.
+	 *
+	 * @param names the player names and when they last joined
+	 */
+	void restoreOfflinePlayerNames(Map<String, Instant> names);
+
 }
@@ -32,6 +32,7 @@ import space.arim.libertybans.api.Operator;
 import space.arim.libertybans.api.PlayerOperator;
 import space.arim.libertybans.api.PlayerVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.EscalationTrack;
 import space.arim.libertybans.api.punish.Punishment;
@@ -305,6 +306,8 @@ public class Formatter implements InternalFormatter {
 			uuid = playerVictim.getUUID();
 		} else if (victim instanceof AddressVictim addressVictim) {
 			return formatAddressVictim(addressVictim);
+		} else if (victim instanceof RangeVictim rangeVictim) {
+			return formatRangeVictim(rangeVictim);
 		} else if (victim instanceof CompositeVictim compositeVictim) {
 			uuid = compositeVictim.getUUID();
 		} else {
@@ -320,6 +323,8 @@ public class Formatter implements InternalFormatter {
 			uuid = playerVictim.getUUID();
 		} else if (victim instanceof AddressVictim addressVictim) {
 			return futuresFactory.completedFuture(formatAddressVictim(addressVictim));
+		} else if (victim instanceof RangeVictim rangeVictim) {
+			return futuresFactory.completedFuture(formatRangeVictim(rangeVictim));
 		} else if (victim instanceof CompositeVictim compositeVictim) {
 			uuid = compositeVictim.getUUID();
 		} else {
@@ -361,6 +366,10 @@ public class Formatter implements InternalFormatter {
 		return addressVictim.getAddress().toString();
 	}
 
+	private String formatRangeVictim(RangeVictim rangeVictim) {
+		return rangeVictim.getNetwork() + "/" + rangeVictim.getPrefixLength();
+	}
+
 	/** Visible for testing */
 	String formatRelative(long diff) {
 		if (diff < 0) {
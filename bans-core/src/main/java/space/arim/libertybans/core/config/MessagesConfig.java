@@ -184,9 +184,14 @@ public interface MessagesConfig {
 			@DefaultString("&7Import has started. View your server console for details and progress.")
 			Component started();
 
-			@DefaultString("&cUsage: /libertybans import <advancedban|litebans|vanilla|self>")
+			@DefaultString("&cUsage: /libertybans import <advancedban|banmanager|litebans|vanilla|self> [resume]")
 			Component usage();
 
+			@ConfKey("no-checkpoint")
+			@ConfComments("Sent when resuming an import, but there is no saved progress from a previous import.")
+			@DefaultString("&cThere is no interrupted import to resume for this source.")
+			Component noCheckpoint();
+
 			@DefaultString("&7Import completed.")
 			Component complete();
 
@@ -20,6 +20,7 @@
 package space.arim.libertybans.core.config;
 
 import space.arim.dazzleconf.annote.ConfComments;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultBoolean;
 import space.arim.dazzleconf.annote.ConfDefault.DefaultInteger;
 import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
 import space.arim.dazzleconf.annote.ConfHeader;
@@ -133,4 +134,140 @@ public interface SqlConfig extends DatabaseSettingsConfig {
 		}
 	}
 
+	@ConfKey("read-replica")
+	@SubSection
+	ReadReplica readReplica();
+
+	@ConfHeader({"Settings for routing read-only queries to a read replica of your database.",
+			"Most queries, such as checking mutes and running commands, only read data.",
+			"If your MariaDB, MySQL, or PostgreSQL database has a replica, these queries may be sent to it,",
+			"thereby reducing load on the primary database.",
+			"",
+			"Queries which write data, including checking bans when players join, always use the primary database.",
+			"This option has no effect when using HSQLDB."})
+	interface ReadReplica {
+
+		@ConfComments("Whether to use a read replica")
+		@DefaultBoolean(false)
+		boolean enable();
+
+		@ConfKey("auth-details")
+		@SubSection
+		@ConfComments({"Authentication details for the replica. The other connection settings, including",
+				"the connection properties and timeouts, are the same as for the primary database."})
+		AuthDetails authDetails();
+
+		@ConfKey("connection-pool-size")
+		@ConfComments("How large should the connection pool for the replica be?")
+		@IntegerRange(min = 1)
+		@DefaultInteger(4)
+		int poolSize();
+
+		@ConfKey("enforcement-reads-on-replica")
+		@ConfComments({"Replicas may lag behind the primary database.",
+				"",
+				"Some read-only queries are used to enforce punishments, such as checking whether a player is muted,",
+				"or checking bans when a player switches server on a proxy. If the replica lags behind, a recently",
+				"punished player might be let through.",
+				"",
+				"If this option is disabled, those queries use the primary database, and only queries tolerant of",
+				"stale data, such as those for commands, are sent to the replica.",
+				"Enable this if your replica is synchronous or you accept the delay."})
+		@DefaultBoolean(false)
+		boolean enforcementReadsOnReplica();
+
+		@ConfKey("retry-replica-after-seconds")
+		@ConfComments({"If the replica becomes unreachable, queries automatically fail back to the primary database.",
+				"After this many seconds, the replica will be tried again."})
+		@IntegerRange(min = 1)
+		@DefaultInteger(30)
+		int retryReplicaAfterSeconds();
+
+	}
+
+	@ConfKey("warm-start-snapshot")
+	@SubSection
+	WarmStartSnapshot warmStartSnapshot();
+
+	@ConfHeader({"Settings for saving caches when the server stops, and loading them when it starts.",
+			"Right after a restart, many players join at once. With this option, their names",
+			"and the absence of mutes are already known, which spares the database many queries.",
+			"",
+			"The snapshot is a small file in the plugin folder. Information which may be outdated",
+			"is never used: if any punishment was added in the meantime, cached mute information",
+			"is discarded. For the same reason, mute information is never kept if mysql-id-block-size",
+			"is enabled, since added punishments cannot then be detected."})
+	interface WarmStartSnapshot {
+
+		@ConfComments("Whether to save and load cache snapshots")
+		@DefaultBoolean(false)
+		boolean enable();
+
+		@ConfKey("max-age-minutes")
+		@ConfComments({"Snapshots older than this are ignored when the server starts.",
+				"Caches are only useful if players are likely to rejoin soon after the restart."})
+		@DefaultInteger(10)
+		@IntegerRange(min = 1)
+		int maxAgeMinutes();
+
+	}
+
+	@SubSection
+	Archive archive();
+
+	@ConfHeader({"Settings for moving old punishments to archive tables.",
+			"After many years, most of the punishment history is long expired and rarely looked at.",
+			"Archiving moves such punishments out of the main tables, which keeps those tables small",
+			"and the queries on them fast.",
+			"",
+			"Archived punishments are no longer shown by commands such as /history. They remain in the",
+			"database, and plugins may still select them through the API.",
+			"Escalation tracks continue to count archived punishments."})
+	interface Archive {
+
+		@ConfComments("Whether to archive old punishments")
+		@DefaultBoolean(false)
+		boolean enable();
+
+		@ConfKey("archive-after-days")
+		@ConfComments({"Punishments are archived this many days after they expire.",
+				"Kicks are archived this many days after they are issued.",
+				"Permanent punishments are never archived, even if revoked."})
+		@DefaultInteger(365)
+		@IntegerRange(min = 1)
+		int archiveAfterDays();
+
+		@ConfKey("batch-size")
+		@ConfComments({"How many punishments are moved per transaction.",
+				"Smaller batches hold locks for less time, but take longer overall."})
+		@DefaultInteger(1000)
+		@IntegerRange(min = 1)
+		int batchSize();
+
+	}
+
+	@ConfKey("reserved-enforcement-connections")
+	@ConfComments({"How many connections of the connection pool should be reserved for enforcement?",
+			"Checking bans when players join, and checking mutes when players chat, take priority over",
+			"other queries. Additionally, these connections are used for nothing else, so that enforcement",
+			"need not wait when other queries, such as lengthy /history listings, occupy the remaining pool.",
+			"",
+			"This is always less than the connection pool size. Set to 0 to disable the reservation."})
+	@DefaultInteger(2)
+	@IntegerRange(min = 0)
+	int reservedEnforcementConnections();
+
+	@ConfKey("mysql-id-block-size")
+	@ConfComments({"Applies to MySQL only, which lacks native sequences.",
+			"How many punishment, victim, scope, and track IDs are reserved at once?",
+			"",
+			"Each server reserves a block of IDs in a short separate transaction, then hands them out itself.",
+			"This keeps the shared sequence tables out of punishment transactions, which otherwise contend",
+			"on them. Unused IDs in a block are skipped when the server restarts.",
+			"",
+			"An extra database connection is used to reserve blocks. Set to 0 to disable."})
+	@DefaultInteger(20)
+	@IntegerRange(min = 0)
+	int mysqlIdBlockSize();
+
 }
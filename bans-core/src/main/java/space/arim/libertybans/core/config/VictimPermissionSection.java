@@ -40,6 +40,10 @@ public interface VictimPermissionSection {
 	@ConfDefault.DefaultString("&cYou may not do this to players and their IP addresses.")
 	Component both();
 
+	@ConfKey("ip-range")
+	@ConfDefault.DefaultString("&cYou may not do this to IP address ranges.")
+	Component ipRange();
+
 	interface WithDuration extends VictimPermissionSection {
 
 		@ConfDefault.DefaultString("&cYou may not do this for &e%DURATION%&c.")
@@ -48,7 +48,8 @@ public final class DatabaseConstants {
 	public static Table<?>[] allTables(TableOrder tableOrder) {
 		// Referees first, referents last with respect to foreign keys
 		Table<?>[] tables = new Table[] {
-				NAMES, ADDRESSES, HISTORY, BANS, MUTES, WARNS, PUNISHMENTS, VICTIMS, MESSAGES, REVISION
+				IMPORT_PROGRESS, NAMES, ADDRESSES, TRACK_COUNTS, WARN_COUNTS, ARCHIVED_PUNISHMENTS, HISTORY, BANS, MUTES, WARNS, PUNISHMENTS,
+				VICTIMS, MESSAGES, REVISION
 		};
 		if (tableOrder == TableOrder.REFERENTS_FIRST) {
 			// Reverse array
@@ -85,7 +86,8 @@ public final class DatabaseConstants {
 		return new Table[] {
 				LATEST_NAMES, LATEST_ADDRESSES, STRICT_LINKS,
 				APPLICABLE_ACTIVE, APPLICABLE_HISTORY, APPLICABLE_BANS, APPLICABLE_MUTES, APPLICABLE_WARNS,
-				SIMPLE_ACTIVE, SIMPLE_HISTORY, SIMPLE_BANS, SIMPLE_MUTES, SIMPLE_WARNS
+				SIMPLE_ACTIVE, SIMPLE_HISTORY, SIMPLE_BANS, SIMPLE_MUTES, SIMPLE_WARNS,
+				SIMPLE_ARCHIVE, SIMPLE_FULL_HISTORY, APPLICABLE_FULL_HISTORY
 		};
 	}
 }
@@ -51,7 +51,15 @@ public final class DatabaseRequirements {
 		return databaseProductVersion.toLowerCase(Locale.ROOT).contains("mariadb");
 	}
 
-	public boolean checkRequirementsAndYieldRetroSupport() throws SQLException {
+	/**
+	 * Checks database requirements
+	 *
+	 * @param checkGrants whether to check the privileges of the database user. Full privileges are
+	 *                    needed to migrate the schema, so this check may be skipped if no migration is due
+	 * @return whether retro support is needed
+	 * @throws SQLException if a database error occurred
+	 */
+	public boolean checkRequirementsAndYieldRetroSupport(boolean checkGrants) throws SQLException {
 		if (vendor == Vendor.MARIADB && !isMariaDbPerMetadata()) {
 			throw specifyThisVendorInstead(Vendor.MYSQL);
 		}
@@ -59,7 +67,9 @@ public final class DatabaseRequirements {
 			throw specifyThisVendorInstead(Vendor.MARIADB);
 		}
 		boolean needsRetroSupport = checkVersionRequirementsAndYieldRetroSupport();
-		checkGrants();
+		if (checkGrants) {
+			checkGrants();
+		}
 		return needsRetroSupport;
 	}
 
@@ -26,8 +26,6 @@ import java.sql.Connection;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,7 +37,11 @@ import space.arim.libertybans.core.database.flyway.MigrateWithFlyway;
 import space.arim.libertybans.core.database.flyway.MigrationFailedException;
 import space.arim.libertybans.core.database.jooq.JooqClassloading;
 import space.arim.libertybans.core.database.jooq.JooqContext;
+import space.arim.libertybans.core.database.execute.ConnectionReservation;
 import space.arim.libertybans.core.database.execute.JooqQueryExecutor;
+import space.arim.libertybans.core.database.execute.PrioritizedThreadPool;
+import space.arim.libertybans.core.database.execute.ReplicaRouting;
+import space.arim.libertybans.core.database.sql.SequenceBlockAllocator;
 import space.arim.libertybans.core.service.SimpleThreadFactory;
 import space.arim.omnibus.util.ThisClass;
 
@@ -59,7 +61,6 @@ public class DatabaseSettings {
 
 	private DatabaseSettingsConfig config;
 	private Vendor vendor;
-	private HikariConfig hikariConf;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
@@ -86,8 +87,68 @@ public class DatabaseSettings {
 	public HikariDataSource createDataSource(DatabaseSettingsConfig config) {
 		this.config = config;
 		vendor = config.vendor();
-		hikariConf = new HikariConfig();
-		setHikariConfig();
+		HikariConfig hikariConf = new HikariConfig();
+		setHikariConfig(hikariConf, config.authDetails(), config.poolSize());
+		hikariConf.setPoolName("LibertyBansPool-" + vendor);
+		return new HikariDataSource(hikariConf);
+	}
+
+	/**
+	 * Creates a single-connection pool for reserving blocks of sequence values. Must be called after
+	 * {@link #createDataSource(DatabaseSettingsConfig)}. <br>
+	 * <br>
+	 * Blocks are reserved while holding the lock for the sequence, so the connection must not
+	 * wait behind queries and batches occupying the main pool.
+	 *
+	 * @return the data source
+	 */
+	private HikariDataSource createSequenceDataSource() {
+		HikariConfig hikariConf = new HikariConfig();
+		setHikariConfig(hikariConf, config.authDetails(), 1);
+		hikariConf.setPoolName("LibertyBansSequencePool-" + vendor);
+		return new HikariDataSource(hikariConf);
+	}
+
+	/**
+	 * The block size for sequence values, or 0 if sequence values are not allocated in blocks.
+	 * Must be called after the vendor is determined
+	 *
+	 * @return the block size
+	 */
+	private int sequenceBlockSize() {
+		if (vendor == Vendor.MYSQL && config instanceof SqlConfig sqlConfig) {
+			return sqlConfig.mysqlIdBlockSize();
+		}
+		return 0;
+	}
+
+	/**
+	 * Creates a data source connection pool for the read replica. Must be called after
+	 * {@link #createDataSource(DatabaseSettingsConfig)}
+	 *
+	 * @param readReplica the replica config
+	 * @return the data source, or null if the replica is not enabled or not applicable
+	 */
+	private HikariDataSource createReplicaDataSource(SqlConfig.ReadReplica readReplica) {
+		if (!readReplica.enable()) {
+			return null;
+		}
+		if (!vendor.isRemote()) {
+			logger.warn("A read replica is configured, but a local database is used. Ignoring the replica.");
+			return null;
+		}
+		SqlConfig.AuthDetails authDetails = readReplica.authDetails();
+		if (authDetails.username().equals("defaultuser") || authDetails.password().equals("defaultpass")) {
+			logger.warn("The read replica authentication details are still set to the default values. " +
+					"Ignoring the replica.");
+			return null;
+		}
+		HikariConfig hikariConf = new HikariConfig();
+		setHikariConfig(hikariConf, authDetails, readReplica.poolSize());
+		hikariConf.setPoolName("LibertyBansReplicaPool-" + vendor);
+		hikariConf.setReadOnly(true);
+		// Start even if the replica is unreachable. Queries will fail back to the primary
+		hikariConf.setInitializationFailTimeout(-1L);
 		return new HikariDataSource(hikariConf);
 	}
 
@@ -99,22 +160,61 @@ public class DatabaseSettings {
 	 */
 	public DatabaseResult create(DatabaseSettingsConfig config) {
 		HikariDataSource hikariDataSource = createDataSource(config);
+		MigrateWithFlyway migrateWithFlyway = new MigrateWithFlyway(hikariDataSource, vendor);
+		// Fast path: if the schema is up-to-date, there is no need to run Flyway
+		boolean schemaCurrent = migrateWithFlyway.isSchemaCurrent(new JooqContext(vendor.dialect()));
 		// Check database compatibility and provide retro support if necessary
-		boolean retroSupport = checkCompatibilityAndYieldRetroSupport(hikariDataSource);
+		boolean retroSupport = checkCompatibilityAndYieldRetroSupport(hikariDataSource, !schemaCurrent);
 
 		JooqContext jooqContext = new JooqContext(vendor.dialect(), retroSupport);
-		ExecutorService threadPool = Executors.newFixedThreadPool(
-				hikariConf.getMaximumPoolSize(),
+		// Migrations keep incrementing sequences directly
+		JooqContext queryJooqContext = jooqContext;
+		HikariDataSource sequenceDataSource = null;
+		int sequenceBlockSize = sequenceBlockSize();
+		if (sequenceBlockSize != 0) {
+			sequenceDataSource = createSequenceDataSource();
+			queryJooqContext = new JooqContext(
+					vendor.dialect(), retroSupport, new SequenceBlockAllocator(sequenceDataSource, sequenceBlockSize)
+			);
+		}
+		HikariDataSource replicaDataSource = null;
+		ReplicaRouting replicaRouting = null;
+		int threadPoolSize = config.poolSize();
+		int reservedThreads = 0;
+		if (config instanceof SqlConfig sqlConfig) {
+			// Leave at least one thread for other queries
+			reservedThreads = Math.min(sqlConfig.reservedEnforcementConnections(), threadPoolSize - 1);
+		}
+		if (config instanceof SqlConfig sqlConfig
+				&& (replicaDataSource = createReplicaDataSource(sqlConfig.readReplica())) != null) {
+			SqlConfig.ReadReplica readReplica = sqlConfig.readReplica();
+			replicaRouting = new ReplicaRouting(
+					replicaDataSource, readReplica.enforcementReadsOnReplica(),
+					Duration.ofSeconds(readReplica.retryReplicaAfterSeconds())
+			);
+			threadPoolSize += replicaDataSource.getMaximumPoolSize();
+		}
+		PrioritizedThreadPool threadPool = new PrioritizedThreadPool(
+				threadPoolSize, reservedThreads,
 				SimpleThreadFactory.create("Database")
 		);
+		// Threads alone do not reserve connections, since other threads fail back from the replica,
+		// and imports and maintenance take connections outside the thread pool
+		ConnectionReservation connections = new ConnectionReservation(
+				hikariDataSource, config.poolSize(), reservedThreads,
+				Duration.ofMillis(hikariDataSource.getConnectionTimeout())
+		);
 		StandardDatabase database  = new StandardDatabase(
-				manager, vendor, hikariDataSource,
-				new JooqQueryExecutor(jooqContext, hikariDataSource, manager.futuresFactory(), threadPool),
+				manager, vendor, hikariDataSource, replicaDataSource, sequenceDataSource, connections,
+				new JooqQueryExecutor(queryJooqContext, connections, manager.futuresFactory(), threadPool, replicaRouting),
 				threadPool
 		);
 
 		JooqClassloading jooqClassloading = new JooqClassloading(jooqContext);
-		MigrateWithFlyway migrateWithFlyway = new MigrateWithFlyway(hikariDataSource, vendor);
+		if (schemaCurrent) {
+			logger.debug("Database schema is up-to-date; skipping migration");
+			return new DatabaseResult(database, jooqClassloading, true);
+		}
 		try {
 			migrateWithFlyway.migrate(jooqContext);
 		} catch (MigrationFailedException ex) {
@@ -125,7 +225,7 @@ public class DatabaseSettings {
 		return new DatabaseResult(database, jooqClassloading, true);
 	}
 
-	private boolean checkCompatibilityAndYieldRetroSupport(HikariDataSource dataSource) {
+	private boolean checkCompatibilityAndYieldRetroSupport(HikariDataSource dataSource, boolean willMigrate) {
 		if (Boolean.getBoolean("libertybans.database.disablecheck")) {
 			return false;
 		}
@@ -134,7 +234,7 @@ public class DatabaseSettings {
 
 			return new DatabaseRequirements(
 					vendor, connection
-			).checkRequirementsAndYieldRetroSupport();
+			).checkRequirementsAndYieldRetroSupport(willMigrate);
 
 		} catch (java.sql.SQLException ex) {
 			throw new IllegalStateException(
@@ -142,9 +242,9 @@ public class DatabaseSettings {
 		}
 	}
 
-	private void setHikariConfig() {
-		setUsernameAndPassword();
-		setConfiguredDriver();
+	private void setHikariConfig(HikariConfig hikariConf, SqlConfig.AuthDetails authDetails, int poolSize) {
+		setUsernameAndPassword(hikariConf, authDetails);
+		setConfiguredDriver(hikariConf, authDetails);
 
 		// Timeouts
 		SqlConfig.Timeouts timeouts = config.timeouts();
@@ -154,20 +254,17 @@ public class DatabaseSettings {
 		hikariConf.setMaxLifetime(maxLifetime.toMillis());
 
 		// Pool size
-		int poolSize = config.poolSize();
 		hikariConf.setMinimumIdle(poolSize);
 		hikariConf.setMaximumPoolSize(poolSize);
 
 		// Other settings
 		hikariConf.setAutoCommit(DatabaseConstants.AUTOCOMMIT);
 		hikariConf.setTransactionIsolation("TRANSACTION_REPEATABLE_READ");
-		hikariConf.setPoolName("LibertyBansPool-" + vendor);
 		hikariConf.setConnectionInitSql(vendor.getConnectionInitSql());
 		hikariConf.setIsolateInternalQueries(true);
 	}
 
-	private void setUsernameAndPassword() {
-		SqlConfig.AuthDetails authDetails = config.authDetails();
+	private void setUsernameAndPassword(HikariConfig hikariConf, SqlConfig.AuthDetails authDetails) {
 		String username = authDetails.username();
 		String password = authDetails.password();
 		if (vendor.isRemote() && (username.equals("defaultuser") || password.equals("defaultpass"))) {
@@ -183,11 +280,11 @@ public class DatabaseSettings {
 		hikariConf.setPassword(password);
 	}
 
-	private void setConfiguredDriver() {
-		String jdbcUrl = getBaseUrl() + getUrlProperties();
+	private void setConfiguredDriver(HikariConfig hikariConf, SqlConfig.AuthDetails authDetails) {
+		String jdbcUrl = getBaseUrl(authDetails) + getUrlProperties();
 
 		if (config.useTraditionalJdbcUrl()) {
-			setDriverClassName(vendor.driver.driverClassName());
+			setDriverClassName(hikariConf, vendor.driver.driverClassName());
 			hikariConf.setJdbcUrl(jdbcUrl);
 
 		} else {
@@ -196,10 +293,9 @@ public class DatabaseSettings {
 		}
 	}
 
-	private String getBaseUrl() {
+	private String getBaseUrl(SqlConfig.AuthDetails authDetails) {
 		return switch (vendor) {
 			case MARIADB, MYSQL, POSTGRES, COCKROACH -> {
-				SqlConfig.AuthDetails authDetails = config.authDetails();
 				String host = authDetails.host();
 				int port = authDetails.port();
 				String database = authDetails.database();
@@ -293,9 +389,10 @@ public class DatabaseSettings {
 	/**
 	 * Sets the driver class name utilizing the context classloader
 	 * 
+	 * @param hikariConf the Hikari config
 	 * @param driverClassName the driver class name
 	 */
-	private void setDriverClassName(String driverClassName) {
+	private void setDriverClassName(HikariConfig hikariConf, String driverClassName) {
 		Thread currentThread = Thread.currentThread();
 		ClassLoader initialContextLoader = currentThread.getContextClassLoader();
 		currentThread.setContextClassLoader(getClass().getClassLoader());
@@ -22,11 +22,14 @@ package space.arim.libertybans.core.database;
 import org.jooq.DSLContext;
 import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.database.PunishmentDatabase;
+import space.arim.libertybans.core.database.execute.PrioritizedThreadPool;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
+import space.arim.libertybans.core.database.execute.QueryPriority;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Instant;
+import java.util.Map;
 
 public interface InternalDatabase extends QueryExecutor {
 
@@ -49,4 +52,11 @@ public interface InternalDatabase extends QueryExecutor {
 	 * @throws SQLException if the connection could not be acquired
 	 */
 	Connection getConnection() throws SQLException;
+
+	/**
+	 * Gets the time queries have spent waiting for a database thread, for each priority
+	 *
+	 * @return the queue wait statistics for each priority
+	 */
+	Map<QueryPriority, PrioritizedThreadPool.QueueWait> queueWaits();
 }
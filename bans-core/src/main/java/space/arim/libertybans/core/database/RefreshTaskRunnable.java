@@ -22,6 +22,8 @@ package space.arim.libertybans.core.database;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.core.config.SqlConfig;
+import space.arim.libertybans.core.database.sql.PunishmentArchive;
 import space.arim.libertybans.core.punish.MiscUtil;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.ThisClass;
@@ -34,7 +36,8 @@ import java.time.Instant;
 import static space.arim.libertybans.core.schema.tables.Messages.MESSAGES;
 
 /**
- * Responsible for periodically purging expired punishments and expired messages
+ * Responsible for periodically purging expired punishments and expired messages,
+ * and for moving old expired punishments to the archive if enabled
  *
  */
 public final class RefreshTaskRunnable implements Runnable {
@@ -75,6 +78,10 @@ public final class RefreshTaskRunnable implements Runnable {
 					database.clearExpiredPunishments(context, type, currentTime);
 				});
 			}
+			SqlConfig.Archive archiveConf = manager.configs().getSqlConfig().archive();
+			if (archiveConf.enable()) {
+				archiveOldPunishments(connection, currentTime, archiveConf);
+			}
 			if (manager.configs().getSqlConfig().synchronization().enabled()) {
 				Instant deleteMessagesBefore = currentTime.minus(MESSAGE_EXPIRATION_TIME);
 				database.executeWithExistingConnection(connection, (context, transaction) -> {
@@ -90,4 +97,22 @@ public final class RefreshTaskRunnable implements Runnable {
 			logger.warn("Failed to clear expired punishments or messages", ex);
 		}
 	}
+
+	private void archiveOldPunishments(Connection connection, Instant currentTime,
+									   SqlConfig.Archive archiveConf) throws SQLException {
+		Instant archiveBefore = currentTime.minus(Duration.ofDays(archiveConf.archiveAfterDays()));
+		int batchSize = archiveConf.batchSize();
+		// Archive in bounded batches so that no single transaction holds locks for too long
+		int totalArchived = 0;
+		int[] archived = new int[1];
+		do {
+			database.executeWithExistingConnection(connection, (context, transaction) -> {
+				archived[0] = new PunishmentArchive(context).archiveExpired(archiveBefore, batchSize);
+			});
+			totalArchived += archived[0];
+		} while (archived[0] == batchSize);
+		if (totalArchived != 0) {
+			logger.info("Archived {} punishments which expired before {}", totalArchived, archiveBefore);
+		}
+	}
 }
@@ -27,12 +27,16 @@ import org.slf4j.LoggerFactory;
 import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.database.PunishmentDatabase;
 import space.arim.libertybans.bootstrap.plugin.PluginInfo;
+import space.arim.libertybans.core.database.execute.ConnectionReservation;
+import space.arim.libertybans.core.database.execute.PrioritizedThreadPool;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
+import space.arim.libertybans.core.database.execute.QueryPriority;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.database.execute.SQLRunnable;
 import space.arim.libertybans.core.database.execute.SQLTransactionalFunction;
 import space.arim.libertybans.core.database.execute.SQLTransactionalRunnable;
 import space.arim.libertybans.core.database.sql.TableForType;
+import space.arim.libertybans.core.database.sql.WarnCounts;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
@@ -44,19 +48,23 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Map;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import static space.arim.libertybans.core.schema.Tables.PUNISHMENTS;
+import static space.arim.libertybans.core.schema.Tables.WARNS;
 
 public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 
 	private final DatabaseManager manager;
 	private final Vendor vendor;
 	private final HikariDataSource dataSource;
+	private final HikariDataSource replicaDataSource;
+	private final HikariDataSource sequenceDataSource;
+	private final ConnectionReservation connections;
 	private final QueryExecutor queryExecutor;
-	private final ExecutorService threadPool;
+	private final PrioritizedThreadPool threadPool;
 	private final PunishmentDatabase external = new External();
 
 	private ScheduledTask expirationRefreshTask;
@@ -64,11 +72,15 @@ public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
-	StandardDatabase(DatabaseManager manager, Vendor vendor,
-					 HikariDataSource dataSource, QueryExecutor queryExecutor, ExecutorService threadPool) {
+	StandardDatabase(DatabaseManager manager, Vendor vendor, HikariDataSource dataSource,
+					 HikariDataSource replicaDataSource, HikariDataSource sequenceDataSource,
+					 ConnectionReservation connections, QueryExecutor queryExecutor, PrioritizedThreadPool threadPool) {
 		this.manager = manager;
 		this.vendor = vendor;
 		this.dataSource = dataSource;
+		this.replicaDataSource = replicaDataSource;
+		this.sequenceDataSource = sequenceDataSource;
+		this.connections = connections;
 		this.queryExecutor = queryExecutor;
 		this.threadPool = threadPool;
 	}
@@ -81,8 +93,10 @@ public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 
 	void startTasks(Time time) {
 		EnhancedExecutor enhancedExecutor = manager.enhancedExecutor();
+		RefreshTaskRunnable refreshTask = new RefreshTaskRunnable(manager, this, time);
 		expirationRefreshTask = enhancedExecutor.scheduleRepeating(
-				new RefreshTaskRunnable(manager, this, time),
+				// Run on the database threads, behind all other queries
+				() -> threadPool.execute(QueryPriority.MAINTENANCE, refreshTask),
 				Duration.ofHours(3L),
 				DelayCalculators.fixedDelay()
 		);
@@ -117,6 +131,12 @@ public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 			logger.warn("Interrupted while waiting for thread pool", ex);
 		}
 		dataSource.close();
+		if (replicaDataSource != null) {
+			replicaDataSource.close();
+		}
+		if (sequenceDataSource != null) {
+			sequenceDataSource.close();
+		}
 	}
 
 	void closeCompletely() {
@@ -165,14 +185,18 @@ public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 	public void clearExpiredPunishments(DSLContext context, PunishmentType type, Instant currentTime) {
 		assert type != PunishmentType.KICK;
 		var dataTable = new TableForType(type).dataTable();
+		var expiredIds = context
+				.select(PUNISHMENTS.ID)
+				.from(PUNISHMENTS)
+				.where(PUNISHMENTS.END.notEqual(Instant.MAX))
+				.and(PUNISHMENTS.END.lessThan(currentTime));
+		if (type == PunishmentType.WARN) {
+			new WarnCounts(context).decrementBeforeDeletion(WARNS.ID.in(expiredIds));
+		}
 		context
 				.deleteFrom(dataTable.table())
-				.where(dataTable.id().in(context
-						.select(PUNISHMENTS.ID)
-						.from(PUNISHMENTS)
-						.where(PUNISHMENTS.END.notEqual(Instant.MAX))
-						.and(PUNISHMENTS.END.lessThan(currentTime))
-				)).execute();
+				.where(dataTable.id().in(expiredIds))
+				.execute();
 	}
 
 	@Override
@@ -186,7 +210,13 @@ public final class StandardDatabase implements InternalDatabase, AutoCloseable {
 
 	@Override
 	public Connection getConnection() throws SQLException {
-		return dataSource.getConnection();
+		// Count against the connections available to non-enforcement queries
+		return connections.getConnection(QueryPriority.MAINTENANCE);
+	}
+
+	@Override
+	public Map<QueryPriority, PrioritizedThreadPool.QueueWait> queueWaits() {
+		return threadPool.queueWaits();
 	}
 
 	private class External implements PunishmentDatabase {
@@ -148,6 +148,22 @@ public enum Vendor {
 		};
 	}
 
+	public String dropCheckConstraintStatement() {
+		return switch (this) {
+			case HSQLDB, MARIADB, POSTGRES, COCKROACH -> "DROP CONSTRAINT";
+			case MYSQL -> "DROP CHECK";
+		};
+	}
+
+	public String[] dropUniqueConstraint() {
+		return switch (this) {
+			case HSQLDB, POSTGRES -> new String[] {"ALTER TABLE ", " DROP CONSTRAINT ", ""};
+			case MARIADB, MYSQL -> new String[] {"ALTER TABLE ", " DROP INDEX ", ""};
+			// CockroachDB drops unique constraints through their index
+			case COCKROACH -> new String[] {"DROP INDEX ", "@", " CASCADE"};
+		};
+	}
+
 	public String zeroSmallintLiteral() {
 		return switch (this) {
 			case HSQLDB, POSTGRES, COCKROACH -> "CAST(0 AS SMALLINT)";
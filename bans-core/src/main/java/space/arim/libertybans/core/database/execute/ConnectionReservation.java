@@ -0,0 +1,141 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hands out connections to the primary database, keeping some connections free for
+ * {@link QueryPriority#ENFORCEMENT}. <br>
+ * <br>
+ * All other connections, including those obtained outside the thread pool by imports and
+ * maintenance, count against a limit of the pool size less the reserved connections. Once
+ * the limit is reached, further non-enforcement checkouts wait until a connection is closed.
+ *
+ */
+public final class ConnectionReservation {
+
+	private final DataSource dataSource;
+	private final Semaphore unreserved;
+	private final long timeoutNanos;
+
+	/**
+	 * Creates the reservation
+	 *
+	 * @param dataSource the data source of the primary database
+	 * @param poolSize the size of its connection pool
+	 * @param reserved how many connections to reserve for enforcement. Must be less than the pool size
+	 * @param timeout how long to wait for a connection before failing
+	 */
+	public ConnectionReservation(DataSource dataSource, int poolSize, int reserved, Duration timeout) {
+		if (reserved < 0 || reserved >= poolSize) {
+			throw new IllegalArgumentException(
+					"Reserved connections " + reserved + " must be non-negative and less than " + poolSize);
+		}
+		this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+		unreserved = (reserved == 0) ? null : new Semaphore(poolSize - reserved, true);
+		timeoutNanos = timeout.toNanos();
+	}
+
+	/**
+	 * Creates a reservation which reserves nothing
+	 *
+	 * @param dataSource the data source
+	 * @return a reservation which gets connections directly from the data source
+	 */
+	public static ConnectionReservation none(DataSource dataSource) {
+		return new ConnectionReservation(dataSource, 1, 0, Duration.ZERO);
+	}
+
+	/**
+	 * Gets a connection for a query of the given priority
+	 *
+	 * @param priority the priority
+	 * @return the connection, which must be closed
+	 * @throws SQLException if no connection became available in time, or if the data source failed
+	 */
+	public Connection getConnection(QueryPriority priority) throws SQLException {
+		if (unreserved == null || priority == QueryPriority.ENFORCEMENT) {
+			return dataSource.getConnection();
+		}
+		try {
+			if (!unreserved.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException(
+						"Connection not available; all unreserved connections are in use");
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+		}
+		Connection connection;
+		try {
+			connection = dataSource.getConnection();
+		} catch (SQLException | RuntimeException ex) {
+			unreserved.release();
+			throw ex;
+		}
+		return (Connection) Proxy.newProxyInstance(
+				Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+				new ReleaseOnClose(connection)
+		);
+	}
+
+	private final class ReleaseOnClose implements InvocationHandler {
+
+		private final Connection connection;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private ReleaseOnClose(Connection connection) {
+			this.connection = connection;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			if (method.getName().equals("close") && method.getParameterCount() == 0) {
+				try {
+					connection.close();
+				} finally {
+					if (released.compareAndSet(false, true)) {
+						unreserved.release();
+					}
+				}
+				return null;
+			}
+			try {
+				return method.invoke(connection, args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+
+}
@@ -29,28 +29,42 @@ import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
-import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Objects;
-import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
 
 public final class JooqQueryExecutor implements QueryExecutor {
 
 	private final JooqContext jooqContext;
-	private final DataSource dataSource;
+	private final ConnectionReservation connections;
 	private final FactoryOfTheFuture futuresFactory;
-	private final Executor threadPool;
+	private final PrioritizedThreadPool threadPool;
+	private final ReplicaRouting replicaRouting;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
-	public JooqQueryExecutor(JooqContext jooqContext, DataSource dataSource,
-							 FactoryOfTheFuture futuresFactory, Executor threadPool) {
+	/**
+	 * Creates the query executor
+	 *
+	 * @param jooqContext the jooq context
+	 * @param connections the connections to the primary database
+	 * @param futuresFactory the futures factory
+	 * @param threadPool the thread pool on which to run queries according to their priority
+	 * @param replicaRouting the routing of read-only queries to a replica, or null if there is no replica
+	 */
+	public JooqQueryExecutor(JooqContext jooqContext, ConnectionReservation connections,
+							 FactoryOfTheFuture futuresFactory, PrioritizedThreadPool threadPool, ReplicaRouting replicaRouting) {
 		this.jooqContext = Objects.requireNonNull(jooqContext, "jooqContext");
-		this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+		this.connections = Objects.requireNonNull(connections, "connections");
 		this.futuresFactory = Objects.requireNonNull(futuresFactory, "futuresFactory");
 		this.threadPool = Objects.requireNonNull(threadPool, "threadPool");
+		this.replicaRouting = replicaRouting;
+	}
+
+	public JooqQueryExecutor(JooqContext jooqContext, ConnectionReservation connections,
+							 FactoryOfTheFuture futuresFactory, PrioritizedThreadPool threadPool) {
+		this(jooqContext, connections, futuresFactory, threadPool, null);
 	}
 
 	private static <E extends Throwable> E rollbackBeforeThrow(Connection connection, E reason) throws E {
@@ -68,30 +82,50 @@ public final class JooqQueryExecutor implements QueryExecutor {
 	}
 
 	private <R> R obtainUnfailing(SQLFunction<R> command) {
-		try (Connection connection = dataSource.getConnection()) {
-			if (command.isReadOnly()) {
-				connection.setReadOnly(true);
-			}
-			DSLContext context = jooqContext.createContext(connection);
-
-			R value;
-			try {
-				value = command.obtain(context);
-			} catch (RuntimeException ex) {
-				throw rollbackBeforeThrow(connection, ex);
-			}
-			try {
-				connection.commit();
+		if (replicaRouting != null && replicaRouting.routesToReplica(command)) {
+			try (Connection connection = replicaRouting.replica().getConnection()) {
+				return obtainUnfailing(connection, command);
 			} catch (SQLException ex) {
-				throw unableToCommit(connection, ex);
+				if (!ReplicaRouting.isConnectionFailure(ex)) {
+					throw new DataAccessException("Miscellaneous failure (" + ex.getSQLState() + ')', ex);
+				}
+				replicaRouting.markUnreachable(ex);
+			} catch (DataAccessException ex) {
+				SQLException rootCause = ex.getCause(SQLException.class);
+				if (rootCause == null || !ReplicaRouting.isConnectionFailure(rootCause)) {
+					throw ex;
+				}
+				replicaRouting.markUnreachable(rootCause);
 			}
-			return value;
-
+			// Fail back to the primary. Read-only queries are safe to repeat
+		}
+		try (Connection connection = connections.getConnection(command.priority())) {
+			return obtainUnfailing(connection, command);
 		} catch (SQLException ex) {
 			throw new DataAccessException("Miscellaneous failure (" + ex.getSQLState() + ')', ex);
 		}
 	}
 
+	private <R> R obtainUnfailing(Connection connection, SQLFunction<R> command) throws SQLException {
+		if (command.isReadOnly()) {
+			connection.setReadOnly(true);
+		}
+		DSLContext context = jooqContext.createContext(connection);
+
+		R value;
+		try {
+			value = command.obtain(context);
+		} catch (RuntimeException ex) {
+			throw rollbackBeforeThrow(connection, ex);
+		}
+		try {
+			connection.commit();
+		} catch (SQLException ex) {
+			throw unableToCommit(connection, ex);
+		}
+		return value;
+	}
+
 	/**
 	 * Determines whether the given SQL exception is caused by transaction serialization failure
 	 *
@@ -121,7 +155,7 @@ public final class JooqQueryExecutor implements QueryExecutor {
 		// Collect serialization failures and report them
 		Exception[] serializationFailures = new Exception[0];
 
-		try (Connection connection = dataSource.getConnection()) {
+		try (Connection connection = connections.getConnection(command.priority())) {
 			DSLContext context = jooqContext.createContext(connection);
 
 			for (int retry = 0; retry < retryCount; retry++) {
@@ -206,6 +240,11 @@ public final class JooqQueryExecutor implements QueryExecutor {
 				return command.isReadOnly();
 			}
 
+			@Override
+			public QueryPriority priority() {
+				return command.priority();
+			}
+
 			@Override
 			public Void obtain(DSLContext context) throws RuntimeException {
 				command.run(context);
@@ -217,13 +256,20 @@ public final class JooqQueryExecutor implements QueryExecutor {
 
 	@Override
 	public <R> CentralisedFuture<R> query(SQLFunction<R> command) {
-		return futuresFactory.supplyAsync(() -> obtainUnfailing(command), threadPool);
+		return futuresFactory.supplyAsync(
+				() -> obtainUnfailing(command), threadPool.withPriority(command.priority())
+		);
 	}
 
 	@Override
 	public CentralisedFuture<Void> executeWithRetry(int retryCount, SQLTransactionalRunnable command) {
 		class RunnableAsFunction implements SQLTransactionalFunction<Void> {
 
+			@Override
+			public QueryPriority priority() {
+				return command.priority();
+			}
+
 			@Override
 			public Void obtain(DSLContext context, Transaction transaction) throws RuntimeException {
 				command.run(context, transaction);
@@ -235,7 +281,9 @@ public final class JooqQueryExecutor implements QueryExecutor {
 
 	@Override
 	public <R> CentralisedFuture<R> queryWithRetry(int retryCount, SQLTransactionalFunction<R> command) {
-		return futuresFactory.supplyAsync(() -> obtainWithRetry(retryCount, command), threadPool);
+		return futuresFactory.supplyAsync(
+				() -> obtainWithRetry(retryCount, command), threadPool.withPriority(command.priority())
+		);
 	}
 
 }
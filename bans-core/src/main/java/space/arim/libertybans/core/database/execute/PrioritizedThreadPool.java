@@ -0,0 +1,333 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import space.arim.omnibus.util.ThisClass;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed size thread pool which runs tasks by {@link QueryPriority}. Whenever a thread becomes
+ * free, it takes the oldest task of the highest priority. <br>
+ * <br>
+ * Some threads are reserved for {@link QueryPriority#ENFORCEMENT} and never run other tasks,
+ * so that enforcement does not wait behind lower priority work occupying the whole pool.
+ * Reserving threads does not reserve connections, which is the job of {@link ConnectionReservation}. <br>
+ * <br>
+ * The time each task spends waiting in the queue is recorded for each priority.
+ *
+ */
+public final class PrioritizedThreadPool extends AbstractExecutorService {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition enforcementQueued = lock.newCondition();
+	private final Condition anyQueued = lock.newCondition();
+	private final Condition terminated = lock.newCondition();
+	private final List<ArrayDeque<QueuedTask>> queues;
+	private final List<Thread> workers;
+	private int liveWorkers;
+	private State state = State.RUNNING;
+
+	private final Map<QueryPriority, Executor> executors = new EnumMap<>(QueryPriority.class);
+	private final Map<QueryPriority, QueueWaitRecorder> queueWaits = new EnumMap<>(QueryPriority.class);
+
+	private static final QueryPriority[] PRIORITIES = QueryPriority.values();
+	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
+
+	/**
+	 * Creates and starts the thread pool
+	 *
+	 * @param threads the total amount of threads
+	 * @param reservedThreads the amount of threads reserved for enforcement. Must be less than the total
+	 * @param threadFactory the thread factory
+	 */
+	public PrioritizedThreadPool(int threads, int reservedThreads, ThreadFactory threadFactory) {
+		if (reservedThreads < 0 || reservedThreads >= threads) {
+			throw new IllegalArgumentException(
+					"Reserved threads " + reservedThreads + " must be non-negative and less than " + threads);
+		}
+		queues = new ArrayList<>(PRIORITIES.length);
+		for (QueryPriority priority : PRIORITIES) {
+			queues.add(new ArrayDeque<>());
+			executors.put(priority, (command) -> execute(priority, command));
+			queueWaits.put(priority, new QueueWaitRecorder());
+		}
+		workers = new ArrayList<>(threads);
+		for (int n = 0; n < threads; n++) {
+			boolean reserved = n < reservedThreads;
+			workers.add(threadFactory.newThread(() -> runWorker(reserved)));
+		}
+		liveWorkers = threads;
+		workers.forEach(Thread::start);
+	}
+
+	private enum State {
+		RUNNING,
+		SHUTDOWN,
+		STOP
+	}
+
+	private record QueuedTask(QueryPriority priority, Runnable command, long queuedAt) { }
+
+	/**
+	 * Runs a task with the given priority
+	 *
+	 * @param priority the priority
+	 * @param command the task
+	 * @throws RejectedExecutionException if the thread pool is shut down
+	 */
+	public void execute(QueryPriority priority, Runnable command) {
+		QueuedTask task = new QueuedTask(priority, command, System.nanoTime());
+		lock.lock();
+		try {
+			if (state != State.RUNNING) {
+				throw new RejectedExecutionException("Thread pool is shut down");
+			}
+			queues.get(priority.ordinal()).addLast(task);
+			anyQueued.signal();
+			if (priority == QueryPriority.ENFORCEMENT) {
+				enforcementQueued.signal();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Obtains an executor which runs tasks with the given priority
+	 *
+	 * @param priority the priority
+	 * @return an executor for the priority
+	 */
+	public Executor withPriority(QueryPriority priority) {
+		return executors.get(priority);
+	}
+
+	/**
+	 * Runs a task with {@link QueryPriority#PUNISHMENT} priority
+	 *
+	 * @param command the task
+	 */
+	@Override
+	public void execute(Runnable command) {
+		execute(QueryPriority.PUNISHMENT, command);
+	}
+
+	private QueuedTask pollTask(boolean reserved) {
+		if (reserved) {
+			return queues.get(QueryPriority.ENFORCEMENT.ordinal()).pollFirst();
+		}
+		for (ArrayDeque<QueuedTask> queue : queues) {
+			QueuedTask task = queue.pollFirst();
+			if (task != null) {
+				return task;
+			}
+		}
+		return null;
+	}
+
+	private QueuedTask takeTask(boolean reserved) {
+		lock.lock();
+		try {
+			while (true) {
+				if (state == State.STOP) {
+					return null;
+				}
+				QueuedTask task = pollTask(reserved);
+				if (task != null) {
+					return task;
+				}
+				if (state == State.SHUTDOWN) {
+					// Remaining tasks, if any, are drained by other threads
+					return null;
+				}
+				try {
+					(reserved ? enforcementQueued : anyQueued).await();
+				} catch (InterruptedException ignored) {
+					// Re-check the state
+				}
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void runWorker(boolean reserved) {
+		try {
+			QueuedTask task;
+			while ((task = takeTask(reserved)) != null) {
+				queueWaits.get(task.priority).record(System.nanoTime() - task.queuedAt);
+				try {
+					task.command.run();
+				} catch (RuntimeException ex) {
+					logger.warn("Exception in database thread pool", ex);
+				} catch (Error err) {
+					// Keep the worker alive, since nothing replaces it
+					logger.error("Error in database thread pool", err);
+				}
+				// Clear interrupted status left by the task
+				Thread.interrupted();
+			}
+		} finally {
+			lock.lock();
+			try {
+				if (--liveWorkers == 0) {
+					terminated.signalAll();
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		lock.lock();
+		try {
+			if (state == State.RUNNING) {
+				state = State.SHUTDOWN;
+			}
+			enforcementQueued.signalAll();
+			anyQueued.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> remaining = new ArrayList<>();
+		lock.lock();
+		try {
+			state = State.STOP;
+			for (ArrayDeque<QueuedTask> queue : queues) {
+				QueuedTask task;
+				while ((task = queue.pollFirst()) != null) {
+					remaining.add(task.command);
+				}
+			}
+			enforcementQueued.signalAll();
+			anyQueued.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		workers.forEach(Thread::interrupt);
+		return remaining;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		lock.lock();
+		try {
+			return state != State.RUNNING;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isTerminated() {
+		lock.lock();
+		try {
+			return state != State.RUNNING && liveWorkers == 0;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lock();
+		try {
+			while (state == State.RUNNING || liveWorkers != 0) {
+				if (nanos <= 0L) {
+					return false;
+				}
+				nanos = terminated.awaitNanos(nanos);
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the time tasks have spent waiting in the queue, for each priority
+	 *
+	 * @return the queue wait statistics for each priority
+	 */
+	public Map<QueryPriority, QueueWait> queueWaits() {
+		Map<QueryPriority, QueueWait> result = new EnumMap<>(QueryPriority.class);
+		queueWaits.forEach((priority, recorder) -> result.put(priority, recorder.snapshot()));
+		return result;
+	}
+
+	/**
+	 * Queue wait statistics since the thread pool was started
+	 *
+	 * @param count the amount of tasks which were started
+	 * @param average the average time spent in the queue
+	 * @param max the maximum time spent in the queue
+	 */
+	public record QueueWait(long count, Duration average, Duration max) {
+
+		@Override
+		public String toString() {
+			return count + " queries, average wait " + average.toMillis() + "ms, max wait " + max.toMillis() + "ms";
+		}
+	}
+
+	private static final class QueueWaitRecorder {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long waitNanos) {
+			count.increment();
+			totalNanos.add(waitNanos);
+			maxNanos.accumulateAndGet(waitNanos, Math::max);
+		}
+
+		QueueWait snapshot() {
+			long count = this.count.sum();
+			Duration average = (count == 0L) ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+			return new QueueWait(count, average, Duration.ofNanos(maxNanos.get()));
+		}
+	}
+
+}
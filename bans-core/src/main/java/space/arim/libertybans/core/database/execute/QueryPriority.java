@@ -0,0 +1,50 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+/**
+ * The priority of a query. Determines the order in which queued queries are run
+ * when every database thread is busy. Constants are declared from highest to lowest priority.
+ *
+ */
+public enum QueryPriority {
+
+	/**
+	 * Enforcement when players join or chat. Some threads and connections are reserved for these queries alone
+	 *
+	 */
+	ENFORCEMENT,
+	/**
+	 * Punishing, unpunishing, and other queries which modify data
+	 *
+	 */
+	PUNISHMENT,
+	/**
+	 * Listing punishments, looking up alts, and other read-only queries
+	 *
+	 */
+	LISTING,
+	/**
+	 * Background maintenance, such as clearing expired punishments
+	 *
+	 */
+	MAINTENANCE
+
+}
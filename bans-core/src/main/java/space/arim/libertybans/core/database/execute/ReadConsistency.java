@@ -0,0 +1,46 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+/**
+ * How up-to-date the data read by a read-only query must be. Determines whether
+ * the query may be routed to a read replica, which may lag behind the primary database.
+ *
+ */
+public enum ReadConsistency {
+
+	/**
+	 * The query may read stale data. Used for most queries, such as those backing commands
+	 *
+	 */
+	EVENTUAL,
+	/**
+	 * The query decides whether to enforce punishments, for example when checking mutes.
+	 * Whether these queries may read from a replica is configurable
+	 *
+	 */
+	ENFORCEMENT,
+	/**
+	 * The query must always read up-to-date data, and is never routed to a replica
+	 *
+	 */
+	STRICT
+
+}
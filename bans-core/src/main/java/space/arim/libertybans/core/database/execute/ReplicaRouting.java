@@ -0,0 +1,128 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import space.arim.omnibus.util.ThisClass;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides which read-only queries are routed to a read replica. If the replica becomes
+ * unreachable, queries fail back to the primary until the retry delay has passed.
+ *
+ */
+public final class ReplicaRouting {
+
+	private final DataSource replica;
+	private final boolean enforcementReadsOnReplica;
+	private final long retryDelayNanos;
+	private final LongSupplier nanoTime;
+
+	private volatile boolean unreachable;
+	private volatile long unreachableSince;
+
+	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
+
+	ReplicaRouting(DataSource replica, boolean enforcementReadsOnReplica, Duration retryDelay,
+				   LongSupplier nanoTime) {
+		this.replica = Objects.requireNonNull(replica, "replica");
+		this.enforcementReadsOnReplica = enforcementReadsOnReplica;
+		this.retryDelayNanos = retryDelay.toNanos();
+		this.nanoTime = nanoTime;
+	}
+
+	public ReplicaRouting(DataSource replica, boolean enforcementReadsOnReplica, Duration retryDelay) {
+		this(replica, enforcementReadsOnReplica, retryDelay, System::nanoTime);
+	}
+
+	DataSource replica() {
+		return replica;
+	}
+
+	/**
+	 * Determines whether the given command should be routed to the replica
+	 *
+	 * @param command the command
+	 * @return true to run the command on the replica, false for the primary
+	 */
+	boolean routesToReplica(SQLFunction<?> command) {
+		if (!command.isReadOnly()) {
+			return false;
+		}
+		boolean eligible = switch (command.readConsistency()) {
+			case EVENTUAL -> true;
+			case ENFORCEMENT -> enforcementReadsOnReplica;
+			case STRICT -> false;
+		};
+		if (!eligible) {
+			return false;
+		}
+		if (unreachable) {
+			if (nanoTime.getAsLong() - unreachableSince < retryDelayNanos) {
+				return false;
+			}
+			// Give the replica another chance. If it remains unreachable, we will fail back again
+			unreachable = false;
+			logger.info("Retrying the read replica");
+		}
+		return true;
+	}
+
+	/**
+	 * Called when the replica could not be reached, so that queries fail back to the primary
+	 *
+	 * @param cause the connection failure
+	 */
+	void markUnreachable(SQLException cause) {
+		unreachableSince = nanoTime.getAsLong();
+		if (!unreachable) {
+			unreachable = true;
+			logger.warn("The read replica is unreachable. Read-only queries will use the primary database " +
+					"for the next {} seconds.", Duration.ofNanos(retryDelayNanos).toSeconds(), cause);
+		}
+	}
+
+	/**
+	 * Determines whether the given exception indicates the replica could not be reached,
+	 * as opposed to a failure of the query itself
+	 *
+	 * @param ex the sql exception
+	 * @return true if a connection failure
+	 */
+	static boolean isConnectionFailure(SQLException ex) {
+		if (ex instanceof SQLTransientConnectionException || ex instanceof SQLNonTransientConnectionException
+				|| ex instanceof SQLRecoverableException) {
+			return true;
+		}
+		// SQLSTATE class 08 - Connection exception
+		String sqlState = ex.getSQLState();
+		return sqlState != null && sqlState.startsWith("08");
+	}
+
+}
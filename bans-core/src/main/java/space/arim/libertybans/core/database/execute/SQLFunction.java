@@ -27,9 +27,35 @@ public interface SQLFunction<R> {
 		return false;
 	}
 
+	/**
+	 * The consistency required by this query, if it is read-only
+	 *
+	 * @return the read consistency
+	 */
+	default ReadConsistency readConsistency() {
+		return ReadConsistency.EVENTUAL;
+	}
+
+	/**
+	 * The priority of this query. By default, enforcement reads have enforcement priority,
+	 * other reads have listing priority, and writes have punishment priority
+	 *
+	 * @return the query priority
+	 */
+	default QueryPriority priority() {
+		if (!isReadOnly()) {
+			return QueryPriority.PUNISHMENT;
+		}
+		return (readConsistency() == ReadConsistency.ENFORCEMENT) ? QueryPriority.ENFORCEMENT : QueryPriority.LISTING;
+	}
+
 	R obtain(DSLContext context) throws RuntimeException;
 
 	static <R> SQLFunction<R> readOnly(SQLFunction<R> command) {
+		return readOnly(ReadConsistency.EVENTUAL, command);
+	}
+
+	static <R> SQLFunction<R> readOnly(ReadConsistency readConsistency, SQLFunction<R> command) {
 		return new SQLFunction<>() {
 
 			@Override
@@ -37,6 +63,36 @@ public interface SQLFunction<R> {
 				return true;
 			}
 
+			@Override
+			public ReadConsistency readConsistency() {
+				return readConsistency;
+			}
+
+			@Override
+			public R obtain(DSLContext context) throws RuntimeException {
+				return command.obtain(context);
+			}
+		};
+	}
+
+	static <R> SQLFunction<R> withPriority(QueryPriority priority, SQLFunction<R> command) {
+		return new SQLFunction<>() {
+
+			@Override
+			public boolean isReadOnly() {
+				return command.isReadOnly();
+			}
+
+			@Override
+			public ReadConsistency readConsistency() {
+				return command.readConsistency();
+			}
+
+			@Override
+			public QueryPriority priority() {
+				return priority;
+			}
+
 			@Override
 			public R obtain(DSLContext context) throws RuntimeException {
 				return command.obtain(context);
@@ -27,6 +27,10 @@ public interface SQLRunnable {
 		return false;
 	}
 
+	default QueryPriority priority() {
+		return isReadOnly() ? QueryPriority.LISTING : QueryPriority.PUNISHMENT;
+	}
+
 	void run(DSLContext context) throws RuntimeException;
 
 	static SQLRunnable readOnly(SQLRunnable command) {
@@ -43,4 +47,24 @@ public interface SQLRunnable {
 			}
 		};
 	}
+
+	static SQLRunnable withPriority(QueryPriority priority, SQLRunnable command) {
+		return new SQLRunnable() {
+
+			@Override
+			public boolean isReadOnly() {
+				return command.isReadOnly();
+			}
+
+			@Override
+			public QueryPriority priority() {
+				return priority;
+			}
+
+			@Override
+			public void run(DSLContext context) throws RuntimeException {
+				command.run(context);
+			}
+		};
+	}
 }
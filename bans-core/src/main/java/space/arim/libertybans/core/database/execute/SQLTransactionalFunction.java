@@ -23,5 +23,24 @@ import org.jooq.DSLContext;
 
 public interface SQLTransactionalFunction<R> {
 
+	default QueryPriority priority() {
+		return QueryPriority.PUNISHMENT;
+	}
+
 	R obtain(DSLContext context, Transaction transaction) throws RuntimeException;
+
+	static <R> SQLTransactionalFunction<R> withPriority(QueryPriority priority, SQLTransactionalFunction<R> command) {
+		return new SQLTransactionalFunction<>() {
+
+			@Override
+			public QueryPriority priority() {
+				return priority;
+			}
+
+			@Override
+			public R obtain(DSLContext context, Transaction transaction) throws RuntimeException {
+				return command.obtain(context, transaction);
+			}
+		};
+	}
 }
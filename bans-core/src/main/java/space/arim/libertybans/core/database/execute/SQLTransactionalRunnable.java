@@ -23,5 +23,24 @@ import org.jooq.DSLContext;
 
 public interface SQLTransactionalRunnable {
 
+	default QueryPriority priority() {
+		return QueryPriority.PUNISHMENT;
+	}
+
 	void run(DSLContext context, Transaction transaction) throws RuntimeException;
+
+	static SQLTransactionalRunnable withPriority(QueryPriority priority, SQLTransactionalRunnable command) {
+		return new SQLTransactionalRunnable() {
+
+			@Override
+			public QueryPriority priority() {
+				return priority;
+			}
+
+			@Override
+			public void run(DSLContext context, Transaction transaction) throws RuntimeException {
+				command.run(context, transaction);
+			}
+		};
+	}
 }
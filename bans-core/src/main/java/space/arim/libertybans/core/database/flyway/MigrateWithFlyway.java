@@ -21,13 +21,26 @@ package space.arim.libertybans.core.database.flyway;
 
 import org.flywaydb.core.Flyway;
 import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.Table;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.slf4j.LoggerFactory;
+import space.arim.libertybans.bootstrap.plugin.PluginInfo;
 import space.arim.libertybans.core.database.Vendor;
 import space.arim.libertybans.core.database.jooq.JooqContext;
 
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Map;
 
+import static space.arim.libertybans.core.schema.tables.Revision.REVISION;
+
 public final class MigrateWithFlyway {
 
 	private final DataSource dataSource;
@@ -39,6 +52,82 @@ public final class MigrateWithFlyway {
 	}
 
 	private static final String TABLE_PREFIX = "libertybans_";
+	private static final String SCHEMA_HISTORY_TABLE = TABLE_PREFIX + "schema_history";
+	static final List<Class<? extends JavaMigration>> JAVA_MIGRATIONS = List.of(
+			V1__Principle.class, V16__Complete_migration_from_08x.class,
+			V31__Track_identifier_sequence.class, V34__Scope_identifier_sequence.class, V38__Scope_migration.class,
+			R__Set_Revision.class
+	);
+
+	/**
+	 * The version of the latest versioned migration. Must be updated whenever a migration is added
+	 */
+	static final String LATEST_MIGRATION_VERSION = "44";
+
+	/**
+	 * Determines whether the database schema is already up-to-date, in which case there is no need
+	 * to {@link #migrate(JooqContext)}. This avoids having Flyway scan migrations and validate the
+	 * schema history on every startup. <br>
+	 * <br>
+	 * The schema is current if the revision table matches this plugin's database revision and the
+	 * latest migration recorded in the schema history, with no failures, is the latest migration bundled.
+	 *
+	 * @param jooqContext the jooq context
+	 * @return true if the schema is up-to-date, false if migration is required or cannot be ruled out
+	 */
+	public boolean isSchemaCurrent(JooqContext jooqContext) {
+		if (Boolean.getBoolean("libertybans.database.flywayrepair")
+				|| Boolean.getBoolean("libertybans.database.alwaysmigrate")) {
+			return false;
+		}
+		try (Connection connection = dataSource.getConnection()) {
+			try {
+				return isSchemaCurrent(
+						jooqContext.createContext(connection), DSL.using(connection, vendor.dialect())
+				);
+			} finally {
+				connection.rollback();
+			}
+		} catch (SQLException | DataAccessException ex) {
+			// Most likely, the tables do not yet exist
+			LoggerFactory.getLogger(getClass()).debug("Unable to verify the schema revision", ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Determines whether the database schema is up-to-date
+	 *
+	 * @param context the jooq context for our tables
+	 * @param unmappedContext a jooq context which does not alter table names, for use with Flyway's table
+	 * @return true if the schema is up-to-date
+	 */
+	static boolean isSchemaCurrent(DSLContext context, DSLContext unmappedContext) {
+		Record2<Integer, Integer> revision = context
+				.select(REVISION.MAJOR, REVISION.MINOR)
+				.from(REVISION)
+				.fetchOne();
+		if (revision == null
+				|| revision.value1() != PluginInfo.DATABASE_REVISION_MAJOR
+				|| revision.value2() != PluginInfo.DATABASE_REVISION_MINOR) {
+			return false;
+		}
+		Table<?> schemaHistory = DSL.table(DSL.name(SCHEMA_HISTORY_TABLE));
+		Field<String> version = DSL.field(DSL.name("version"), String.class);
+		Field<Boolean> success = DSL.field(DSL.name("success"), Boolean.class);
+		Field<Integer> installedRank = DSL.field(DSL.name("installed_rank"), Integer.class);
+		if (unmappedContext.fetchExists(schemaHistory, success.isFalse())) {
+			return false;
+		}
+		String latestVersion = unmappedContext
+				.select(version)
+				.from(schemaHistory)
+				.where(version.isNotNull())
+				.orderBy(installedRank.desc())
+				.limit(1)
+				.fetchOne(version);
+		return LATEST_MIGRATION_VERSION.equals(latestVersion);
+	}
 
 	public void migrate(JooqContext jooqContext) throws MigrationFailedException {
 		Flyway flyway = createFlyway(new MigrationState(jooqContext));
@@ -53,27 +142,27 @@ public final class MigrateWithFlyway {
 	}
 
 	private Flyway createFlyway(MigrationState migrationState) {
-		var classProvider = migrationState.asClassProvider(List.of(
-				V1__Principle.class, V16__Complete_migration_from_08x.class,
-				V31__Track_identifier_sequence.class, V34__Scope_identifier_sequence.class, V38__Scope_migration.class,
-				R__Set_Revision.class
-		));
+		var classProvider = migrationState.asClassProvider(JAVA_MIGRATIONS);
 		return Flyway
 				.configure(getClass().getClassLoader())
 				.dataSource(dataSource)
 				// Configure tables and migrations
-				.table(TABLE_PREFIX + "schema_history")
-				.placeholders(Map.of(
-						"tableprefix", TABLE_PREFIX,
-						"generatedcolumnsuffix", vendor.getGeneratedColumnSuffix(),
-						"extratableoptions", vendor.getExtraTableOptions(),
-						"uuidtype", vendor.uuidType(),
-						"inettype", vendor.inetType(),
-						"arbitrarybinarytype", vendor.arbitraryBinaryType(),
-						"alterviewstatement", vendor.alterViewStatement(),
-						"zerosmallintliteral", vendor.zeroSmallintLiteral(),
-						"migratescopestart", vendor.migrateScope()[0],
-						"migratescopeend", vendor.migrateScope()[1]
+				.table(SCHEMA_HISTORY_TABLE)
+				.placeholders(Map.ofEntries(
+						Map.entry("tableprefix", TABLE_PREFIX),
+						Map.entry("generatedcolumnsuffix", vendor.getGeneratedColumnSuffix()),
+						Map.entry("extratableoptions", vendor.getExtraTableOptions()),
+						Map.entry("uuidtype", vendor.uuidType()),
+						Map.entry("inettype", vendor.inetType()),
+						Map.entry("arbitrarybinarytype", vendor.arbitraryBinaryType()),
+						Map.entry("alterviewstatement", vendor.alterViewStatement()),
+						Map.entry("dropcheckconstraint", vendor.dropCheckConstraintStatement()),
+						Map.entry("dropuniqueconstraintstart", vendor.dropUniqueConstraint()[0]),
+						Map.entry("dropuniqueconstraintmiddle", vendor.dropUniqueConstraint()[1]),
+						Map.entry("dropuniqueconstraintend", vendor.dropUniqueConstraint()[2]),
+						Map.entry("zerosmallintliteral", vendor.zeroSmallintLiteral()),
+						Map.entry("migratescopestart", vendor.migrateScope()[0]),
+						Map.entry("migratescopeend", vendor.migrateScope()[1])
 				))
 				.locations("classpath:database-migrations")
 				// Override classpath scanning
@@ -19,6 +19,7 @@
 
 package space.arim.libertybans.core.database.jooq;
 
+import org.jooq.Configuration;
 import org.jooq.ConnectionProvider;
 import org.jooq.DSLContext;
 import org.jooq.ExecuteListenerProvider;
@@ -33,6 +34,7 @@ import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DefaultConfiguration;
 import org.jooq.impl.NoConnectionProvider;
 import org.jooq.tools.JooqLogger;
+import space.arim.libertybans.core.database.sql.SequenceBlockAllocator;
 
 import java.sql.Connection;
 import java.util.Objects;
@@ -47,10 +49,23 @@ public final class JooqContext {
 
 	private final SQLDialect dialect;
 	private final boolean retroSupport;
-
-	public JooqContext(SQLDialect dialect, boolean retroSupport) {
+	private final SequenceBlockAllocator sequenceBlockAllocator;
+
+	/**
+	 * Creates the context
+	 *
+	 * @param dialect the dialect
+	 * @param retroSupport whether to support older database versions
+	 * @param sequenceBlockAllocator the allocator for emulated sequences on MySQL, or null if not used
+	 */
+	public JooqContext(SQLDialect dialect, boolean retroSupport, SequenceBlockAllocator sequenceBlockAllocator) {
 		this.dialect = Objects.requireNonNull(dialect, "dialect");
 		this.retroSupport = retroSupport;
+		this.sequenceBlockAllocator = sequenceBlockAllocator;
+	}
+
+	public JooqContext(SQLDialect dialect, boolean retroSupport) {
+		this(dialect, retroSupport, null);
 	}
 
 	public JooqContext(SQLDialect dialect) {
@@ -80,15 +95,18 @@ public final class JooqContext {
 	}
 
 	private DSLContext createWith(ConnectionProvider connectionProvider) {
-		return new DefaultConfiguration()
+		Configuration configuration = new DefaultConfiguration()
 				.set(connectionProvider)
 				.set(dialect)
 				.set(createSettings())
 				.set(retroSupport ?
 						new ExecuteListenerProvider[] { new RetroSupportListener().new Provider() }
 						: new ExecuteListenerProvider[0]
-				)
-				.dsl();
+				);
+		if (sequenceBlockAllocator != null) {
+			sequenceBlockAllocator.attachTo(configuration);
+		}
+		return configuration.dsl();
 	}
 
 	private Settings createSettings() {
@@ -111,6 +129,7 @@ public final class JooqContext {
 		return "JooqContext{" +
 				"dialect=" + dialect +
 				", retroSupport=" + retroSupport +
+				", sequenceBlockAllocator=" + sequenceBlockAllocator +
 				'}';
 	}
 
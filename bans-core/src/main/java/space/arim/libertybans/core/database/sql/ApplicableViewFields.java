@@ -21,7 +21,7 @@ package space.arim.libertybans.core.database.sql;
 
 import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.Record14;
+import org.jooq.Record15;
 import org.jooq.Table;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Operator;
@@ -34,11 +34,11 @@ import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
-public record ApplicableViewFields<R extends Record14<
+public record ApplicableViewFields<R extends Record15<
 		Long, PunishmentType,
 		Victim.VictimType, UUID, NetworkAddress,
 		Operator, String, String, Instant, Instant,
-		UUID, NetworkAddress, EscalationTrack, ScopeType
+		UUID, NetworkAddress, EscalationTrack, ScopeType, Short
 		>>(Table<R> applicableView, R fieldSupplier) implements PunishmentFields {
 
 	public ApplicableViewFields(Table<R> applicableView) {
@@ -110,6 +110,11 @@ public record ApplicableViewFields<R extends Record14<
 		return fieldSupplier.field14();
 	}
 
+	@Override
+	public Field<Short> victimPrefix() {
+		return fieldSupplier.field15();
+	}
+
 	public Field<UUID> uuid() {
 		return Objects.requireNonNull(fieldSupplier.field11(), "uuid field does not exist");
 	}
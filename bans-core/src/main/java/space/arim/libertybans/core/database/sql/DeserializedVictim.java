@@ -23,6 +23,7 @@ import space.arim.libertybans.api.AddressVictim;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 
 import java.util.Objects;
@@ -32,10 +33,12 @@ public final class DeserializedVictim {
 
 	private final UUID uuid;
 	private final NetworkAddress address;
+	private final short prefix;
 
-	public DeserializedVictim(UUID uuid, NetworkAddress address) {
+	public DeserializedVictim(UUID uuid, NetworkAddress address, short prefix) {
 		this.uuid = Objects.requireNonNull(uuid, "uuid");
 		this.address = Objects.requireNonNull(address, "address");
+		this.prefix = prefix;
 	}
 
 	public Victim victim(Victim.VictimType victimType) {
@@ -49,6 +52,10 @@ public final class DeserializedVictim {
 				yield AddressVictim.of(address);
 			}
 			case COMPOSITE ->  CompositeVictim.of(uuid, address);
+			case RANGE -> {
+				assert uuid.equals(EmptyData.UUID) : "UUID must be empty for range victims";
+				yield RangeVictim.of(address, prefix);
+			}
 		};
 	}
 
@@ -32,5 +32,7 @@ public final class EmptyData {
 
 	public static final NetworkAddress ADDRESS = NetworkAddress.of(new byte[4]);
 
+	public static final short PREFIX = 0;
+
 	private EmptyData() {}
 }
@@ -30,15 +30,17 @@ public final class FixedVictimData implements VictimData {
 	private final Victim.VictimType type;
 	private final UUID uuid;
 	private final NetworkAddress address;
+	private final short prefix;
 
-	public FixedVictimData(Victim.VictimType type, UUID uuid, NetworkAddress address) {
+	public FixedVictimData(Victim.VictimType type, UUID uuid, NetworkAddress address, short prefix) {
 		this.type = Objects.requireNonNull(type, "type");
 		this.uuid = Objects.requireNonNull(uuid, "uuid");
 		this.address = Objects.requireNonNull(address, "address");
+		this.prefix = prefix;
 	}
 
 	public static FixedVictimData from(VictimData delegate) {
-		return new FixedVictimData(delegate.type(), delegate.uuid(), delegate.address());
+		return new FixedVictimData(delegate.type(), delegate.uuid(), delegate.address(), delegate.prefix());
 	}
 
 	@Override
@@ -56,11 +58,17 @@ public final class FixedVictimData implements VictimData {
 		return address;
 	}
 
+	@Override
+	public short prefix() {
+		return prefix;
+	}
+
 	@Override
 	public String toString() {
 		return "FixedVictimData{" +
 				"uuid=" + uuid +
 				", address=" + address +
+				", prefix=" + prefix +
 				'}';
 	}
 }
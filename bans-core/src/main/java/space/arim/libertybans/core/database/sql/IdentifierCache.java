@@ -0,0 +1,83 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.sql;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Process-local cache of the identifiers of rows which are never changed or deleted once
+ * inserted, such as scopes, escalation tracks, and victims. <br>
+ * <br>
+ * Only identifiers of rows found by a select are cached. Newly generated identifiers are not,
+ * because the insert might yet be rolled back. Since such rows are immutable, a cached
+ * identifier stays valid regardless of what other instances insert.
+ *
+ * @param <K> the key, which describes the row
+ * @param <R> the identifier type
+ */
+public final class IdentifierCache<K, R extends Number> {
+
+	private final Cache<K, R> cache;
+
+	private IdentifierCache(Cache<K, R> cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * Creates a cache without a size limit, suitable for small and rarely growing sets of rows
+	 *
+	 * @param <K> the key
+	 * @param <R> the identifier type
+	 * @return the cache
+	 */
+	public static <K, R extends Number> IdentifierCache<K, R> unbounded() {
+		return new IdentifierCache<>(Caffeine.newBuilder().build());
+	}
+
+	/**
+	 * Creates a cache holding up to the given number of identifiers
+	 *
+	 * @param maximumSize the maximum size
+	 * @param <K> the key
+	 * @param <R> the identifier type
+	 * @return the cache
+	 */
+	public static <K, R extends Number> IdentifierCache<K, R> bounded(long maximumSize) {
+		return new IdentifierCache<>(Caffeine.newBuilder().maximumSize(maximumSize).build());
+	}
+
+	R get(K key) {
+		return cache.getIfPresent(key);
+	}
+
+	void put(K key, R identifier) {
+		cache.put(key, identifier);
+	}
+
+	/**
+	 * Clears all cached identifiers. Necessary if the rows themselves are deleted
+	 *
+	 */
+	public void clear() {
+		cache.invalidateAll();
+	}
+
+}
@@ -0,0 +1,120 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.sql;
+
+import org.jooq.DSLContext;
+import space.arim.libertybans.api.PunishmentType;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+import static org.jooq.impl.DSL.selectOne;
+import static space.arim.libertybans.core.schema.tables.ArchivedPunishments.ARCHIVED_PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.Bans.BANS;
+import static space.arim.libertybans.core.schema.tables.History.HISTORY;
+import static space.arim.libertybans.core.schema.tables.Mutes.MUTES;
+import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.Warns.WARNS;
+
+/**
+ * Moves punishments which expired long ago from the punishments and history tables to the archive.
+ * Track counts are left untouched, since archived punishments still count towards escalation.
+ *
+ */
+public final class PunishmentArchive {
+
+	private final DSLContext context;
+
+	public PunishmentArchive(DSLContext context) {
+		this.context = Objects.requireNonNull(context, "context");
+	}
+
+	/**
+	 * Archives a batch of punishments which expired before the given time. Kicks are archived
+	 * if they were issued before the given time. Punishments still present in an active
+	 * punishment table are never archived.
+	 *
+	 * @param archiveBefore the time before which punishments must have expired
+	 * @param limit the maximum number of punishments to archive
+	 * @return the number of punishments archived. If less than the limit, there are no more to archive
+	 */
+	public int archiveExpired(Instant archiveBefore, int limit) {
+		List<Long> ids = context
+				.select(PUNISHMENTS.ID)
+				.from(PUNISHMENTS)
+				.innerJoin(HISTORY)
+				.on(PUNISHMENTS.ID.eq(HISTORY.ID))
+				.where(PUNISHMENTS.END.notEqual(Instant.MAX).and(PUNISHMENTS.END.lessThan(archiveBefore)).or(
+						PUNISHMENTS.TYPE.eq(PunishmentType.KICK).and(PUNISHMENTS.START.lessThan(archiveBefore))
+				))
+				.andNotExists(selectOne().from(BANS).where(BANS.ID.eq(PUNISHMENTS.ID)))
+				.andNotExists(selectOne().from(MUTES).where(MUTES.ID.eq(PUNISHMENTS.ID)))
+				.andNotExists(selectOne().from(WARNS).where(WARNS.ID.eq(PUNISHMENTS.ID)))
+				.orderBy(PUNISHMENTS.ID)
+				.limit(limit)
+				.fetch(PUNISHMENTS.ID);
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		context
+				.insertInto(ARCHIVED_PUNISHMENTS)
+				.columns(
+						ARCHIVED_PUNISHMENTS.ID, ARCHIVED_PUNISHMENTS.TYPE, ARCHIVED_PUNISHMENTS.VICTIM,
+						ARCHIVED_PUNISHMENTS.OPERATOR, ARCHIVED_PUNISHMENTS.REASON, ARCHIVED_PUNISHMENTS.SCOPE,
+						ARCHIVED_PUNISHMENTS.START, ARCHIVED_PUNISHMENTS.END,
+						ARCHIVED_PUNISHMENTS.TRACK, ARCHIVED_PUNISHMENTS.SCOPE_ID
+				)
+				.select(context
+						.select(
+								PUNISHMENTS.ID, PUNISHMENTS.TYPE, HISTORY.VICTIM,
+								PUNISHMENTS.OPERATOR, PUNISHMENTS.REASON, PUNISHMENTS.SCOPE,
+								PUNISHMENTS.START, PUNISHMENTS.END,
+								PUNISHMENTS.TRACK, PUNISHMENTS.SCOPE_ID
+						)
+						.from(PUNISHMENTS)
+						.innerJoin(HISTORY)
+						.on(PUNISHMENTS.ID.eq(HISTORY.ID))
+						.where(PUNISHMENTS.ID.in(ids))
+				)
+				.execute();
+		// History rows are deleted by cascade
+		context
+				.deleteFrom(PUNISHMENTS)
+				.where(PUNISHMENTS.ID.in(ids))
+				.execute();
+		return ids.size();
+	}
+
+	/**
+	 * Deletes an archived punishment, uncounting it from its escalation track
+	 *
+	 * @param id the punishment ID
+	 * @return true if the punishment was archived and is now deleted
+	 */
+	public boolean expunge(long id) {
+		new TrackCounts(context).decrementBeforeArchiveDeletion(ARCHIVED_PUNISHMENTS.ID.eq(id));
+		return context
+				.deleteFrom(ARCHIVED_PUNISHMENTS)
+				.where(ARCHIVED_PUNISHMENTS.ID.eq(id))
+				.execute() != 0;
+	}
+
+}
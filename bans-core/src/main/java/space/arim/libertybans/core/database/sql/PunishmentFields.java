@@ -52,11 +52,11 @@ public interface PunishmentFields extends VictimFields, ScopeFields {
 							 Field<UUID> victimUuid, Field<NetworkAddress> victimAddress,
 							 Field<Operator> operator, Field<String> reason, Field<String> scope,
 							 Field<Instant> start, Field<Instant> end, Field<EscalationTrack> track, Field<ScopeType> scopeType,
-							 Table<?> table)
+							 Field<Short> victimPrefix, Table<?> table)
 				implements PunishmentFields { }
 		return new ModifiedTable(
 				id(), type(), victimType(), victimUuid(), victimAddress(),
-				operator(), reason(), scope(), start(), end(), track(), scopeType(), newTable
+				operator(), reason(), scope(), start(), end(), track(), scopeType(), victimPrefix(), newTable
 		);
 	}
 
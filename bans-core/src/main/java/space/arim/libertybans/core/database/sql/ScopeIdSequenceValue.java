@@ -59,6 +59,15 @@ public final class ScopeIdSequenceValue extends SequenceValue<Integer> {
 		});
 	}
 
+	public Field<Integer> retrieveScopeId(ServerScope scope, IdentifierCache<ServerScope, Integer> cache) {
+		return new ScopeParsing().deconstruct(scope, (type, value) -> {
+			if (type == ScopeType.GLOBAL) {
+				return castNull(Integer.class);
+			}
+			return retrieveOrGenerate(type, value).execute(cache, scope);
+		});
+	}
+
 	public Integer retrieveScopeIdFieldReified(ServerScope scope) {
 		return new ScopeParsing().deconstruct(scope, (type, value) -> {
 			if (type == ScopeType.GLOBAL) {
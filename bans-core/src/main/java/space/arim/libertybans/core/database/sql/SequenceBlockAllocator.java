@@ -0,0 +1,158 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.sql;
+
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.Sequence;
+import org.jooq.exception.DataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hi/lo allocation of sequence values for MySQL, where sequences are emulated with single-row
+ * tables. <br>
+ * <br>
+ * Rather than incrementing the sequence table within every transaction needing a value, which
+ * makes all such transactions contend on the same row, blocks of values are reserved in short,
+ * separate transactions. Values are then handed out locally. Blocks never overlap, so values stay
+ * unique across instances sharing the database. <br>
+ * <br>
+ * Values reserved but not handed out are lost when the instance shuts down, leaving gaps.
+ *
+ */
+public final class SequenceBlockAllocator {
+
+	private final DataSource dataSource;
+	private final int blockSize;
+	private final Map<String, Block> blocks = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates the allocator
+	 *
+	 * @param dataSource the data source. It should be dedicated to the allocator, since transactions
+	 *                   needing sequence values wait on it while a block is reserved
+	 * @param blockSize how many values to reserve at once
+	 */
+	public SequenceBlockAllocator(DataSource dataSource, int blockSize) {
+		this.dataSource = Objects.requireNonNull(dataSource, "dataSource");
+		if (blockSize <= 0) {
+			throw new IllegalArgumentException("Block size must be positive");
+		}
+		this.blockSize = blockSize;
+	}
+
+	/**
+	 * Attaches this allocator to a jOOQ configuration, so that {@link SequenceValue} uses it
+	 *
+	 * @param configuration the configuration
+	 */
+	public void attachTo(Configuration configuration) {
+		configuration.data(SequenceBlockAllocator.class, this);
+	}
+
+	static SequenceBlockAllocator attachedTo(DSLContext context) {
+		return (SequenceBlockAllocator) context.configuration().data(SequenceBlockAllocator.class);
+	}
+
+	<R extends Number> R nextValue(Sequence<R> sequence) {
+		Block block = blocks.computeIfAbsent(sequence.getName(), Block::new);
+		return sequence.getDataType().convert(block.nextValue());
+	}
+
+	/**
+	 * Discards the remainder of the current block. Necessary after the sequence table is set
+	 * to a different value.
+	 *
+	 * @param sequence the sequence
+	 */
+	void discard(Sequence<?> sequence) {
+		Block block = blocks.get(sequence.getName());
+		if (block != null) {
+			block.discard();
+		}
+	}
+
+	private final class Block {
+
+		private final String emulationTable;
+		private long nextValue;
+		private long endValue;
+
+		private Block(String emulationTable) {
+			this.emulationTable = emulationTable;
+		}
+
+		synchronized long nextValue() {
+			if (nextValue == endValue) {
+				reserve();
+			}
+			return nextValue++;
+		}
+
+		synchronized void discard() {
+			nextValue = endValue;
+		}
+
+		private void reserve() {
+			try (Connection connection = dataSource.getConnection()) {
+				long startValue;
+				try {
+					try (PreparedStatement select = connection.prepareStatement(
+							"SELECT value FROM " + emulationTable + " FOR UPDATE");
+						 ResultSet resultSet = select.executeQuery()) {
+						if (!resultSet.next()) {
+							throw new IllegalStateException("Sequence table " + emulationTable + " is empty");
+						}
+						startValue = resultSet.getLong(1);
+					}
+					try (PreparedStatement update = connection.prepareStatement(
+							"UPDATE " + emulationTable + " SET value = value + ?")) {
+						update.setInt(1, blockSize);
+						update.executeUpdate();
+					}
+					connection.commit();
+				} catch (SQLException | RuntimeException ex) {
+					connection.rollback();
+					throw ex;
+				}
+				nextValue = startValue;
+				endValue = startValue + blockSize;
+			} catch (SQLException ex) {
+				throw new DataAccessException("Unable to reserve a block of " + emulationTable, ex);
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "SequenceBlockAllocator{" +
+				"blockSize=" + blockSize +
+				'}';
+	}
+
+}
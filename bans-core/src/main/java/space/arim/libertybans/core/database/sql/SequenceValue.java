@@ -53,6 +53,12 @@ public class SequenceValue<R extends Number> {
 
 	public Field<R> nextValue() {
 		if (context.family() == SQLDialect.MYSQL) {
+			SequenceBlockAllocator blockAllocator = SequenceBlockAllocator.attachedTo(context);
+			if (blockAllocator != null) {
+				// Avoid contention on the sequence table within this transaction
+				R sequenceValue = blockAllocator.nextValue(sequence);
+				return (lastValueForMySQL = val(sequenceValue, sequence.getDataType()));
+			}
 			Table<?> emulationTable = emulationTable();
 			Field<R> valueField = emulationTableValueField();
 
@@ -84,10 +90,16 @@ public class SequenceValue<R extends Number> {
 
 	public void setValue(R value) {
 		switch (context.family()) {
-		case MYSQL -> context
-				.update(emulationTable())
-				.set(emulationTableValueField(), value)
-				.execute();
+		case MYSQL -> {
+			context
+					.update(emulationTable())
+					.set(emulationTableValueField(), value)
+					.execute();
+			SequenceBlockAllocator blockAllocator = SequenceBlockAllocator.attachedTo(context);
+			if (blockAllocator != null) {
+				blockAllocator.discard(sequence);
+			}
+		}
 		case HSQLDB -> context
 				.alterSequence(sequence)
 				.restartWith(value)
@@ -117,13 +129,31 @@ public class SequenceValue<R extends Number> {
 			this.insertNew = insertNew;
 		}
 
-		Field<R> execute() {
-			R existingId = context
+		private R retrieveExisting() {
+			return context
 					.select(sequenceValueField)
 					.from(table)
 					.where(matchExisting)
 					.fetchOne(sequenceValueField);
+		}
+
+		Field<R> execute() {
+			R existingId = retrieveExisting();
+			if (existingId != null) {
+				return val(existingId);
+			}
+			insertNew.accept(nextValue());
+			return lastValueInSession();
+		}
+
+		<K> Field<R> execute(IdentifierCache<K, R> cache, K key) {
+			R cachedId = cache.get(key);
+			if (cachedId != null) {
+				return val(cachedId);
+			}
+			R existingId = retrieveExisting();
 			if (existingId != null) {
+				cache.put(key, existingId);
 				return val(existingId);
 			}
 			insertNew.accept(nextValue());
@@ -131,11 +161,7 @@ public class SequenceValue<R extends Number> {
 		}
 
 		R executeReified() {
-			R existingId = context
-					.select(sequenceValueField)
-					.from(table)
-					.where(matchExisting)
-					.fetchOne(sequenceValueField);
+			R existingId = retrieveExisting();
 			if (existingId != null) {
 				return existingId;
 			}
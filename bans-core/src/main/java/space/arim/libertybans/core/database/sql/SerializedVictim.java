@@ -23,6 +23,7 @@ import space.arim.libertybans.api.AddressVictim;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 
 import java.util.Objects;
@@ -47,6 +48,7 @@ public final class SerializedVictim implements VictimData {
 			case PLAYER -> ((PlayerVictim) victim).getUUID();
 			case ADDRESS -> EmptyData.UUID;
 			case COMPOSITE -> ((CompositeVictim) victim).getUUID();
+			case RANGE -> EmptyData.UUID;
 		};
 	}
 
@@ -56,9 +58,18 @@ public final class SerializedVictim implements VictimData {
 			case PLAYER -> EmptyData.ADDRESS;
 			case ADDRESS -> ((AddressVictim) victim).getAddress();
 			case COMPOSITE -> ((CompositeVictim) victim).getAddress();
+			case RANGE -> ((RangeVictim) victim).getNetwork();
 		};
 	}
 
+	@Override
+	public short prefix() {
+		if (victim instanceof RangeVictim range) {
+			return (short) range.getPrefixLength();
+		}
+		return EmptyData.PREFIX;
+	}
+
 	@Override
 	public String toString() {
 		return "SerializedVictim{" +
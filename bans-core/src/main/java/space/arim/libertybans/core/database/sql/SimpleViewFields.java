@@ -21,7 +21,7 @@ package space.arim.libertybans.core.database.sql;
 
 import org.jooq.Field;
 import org.jooq.Record;
-import org.jooq.Record12;
+import org.jooq.Record13;
 import org.jooq.Table;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Operator;
@@ -33,10 +33,10 @@ import space.arim.libertybans.core.scope.ScopeType;
 import java.time.Instant;
 import java.util.UUID;
 
-public record SimpleViewFields<R extends Record12<
+public record SimpleViewFields<R extends Record13<
 		Long, PunishmentType,
 		Victim.VictimType, UUID, NetworkAddress,
-		Operator, String, String, Instant, Instant, EscalationTrack, ScopeType
+		Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short
 		>>(Table<R> simpleView, R fieldSupplier) implements PunishmentFields {
 
 	public SimpleViewFields(Table<R> simpleView) {
@@ -108,4 +108,9 @@ public record SimpleViewFields<R extends Record12<
 		return fieldSupplier.field12();
 	}
 
+	@Override
+	public Field<Short> victimPrefix() {
+		return fieldSupplier.field13();
+	}
+
 }
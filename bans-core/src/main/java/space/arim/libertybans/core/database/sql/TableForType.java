@@ -19,8 +19,8 @@
 
 package space.arim.libertybans.core.database.sql;
 
-import org.jooq.Record12;
-import org.jooq.Record14;
+import org.jooq.Record13;
+import org.jooq.Record15;
 import org.jooq.Record2;
 import org.jooq.Table;
 import space.arim.libertybans.api.NetworkAddress;
@@ -64,9 +64,9 @@ public final class TableForType {
 		};
 	}
 
-	public SimpleViewFields<? extends Record12<
+	public SimpleViewFields<? extends Record13<
 					Long, PunishmentType, Victim.VictimType, UUID, NetworkAddress,
-					Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>> simpleView() {
+					Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>> simpleView() {
 		var view = switch (type) {
 			case BAN -> SimpleBans.SIMPLE_BANS;
 			case MUTE -> SimpleMutes.SIMPLE_MUTES;
@@ -76,11 +76,11 @@ public final class TableForType {
 		return new SimpleViewFields<>(view);
 	}
 
-	public ApplicableViewFields<? extends Record14<
+	public ApplicableViewFields<? extends Record15<
 					Long, PunishmentType,
 					Victim.VictimType, UUID, NetworkAddress,
 					Operator, String, String, Instant, Instant,
-					UUID, NetworkAddress, EscalationTrack, ScopeType>> applicableView() {
+					UUID, NetworkAddress, EscalationTrack, ScopeType, Short>> applicableView() {
 		var view = switch (type) {
 			case BAN -> ApplicableBans.APPLICABLE_BANS;
 			case MUTE -> ApplicableMutes.APPLICABLE_MUTES;
@@ -0,0 +1,139 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.sql;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record3;
+import org.jooq.Result;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EscalationTrack;
+
+import java.util.Objects;
+
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.val;
+import static space.arim.libertybans.core.schema.tables.ArchivedPunishments.ARCHIVED_PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.History.HISTORY;
+import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.TrackCounts.TRACK_COUNTS;
+import static space.arim.libertybans.core.schema.tables.Tracks.TRACKS;
+import static space.arim.libertybans.core.schema.tables.Victims.VICTIMS;
+
+/**
+ * Maintains the number of punishments per victim and escalation track. The count must be
+ * updated in the same transaction as punishments are added or deleted.
+ *
+ */
+public final class TrackCounts {
+
+	private final DSLContext context;
+
+	public TrackCounts(DSLContext context) {
+		this.context = Objects.requireNonNull(context, "context");
+	}
+
+	/**
+	 * Counts a newly added punishment
+	 *
+	 * @param victimId the victim ID of the punishment
+	 * @param trackId the escalation track ID of the punishment
+	 */
+	public void increment(Field<Integer> victimId, Field<Integer> trackId) {
+		context
+				.insertInto(TRACK_COUNTS)
+				.columns(TRACK_COUNTS.VICTIM, TRACK_COUNTS.TRACK, TRACK_COUNTS.TOTAL)
+				.values(victimId, trackId, val(1))
+				.onConflict(TRACK_COUNTS.VICTIM, TRACK_COUNTS.TRACK)
+				.doUpdate()
+				.set(TRACK_COUNTS.TOTAL, TRACK_COUNTS.TOTAL.plus(1))
+				.execute();
+	}
+
+	/**
+	 * Uncounts punishments which are about to be deleted. Must be called before deletion
+	 *
+	 * @param punishmentCondition the condition on the punishments table matching those to be deleted
+	 */
+	public void decrementBeforeDeletion(Condition punishmentCondition) {
+		var uncounted = context
+				.select(HISTORY.VICTIM, PUNISHMENTS.TRACK, count())
+				.from(HISTORY)
+				.innerJoin(PUNISHMENTS)
+				.on(HISTORY.ID.eq(PUNISHMENTS.ID))
+				.where(punishmentCondition)
+				.and(PUNISHMENTS.TRACK.isNotNull())
+				.groupBy(HISTORY.VICTIM, PUNISHMENTS.TRACK)
+				.fetch();
+		decrement(uncounted);
+	}
+
+	/**
+	 * Uncounts archived punishments which are about to be deleted. Must be called before deletion
+	 *
+	 * @param archiveCondition the condition on the archive table matching those to be deleted
+	 */
+	public void decrementBeforeArchiveDeletion(Condition archiveCondition) {
+		var uncounted = context
+				.select(ARCHIVED_PUNISHMENTS.VICTIM, ARCHIVED_PUNISHMENTS.TRACK, count())
+				.from(ARCHIVED_PUNISHMENTS)
+				.where(archiveCondition)
+				.and(ARCHIVED_PUNISHMENTS.TRACK.isNotNull())
+				.groupBy(ARCHIVED_PUNISHMENTS.VICTIM, ARCHIVED_PUNISHMENTS.TRACK)
+				.fetch();
+		decrement(uncounted);
+	}
+
+	private void decrement(Result<Record3<Integer, Integer, Integer>> uncounted) {
+		for (Record3<Integer, Integer, Integer> record : uncounted) {
+			context
+					.update(TRACK_COUNTS)
+					.set(TRACK_COUNTS.TOTAL, TRACK_COUNTS.TOTAL.minus(record.value3()))
+					.where(TRACK_COUNTS.VICTIM.eq(record.value1()))
+					.and(TRACK_COUNTS.TRACK.eq(record.value2()))
+					.execute();
+		}
+	}
+
+	/**
+	 * Retrieves the number of punishments for the exact victim and escalation track
+	 *
+	 * @param victim the victim, which must not have composite wildcards
+	 * @param escalationTrack the escalation track
+	 * @return the number of punishments
+	 */
+	public int retrieveTotal(Victim victim, EscalationTrack escalationTrack) {
+		VictimData victimData = FixedVictimData.from(new SerializedVictim(victim));
+		Integer total = context
+				.select(TRACK_COUNTS.TOTAL)
+				.from(TRACK_COUNTS)
+				.innerJoin(VICTIMS)
+				.on(TRACK_COUNTS.VICTIM.eq(VICTIMS.ID))
+				.innerJoin(TRACKS)
+				.on(TRACK_COUNTS.TRACK.eq(TRACKS.ID))
+				.where(new VictimCondition(new VictimTableFields()).matchesVictim(victimData))
+				.and(TRACKS.NAMESPACE.eq(escalationTrack.getNamespace()))
+				.and(TRACKS.VALUE.eq(escalationTrack.getValue()))
+				.fetchOne(TRACK_COUNTS.TOTAL);
+		return (total == null) ? 0 : total;
+	}
+
+}
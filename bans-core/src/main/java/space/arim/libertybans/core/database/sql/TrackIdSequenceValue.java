@@ -38,6 +38,18 @@ public final class TrackIdSequenceValue extends SequenceValue<Integer> {
 		if (escalationTrack == null) {
 			return castNull(Integer.class);
 		}
+		return retrieveOrGenerate(escalationTrack).execute();
+	}
+
+	public Field<Integer> retrieveTrackId(EscalationTrack escalationTrack,
+										  IdentifierCache<EscalationTrack, Integer> cache) {
+		if (escalationTrack == null) {
+			return castNull(Integer.class);
+		}
+		return retrieveOrGenerate(escalationTrack).execute(cache, escalationTrack);
+	}
+
+	private RetrieveOrGenerate retrieveOrGenerate(EscalationTrack escalationTrack) {
 		return new RetrieveOrGenerate(
 				TRACKS, TRACKS.ID,
 				TRACKS.NAMESPACE.eq(escalationTrack.getNamespace())
@@ -49,7 +61,7 @@ public final class TrackIdSequenceValue extends SequenceValue<Integer> {
 							.values(newId, val(escalationTrack.getNamespace()), val(escalationTrack.getValue()))
 							.execute();
 				}
-		).execute();
+		);
 	}
 
 }
@@ -24,6 +24,7 @@ import org.jooq.Field;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Victim;
 
+import java.util.Collection;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -46,6 +47,19 @@ public final class VictimCondition implements MultiFieldCriterion<Victim> {
 		// victim_type = PLAYER AND victim_uuid = uuid
 		// OR victim_type = ADDRESS AND victim_address = address
 		// OR victim_type = COMPOSITE AND (victim_uuid = uuid OR victim_address = address)
+		// Ranges are not matched here, but by the in-memory RangePunishmentCache
+		return fields.victimType().eq(inline(Victim.VictimType.PLAYER)).and(matchesUUID)
+				.or(
+						fields.victimType().eq(inline(Victim.VictimType.ADDRESS)).and(matchesAddress)
+				).or(
+						fields.victimType().eq(inline(Victim.VictimType.COMPOSITE)).and(matchesUUID.or(matchesAddress))
+				);
+	}
+
+	public Condition simplyMatchesAny(Collection<UUID> uuids, Collection<NetworkAddress> addresses) {
+		// Like #simplyMatches for many users at once. The caller decides which user each result applies to
+		Condition matchesUUID = fields.victimUuid().in(uuids);
+		Condition matchesAddress = fields.victimAddress().in(addresses);
 		return fields.victimType().eq(inline(Victim.VictimType.PLAYER)).and(matchesUUID)
 				.or(
 						fields.victimType().eq(inline(Victim.VictimType.ADDRESS)).and(matchesAddress)
@@ -75,6 +89,7 @@ public final class VictimCondition implements MultiFieldCriterion<Victim> {
 						noCondition() : fields.victimAddress().eq(address);
 				yield uuidCondition.and(addressCondition);
 			}
+			case RANGE -> fields.victimAddress().eq(victim.address()).and(fields.victimPrefix().eq(victim.prefix()));
 		};
 		return fields.victimType().eq(inline(victim.type())).and(matchesData);
 	}
@@ -90,6 +105,7 @@ public final class VictimCondition implements MultiFieldCriterion<Victim> {
 				"fields.type()=" + fields.victimType() +
 				", fields.victimUuid()=" + fields.victimUuid() +
 				", fields.victimAddress()=" + fields.victimAddress() +
+				", fields.victimPrefix()=" + fields.victimPrefix() +
 				'}';
 	}
 
@@ -31,4 +31,6 @@ public interface VictimData {
 	UUID uuid();
 
 	NetworkAddress address();
+
+	short prefix();
 }
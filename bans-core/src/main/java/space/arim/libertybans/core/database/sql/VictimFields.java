@@ -33,4 +33,6 @@ public interface VictimFields extends TableFieldAccessor {
 
 	Field<NetworkAddress> victimAddress();
 
+	Field<Short> victimPrefix();
+
 }
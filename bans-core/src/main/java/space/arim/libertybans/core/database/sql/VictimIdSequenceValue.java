@@ -34,6 +34,14 @@ public final class VictimIdSequenceValue extends SequenceValue<Integer> {
 	}
 
 	public Field<Integer> retrieveVictimId(Victim victim) {
+		return retrieveOrGenerate(victim).execute();
+	}
+
+	public Field<Integer> retrieveVictimId(Victim victim, IdentifierCache<Victim, Integer> cache) {
+		return retrieveOrGenerate(victim).execute(cache, victim);
+	}
+
+	private RetrieveOrGenerate retrieveOrGenerate(Victim victim) {
 		VictimData victimData = FixedVictimData.from(new SerializedVictim(victim));
 		return new RetrieveOrGenerate(
 				VICTIMS, VICTIMS.ID,
@@ -41,16 +49,17 @@ public final class VictimIdSequenceValue extends SequenceValue<Integer> {
 				(newId) -> {
 					context
 							.insertInto(VICTIMS)
-							.columns(VICTIMS.ID, VICTIMS.TYPE, VICTIMS.UUID, VICTIMS.ADDRESS)
+							.columns(VICTIMS.ID, VICTIMS.TYPE, VICTIMS.UUID, VICTIMS.ADDRESS, VICTIMS.PREFIX)
 							.values(
 									newId,
 									val(victimData.type(), VICTIMS.TYPE),
 									val(victimData.uuid(), VICTIMS.UUID),
-									val(victimData.address(), VICTIMS.ADDRESS)
+									val(victimData.address(), VICTIMS.ADDRESS),
+									val(victimData.prefix(), VICTIMS.PREFIX)
 							)
 							.execute();
 				}
-		).execute();
+		);
 	}
 
 }
@@ -51,6 +51,11 @@ public final class VictimTableFields implements VictimFields {
 		return VICTIMS.ADDRESS;
 	}
 
+	@Override
+	public Field<Short> victimPrefix() {
+		return VICTIMS.PREFIX;
+	}
+
 	@Override
 	public String toString() {
 		return "VictimTableFields";
@@ -0,0 +1,105 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.sql;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import space.arim.libertybans.api.Victim;
+
+import java.util.Objects;
+
+import static org.jooq.impl.DSL.count;
+import static org.jooq.impl.DSL.val;
+import static space.arim.libertybans.core.schema.tables.Victims.VICTIMS;
+import static space.arim.libertybans.core.schema.tables.WarnCounts.WARN_COUNTS;
+import static space.arim.libertybans.core.schema.tables.Warns.WARNS;
+
+/**
+ * Maintains the number of warns per victim in the warns table. The count must be
+ * updated in the same transaction as warns are added to or deleted from the warns table.
+ *
+ */
+public final class WarnCounts {
+
+	private final DSLContext context;
+
+	public WarnCounts(DSLContext context) {
+		this.context = Objects.requireNonNull(context, "context");
+	}
+
+	/**
+	 * Counts a newly added warn
+	 *
+	 * @param victimId the victim ID of the warn
+	 */
+	public void increment(Field<Integer> victimId) {
+		context
+				.insertInto(WARN_COUNTS)
+				.columns(WARN_COUNTS.VICTIM, WARN_COUNTS.TOTAL)
+				.values(victimId, val(1))
+				.onConflict(WARN_COUNTS.VICTIM)
+				.doUpdate()
+				.set(WARN_COUNTS.TOTAL, WARN_COUNTS.TOTAL.plus(1))
+				.execute();
+	}
+
+	/**
+	 * Uncounts warns which are about to be deleted from the warns table, either directly or
+	 * through deletion of the punishment itself. Must be called before deletion
+	 *
+	 * @param warnsCondition the condition on the warns table matching those to be deleted
+	 */
+	public void decrementBeforeDeletion(Condition warnsCondition) {
+		var uncounted = context
+				.select(WARNS.VICTIM, count())
+				.from(WARNS)
+				.where(warnsCondition)
+				.groupBy(WARNS.VICTIM)
+				.fetch();
+		for (Record2<Integer, Integer> record : uncounted) {
+			context
+					.update(WARN_COUNTS)
+					.set(WARN_COUNTS.TOTAL, WARN_COUNTS.TOTAL.minus(record.value2()))
+					.where(WARN_COUNTS.VICTIM.eq(record.value1()))
+					.execute();
+		}
+	}
+
+	/**
+	 * Retrieves the number of warns for the exact victim
+	 *
+	 * @param victim the victim, which must not have composite wildcards
+	 * @return the number of warns
+	 */
+	public int retrieveTotal(Victim victim) {
+		VictimData victimData = FixedVictimData.from(new SerializedVictim(victim));
+		Integer total = context
+				.select(WARN_COUNTS.TOTAL)
+				.from(WARN_COUNTS)
+				.innerJoin(VICTIMS)
+				.on(WARN_COUNTS.VICTIM.eq(VICTIMS.ID))
+				.where(new VictimCondition(new VictimTableFields()).matchesVictim(victimData))
+				.fetchOne(WARN_COUNTS.TOTAL);
+		return (total == null) ? 0 : total;
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.env;
+
+import space.arim.api.env.annote.PlatformPlayer;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.RangeVictim;
+
+import java.net.InetAddress;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public final class RangeTargetMatcher<@PlatformPlayer P> extends AbstractTargetMatcher<P> {
+
+	private final RangeVictim range;
+
+	public RangeTargetMatcher(RangeVictim range, Consumer<P> callback) {
+		super(callback);
+		this.range = range;
+	}
+
+	@Override
+	public boolean matches(UUID uuid, InetAddress address) {
+		return range.contains(NetworkAddress.of(address));
+	}
+
+	@Override
+	public String toString() {
+		return "RangeTargetMatcher{" +
+				"range=" + range +
+				'}';
+	}
+}
@@ -81,7 +81,7 @@ public class AdvancedBanImportSource implements ImportSource {
 
 		@Override
 		public String selectStatement() {
-			return "SELECT * FROM " + (active ? "Punishments" : "PunishmentHistory");
+			return "SELECT * FROM " + (active ? "Punishments" : "PunishmentHistory") + " ORDER BY id";
 		}
 
 		@Override
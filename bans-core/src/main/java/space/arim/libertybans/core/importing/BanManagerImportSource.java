@@ -87,7 +87,7 @@ public class BanManagerImportSource implements ImportSource {
 		@Override
 		public String selectStatement() {
 			String tableName = table.tableName(config.banManager().tablePrefix());
-			return "SELECT * FROM \"" + tableName + '"';
+			return "SELECT * FROM \"" + tableName + "\" ORDER BY \"id\"";
 		}
 
 		@Override
@@ -137,7 +137,7 @@ public class BanManagerImportSource implements ImportSource {
 
 		@Override
 		public String selectStatement() {
-			return "SELECT * FROM \"" + config.banManager().tablePrefix() + "players\" ORDER BY \"lastSeen\" ASC OFFSET 1";
+			return "SELECT * FROM \"" + config.banManager().tablePrefix() + "players\" ORDER BY \"lastSeen\" ASC, \"id\" ASC OFFSET 1";
 		}
 
 		@Override
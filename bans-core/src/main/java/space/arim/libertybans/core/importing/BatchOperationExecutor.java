@@ -19,77 +19,157 @@
 
 package space.arim.libertybans.core.importing;
 
+import org.jooq.DSLContext;
 import space.arim.libertybans.core.database.InternalDatabase;
 import space.arim.libertybans.core.database.execute.SQLTransactionalRunnable;
+import space.arim.libertybans.core.database.execute.Transaction;
+import space.arim.libertybans.core.service.SimpleThreadFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Batch SQL executor. NOT thread safe
+ * Batch SQL executor, forming the writing stage of the import pipeline. Operations are
+ * queued and written on a separate thread. The submitting thread decides where each
+ * transaction ends, so that it can record the import progress in the same transaction. <br>
+ * <br>
+ * Operations not followed by the end of a transaction are never written, and cause
+ * {@link #finish()} to fail. <br>
+ * <br>
+ * Operations should only be submitted from a single thread. <br>
+ * <br>
+ * The writing thread never waits for the submitting thread while a transaction is open.
+ * Therefore, queries made by the submitting thread, such as uuid lookups for name-based
+ * operators, cannot deadlock with the open transaction.
  *
  */
 class BatchOperationExecutor implements AutoCloseable {
 
 	private final InternalDatabase database;
+	private final int transactionSize;
+	private final BlockingQueue<SQLTransactionalRunnable> queue;
+	private final Thread writerThread;
 
-	private Connection connection;
-	private int countInThisConnection;
+	private volatile Throwable failure;
+	private boolean finished;
 
-	private static final int OPERATIONS_PER_CONNECTION = 400;
+	private static final SQLTransactionalRunnable END_OF_OPERATIONS = (context, transaction) -> {};
 
-	BatchOperationExecutor(InternalDatabase database) {
+	BatchOperationExecutor(InternalDatabase database, int transactionSize) {
 		this.database = database;
+		this.transactionSize = transactionSize;
+		// Allow the submitting thread to prepare the next transaction while one is written
+		queue = new ArrayBlockingQueue<>(transactionSize * 2);
+		writerThread = SimpleThreadFactory.create("Import-Writer").newThread(this::writeOperations);
+		// Do not hold up shutdown; an interrupted import can be resumed
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	int transactionSize() {
+		return transactionSize;
 	}
 
 	void runOperation(SQLTransactionalRunnable operation) {
+		checkFailure();
 		try {
-			runOperationChecked(operation);
-		} catch (SQLException ex) {
-			throw new ImportException(ex);
+			while (!queue.offer(operation, 1L, TimeUnit.SECONDS)) {
+				// The writer may have failed, in which case it no longer consumes operations
+				checkFailure();
+			}
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ImportException("Interrupted while submitting import operation", ex);
 		}
 	}
 
-	private void runOperationChecked(SQLTransactionalRunnable operation) throws SQLException {
-		openConnectionIfNecessary();
-
-		/*
-		 * Committing every time is a necessity. Queries cannot be batched together
-		 * because otherwise the open transaction leads to deadlocks with other
-		 * queries, such as uuid lookups for name-based operators.
-		 *
-		 * Committing is handled by #executeWithExistingConnection
-		 */
-		database.executeWithExistingConnection(connection, operation);
-
-		if (++countInThisConnection == OPERATIONS_PER_CONNECTION) {
-			countInThisConnection = 0;
-			closeConnection();
+	/**
+	 * Ends the current transaction. The transaction is committed once all its operations
+	 * and the given final operation are written.
+	 *
+	 * @param finalOperation the last operation to run in the transaction
+	 */
+	void endTransaction(SQLTransactionalRunnable finalOperation) {
+		runOperation(new TransactionEnd(finalOperation));
+	}
+
+	private record TransactionEnd(SQLTransactionalRunnable finalOperation) implements SQLTransactionalRunnable {
+
+		@Override
+		public void run(DSLContext context, Transaction transaction) {
+			finalOperation.run(context, transaction);
 		}
 	}
 
-	/*
-	 * Lifecycle management
-	 */
+	private void checkFailure() {
+		Throwable failure = this.failure;
+		if (failure != null) {
+			throw new ImportException("Failed to write imported data", failure);
+		}
+	}
 
-	private void openConnectionIfNecessary() throws SQLException {
-		if (connection == null) {
-			connection = database.getConnection();
+	private void writeOperations() {
+		List<SQLTransactionalRunnable> transaction = new ArrayList<>(transactionSize + 1);
+		try {
+			SQLTransactionalRunnable operation;
+			while ((operation = queue.take()) != END_OF_OPERATIONS) {
+				transaction.add(operation);
+				if (operation instanceof TransactionEnd) {
+					writeTransaction(transaction);
+					transaction.clear();
+				}
+			}
+			if (!transaction.isEmpty()) {
+				failure = new ImportException(
+						"Discarded " + transaction.size() + " import operations not followed by the end of a transaction");
+			}
+		} catch (Throwable ex) {
+			failure = ex;
+			queue.clear();
+		}
+	}
+
+	private void writeTransaction(List<SQLTransactionalRunnable> transaction) throws SQLException {
+		try (Connection connection = database.getConnection()) {
+			// Committing is handled by #executeWithExistingConnection
+			database.executeWithExistingConnection(connection, (context, sqlTransaction) -> {
+				for (SQLTransactionalRunnable operation : transaction) {
+					operation.run(context, sqlTransaction);
+				}
+			});
 		}
 	}
 
-	private void closeConnection() throws SQLException {
+	/**
+	 * Waits for all submitted transactions to be written. Operations after the last
+	 * transaction end are discarded.
+	 *
+	 * @throws ImportException if writing failed, or if operations were discarded
+	 */
+	void finish() {
+		if (finished) {
+			return;
+		}
+		finished = true;
+		if (failure == null) {
+			runOperation(END_OF_OPERATIONS);
+		}
 		try {
-			connection.close();
-		} finally {
-			connection = null;
+			writerThread.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ImportException("Interrupted while waiting for import writer", ex);
 		}
+		checkFailure();
 	}
 
 	@Override
-	public void close() throws SQLException {
-		if (connection != null) {
-			closeConnection();
-		}
+	public void close() {
+		finish();
 	}
 }
@@ -0,0 +1,46 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import java.util.Objects;
+
+/**
+ * The progress of an import, as of the last committed transaction. Rows are counted from
+ * the start of the phase, in the order provided by the import source.
+ *
+ * @param phase the phase of the import
+ * @param rowsConsumed how many rows of this phase were consumed from the import source
+ * @param lastForeignId the foreign ID of the last consumed row, if it has one. Used to verify
+ *                      the source has not changed when resuming
+ * @param statistics the import statistics at this point
+ */
+record ImportCheckpoint(Phase phase, long rowsConsumed, Integer lastForeignId, ImportStatistics statistics) {
+
+	ImportCheckpoint {
+		Objects.requireNonNull(phase, "phase");
+		Objects.requireNonNull(statistics, "statistics");
+	}
+
+	enum Phase {
+		PUNISHMENTS,
+		NAME_ADDRESS_HISTORY
+	}
+
+}
@@ -64,6 +64,14 @@ public interface ImportConfig {
 	@IntegerRange(min = 1)
 	int retrievalSize();
 
+	@ConfKey("transaction-size")
+	@ConfComments({
+			"How many rows to write to the LibertyBans database in a single transaction.",
+			"Larger transactions make the import faster, at the cost of more memory and longer-held locks."})
+	@ConfDefault.DefaultInteger(500)
+	@IntegerRange(min = 1, max = 10000)
+	int transactionSize();
+
 	@ConfKey("advancedban")
 	@SubSection
 	AdvancedBanSettings advancedBan();
@@ -179,6 +187,8 @@ public interface ImportConfig {
 			"",
 			"The self-import process is different from the import process for other plugins.",
 			"It is a direct transfer, which is why the current database must be empty. Also, punishment IDs are preserved.",
+			"Data is committed as it is transferred, so if the self-import fails, the partially transferred data must be",
+			"removed from the current database before trying again.",
 			"",
 			"Self-importing may be used to switch between various database backends supported by LibertyBans.",
 			"For example, you could transfer your data from HSQLDB to MariaDB.",
@@ -197,6 +207,23 @@ public interface ImportConfig {
 		@ConfDefault.DefaultBoolean(false)
 		boolean reverseDirection();
 
+		@ConfKey("parallelism")
+		@ConfComments({
+				"How many tables to transfer at once. Tables are transferred on separate connections,",
+				"so this is also limited by the connection pool sizes of both databases. On the current",
+				"database, connections reserved for enforcement are never used by the self-import."})
+		@ConfDefault.DefaultInteger(4)
+		@IntegerRange(min = 1, max = 16)
+		int parallelism();
+
+		@ConfKey("bulk-load")
+		@ConfComments({
+				"Whether to use faster, database-specific ways of writing data. For MariaDB, MySQL, and",
+				"CockroachDB, many rows are written in a single statement. For PostgreSQL, COPY is used.",
+				"Disable this to write rows using ordinary JDBC batches."})
+		@ConfDefault.DefaultBoolean(true)
+		boolean bulkLoad();
+
 	}
 
 	@ConfKey("ban-manager")
@@ -24,6 +24,7 @@ import jakarta.inject.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.service.Time;
 import space.arim.libertybans.core.database.InternalDatabase;
 import space.arim.libertybans.core.punish.Enaction;
@@ -32,8 +33,9 @@ import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
-import java.sql.SQLException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
@@ -42,6 +44,7 @@ import java.util.stream.Stream;
 public class ImportExecutor {
 
 	private final FactoryOfTheFuture futuresFactory;
+	private final Configs configs;
 	private final ImportFunction importFunction;
 	private final Provider<InternalDatabase> dbProvider;
 	private final PunishmentCreator creator;
@@ -50,9 +53,11 @@ public class ImportExecutor {
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	@Inject
-	public ImportExecutor(FactoryOfTheFuture futuresFactory, ImportFunction importFunction,
-						  Provider<InternalDatabase> dbProvider, PunishmentCreator creator, Time time) {
+	public ImportExecutor(FactoryOfTheFuture futuresFactory, Configs configs,
+						  ImportFunction importFunction, Provider<InternalDatabase> dbProvider,
+						  PunishmentCreator creator, Time time) {
 		this.futuresFactory = futuresFactory;
+		this.configs = configs;
 		this.importFunction = importFunction;
 		this.dbProvider = dbProvider;
 		this.creator = creator;
@@ -60,12 +65,42 @@ public class ImportExecutor {
 	}
 
 	public CentralisedFuture<ImportStatistics> performImport(ImportSource importSource) {
+		return startImport(importSource, null, false);
+	}
+
+	/**
+	 * Performs an import which saves its progress as it goes. If the import fails,
+	 * it may be resumed from the last saved progress.
+	 *
+	 * @param importSource the import source
+	 * @param progressKey the name under which to save progress, unique to the import source
+	 * @param resume whether to resume from previously saved progress
+	 * @return a future yielding the import statistics
+	 */
+	public CentralisedFuture<ImportStatistics> performImport(ImportSource importSource, String progressKey,
+															 boolean resume) {
+		return startImport(importSource, new ImportProgressTable(progressKey), resume);
+	}
+
+	/**
+	 * Determines whether there is saved progress from an interrupted import
+	 *
+	 * @param progressKey the name under which progress was saved
+	 * @return a future yielding true if there is progress which can be resumed
+	 */
+	public CentralisedFuture<Boolean> hasCheckpoint(String progressKey) {
+		ImportProgressTable progressTable = new ImportProgressTable(progressKey);
+		return dbProvider.get().query((context) -> progressTable.read(context).isPresent());
+	}
+
+	private CentralisedFuture<ImportStatistics> startImport(ImportSource importSource,
+															ImportProgressTable progressTable, boolean resume) {
 		Objects.requireNonNull(importSource, "importSource");
 
 		CentralisedFuture<ImportStatistics> future = futuresFactory.newIncompleteFuture();
 		new Thread(() -> {
 			try {
-				future.complete(runImport(importSource));
+				future.complete(runImport(importSource, progressTable, resume));
 			} catch (Throwable ex) {
 				future.completeExceptionally(ex);
 			}
@@ -73,38 +108,114 @@ public class ImportExecutor {
 		return future;
 	}
 
-	private ImportStatistics runImport(ImportSource importSource) {
-		ImportStatistics statistics = new ImportStatistics();
-		try (BatchOperationExecutor batchExecutor = new BatchOperationExecutor(dbProvider.get())) {
+	/*
+	 * The import is pipelined: punishments are read and transformed on this thread,
+	 * while the batch executor writes them to the database on another thread.
+	 *
+	 * If progress is saved, each transaction records the rows consumed from the import source
+	 * so far, along with the statistics. The checkpoint is committed together with the data it
+	 * describes, so resuming skips exactly the rows already imported.
+	 */
+	private ImportStatistics runImport(ImportSource importSource, ImportProgressTable progressTable,
+									   boolean resume) {
+		InternalDatabase database = dbProvider.get();
+		ImportCheckpoint checkpoint;
+		try {
+			checkpoint = loadCheckpoint(database, progressTable, resume);
+		} catch (ImportException ex) {
+			logger.error("Unable to start import", ex);
+			ImportStatistics statistics = new ImportStatistics();
+			statistics.markFailed();
+			return statistics;
+		}
+		ImportStatistics statistics = (checkpoint == null) ? new ImportStatistics() : checkpoint.statistics().copy();
+		if (checkpoint != null) {
+			logger.info("Resuming import from {} rows into phase {}", checkpoint.rowsConsumed(), checkpoint.phase());
+		}
+		int transactionSize = configs.getImportConfig().transactionSize();
+		try (BatchOperationExecutor batchExecutor = new BatchOperationExecutor(database, transactionSize)) {
 
-			ImportSink importSink = new ImportSink(batchExecutor, statistics);
-			transferPunishments(importSource, importSink);
-			transferExplicitNameAddressRecords(importSource, importSink);
+			ImportSink importSink = new ImportSink(batchExecutor, statistics, progressTable);
+			Progress.Factory progressFactory = new Progress.Factory(importSink, statistics, checkpoint);
+			transferPunishments(importSource, importSink,
+					progressFactory.forPhase(ImportCheckpoint.Phase.PUNISHMENTS), transactionSize);
+			transferExplicitNameAddressRecords(importSource, importSink,
+					progressFactory.forPhase(ImportCheckpoint.Phase.NAME_ADDRESS_HISTORY), transactionSize);
+			importSink.endLastTransaction();
+			batchExecutor.finish();
 
 			logger.info("Import completed successfully. {}", statistics);
 
-		} catch (ImportException | SQLException ex) {
-			logger.error(
-					"Unable to complete import successfully. It is recommended to remove " +
-							"any partially completed data, investigate the cause of failure, and " +
-							"try again when you are sure the problem has been corrected.", ex);
+		} catch (ImportException ex) {
+			if (progressTable == null) {
+				logger.error(
+						"Unable to complete import successfully. It is recommended to remove " +
+								"any partially completed data, investigate the cause of failure, and " +
+								"try again when you are sure the problem has been corrected.", ex);
+			} else {
+				logger.error(
+						"Unable to complete import successfully. Investigate the cause of failure, " +
+								"and when you are sure the problem has been corrected, resume the import " +
+								"using '/libertybans import <source> resume'.", ex);
+			}
 			statistics.markFailed();
 		}
 		return statistics;
 	}
 
-	private void transferPunishments(ImportSource importSource, ImportSink importSink) {
+	private static ImportCheckpoint loadCheckpoint(InternalDatabase database, ImportProgressTable progressTable,
+												   boolean resume) {
+		if (progressTable == null) {
+			return null;
+		}
+		if (resume) {
+			return database.query(progressTable::read).join().orElseThrow(
+					() -> new ImportException("There is no import progress to resume from"));
+		}
+		// Starting afresh
+		database.execute(progressTable::delete).join();
+		return null;
+	}
+
+	private void transferPunishments(ImportSource importSource, ImportSink importSink, Progress progress,
+									 int chunkSize) {
+		if (progress.phaseCompleted()) {
+			return;
+		}
+		ImportFunction.Transform transform = importFunction.transform(importSink);
+		// Punishments are transformed in chunks, so that the uuids of names are looked up together
+		// Each chunk is written in its own transaction
+		List<PortablePunishment> chunk = new ArrayList<>(chunkSize);
 		try (Stream<PortablePunishment> punishmentStream = importSource.sourcePunishments()) {
 			punishmentStream.forEach(punishment -> {
-				Optional<Enaction.OrderDetails> enactionOrder = importFunction.createOrder(punishment, importSink);
-				if (enactionOrder.isEmpty()) {
-					logger.info("Skipped imported punishment with ID {} applying to victim {}",
-							punishment.foreignId(), punishment.victimInfo());
+				if (progress.skipRow(punishment.foreignId().orElse(null))) {
 					return;
 				}
+				chunk.add(punishment);
+				if (chunk.size() == chunkSize) {
+					transferPunishmentChunk(transform, importSink, progress, chunk);
+					chunk.clear();
+					progress.endTransaction();
+				}
+			});
+		}
+		transferPunishmentChunk(transform, importSink, progress, chunk);
+		progress.phaseFinished();
+	}
+
+	private void transferPunishmentChunk(ImportFunction.Transform transform, ImportSink importSink,
+										 Progress progress, List<PortablePunishment> chunk) {
+		transform.prefetchUUIDs(chunk);
+		for (PortablePunishment punishment : chunk) {
+			Optional<Enaction.OrderDetails> enactionOrder = transform.createOrder(punishment);
+			if (enactionOrder.isEmpty()) {
+				logger.info("Skipped imported punishment with ID {} applying to victim {}",
+						punishment.foreignId(), punishment.victimInfo());
+			} else {
 				addEnaction(importSink, punishment, new Enaction(enactionOrder.get(), creator));
 				addImplicitNameAddressRecord(importSink, punishment);
-			});
+			}
+			progress.rowConsumed(punishment.foreignId().orElse(null));
 		}
 	}
 
@@ -134,9 +245,117 @@ public class ImportExecutor {
 		}
 	}
 
-	private void transferExplicitNameAddressRecords(ImportSource importSource, ImportSink importSink) {
+	private void transferExplicitNameAddressRecords(ImportSource importSource, ImportSink importSink,
+												   Progress progress, int chunkSize) {
+		if (progress.phaseCompleted()) {
+			return;
+		}
 		try (Stream<NameAddressRecord> nameAddressHistoryStream = importSource.sourceNameAddressHistory()) {
-			nameAddressHistoryStream.forEach(importSink::addNameAddressRecord);
+			nameAddressHistoryStream.forEach((nameAddressRecord) -> {
+				if (progress.skipRow(null)) {
+					return;
+				}
+				importSink.addNameAddressRecord(nameAddressRecord);
+				progress.rowConsumed(null);
+				if (progress.rowsConsumed() % chunkSize == 0) {
+					progress.endTransaction();
+				}
+			});
+		}
+		progress.phaseFinished();
+	}
+
+	/**
+	 * Tracks the progress through a single phase of the import
+	 *
+	 */
+	private static final class Progress {
+
+		private final Factory factory;
+		private final ImportCheckpoint.Phase phase;
+		private final boolean phaseCompleted;
+		private final long rowsToSkip;
+		private final Integer lastForeignIdToVerify;
+		private long rowsConsumed;
+		private Integer lastForeignId;
+
+		private Progress(Factory factory, ImportCheckpoint.Phase phase) {
+			this.factory = factory;
+			this.phase = phase;
+			ImportCheckpoint checkpoint = factory.checkpoint;
+			if (checkpoint == null) {
+				phaseCompleted = false;
+				rowsToSkip = 0;
+				lastForeignIdToVerify = null;
+			} else {
+				int comparison = phase.compareTo(checkpoint.phase());
+				phaseCompleted = comparison < 0;
+				rowsToSkip = (comparison == 0) ? checkpoint.rowsConsumed() : 0;
+				lastForeignIdToVerify = (comparison == 0) ? checkpoint.lastForeignId() : null;
+			}
+		}
+
+		boolean phaseCompleted() {
+			return phaseCompleted;
+		}
+
+		long rowsConsumed() {
+			return rowsConsumed;
+		}
+
+		/**
+		 * Determines whether a row should be skipped because it was imported prior to the checkpoint
+		 *
+		 * @param foreignId the foreign ID of the row if it has one
+		 * @return true to skip the row
+		 */
+		boolean skipRow(Integer foreignId) {
+			if (rowsConsumed >= rowsToSkip) {
+				return false;
+			}
+			rowsConsumed++;
+			if (rowsConsumed == rowsToSkip && lastForeignIdToVerify != null
+					&& !lastForeignIdToVerify.equals(foreignId)) {
+				throw new ImportException(
+						"The import source has changed since the import was interrupted. Expected row " +
+								rowsConsumed + " to have ID " + lastForeignIdToVerify + " but found " + foreignId);
+			}
+			return true;
+		}
+
+		void rowConsumed(Integer foreignId) {
+			rowsConsumed++;
+			lastForeignId = foreignId;
+		}
+
+		/**
+		 * Ends the current transaction, recording the rows consumed so far
+		 *
+		 */
+		void endTransaction() {
+			factory.importSink.endTransaction(new ImportCheckpoint(
+					phase, rowsConsumed, lastForeignId, factory.statistics.copy()));
+		}
+
+		void phaseFinished() {
+			if (rowsConsumed < rowsToSkip) {
+				throw new ImportException(
+						"The import source has changed since the import was interrupted. Expected at least " +
+								rowsToSkip + " rows but found " + rowsConsumed);
+			}
+			ImportCheckpoint.Phase[] phases = ImportCheckpoint.Phase.values();
+			int nextOrdinal = phase.ordinal() + 1;
+			if (nextOrdinal < phases.length) {
+				factory.importSink.endTransaction(new ImportCheckpoint(
+						phases[nextOrdinal], 0L, null, factory.statistics.copy()));
+			}
+		}
+
+		record Factory(ImportSink importSink, ImportStatistics statistics, ImportCheckpoint checkpoint) {
+
+			Progress forPhase(ImportCheckpoint.Phase phase) {
+				return new Progress(this, phase);
+			}
 		}
 	}
 }
@@ -34,7 +34,12 @@ import space.arim.libertybans.core.service.Time;
 import space.arim.libertybans.core.uuid.UUIDManager;
 import space.arim.omnibus.util.ThisClass;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public class ImportFunction {
@@ -50,63 +55,125 @@ public class ImportFunction {
 		this.time = time;
 	}
 
-	Optional<Enaction.OrderDetails> createOrder(PortablePunishment punishment, ImportSink importSink) {
-		Victim victim = toVictim(punishment.victimInfo(), importSink);
-		if (victim == null) {
-			return Optional.empty();
-		}
-		Operator operator = toOperator(punishment.operatorInfo(), importSink);
-		if (operator == null) {
-			return Optional.empty();
-		}
-		PortablePunishment.KnownDetails knownDetails = punishment.knownDetails();
-		return Optional.of(new Enaction.OrderDetails(
-				knownDetails.type(), victim, operator,
-				knownDetails.reason(), knownDetails.scope(),
-				knownDetails.start(), knownDetails.end(), null
-		));
+	/**
+	 * Creates the transform stage for a single import
+	 *
+	 * @param importSink the import sink, to which name records for looked up uuids are added
+	 * @return the transform
+	 */
+	Transform transform(ImportSink importSink) {
+		return new Transform(importSink);
 	}
 
-	private Victim toVictim(PortablePunishment.VictimInfo victimInfo, ImportSink importSink) {
-		Optional<Victim> overrideVictim = victimInfo.overrideVictim();
-		if (overrideVictim.isPresent()) {
-			return overrideVictim.get();
-		}
-		Optional<UUID> uuid = victimInfo.uuid();
-		if (uuid.isPresent()) {
-			return PlayerVictim.of(uuid.get());
+	/**
+	 * Converts imported punishments into enaction orders. NOT thread safe
+	 *
+	 */
+	final class Transform {
+
+		private final ImportSink importSink;
+		// The same operators usually appear across many punishments. Cleared per chunk to bound memory usage
+		private final Map<String, Optional<UUID>> lookedUpUUIDs = new HashMap<>();
+
+		private Transform(ImportSink importSink) {
+			this.importSink = importSink;
 		}
-		Optional<NetworkAddress> address = victimInfo.address();
-		if (address.isPresent()) {
-			return AddressVictim.of(address.get());
+
+		/**
+		 * Looks up at once the uuids of victims and operators identified only by name, so that
+		 * creating orders for the given punishments needs no lookup per name. <br>
+		 * <br>
+		 * Uuids looked up for the previous chunk are discarded.
+		 *
+		 * @param punishments the punishments about to be transformed
+		 */
+		void prefetchUUIDs(List<PortablePunishment> punishments) {
+			lookedUpUUIDs.clear();
+			Set<String> names = new HashSet<>();
+			for (PortablePunishment punishment : punishments) {
+				PortablePunishment.VictimInfo victimInfo = punishment.victimInfo();
+				if (victimInfo.overrideVictim().isEmpty() && victimInfo.uuid().isEmpty()
+						&& victimInfo.address().isEmpty()) {
+					victimInfo.name().ifPresent(names::add);
+				}
+				PortablePunishment.OperatorInfo operatorInfo = punishment.operatorInfo();
+				if (!operatorInfo.console() && operatorInfo.uuid().isEmpty()) {
+					operatorInfo.name().ifPresent(names::add);
+				}
+			}
+			if (names.isEmpty()) {
+				return;
+			}
+			Map<String, UUID> foundUUIDs = uuidManager.lookupUUIDsFromExactNames(names).join();
+			for (String name : names) {
+				lookedUpUUIDs.put(name, Optional.ofNullable(foundUUIDs.get(name)));
+			}
 		}
-		String name = victimInfo.name()
-				.orElseThrow(() -> new ImportException("Victim name must be present if uuid is not"));
-		UUID foundUUID = uuidManager.lookupUUIDFromExactName(name).join().orElse(null);
-		if (foundUUID == null) {
-			logger.warn("Skipping punishment because victim uuid could not be found for name {}", victimInfo.name());
-			return null;
+
+		Optional<Enaction.OrderDetails> createOrder(PortablePunishment punishment) {
+			Victim victim = toVictim(punishment.victimInfo());
+			if (victim == null) {
+				return Optional.empty();
+			}
+			Operator operator = toOperator(punishment.operatorInfo());
+			if (operator == null) {
+				return Optional.empty();
+			}
+			PortablePunishment.KnownDetails knownDetails = punishment.knownDetails();
+			return Optional.of(new Enaction.OrderDetails(
+					knownDetails.type(), victim, operator,
+					knownDetails.reason(), knownDetails.scope(),
+					knownDetails.start(), knownDetails.end(), null
+			));
 		}
-		importSink.addNameAddressRecord(new NameAddressRecord(foundUUID, name, null, time.currentTimestamp()));
-		return PlayerVictim.of(foundUUID);
-	}
 
-	private Operator toOperator(PortablePunishment.OperatorInfo operatorInfo, ImportSink importSink) {
-		if (operatorInfo.console()) {
-			return ConsoleOperator.INSTANCE;
+		private Victim toVictim(PortablePunishment.VictimInfo victimInfo) {
+			Optional<Victim> overrideVictim = victimInfo.overrideVictim();
+			if (overrideVictim.isPresent()) {
+				return overrideVictim.get();
+			}
+			Optional<UUID> uuid = victimInfo.uuid();
+			if (uuid.isPresent()) {
+				return PlayerVictim.of(uuid.get());
+			}
+			Optional<NetworkAddress> address = victimInfo.address();
+			if (address.isPresent()) {
+				return AddressVictim.of(address.get());
+			}
+			String name = victimInfo.name()
+					.orElseThrow(() -> new ImportException("Victim name must be present if uuid is not"));
+			UUID foundUUID = lookupUUID(name);
+			if (foundUUID == null) {
+				logger.warn("Skipping punishment because victim uuid could not be found for name {}", victimInfo.name());
+				return null;
+			}
+			importSink.addNameAddressRecord(new NameAddressRecord(foundUUID, name, null, time.currentTimestamp()));
+			return PlayerVictim.of(foundUUID);
 		}
-		Optional<UUID> uuid = operatorInfo.uuid();
-		if (uuid.isPresent()) {
-			return PlayerOperator.of(uuid.get());
+
+		private Operator toOperator(PortablePunishment.OperatorInfo operatorInfo) {
+			if (operatorInfo.console()) {
+				return ConsoleOperator.INSTANCE;
+			}
+			Optional<UUID> uuid = operatorInfo.uuid();
+			if (uuid.isPresent()) {
+				return PlayerOperator.of(uuid.get());
+			}
+			String name = operatorInfo.name()
+					.orElseThrow(() -> new ImportException("Operator name must be present if uuid is not"));
+			UUID foundUUID = lookupUUID(name);
+			if (foundUUID == null) {
+				logger.warn("Skipping punishment because operator uuid could not be found for name {}", name);
+				return null;
+			}
+			importSink.addNameAddressRecord(new NameAddressRecord(foundUUID, name, null, time.currentTimestamp()));
+			return PlayerOperator.of(foundUUID);
 		}
-		String name = operatorInfo.name()
-				.orElseThrow(() -> new ImportException("Operator name must be present if uuid is not"));
-		UUID foundUUID = uuidManager.lookupUUIDFromExactName(name).join().orElse(null);
-		if (foundUUID == null) {
-			logger.warn("Skipping punishment because operator uuid could not be found for name {}", name);
-			return null;
+
+		private UUID lookupUUID(String name) {
+			return lookedUpUUIDs.computeIfAbsent(
+					name, (n) -> uuidManager.lookupUUIDFromExactName(n).join()
+			).orElse(null);
 		}
-		importSink.addNameAddressRecord(new NameAddressRecord(foundUUID, name, null, time.currentTimestamp()));
-		return PlayerOperator.of(foundUUID);
 	}
 }
@@ -0,0 +1,103 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import org.jooq.DSLContext;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static space.arim.libertybans.core.schema.tables.ImportProgress.IMPORT_PROGRESS;
+
+/**
+ * Database table in which import checkpoints are stored. Checkpoints are written in the same
+ * transaction as the imported data, so a checkpoint always describes exactly the committed data.
+ *
+ */
+final class ImportProgressTable {
+
+	private final String source;
+
+	/**
+	 * Creates from the name of the import source
+	 *
+	 * @param source the name under which to save progress, unique to the import source
+	 */
+	ImportProgressTable(String source) {
+		this.source = Objects.requireNonNull(source, "source");
+	}
+
+	Optional<ImportCheckpoint> read(DSLContext context) {
+		return context
+				.selectFrom(IMPORT_PROGRESS)
+				.where(IMPORT_PROGRESS.SOURCE.eq(source))
+				.fetchOptional((record) -> {
+					ImportCheckpoint.Phase[] phases = ImportCheckpoint.Phase.values();
+					int phase = record.getPhase();
+					if (phase < 0 || phase >= phases.length) {
+						throw new ImportException("Corrupt import progress for " + source + ": unknown phase " + phase);
+					}
+					return new ImportCheckpoint(
+							phases[phase], record.getRowsConsumed(), record.getLastForeignId(),
+							new ImportStatistics(record.getActive(), record.getHistorical(), record.getNameAddressRecords())
+					);
+				});
+	}
+
+	void write(DSLContext context, ImportCheckpoint checkpoint) {
+		short phase = (short) checkpoint.phase().ordinal();
+		ImportStatistics statistics = checkpoint.statistics();
+		context
+				.insertInto(IMPORT_PROGRESS)
+				.columns(
+						IMPORT_PROGRESS.SOURCE, IMPORT_PROGRESS.PHASE, IMPORT_PROGRESS.ROWS_CONSUMED,
+						IMPORT_PROGRESS.LAST_FOREIGN_ID, IMPORT_PROGRESS.ACTIVE, IMPORT_PROGRESS.HISTORICAL,
+						IMPORT_PROGRESS.NAME_ADDRESS_RECORDS
+				)
+				.values(
+						source, phase, checkpoint.rowsConsumed(), checkpoint.lastForeignId(),
+						statistics.activeCount(), statistics.historicalCount(), statistics.nameAddressRecordCount()
+				)
+				.onConflict(IMPORT_PROGRESS.SOURCE)
+				.doUpdate()
+				.set(IMPORT_PROGRESS.PHASE, phase)
+				.set(IMPORT_PROGRESS.ROWS_CONSUMED, checkpoint.rowsConsumed())
+				.set(IMPORT_PROGRESS.LAST_FOREIGN_ID, checkpoint.lastForeignId())
+				.set(IMPORT_PROGRESS.ACTIVE, statistics.activeCount())
+				.set(IMPORT_PROGRESS.HISTORICAL, statistics.historicalCount())
+				.set(IMPORT_PROGRESS.NAME_ADDRESS_RECORDS, statistics.nameAddressRecordCount())
+				.execute();
+	}
+
+	void delete(DSLContext context) {
+		context
+				.deleteFrom(IMPORT_PROGRESS)
+				.where(IMPORT_PROGRESS.SOURCE.eq(source))
+				.execute();
+	}
+
+	@Override
+	public String toString() {
+		return "ImportProgressTable{" +
+				"source='" + source + '\'' +
+				'}';
+	}
+
+}
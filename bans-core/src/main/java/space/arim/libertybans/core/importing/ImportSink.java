@@ -19,25 +19,45 @@
 
 package space.arim.libertybans.core.importing;
 
+import org.jooq.DSLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.punish.Punishment;
-import space.arim.libertybans.core.punish.Association;
 import space.arim.libertybans.core.punish.Enaction;
 import space.arim.omnibus.util.ThisClass;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static space.arim.libertybans.core.schema.tables.Addresses.ADDRESSES;
+import static space.arim.libertybans.core.schema.tables.Names.NAMES;
 
 class ImportSink {
 
 	private final BatchOperationExecutor batchExecutor;
 	private final ImportStatistics statistics;
+	private final ImportProgressTable progressTable;
+
+	private List<NameAddressRecord> pendingNameAddressRecords = new ArrayList<>();
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
-	ImportSink(BatchOperationExecutor batchExecutor, ImportStatistics statistics) {
+	/**
+	 * Creates the sink
+	 *
+	 * @param batchExecutor the batch executor
+	 * @param statistics the statistics to update
+	 * @param progressTable the table in which to save progress, or null if progress is not saved
+	 */
+	ImportSink(BatchOperationExecutor batchExecutor, ImportStatistics statistics, ImportProgressTable progressTable) {
 		this.batchExecutor = batchExecutor;
 		this.statistics = statistics;
+		this.progressTable = progressTable;
 	}
 
 	void addActivePunishment(Enaction enaction) {
@@ -67,13 +87,93 @@ class ImportSink {
 	}
 
 	void addNameAddressRecord(NameAddressRecord nameAddressRecord) {
-		batchExecutor.runOperation((context, transaction) -> {
-			Association association = new Association(nameAddressRecord.uuid(), context);
-			Instant timeRecorded = nameAddressRecord.timeRecorded();
-			nameAddressRecord.name().ifPresent((name) -> association.associatePastName(name, timeRecorded));
-			nameAddressRecord.address().ifPresent((address) -> association.associatePastAddress(address, timeRecorded));
-		});
+		pendingNameAddressRecords.add(nameAddressRecord);
+		if (pendingNameAddressRecords.size() == batchExecutor.transactionSize()) {
+			flushNameAddressRecords();
+		}
 		statistics.transferredNameAddressRecord();
 	}
 
+	/**
+	 * Ends the current transaction, which records the given checkpoint if progress is saved
+	 *
+	 * @param checkpoint the checkpoint describing all data added so far
+	 */
+	void endTransaction(ImportCheckpoint checkpoint) {
+		flushNameAddressRecords();
+		batchExecutor.endTransaction((context, transaction) -> {
+			if (progressTable != null) {
+				progressTable.write(context, checkpoint);
+			}
+		});
+	}
+
+	/**
+	 * Ends the last transaction, which deletes the saved progress since the import is complete.
+	 * Must be called once all data is added
+	 *
+	 */
+	void endLastTransaction() {
+		flushNameAddressRecords();
+		batchExecutor.endTransaction((context, transaction) -> {
+			if (progressTable != null) {
+				progressTable.delete(context);
+			}
+		});
+	}
+
+	private void flushNameAddressRecords() {
+		if (pendingNameAddressRecords.isEmpty()) {
+			return;
+		}
+		List<NameAddressRecord> records = pendingNameAddressRecords;
+		pendingNameAddressRecords = new ArrayList<>();
+		batchExecutor.runOperation((context, transaction) -> insertNameAddressRecords(context, records));
+	}
+
+	private record NameKey(UUID uuid, String name) {}
+
+	private record AddressKey(UUID uuid, NetworkAddress address) {}
+
+	/*
+	 * Writes records using multi-row inserts. If the same name or address is recorded
+	 * more than once for a user, the first record is kept, as with Association#associatePastName
+	 */
+	private static void insertNameAddressRecords(DSLContext context, List<NameAddressRecord> records) {
+		Map<NameKey, Instant> names = new LinkedHashMap<>();
+		Map<AddressKey, Instant> addresses = new LinkedHashMap<>();
+		for (NameAddressRecord record : records) {
+			UUID uuid = record.uuid();
+			Instant timeRecorded = record.timeRecorded();
+			record.name().ifPresent((name) -> names.putIfAbsent(new NameKey(uuid, name), timeRecorded));
+			record.address().ifPresent((address) -> addresses.putIfAbsent(new AddressKey(uuid, address), timeRecorded));
+		}
+		if (!names.isEmpty()) {
+			var insertNames = context
+					.insertInto(NAMES)
+					.columns(NAMES.UUID, NAMES.NAME, NAMES.UPDATED);
+			for (Map.Entry<NameKey, Instant> name : names.entrySet()) {
+				NameKey key = name.getKey();
+				insertNames = insertNames.values(key.uuid(), key.name(), name.getValue());
+			}
+			insertNames
+					.onConflict(NAMES.UUID, NAMES.NAME)
+					.doNothing()
+					.execute();
+		}
+		if (!addresses.isEmpty()) {
+			var insertAddresses = context
+					.insertInto(ADDRESSES)
+					.columns(ADDRESSES.UUID, ADDRESSES.ADDRESS, ADDRESSES.UPDATED);
+			for (Map.Entry<AddressKey, Instant> address : addresses.entrySet()) {
+				AddressKey key = address.getKey();
+				insertAddresses = insertAddresses.values(key.uuid(), key.address(), address.getValue());
+			}
+			insertAddresses
+					.onConflict(ADDRESSES.UUID, ADDRESSES.ADDRESS)
+					.doNothing()
+					.execute();
+		}
+	}
+
 }
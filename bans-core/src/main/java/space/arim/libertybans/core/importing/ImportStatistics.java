@@ -43,6 +43,22 @@ public final class ImportStatistics {
 		failed = true;
 	}
 
+	int activeCount() {
+		return active;
+	}
+
+	int historicalCount() {
+		return historical;
+	}
+
+	int nameAddressRecordCount() {
+		return nameAddressRecord;
+	}
+
+	ImportStatistics copy() {
+		return new ImportStatistics(active, historical, nameAddressRecord);
+	}
+
 	void transferredActive() {
 		active++;
 	}
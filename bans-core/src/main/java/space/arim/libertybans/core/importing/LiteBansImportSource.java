@@ -83,7 +83,7 @@ public class LiteBansImportSource implements ImportSource {
 
 		@Override
 		public String selectStatement() {
-			return "SELECT * FROM " + config.litebans().tablePrefix() + table;
+			return "SELECT * FROM " + config.litebans().tablePrefix() + table + " ORDER BY id";
 		}
 
 		@Override
@@ -221,7 +221,7 @@ public class LiteBansImportSource implements ImportSource {
 
 		@Override
 		public String selectStatement() {
-			return "SELECT uuid, name, ip, date FROM " + config.litebans().tablePrefix() + "history";
+			return "SELECT uuid, name, ip, date FROM " + config.litebans().tablePrefix() + "history ORDER BY id";
 		}
 
 		@Override
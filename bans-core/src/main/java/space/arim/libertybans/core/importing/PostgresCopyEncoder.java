@@ -0,0 +1,88 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import org.jooq.Converter;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+
+import java.util.HexFormat;
+
+/**
+ * Encodes rows in PostgreSQL's CSV format, for use with {@code COPY ... FROM STDIN}. <br>
+ * <br>
+ * Values are converted to their database representation using the converters of each
+ * field. An empty unquoted value is NULL, while strings are always quoted so that an
+ * empty string remains distinct from NULL.
+ *
+ */
+final class PostgresCopyEncoder {
+
+	private final Field<?>[] fields;
+
+	PostgresCopyEncoder(Field<?>[] fields) {
+		this.fields = fields;
+	}
+
+	String copyStatement(DSLContext context, Table<?> table) {
+		StringBuilder statement = new StringBuilder("COPY ");
+		statement.append(context.render(table)).append(" (");
+		for (int n = 0; n < fields.length; n++) {
+			if (n != 0) {
+				statement.append(", ");
+			}
+			statement.append(context.render(fields[n].getUnqualifiedName()));
+		}
+		return statement.append(") FROM STDIN WITH (FORMAT csv)").toString();
+	}
+
+	void encodeRow(Record record, StringBuilder output) {
+		for (int n = 0; n < fields.length; n++) {
+			if (n != 0) {
+				output.append(',');
+			}
+			encodeValue(databaseValue(fields[n], record), output);
+		}
+		output.append('\n');
+	}
+
+	private static <T> Object databaseValue(Field<T> field, Record record) {
+		@SuppressWarnings("unchecked")
+		Converter<Object, T> converter = (Converter<Object, T>) field.getConverter();
+		return converter.to(record.get(field));
+	}
+
+	private static void encodeValue(Object value, StringBuilder output) {
+		if (value == null) {
+			return;
+		}
+		if (value instanceof byte[] bytes) {
+			// bytea hex format. Backslashes are not special in CSV
+			output.append("\\x").append(HexFormat.of().formatHex(bytes));
+		} else if (value instanceof String string) {
+			output.append('"').append(string.replace("\"", "\"\"")).append('"');
+		} else {
+			output.append(value);
+		}
+	}
+
+}
@@ -21,33 +21,57 @@ package space.arim.libertybans.core.importing;
 
 import jakarta.inject.Inject;
 import jakarta.inject.Named;
-import jakarta.inject.Provider;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.ForeignKey;
+import org.jooq.InsertValuesStepN;
+import org.jooq.Record;
 import org.jooq.Table;
 import org.jooq.impl.DSL;
+import org.postgresql.PGConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.config.SqlConfig;
 import space.arim.libertybans.core.database.DatabaseConstants;
 import space.arim.libertybans.core.database.DatabaseManager;
 import space.arim.libertybans.core.database.DatabaseResult;
 import space.arim.libertybans.core.database.DatabaseSettings;
+import space.arim.libertybans.core.database.InternalDatabase;
 import space.arim.libertybans.core.database.StandardDatabase;
-import space.arim.libertybans.core.database.execute.QueryExecutor;
-import space.arim.libertybans.core.database.jooq.BatchTransfer;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.database.jooq.BatchExecute;
 import space.arim.libertybans.core.database.sql.SequenceValue;
+import space.arim.libertybans.core.punish.EnactionIdCache;
+import space.arim.libertybans.core.service.SimpleThreadFactory;
 import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static space.arim.libertybans.core.schema.Sequences.LIBERTYBANS_PUNISHMENT_IDS;
 import static space.arim.libertybans.core.schema.Sequences.LIBERTYBANS_VICTIM_IDS;
+import static space.arim.libertybans.core.schema.tables.ArchivedPunishments.ARCHIVED_PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.ImportProgress.IMPORT_PROGRESS;
 import static space.arim.libertybans.core.schema.tables.Messages.MESSAGES;
 import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
 import static space.arim.libertybans.core.schema.tables.Revision.REVISION;
@@ -56,19 +80,21 @@ import static space.arim.libertybans.core.schema.tables.Victims.VICTIMS;
 public final class SelfImportProcess {
 
 	private final Path folder;
+	private final FactoryOfTheFuture futuresFactory;
 	private final Configs configs;
 	private final DatabaseManager databaseManager;
-	private final Provider<QueryExecutor> queryExecutor;
+	private final EnactionIdCache idCache;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	@Inject
-	public SelfImportProcess(@Named("folder") Path folder, Configs configs,
-							 DatabaseManager databaseManager, Provider<QueryExecutor> queryExecutor) {
+	public SelfImportProcess(@Named("folder") Path folder, FactoryOfTheFuture futuresFactory,
+							 Configs configs, DatabaseManager databaseManager, EnactionIdCache idCache) {
 		this.folder = folder;
+		this.futuresFactory = futuresFactory;
 		this.configs = configs;
 		this.databaseManager = databaseManager;
-		this.queryExecutor = queryExecutor;
+		this.idCache = idCache;
 	}
 
 	public CentralisedFuture<Void> transferAllData() {
@@ -78,49 +104,147 @@ public final class SelfImportProcess {
 	public CentralisedFuture<Void> transferAllData(Path folder) {
 		logger.info("Beginning self-import process");
 
-		return queryExecutor.get().execute((currentDbCtx) -> {
-			ImportConfig importConfig = configs.getImportConfig();
-			ImportConfig.SelfSettings selfSettings = importConfig.self();
-			DatabaseResult dbResult = new DatabaseSettings(folder, databaseManager).create(selfSettings);
+		CentralisedFuture<Void> future = futuresFactory.newIncompleteFuture();
+		new Thread(() -> {
+			try {
+				runTransfer(folder);
+				future.complete(null);
+			} catch (Throwable ex) {
+				future.completeExceptionally(ex);
+			}
+		}, "LibertyBans-SelfImporter").start();
+		return future;
+	}
 
-			try (StandardDatabase peerDb = dbResult.database()) {
+	private void runTransfer(Path folder) {
+		ImportConfig importConfig = configs.getImportConfig();
+		ImportConfig.SelfSettings selfSettings = importConfig.self();
+		DatabaseResult dbResult = new DatabaseSettings(folder, databaseManager).create(selfSettings);
 
-				if (!dbResult.success()) {
-					logger.warn("Failed to connect to import source");
-					return;
-				}
-				peerDb.execute((peerDbCtx) -> {
-					DSLContext source, target;
-					if (selfSettings.reverseDirection()) {
-						source = currentDbCtx;
-						target = peerDbCtx;
-					} else {
-						source = peerDbCtx;
-						target = currentDbCtx;
-					}
-					var selfImport = new SelfImport(source, target, importConfig.retrievalSize());
-					selfImport.runTransfer();
-					selfImport.updateSequences();
-				}).join();
+		try (StandardDatabase peerDb = dbResult.database()) {
+
+			if (!dbResult.success()) {
+				logger.warn("Failed to connect to import source");
+				return;
+			}
+			InternalDatabase currentDb = databaseManager.getInternal();
+			InternalDatabase source, target;
+			if (selfSettings.reverseDirection()) {
+				source = currentDb;
+				target = peerDb;
+			} else {
+				source = peerDb;
+				target = currentDb;
+			}
+			// Each table transfer holds one connection to either database. On the current database,
+			// the connections reserved for enforcement must stay free, and one is left for other queries
+			SqlConfig sqlConfig = configs.getSqlConfig();
+			int reservedConnections = Math.min(sqlConfig.reservedEnforcementConnections(), sqlConfig.poolSize() - 1);
+			int parallelism = Math.max(1, Math.min(selfSettings.parallelism(),
+					Math.min(selfSettings.poolSize(), sqlConfig.poolSize() - reservedConnections - 1)));
+			var selfImport = new SelfImport(
+					source, target, importConfig.transactionSize(), selfSettings.bulkLoad(), parallelism
+			);
+			selfImport.runTransfer();
+			selfImport.updateSequences();
+			if (target == currentDb) {
+				// Identifiers previously looked up may no longer match the imported rows
+				idCache.clear();
+			}
+		}
+		logger.info("Completed self-import process");
+	}
+
+	/**
+	 * Tables to transfer, mapped to the tables they reference. A table is transferred
+	 * once the tables it references are completely transferred. Independent tables are
+	 * transferred concurrently. <br>
+	 * <br>
+	 * The schema revision, messages and import progress are not transferred, since
+	 * they describe the database itself rather than punishment data.
+	 *
+	 * @return the tables to transfer and their dependencies, in the order of
+	 * {@link DatabaseConstants.TableOrder#REFERENTS_FIRST}
+	 */
+	private static Map<Table<?>, Set<Table<?>>> tableDependencies() {
+		Map<Table<?>, Set<Table<?>>> dependencies = new LinkedHashMap<>();
+		for (Table<?> table : DatabaseConstants.allTables(DatabaseConstants.TableOrder.REFERENTS_FIRST)) {
+			if (table.equals(REVISION) || table.equals(MESSAGES) || table.equals(IMPORT_PROGRESS)) {
+				continue;
+			}
+			Set<Table<?>> referenced = new HashSet<>();
+			for (ForeignKey<?, ?> reference : table.getReferences()) {
+				referenced.add(reference.getKey().getTable());
 			}
-			logger.info("Completed self-import process");
-		});
+			// Referenced tables precede their referrers, so any referenced table is already present
+			referenced.retainAll(dependencies.keySet());
+			dependencies.put(table, Set.copyOf(referenced));
+		}
+		return dependencies;
 	}
 
-	private record SelfImport(DSLContext source, DSLContext target, int maxBatchSize) {
+	private record SelfImport(InternalDatabase source, InternalDatabase target, int transactionSize,
+							  boolean bulkLoad, int parallelism) {
 
+		/**
+		 * Transfers all tables. Unlike a single transaction spanning the whole transfer, each
+		 * table is committed in transactions of {@code transactionSize} rows, so that tables
+		 * may be transferred concurrently and without holding every row in one transaction. <br>
+		 * <br>
+		 * As a consequence, if the transfer fails, the target database is left with whatever
+		 * was committed up to that point. The rows must be removed before trying again.
+		 *
+		 * @throws ImportException if the transfer failed
+		 */
 		private void runTransfer() {
-			for (Table<?> table : DatabaseConstants.allTables(DatabaseConstants.TableOrder.REFERENTS_FIRST)) {
-				if (table.equals(REVISION) || table.equals(MESSAGES)) {
-					continue;
+			Map<Table<?>, Set<Table<?>>> dependencies = tableDependencies();
+			SelfImportProgress progress;
+			try {
+				progress = source.query((context) -> {
+					Map<Table<?>, Long> totals = new LinkedHashMap<>();
+					for (Table<?> table : dependencies.keySet()) {
+						totals.put(table, (long) context.fetchCount(table));
+					}
+					return new SelfImportProgress(totals);
+				}).join();
+			} catch (CompletionException ex) {
+				throw new ImportException("Unable to count rows in import source", ex.getCause());
+			}
+			logger.info("Transferring {} rows using {} connections", progress.totalRows(), parallelism);
+
+			ExecutorService transferPool = Executors.newFixedThreadPool(
+					parallelism, SimpleThreadFactory.create("SelfImport"));
+			ScheduledExecutorService progressReporter = Executors.newSingleThreadScheduledExecutor(
+					SimpleThreadFactory.create("SelfImport-Progress"));
+			progressReporter.scheduleWithFixedDelay(
+					() -> logger.info("Self-import progress: {}", progress.report()), 10L, 10L, TimeUnit.SECONDS);
+			try {
+				Map<Table<?>, CompletableFuture<?>> transfers = new HashMap<>();
+				for (Map.Entry<Table<?>, Set<Table<?>>> entry : dependencies.entrySet()) {
+					Table<?> table = entry.getKey();
+					CompletableFuture<?>[] referencedTransfers = entry.getValue().stream()
+							.map(transfers::get)
+							.toArray(CompletableFuture[]::new);
+					transfers.put(table, CompletableFuture.allOf(referencedTransfers).thenRunAsync(() -> {
+						logger.info("Beginning transfer of data from table: {}", table.getName());
+						transferTable(table, progress);
+						logger.info("Finished transfer of data from table: {}", table.getName());
+					}, transferPool));
 				}
-				logger.info("Beginning transfer of data from table: {}", table.getName());
-				transferTable(table);
-				logger.info("Finished transfer of data from table: {}", table.getName());
+				CompletableFuture.allOf(transfers.values().toArray(CompletableFuture[]::new)).join();
+			} catch (CompletionException ex) {
+				// Stop remaining transfers
+				progress.cancel();
+				throw new ImportException("Failed to transfer data. The target database now contains partial " +
+						"data which must be removed before trying again", ex.getCause());
+			} finally {
+				progressReporter.shutdownNow();
+				transferPool.shutdown();
 			}
+			logger.info("Self-import progress: {}", progress.report());
 		}
 
-		private <R extends org.jooq.Record> void transferTable(Table<R> table) {
+		private <R extends Record> void transferTable(Table<R> table, SelfImportProgress progress) {
 
 			// Table fields
 			Field<?>[] fields;
@@ -137,12 +261,57 @@ public final class SelfImportProcess {
 				feature. If the feature ever becomes part of the OSS edition, switch to it here.
 				 */
 			}
+			BulkLoad bulkLoad = BulkLoad.forVendor(target.getVendor(), this.bulkLoad);
+
+			try (Connection sourceConnection = source.getConnection();
+				 Connection targetConnection = target.getConnection()) {
+
+				source.executeWithExistingConnection(sourceConnection, (sourceContext, sourceTransaction) -> {
+					// Rows are streamed from the source and written in transactions of a bounded size
+					List<R> rows = new ArrayList<>(transactionSize);
+					try (var cursor = sourceContext.selectFrom(table).fetchSize(transactionSize).fetchLazy()) {
+						for (R row : cursor) {
+							rows.add(row);
+							if (rows.size() == transactionSize) {
+								writeRows(targetConnection, table, fields, rows, bulkLoad, progress);
+							}
+						}
+					}
+					if (!rows.isEmpty()) {
+						writeRows(targetConnection, table, fields, rows, bulkLoad, progress);
+					}
+				});
+			} catch (SQLException ex) {
+				throw new ImportException("Failed to transfer table " + table.getName(), ex);
+			}
+		}
+
+		private <R extends Record> void writeRows(Connection targetConnection, Table<R> table, Field<?>[] fields,
+												  List<R> rows, BulkLoad bulkLoad, SelfImportProgress progress) {
+			if (progress.cancelled()) {
+				throw new ImportException("Transfer of table " + table.getName() + " cancelled");
+			}
+			try {
+				target.executeWithExistingConnection(targetConnection, (targetContext, targetTransaction) -> {
+					switch (bulkLoad) {
+					case JDBC_BATCH -> batchInsert(targetContext, table, fields, rows);
+					case MULTI_ROW_VALUES -> multiRowInsert(targetContext, table, fields, rows);
+					case COPY -> copyIn(targetConnection, targetContext, table, fields, rows);
+					}
+				});
+			} catch (SQLException ex) {
+				throw new ImportException("Failed to write data to table " + table.getName(), ex);
+			}
+			progress.transferred(table, rows.size());
+			rows.clear();
+		}
 
+		private <R extends Record> void batchInsert(DSLContext target, Table<R> table,
+													Field<?>[] fields, List<R> rows) {
 			// Dummy null values for use with the batch API
 			Object[] emptyValues = new Object[fields.length];
 
-			new BatchTransfer<>(
-					source.selectFrom(table).fetchLazy(),
+			new BatchExecute<R>(
 					() -> target.batch(target
 							.insertInto(table)
 							.columns(fields)
@@ -155,22 +324,96 @@ public final class SelfImportProcess {
 						}
 						return batch.bind(bindValues);
 					}
-			).execute(maxBatchSize);
+			).execute(rows, rows.size());
+		}
+
+		private <R extends Record> void multiRowInsert(DSLContext target, Table<R> table,
+													   Field<?>[] fields, List<R> rows) {
+			InsertValuesStepN<R> insert = target.insertInto(table).columns(fields);
+			for (R record : rows) {
+				Object[] values = new Object[fields.length];
+				for (int n = 0; n < fields.length; n++) {
+					values[n] = record.get(fields[n]);
+				}
+				insert = insert.values(values);
+			}
+			insert.execute();
+		}
+
+		private <R extends Record> void copyIn(Connection targetConnection, DSLContext target, Table<R> table,
+											   Field<?>[] fields, List<R> rows) {
+			try {
+				if (!targetConnection.isWrapperFor(PGConnection.class)) {
+					// Not the PostgreSQL driver after all
+					multiRowInsert(target, table, fields, rows);
+					return;
+				}
+			} catch (SQLException ex) {
+				throw new ImportException("Failed to detect the PostgreSQL driver", ex);
+			}
+			PostgresCopyEncoder encoder = new PostgresCopyEncoder(fields);
+			StringBuilder data = new StringBuilder(rows.size() * 64);
+			for (R record : rows) {
+				encoder.encodeRow(record, data);
+			}
+			try {
+				targetConnection.unwrap(PGConnection.class).getCopyAPI().copyIn(
+						encoder.copyStatement(target, table), new StringReader(data.toString())
+				);
+			} catch (SQLException | IOException ex) {
+				throw new ImportException("Failed to COPY data into table " + table.getName(), ex);
+			}
 		}
 
 		private void updateSequences() {
-			// Make sure to select MAX + 1 of sequence value
-			long nextPunishmentId = target
-					.select(DSL.max(PUNISHMENTS.ID).plus(1))
-					.from(PUNISHMENTS)
-					.fetchSingle().value1();
-			new SequenceValue<>(target, LIBERTYBANS_PUNISHMENT_IDS).setValue(nextPunishmentId);
-
-			int nextVictimId = target
-					.select(DSL.max(VICTIMS.ID).plus(1))
-					.from(VICTIMS)
-					.fetchSingle().value1();
-			new SequenceValue<>(target, LIBERTYBANS_VICTIM_IDS).setValue(nextVictimId);
+			target.execute((context) -> {
+				// Make sure to select MAX + 1 of sequence value
+				// Archived punishments keep their IDs, so they must be considered as well
+				long nextPunishmentId = context
+						.select(DSL.greatest(
+								DSL.coalesce(
+										DSL.field(DSL.select(DSL.max(PUNISHMENTS.ID)).from(PUNISHMENTS)),
+										0L
+								),
+								DSL.coalesce(
+										DSL.field(DSL.select(DSL.max(ARCHIVED_PUNISHMENTS.ID)).from(ARCHIVED_PUNISHMENTS)),
+										0L
+								)
+						).plus(1))
+						.fetchSingle().value1();
+				new SequenceValue<>(context, LIBERTYBANS_PUNISHMENT_IDS).setValue(nextPunishmentId);
+
+				int nextVictimId = context
+						.select(DSL.max(VICTIMS.ID).plus(1))
+						.from(VICTIMS)
+						.fetchSingle().value1();
+				new SequenceValue<>(context, LIBERTYBANS_VICTIM_IDS).setValue(nextVictimId);
+			}).join();
+		}
+	}
+
+	/**
+	 * How rows are written to the target database
+	 *
+	 */
+	enum BulkLoad {
+		/** A JDBC batch of single-row inserts */
+		JDBC_BATCH,
+		/** A single insert statement with many rows */
+		MULTI_ROW_VALUES,
+		/** PostgreSQL's COPY ... FROM STDIN */
+		COPY;
+
+		static BulkLoad forVendor(Vendor vendor, boolean bulkLoad) {
+			if (!bulkLoad) {
+				return JDBC_BATCH;
+			}
+			return switch (vendor) {
+				// HyperSQL is embedded, so there are no round trips to save
+				case HSQLDB -> JDBC_BATCH;
+				case MARIADB, MYSQL, COCKROACH -> MULTI_ROW_VALUES;
+				case POSTGRES -> COPY;
+			};
 		}
 	}
 }
@@ -0,0 +1,92 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import org.jooq.Table;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of a self-import, shared between the threads transferring each table
+ *
+ */
+final class SelfImportProgress {
+
+	private final Map<Table<?>, TableProgress> tables;
+	private volatile boolean cancelled;
+
+	SelfImportProgress(Map<Table<?>, Long> totals) {
+		Map<Table<?>, TableProgress> tables = new LinkedHashMap<>();
+		totals.forEach((table, total) -> tables.put(table, new TableProgress(total)));
+		this.tables = Collections.unmodifiableMap(tables);
+	}
+
+	long totalRows() {
+		return tables.values().stream().mapToLong(TableProgress::total).sum();
+	}
+
+	void transferred(Table<?> table, int rows) {
+		tables.get(table).transferred.addAndGet(rows);
+	}
+
+	void cancel() {
+		cancelled = true;
+	}
+
+	boolean cancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Describes the progress of every table, and of the import as a whole
+	 *
+	 * @return the progress report
+	 */
+	String report() {
+		StringBuilder report = new StringBuilder();
+		long overallTransferred = 0;
+		long overallTotal = 0;
+		for (Map.Entry<Table<?>, TableProgress> entry : tables.entrySet()) {
+			TableProgress tableProgress = entry.getValue();
+			long transferred = tableProgress.transferred.get();
+			overallTransferred += transferred;
+			overallTotal += tableProgress.total;
+			report.append(entry.getKey().getName()).append(' ')
+					.append(transferred).append('/').append(tableProgress.total)
+					.append(" (").append(percentage(transferred, tableProgress.total)).append("%), ");
+		}
+		return report.append("overall ").append(percentage(overallTransferred, overallTotal)).append('%').toString();
+	}
+
+	private static long percentage(long transferred, long total) {
+		return (total == 0) ? 100 : transferred * 100 / total;
+	}
+
+	private record TableProgress(long total, AtomicLong transferred) {
+
+		TableProgress(long total) {
+			this(total, new AtomicLong());
+		}
+	}
+
+}
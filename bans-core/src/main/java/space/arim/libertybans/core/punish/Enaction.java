@@ -31,8 +31,10 @@ import space.arim.libertybans.core.database.execute.Transaction;
 import space.arim.libertybans.core.database.sql.ScopeIdSequenceValue;
 import space.arim.libertybans.core.database.sql.SequenceValue;
 import space.arim.libertybans.core.database.sql.TableForType;
+import space.arim.libertybans.core.database.sql.TrackCounts;
 import space.arim.libertybans.core.database.sql.TrackIdSequenceValue;
 import space.arim.libertybans.core.database.sql.VictimIdSequenceValue;
+import space.arim.libertybans.core.database.sql.WarnCounts;
 
 import java.time.Instant;
 
@@ -49,10 +51,35 @@ public class Enaction {
 
 	private final OrderDetails orderDetails;
 	private final PunishmentCreator creator;
+	private final EnactionIdCache idCache;
+
+	/**
+	 * Creates an enaction which caches the identifiers of existing scopes, tracks and victims. <br>
+	 * <br>
+	 * The cache must only be used if, when the enaction starts, the enclosing transaction has not yet
+	 * inserted scopes, tracks or victims. Otherwise, uncommitted identifiers might become cached.
+	 *
+	 * @param orderDetails the order details
+	 * @param creator the punishment creator
+	 * @param idCache the identifier cache
+	 */
+	public Enaction(OrderDetails orderDetails, PunishmentCreator creator, EnactionIdCache idCache) {
+		this.orderDetails = orderDetails;
+		this.creator = creator;
+		this.idCache = requireNonNull(idCache, "idCache");
+	}
 
+	/**
+	 * Creates an enaction which does not cache identifiers. Suitable for batch operations, where many
+	 * enactions share a transaction.
+	 *
+	 * @param orderDetails the order details
+	 * @param creator the punishment creator
+	 */
 	public Enaction(OrderDetails orderDetails, PunishmentCreator creator) {
 		this.orderDetails = orderDetails;
 		this.creator = creator;
+		this.idCache = null;
 	}
 
 	public OrderDetails orderDetails() {
@@ -60,11 +87,11 @@ public class Enaction {
 	}
 
 	public Punishment enactActive(DSLContext context, Transaction transaction) {
-		return orderDetails.enact(creator, context, requireNonNull(transaction, "transaction"), true);
+		return orderDetails.enact(creator, idCache, context, requireNonNull(transaction, "transaction"), true);
 	}
 
 	public Punishment enactHistorical(DSLContext context) {
-		return orderDetails.enact(creator, context, null, false);
+		return orderDetails.enact(creator, idCache, context, null, false);
 	}
 
 	public record OrderDetails(
@@ -81,12 +108,19 @@ public class Enaction {
 			requireNonNull(end, "end");
 		}
 
-		private Punishment enact(PunishmentCreator creator,
+		private Punishment enact(PunishmentCreator creator, EnactionIdCache idCache,
 								 DSLContext context, Transaction transaction, boolean active) {
 			MiscUtil.checkNoCompositeVictimWildcards(victim);
 
-			Field<Integer> escalationTrackId = new TrackIdSequenceValue(context).retrieveTrackId(escalationTrack);
-			Field<Integer> scopeId = new ScopeIdSequenceValue(context).retrieveScopeId(scope);
+			Field<Integer> escalationTrackId;
+			Field<Integer> scopeId;
+			if (idCache == null) {
+				escalationTrackId = new TrackIdSequenceValue(context).retrieveTrackId(escalationTrack);
+				scopeId = new ScopeIdSequenceValue(context).retrieveScopeId(scope);
+			} else {
+				escalationTrackId = new TrackIdSequenceValue(context).retrieveTrackId(escalationTrack, idCache.trackIds());
+				scopeId = new ScopeIdSequenceValue(context).retrieveScopeId(scope, idCache.scopeIds());
+			}
 
 			SequenceValue<Long> punishmentIdSequence = new SequenceValue<>(context, LIBERTYBANS_PUNISHMENT_IDS);
 			context
@@ -105,7 +139,9 @@ public class Enaction {
 					.execute();
 
 			Field<Long> punishmentIdField = punishmentIdSequence.lastValueInSession();
-			Field<Integer> victimIdField = new VictimIdSequenceValue(context).retrieveVictimId(victim);
+			Field<Integer> victimIdField = (idCache == null) ?
+					new VictimIdSequenceValue(context).retrieveVictimId(victim)
+					: new VictimIdSequenceValue(context).retrieveVictimId(victim, idCache.victimIds());
 
 			if (active && type != PunishmentType.KICK) {
 				var dataTable = new TableForType(type).dataTable();
@@ -127,6 +163,9 @@ public class Enaction {
 							.columns(dataTable.id(), dataTable.victimId())
 							.values(punishmentIdField, victimIdField)
 							.execute();
+					if (type == PunishmentType.WARN) {
+						new WarnCounts(context).increment(victimIdField);
+					}
 				}
 			}
 			context
@@ -134,6 +173,9 @@ public class Enaction {
 					.columns(HISTORY.ID, HISTORY.VICTIM)
 					.values(punishmentIdField, victimIdField)
 					.execute();
+			if (escalationTrack != null) {
+				new TrackCounts(context).increment(victimIdField, escalationTrackId);
+			}
 			long id = context
 					.select(punishmentIdField)
 					.fetchSingle()
@@ -154,6 +196,7 @@ public class Enaction {
 		return "Enaction{" +
 				"orderDetails=" + orderDetails +
 				", creator=" + creator +
+				", idCache=" + idCache +
 				'}';
 	}
 }
@@ -0,0 +1,69 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.punish;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EscalationTrack;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.core.database.sql.IdentifierCache;
+
+/**
+ * Identifiers of scopes, escalation tracks, and victims, cached to save round trips
+ * when enacting punishments. Scopes and tracks are a small, almost static set, whereas
+ * victims are bounded to the most recently punished.
+ *
+ */
+@Singleton
+public final class EnactionIdCache {
+
+	private final IdentifierCache<ServerScope, Integer> scopeIds = IdentifierCache.unbounded();
+	private final IdentifierCache<EscalationTrack, Integer> trackIds = IdentifierCache.unbounded();
+	private final IdentifierCache<Victim, Integer> victimIds = IdentifierCache.bounded(MAXIMUM_VICTIMS);
+
+	private static final long MAXIMUM_VICTIMS = 10_000L;
+
+	@Inject
+	public EnactionIdCache() {}
+
+	IdentifierCache<ServerScope, Integer> scopeIds() {
+		return scopeIds;
+	}
+
+	IdentifierCache<EscalationTrack, Integer> trackIds() {
+		return trackIds;
+	}
+
+	IdentifierCache<Victim, Integer> victimIds() {
+		return victimIds;
+	}
+
+	/**
+	 * Clears all cached identifiers. Used if the underlying tables are emptied
+	 *
+	 */
+	public void clear() {
+		scopeIds.clear();
+		trackIds.clear();
+		victimIds.clear();
+	}
+
+}
@@ -0,0 +1,73 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.punish;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+
+/**
+ * JFR event recording the enactment of a punishment
+ *
+ */
+@Name("space.arim.libertybans.Enactment")
+@Label("Punishment Enactment")
+@Category({"LibertyBans", "Punishment"})
+@Description("Adds a punishment to the database")
+@StackTrace(false)
+final class EnactmentEvent extends Event {
+
+	@Label("Punishment Type")
+	String punishmentType;
+
+	@Label("Calculated")
+	@Description("Whether the punishment was calculated from an escalation track")
+	boolean calculated;
+
+	@Label("Enacted")
+	@Description("Whether the punishment was added. False if a conflicting punishment exists")
+	boolean enacted;
+
+	@Label("Attempts")
+	@Description("Number of times the transaction was attempted")
+	int attempts;
+
+	EnactmentEvent(PunishmentType type, boolean calculated) {
+		punishmentType = (type == null) ? null : type.name();
+		this.calculated = calculated;
+	}
+
+	void finish(Punishment punishment) {
+		end();
+		if (shouldCommit()) {
+			if (punishment != null) {
+				punishmentType = punishment.getType().name();
+			}
+			enacted = punishment != null;
+			commit();
+		}
+	}
+
+}
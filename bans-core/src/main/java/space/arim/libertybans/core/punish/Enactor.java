@@ -44,6 +44,7 @@ import space.arim.libertybans.core.database.execute.Transaction;
 import space.arim.libertybans.core.scope.InternalScopeManager;
 import space.arim.libertybans.core.selector.InternalSelector;
 import space.arim.libertybans.core.selector.SelectionResources;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
@@ -61,16 +62,18 @@ public class Enactor implements PunishmentDrafter {
 	private final Provider<InternalDatabase> dbProvider;
 	private final InternalSelector selector;
 	private final PunishmentCreator creator;
+	private final EnactionIdCache idCache;
 	private final Time time;
 
 	@Inject
 	public Enactor(FactoryOfTheFuture futuresFactory, InternalScopeManager scopeManager, Provider<InternalDatabase> dbProvider,
-				   InternalSelector selector, PunishmentCreator creator, Time time) {
+				   InternalSelector selector, PunishmentCreator creator, EnactionIdCache idCache, Time time) {
 		this.futuresFactory = futuresFactory;
 		this.scopeManager = scopeManager;
 		this.dbProvider = dbProvider;
 		this.selector = selector;
 		this.creator = creator;
+		this.idCache = idCache;
 		this.time = time;
 	}
 
@@ -103,9 +106,16 @@ public class Enactor implements PunishmentDrafter {
 						draftPunishment.getReason(), draftPunishment.getScope(),
 						start, end, draftPunishment.getEscalationTrack().orElse(null)
 				),
-				creator);
+				creator, idCache);
 
+		EnactmentEvent event = (FlightRecording.isAvailable()) ? new EnactmentEvent(type, false) : null;
+		if (event != null) {
+			event.begin();
+		}
 		return database.queryWithRetry((context, transaction) -> {
+			if (event != null) {
+				event.attempts++;
+			}
 			// Make sure concurrent executions do not conflict
 			transaction.setIsolation(Connection.TRANSACTION_SERIALIZABLE);
 
@@ -115,6 +125,10 @@ public class Enactor implements PunishmentDrafter {
 			// If we rollback punishment enactment due to a conflicting ban or mute,
 			// it is not necessary to undo clearing expired punishments
 			return transaction.executeNested(enaction::enactActive);
+		}).whenComplete((punishment, ex) -> {
+			if (event != null) {
+				event.finish(punishment);
+			}
 		});
 	}
 
@@ -126,7 +140,14 @@ public class Enactor implements PunishmentDrafter {
 		final EscalationTrack escalationTrack = calculablePunishment.getEscalationTrack();
 
 		InternalDatabase database = dbProvider.get();
+		EnactmentEvent event = (FlightRecording.isAvailable()) ? new EnactmentEvent(null, true) : null;
+		if (event != null) {
+			event.begin();
+		}
 		return database.queryWithRetry((context, transaction) -> {
+			if (event != null) {
+				event.attempts++;
+			}
 			// Make sure concurrent executions do not conflict
 			transaction.setIsolation(Connection.TRANSACTION_SERIALIZABLE);
 
@@ -135,6 +156,9 @@ public class Enactor implements PunishmentDrafter {
 					selector.selectionBuilder(selectionResourcesUsing(context, transaction))
 			);
 			PunishmentType type = calculationResult.type();
+			if (event != null) {
+				event.punishmentType = type.name();
+			}
 			if (type != PunishmentType.KICK) {
 				database.clearExpiredPunishments(context, type, start);
 			}
@@ -149,9 +173,13 @@ public class Enactor implements PunishmentDrafter {
 							calculationResult.reason(), scope,
 							start, end, escalationTrack
 					),
-					creator);
+					creator, idCache);
 			// Again, a rollback here does not mandate undoing work from above
 			return transaction.executeNested(enaction::enactActive);
+		}).whenComplete((punishment, ex) -> {
+			if (event != null) {
+				event.finish(punishment);
+			}
 		});
 	}
 
@@ -0,0 +1,48 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.punish;
+
+import space.arim.libertybans.api.punish.Punishment;
+
+/**
+ * Notified as punishments are enforced and unenforced on this instance, including when
+ * synchronized from other instances. Used by platforms which maintain their own views of
+ * punishments. Implementations are bound with {@code MultiBinding}. <br>
+ * <br>
+ * Punishments enacted or revoked without enforcement are not reported.
+ *
+ */
+public interface LocalEnforcementListener {
+
+	/**
+	 * Called when a punishment is enforced, or its details are updated
+	 *
+	 * @param punishment the punishment
+	 */
+	void punishmentEnforced(Punishment punishment);
+
+	/**
+	 * Called when a punishment is unenforced or expunged
+	 *
+	 * @param id the punishment ID
+	 */
+	void punishmentRemoved(long id);
+
+}
@@ -19,9 +19,9 @@
 
 package space.arim.libertybans.core.punish;
 
-import org.jooq.Record10;
 import org.jooq.Record11;
 import org.jooq.Record12;
+import org.jooq.Record13;
 import org.jooq.Record6;
 import org.jooq.RecordMapper;
 import space.arim.libertybans.api.NetworkAddress;
@@ -42,16 +42,16 @@ public interface PunishmentCreator {
 								Operator operator, String reason,
 								ServerScope scope, Instant start, Instant end, EscalationTrack escalationTrack);
 
-	RecordMapper<Record12<
-			Long, PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	RecordMapper<Record13<
+			Long, PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper();
 
-	RecordMapper<Record11<
-			PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	RecordMapper<Record12<
+			PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper(long id);
 
-	RecordMapper<Record10<
-			Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	RecordMapper<Record11<
+			Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper(long id, PunishmentType type);
 
 	RecordMapper<Record6<
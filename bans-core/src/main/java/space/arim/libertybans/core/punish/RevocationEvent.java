@@ -0,0 +1,81 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.punish;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+
+/**
+ * JFR event recording the revocation or expunction of a punishment
+ *
+ */
+@Name("space.arim.libertybans.Revocation")
+@Label("Revocation")
+@Category({"LibertyBans", "Punishment"})
+@Description("Removes a punishment from the database")
+@StackTrace(false)
+final class RevocationEvent extends Event {
+
+	@Label("Approach")
+	@Description("How the punishment was identified: by ID, by ID and type, by type and victim, or expunction")
+	String approach;
+
+	@Label("Punishment Type")
+	String punishmentType;
+
+	@Label("Revoked")
+	@Description("Whether a punishment was found and removed")
+	boolean revoked;
+
+	@Label("Attempts")
+	@Description("Number of times the transaction was attempted")
+	int attempts;
+
+	RevocationEvent(String approach, PunishmentType type) {
+		this.approach = approach;
+		punishmentType = (type == null) ? null : type.name();
+	}
+
+	/**
+	 * Completes this event
+	 *
+	 * @param result the result of revocation, which is either a boolean, the revoked punishment's ID,
+	 *               its type, or the punishment itself. Null means nothing was revoked
+	 */
+	void finish(Object result) {
+		end();
+		if (shouldCommit()) {
+			if (result instanceof PunishmentType type) {
+				punishmentType = type.name();
+			} else if (result instanceof Punishment punishment) {
+				punishmentType = punishment.getType().name();
+			}
+			revoked = result != null && !Boolean.FALSE.equals(result);
+			commit();
+		}
+	}
+
+}
@@ -33,10 +33,15 @@ import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.punish.RevocationOrder;
 import space.arim.libertybans.api.select.SelectionPredicate;
 import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.execute.SQLTransactionalFunction;
 import space.arim.libertybans.core.database.sql.EndTimeCondition;
 import space.arim.libertybans.core.database.sql.TableForType;
+import space.arim.libertybans.core.database.sql.PunishmentArchive;
+import space.arim.libertybans.core.database.sql.TrackCounts;
 import space.arim.libertybans.core.database.sql.VictimCondition;
 import space.arim.libertybans.core.database.sql.VictimFields;
+import space.arim.libertybans.core.database.sql.WarnCounts;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
@@ -50,6 +55,7 @@ import java.util.Set;
 import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
 import static space.arim.libertybans.core.schema.tables.SimpleActive.SIMPLE_ACTIVE;
 import static space.arim.libertybans.core.schema.tables.SimpleHistory.SIMPLE_HISTORY;
+import static space.arim.libertybans.core.schema.tables.Warns.WARNS;
 
 @Singleton
 public class Revoker implements InternalRevoker {
@@ -119,6 +125,9 @@ public class Revoker implements InternalRevoker {
 		final Instant currentTime = time.currentTimestamp();
 
 		var dataTable = new TableForType(type).dataTable();
+		if (type == PunishmentType.WARN) {
+			new WarnCounts(context).decrementBeforeDeletion(WARNS.ID.eq(id));
+		}
 		int deleteCount = context
 				.deleteFrom(dataTable.table())
 				.where(dataTable.id().eq(id))
@@ -142,6 +151,9 @@ public class Revoker implements InternalRevoker {
 		final Instant currentTime = time.currentTimestamp();
 
 		var dataTable = new TableForType(type).dataTable();
+		if (type == PunishmentType.WARN) {
+			new WarnCounts(context).decrementBeforeDeletion(WARNS.ID.eq(id));
+		}
 		int deleteCount = context
 				.deleteFrom(dataTable.table())
 				.where(dataTable.id().eq(id))
@@ -154,7 +166,8 @@ public class Revoker implements InternalRevoker {
 				.select(
 						SIMPLE_HISTORY.VICTIM_TYPE, SIMPLE_HISTORY.VICTIM_UUID, SIMPLE_HISTORY.VICTIM_ADDRESS,
 						SIMPLE_HISTORY.OPERATOR, SIMPLE_HISTORY.REASON, SIMPLE_HISTORY.SCOPE,
-						SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE
+						SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE,
+						SIMPLE_HISTORY.VICTIM_PREFIX
 				)
 				.from(SIMPLE_HISTORY)
 				.where(SIMPLE_HISTORY.ID.eq(id))
@@ -165,12 +178,25 @@ public class Revoker implements InternalRevoker {
 		return result;
 	}
 
+	private <R> CentralisedFuture<R> queryRevocation(String approach, PunishmentType type,
+													 SQLTransactionalFunction<R> command) {
+		if (!FlightRecording.isAvailable()) {
+			return dbProvider.get().queryWithRetry(command);
+		}
+		RevocationEvent event = new RevocationEvent(approach, type);
+		event.begin();
+		return dbProvider.get().queryWithRetry((context, transaction) -> {
+			event.attempts++;
+			return command.obtain(context, transaction);
+		}).whenComplete((result, ex) -> event.finish(result));
+	}
+
 	CentralisedFuture<Boolean> undoPunishmentByIdAndType(final long id, final PunishmentType type) {
 		if (type == PunishmentType.KICK) {
 			// Kicks are never active
 			return futuresFactory.completedFuture(false);
 		}
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("ID_TYPE", type, (context, transaction) -> {
 			return deleteActivePunishmentByIdAndType(context, id, type);
 		});
 	}
@@ -180,13 +206,13 @@ public class Revoker implements InternalRevoker {
 			// Kicks are never active
 			return futuresFactory.completedFuture(null);
 		}
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("ID_TYPE", type, (context, transaction) -> {
 			return deleteAndGetActivePunishmentByIdAndType(context, id, type);
 		});
 	}
 
 	CentralisedFuture<PunishmentType> undoPunishmentById(final long id) {
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("ID", null, (context, transaction) -> {
 			PunishmentType type = context
 					.select(SIMPLE_ACTIVE.TYPE)
 					.from(SIMPLE_ACTIVE)
@@ -201,7 +227,7 @@ public class Revoker implements InternalRevoker {
 	}
 
 	CentralisedFuture<Punishment> undoAndGetPunishmentById(final long id) {
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("ID", null, (context, transaction) -> {
 			PunishmentType type = context
 					.select(SIMPLE_ACTIVE.TYPE)
 					.from(SIMPLE_ACTIVE)
@@ -233,7 +259,7 @@ public class Revoker implements InternalRevoker {
 
 	CentralisedFuture<Long> undoPunishmentByTypeAndPossibleVictims(final PunishmentType type, 
 																   final List<Victim> victims) {
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("TYPE_VICTIM", type, (context, transaction) -> {
 			var simpleView = new TableForType(type).simpleView();
 			Long id = context
 					.select(simpleView.id())
@@ -250,7 +276,7 @@ public class Revoker implements InternalRevoker {
 
 	CentralisedFuture<Punishment> undoAndGetPunishmentByTypeAndPossibleVictims(final PunishmentType type, 
 																			   final List<Victim> victims) {
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("TYPE_VICTIM", type, (context, transaction) -> {
 			var simpleView = new TableForType(type).simpleView();
 			Long id = context
 					.select(simpleView.id())
@@ -266,12 +292,18 @@ public class Revoker implements InternalRevoker {
 	}
 
 	CentralisedFuture<Boolean> expungeById(long id) {
-		return dbProvider.get().queryWithRetry((context, transaction) -> {
+		return queryRevocation("EXPUNGE", null, (context, transaction) -> {
+			new TrackCounts(context).decrementBeforeDeletion(PUNISHMENTS.ID.eq(id));
+			new WarnCounts(context).decrementBeforeDeletion(WARNS.ID.eq(id));
 			int deleteCount = context
 					.deleteFrom(PUNISHMENTS)
 					.where(PUNISHMENTS.ID.eq(id))
 					.execute();
-			return deleteCount != 0;
+			if (deleteCount != 0) {
+				return true;
+			}
+			// The punishment may have been archived
+			return new PunishmentArchive(context).expunge(id);
 		});
 	}
 
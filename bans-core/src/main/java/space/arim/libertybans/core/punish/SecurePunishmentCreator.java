@@ -22,9 +22,9 @@ package space.arim.libertybans.core.punish;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
-import org.jooq.Record10;
 import org.jooq.Record11;
 import org.jooq.Record12;
+import org.jooq.Record13;
 import org.jooq.Record6;
 import org.jooq.RecordMapper;
 import space.arim.libertybans.api.NetworkAddress;
@@ -78,12 +78,12 @@ public class SecurePunishmentCreator implements PunishmentCreator {
 	}
 
 	@Override
-	public RecordMapper<Record12<
-			Long, PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	public RecordMapper<Record13<
+			Long, PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper() {
 		return (record) -> {
 			Victim victim = new DeserializedVictim(
-					record.value4(), record.value5()
+					record.value4(), record.value5(), record.value13()
 			).victim(record.value3());
 			ServerScope scope = scopeManager.deserialize(
 					record.value12(), record.value8()
@@ -98,12 +98,12 @@ public class SecurePunishmentCreator implements PunishmentCreator {
 	}
 
 	@Override
-	public RecordMapper<Record11<
-			PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	public RecordMapper<Record12<
+			PunishmentType, Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper(long id) {
 		return (record) -> {
 			Victim victim = new DeserializedVictim(
-					record.value3(), record.value4()
+					record.value3(), record.value4(), record.value12()
 			).victim(record.value2());
 			ServerScope scope = scopeManager.deserialize(
 					record.value11(), record.value7()
@@ -118,12 +118,12 @@ public class SecurePunishmentCreator implements PunishmentCreator {
 	}
 
 	@Override
-	public RecordMapper<Record10<
-			Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType>,
+	public RecordMapper<Record11<
+			Victim.VictimType, UUID, NetworkAddress, Operator, String, String, Instant, Instant, EscalationTrack, ScopeType, Short>,
 			Punishment> punishmentMapper(long id, PunishmentType type) {
 		return (record) -> {
 			Victim victim = new DeserializedVictim(
-					record.value2(), record.value3()
+					record.value2(), record.value3(), record.value11()
 			).victim(record.value1());
 			ServerScope scope = scopeManager.deserialize(
 					record.value10(), record.value6()
@@ -35,6 +35,7 @@ import space.arim.libertybans.core.punish.sync.PacketUpdateDetails;
 import space.arim.libertybans.core.punish.sync.SynchronizationMessenger;
 import space.arim.libertybans.core.punish.sync.SynchronizationPacket;
 import space.arim.libertybans.core.punish.sync.SynchronizationProtocol;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
@@ -154,9 +155,23 @@ public final class StandardGlobalEnforcement implements GlobalEnforcement {
 
 	@Override
 	public void run() {
+		SynchronizationPollEvent event = (FlightRecording.isAvailable()) ? new SynchronizationPollEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
 		synchronizationMessenger.get()
 				.poll()
-				.thenCompose(this::receiveAllMessages)
+				.thenCompose((messages) -> {
+					if (event != null) {
+						event.messagesReceived = messages.length;
+					}
+					return receiveAllMessages(messages);
+				})
+				.whenComplete((ignore, ex) -> {
+					if (event != null) {
+						event.finish(ex != null);
+					}
+				})
 				.exceptionally((ex) -> {
 					Logger logger = LoggerFactory.getLogger(getClass());
 					logger.warn("Exception while polling for synchronization messages", ex);
@@ -25,6 +25,7 @@ import jakarta.inject.Singleton;
 import net.kyori.adventure.text.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import space.arim.injector.MultiBinding;
 import space.arim.api.env.annote.PlatformPlayer;
 import space.arim.api.jsonchat.adventure.util.ComponentText;
 import space.arim.libertybans.api.AddressVictim;
@@ -33,6 +34,7 @@ import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Operator;
 import space.arim.libertybans.api.PlayerVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.EnforcementOptions;
 import space.arim.libertybans.api.punish.EnforcementOptions.Broadcasting;
@@ -44,21 +46,26 @@ import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.config.PunishmentAdditionSection;
 import space.arim.libertybans.core.config.RemovalsSection;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.env.AdditionalUUIDTargetMatcher;
 import space.arim.libertybans.core.env.EnvEnforcer;
 import space.arim.libertybans.core.env.ExactTargetMatcher;
 import space.arim.libertybans.core.env.InstanceType;
+import space.arim.libertybans.core.env.RangeTargetMatcher;
 import space.arim.libertybans.core.env.TargetMatcher;
 import space.arim.libertybans.core.env.UUIDTargetMatcher;
 import space.arim.libertybans.core.env.message.KickPlayer;
 import space.arim.libertybans.core.punish.permission.PunishmentPermission;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache;
 import space.arim.omnibus.util.ThisClass;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.function.Consumer;
 
@@ -76,13 +83,18 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 	private final InternalFormatter formatter;
 	private final EnvEnforcer<P> envEnforcer;
 	private final MuteCache muteCache;
+	private final ScopedBanCache scopedBanCache;
+	private final RangePunishmentCache rangePunishmentCache;
+	private final Set<LocalEnforcementListener> listeners;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	@Inject
 	public StandardLocalEnforcer(InstanceType instanceType, Configs configs, FactoryOfTheFuture futuresFactory,
 								 Provider<QueryExecutor> queryExecutor, PunishmentSelector selector,
-								 InternalFormatter formatter, EnvEnforcer<P> envEnforcer, MuteCache muteCache) {
+								 InternalFormatter formatter, EnvEnforcer<P> envEnforcer, MuteCache muteCache,
+								 ScopedBanCache scopedBanCache, RangePunishmentCache rangePunishmentCache,
+								 @MultiBinding Set<LocalEnforcementListener> listeners) {
 		this.instanceType = instanceType;
 		this.configs = configs;
 		this.futuresFactory = futuresFactory;
@@ -91,6 +103,9 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 		this.formatter = formatter;
 		this.envEnforcer = envEnforcer;
 		this.muteCache = muteCache;
+		this.scopedBanCache = scopedBanCache;
+		this.rangePunishmentCache = rangePunishmentCache;
+		this.listeners = listeners;
 	}
 
 	@Override
@@ -98,6 +113,9 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 																 EnforcementOpts enforcementOptions) {
 		assert enforcementOptions.enforcement() != EnforcementOptions.Enforcement.NONE : "Handled elsewhere";
 
+		scopedBanCache.punishmentEnforced(punishment);
+		rangePunishmentCache.punishmentEnforced(punishment);
+		listeners.forEach((listener) -> listener.punishmentEnforced(punishment));
 		PunishmentAdditionSection section = configs.getMessagesConfig().additions().forType(punishment.getType());
 
 		var arrestsAndNotices = enforceArrestsAndNotices(punishment);
@@ -125,9 +143,17 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 																   EnforcementOpts enforcementOptions) {
 		assert enforcementOptions.enforcement() != EnforcementOptions.Enforcement.NONE : "Handled elsewhere";
 
-		if (punishment.getType() == PunishmentType.MUTE) {
+		switch (punishment.getType()) {
+		case BAN -> {
+			scopedBanCache.punishmentRemoved(punishment.getIdentifier());
+			rangePunishmentCache.punishmentRemoved(punishment.getIdentifier());
+		}
+		case MUTE -> {
 			muteCache.clearCachedMute(punishment);
+			rangePunishmentCache.punishmentRemoved(punishment.getIdentifier());
+		}
 		}
+		listeners.forEach((listener) -> listener.punishmentRemoved(punishment.getIdentifier()));
 		if (enforcementOptions.broadcasting() == EnforcementOptions.Broadcasting.NONE) {
 			return completedFuture(null);
 		}
@@ -173,15 +199,26 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 				return unenforceWithoutSynchronization(punishment, enforcementOptions);
 			}).toCompletableFuture();
 		}
-		if (type == PunishmentType.MUTE) {
+		switch (type) {
+		case BAN -> {
+			scopedBanCache.punishmentRemoved(id);
+			rangePunishmentCache.punishmentRemoved(id);
+		}
+		case MUTE -> {
 			muteCache.clearCachedMute(id);
+			rangePunishmentCache.punishmentRemoved(id);
 		}
+		}
+		listeners.forEach((listener) -> listener.punishmentRemoved(id));
 		return completedFuture(null);
 	}
 
 	@Override
 	public CentralisedFuture<Void> clearExpungedWithoutSynchronization(long id) {
 		muteCache.clearCachedMute(id);
+		scopedBanCache.punishmentRemoved(id);
+		rangePunishmentCache.punishmentRemoved(id);
+		listeners.forEach((listener) -> listener.punishmentRemoved(id));
 		return completedFuture(null);
 	}
 
@@ -235,6 +272,10 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 						.thenApply((addressMatcher) -> new AdditionalUUIDTargetMatcher<>(uuid, addressMatcher))
 						.thenCompose(envEnforcer::enforceMatcher);
 
+			} else if (victim instanceof RangeVictim rangeVictim) {
+				// Address strictness does not extend to ranges, which are already broad
+				return envEnforcer.enforceMatcher(new RangeTargetMatcher<>(rangeVictim, enforcementCallback));
+
 			} else {
 				throw MiscUtil.unknownVictimType(victim.getType());
 			}
@@ -286,7 +327,7 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 
 	private CentralisedFuture<TargetMatcher<P>> matchAddressPunishmentNormal(
 			NetworkAddress address, Consumer<P> enforcementCallback) {
-		return queryExecutor.get().query(SQLFunction.readOnly((context) -> {
+		return queryExecutor.get().query(SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
 			return context
 					.select(ADDRESSES.UUID)
 					.from(ADDRESSES)
@@ -299,7 +340,7 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 
 	private CentralisedFuture<TargetMatcher<P>> matchAddressPunishmentSternOrStrict(
 			NetworkAddress address, Consumer<P> enforcementCallback) {
-		return queryExecutor.get().query(SQLFunction.readOnly((context) -> {
+		return queryExecutor.get().query(SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
 			return context
 					.select(STRICT_LINKS.UUID2)
 					.from(STRICT_LINKS)
@@ -314,7 +355,7 @@ public final class StandardLocalEnforcer<@PlatformPlayer P> implements LocalEnfo
 
 	private CentralisedFuture<TargetMatcher<P>> matchUserPunishmentStrict(
 			UUID uuid, Consumer<P> enforcementCallback) {
-		return queryExecutor.get().query(SQLFunction.readOnly((context) -> {
+		return queryExecutor.get().query(SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
 			return context
 					.select(STRICT_LINKS.UUID2)
 					.from(STRICT_LINKS)
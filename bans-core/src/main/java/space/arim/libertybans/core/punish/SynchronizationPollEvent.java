@@ -0,0 +1,54 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.punish;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recording a poll for synchronization messages, including handling of the messages
+ *
+ */
+@Name("space.arim.libertybans.SynchronizationPoll")
+@Label("Synchronization Poll")
+@Category({"LibertyBans", "Synchronization"})
+@Description("Polls for and receives messages from other instances")
+@StackTrace(false)
+final class SynchronizationPollEvent extends Event {
+
+	@Label("Messages Received")
+	int messagesReceived;
+
+	@Label("Failed")
+	boolean failed;
+
+	void finish(boolean failed) {
+		end();
+		if (shouldCommit()) {
+			this.failed = failed;
+			commit();
+		}
+	}
+
+}
@@ -38,6 +38,7 @@ public record VictimTypeCheck(CmdSender sender, PermissionBase permissionBase) i
 			case PLAYER -> "uuid";
 			case ADDRESS -> "ip";
 			case COMPOSITE -> "both";
+			case RANGE -> "range";
 		};
 		String permission = permissionBase.permission("target." + typeSuffix);
 		return sender.hasPermission(permission);
@@ -52,6 +53,7 @@ public record VictimTypeCheck(CmdSender sender, PermissionBase permissionBase) i
 				case PLAYER -> permissionSection.uuid();
 				case ADDRESS -> permissionSection.ipAddress();
 				case COMPOSITE -> permissionSection.both();
+				case RANGE -> permissionSection.ipRange();
 			};
 			sender.sendMessage(message);
 			return false;
@@ -24,6 +24,8 @@ import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
 import org.jooq.Condition;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
+import space.arim.libertybans.core.database.execute.QueryPriority;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
@@ -70,14 +72,17 @@ public final class SQLSynchronizationMessenger implements SynchronizationMesseng
 			return futuresFactory.completedFuture(new byte[][] {});
 		}
 		Condition timeCondition = MESSAGES.TIME.lessOrEqual(currentTime).and(MESSAGES.TIME.greaterThan(lastTimestamp));
-		var future = queryExecutor.get().query(SQLFunction.readOnly((context) -> {
+		// Reading from a lagging replica would skip messages in this time window
+		SQLFunction<byte[][]> pollMessages = SQLFunction.readOnly(ReadConsistency.STRICT, (context) -> {
 			return context
 					.select(MESSAGES.MESSAGE)
 					.from(MESSAGES)
 					.where(timeCondition)
 					.orderBy(MESSAGES.TIME.asc())
 					.fetchArray(MESSAGES.MESSAGE);
-		}));
+		});
+		// Messages carry punishments to enforce, so they should not wait behind listings
+		var future = queryExecutor.get().query(SQLFunction.withPriority(QueryPriority.PUNISHMENT, pollMessages));
 		lastTimestamp = currentTime;
 		return future;
 	}
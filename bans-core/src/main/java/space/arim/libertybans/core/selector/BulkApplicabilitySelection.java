@@ -0,0 +1,242 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector;
+
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.Victim.VictimType;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.select.AddressStrictness;
+import space.arim.libertybans.api.select.SelectionPredicate;
+import space.arim.libertybans.api.select.SortPunishments;
+import space.arim.libertybans.core.database.sql.ApplicableViewFields;
+import space.arim.libertybans.core.database.sql.DeserializedVictim;
+import space.arim.libertybans.core.database.sql.PunishmentFields;
+import space.arim.libertybans.core.database.sql.VictimCondition;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import static org.jooq.impl.DSL.inline;
+import static space.arim.libertybans.core.schema.tables.StrictLinks.STRICT_LINKS;
+
+/**
+ * Selects the active punishments of a type which are applicable to many users at once. The result for each
+ * user is the same as that of a {@link SelectionByApplicabilityImpl}, but is found in a single query.
+ *
+ */
+final class BulkApplicabilitySelection extends SelectionBaseSQL {
+
+	private final Map<UUID, NetworkAddress> users;
+	private final AddressStrictness strictness;
+
+	BulkApplicabilitySelection(SelectionResources resources, PunishmentType type,
+							   Map<UUID, NetworkAddress> users, AddressStrictness strictness) {
+		super(new Details(
+				SelectionPredicate.matchingOnly(type), SelectionPredicate.matchingAll(),
+				SelectionPredicate.matchingAll(), SelectionPredicate.matchingAll(),
+				true, false, 0, 0, Instant.EPOCH, 0L, Instant.MAX, 0L
+		), resources);
+		this.users = Map.copyOf(users);
+		this.strictness = Objects.requireNonNull(strictness, "strictness");
+	}
+
+	private record KeyedQuery(Query<?> query, BiConsumer<Record, Set<UUID>> applicableUsers) { }
+
+	@Override
+	Query<?> requestQuery(QueryParameters parameters) {
+		return requestKeyedQuery(parameters).query;
+	}
+
+	private KeyedQuery requestKeyedQuery(QueryParameters parameters) {
+		Set<UUID> uuids = users.keySet();
+		PunishmentFields fields;
+		Table<?> table;
+		Condition additionalPredication;
+		List<Field<?>> keyColumns;
+		BiConsumer<Record, Set<UUID>> applicableUsers;
+		switch (strictness) {
+		case LENIENT -> {
+			fields = requestSimpleView();
+			table = fields.table();
+			additionalPredication = new VictimCondition(fields).simplyMatchesAny(uuids, Set.copyOf(users.values()));
+			keyColumns = List.of();
+			Map<NetworkAddress, List<UUID>> usersByAddress = new HashMap<>();
+			users.forEach((uuid, address) -> usersByAddress.computeIfAbsent(address, (a) -> new ArrayList<>()).add(uuid));
+			applicableUsers = (record, result) -> {
+				VictimType victimType = record.get(fields.victimType());
+				UUID victimUuid = record.get(fields.victimUuid());
+				if (victimType != VictimType.ADDRESS && users.containsKey(victimUuid)) {
+					result.add(victimUuid);
+				}
+				if (victimType != VictimType.PLAYER) {
+					result.addAll(usersByAddress.getOrDefault(record.get(fields.victimAddress()), List.of()));
+				}
+			};
+		}
+		case NORMAL -> {
+			ApplicableViewFields<?> applView = requestApplicableView();
+			fields = applView;
+			table = fields.table();
+			// appl.uuid IN uuids
+			additionalPredication = applView.uuid().in(uuids);
+			keyColumns = List.of(applView.uuid());
+			applicableUsers = (record, result) -> result.add(record.get(applView.uuid()));
+		}
+		case STERN -> {
+			ApplicableViewFields<?> applView = requestApplicableView();
+			fields = applView;
+			table = fields
+					.table()
+					.innerJoin(STRICT_LINKS)
+					.on(applView.uuid().eq(STRICT_LINKS.UUID1));
+			// strict_links.uuid1 IN uuids
+			// OR victim_type != 'PLAYER' AND strict_links.uuid2 IN uuids
+			additionalPredication = STRICT_LINKS.UUID1.in(uuids).or(
+					STRICT_LINKS.UUID2.in(uuids).and(applView.victimType().notEqual(inline(VictimType.PLAYER))));
+			keyColumns = List.of(STRICT_LINKS.UUID1, STRICT_LINKS.UUID2);
+			applicableUsers = (record, result) -> {
+				UUID uuid1 = record.get(STRICT_LINKS.UUID1);
+				if (users.containsKey(uuid1)) {
+					result.add(uuid1);
+				}
+				UUID uuid2 = record.get(STRICT_LINKS.UUID2);
+				if (users.containsKey(uuid2) && record.get(applView.victimType()) != VictimType.PLAYER) {
+					result.add(uuid2);
+				}
+			};
+		}
+		case STRICT -> {
+			ApplicableViewFields<?> applView = requestApplicableView();
+			fields = applView;
+			table = fields
+					.table()
+					.innerJoin(STRICT_LINKS)
+					.on(applView.uuid().eq(STRICT_LINKS.UUID1));
+			// strict_links.uuid2 IN uuids
+			additionalPredication = STRICT_LINKS.UUID2.in(uuids);
+			keyColumns = List.of(STRICT_LINKS.UUID2);
+			applicableUsers = (record, result) -> result.add(record.get(STRICT_LINKS.UUID2));
+		}
+		default -> throw new IllegalStateException("Unknown address strictness " + strictness);
+		}
+		List<Field<?>> additionalColumns = new ArrayList<>(keyColumns);
+		additionalColumns.add(fields.victimType());
+		additionalColumns.add(fields.victimUuid());
+		additionalColumns.add(fields.victimAddress());
+		additionalColumns.add(fields.victimPrefix());
+		Query<?> query = new QueryBuilder(parameters, fields, table) {
+			@Override
+			Victim victimFromRecord(Record record) {
+				return new DeserializedVictim(
+						record.get(fields.victimUuid()), record.get(fields.victimAddress()), record.get(fields.victimPrefix())
+				).victim(
+						record.get(fields.victimType())
+				);
+			}
+
+			@Override
+			boolean mightRepeatIds() {
+				// Each row must be kept, since it may apply to a different user
+				return false;
+			}
+		}.constructSelect(additionalColumns, additionalPredication);
+		return new KeyedQuery(query, applicableUsers);
+	}
+
+	/**
+	 * Finds the applicable punishment for each user. If multiple punishments are applicable
+	 * to a user, the one with the latest end date is chosen.
+	 *
+	 * @param context the database access
+	 * @param timeSupplier the current time supplier
+	 * @return the applicable punishments by user. Users without an applicable punishment are absent
+	 */
+	Map<UUID, Punishment> findApplicablePunishments(DSLContext context, Supplier<Instant> timeSupplier) {
+		KeyedQuery keyedQuery = requestKeyedQuery(
+				new QueryParameters(context, 0, timeSupplier, SortPunishments.LATEST_END_DATE_FIRST)
+		);
+		Map<UUID, Punishment> applicable = new HashMap<>();
+		Set<UUID> applicableUsers = new HashSet<>();
+		for (Record record : keyedQuery.query.select().fetch()) {
+			applicableUsers.clear();
+			keyedQuery.applicableUsers.accept(record, applicableUsers);
+			Punishment punishment = null;
+			for (UUID user : applicableUsers) {
+				if (applicable.containsKey(user)) {
+					// An earlier row has a later end date
+					continue;
+				}
+				if (punishment == null) {
+					punishment = mapRecord(keyedQuery.query, record);
+				}
+				applicable.put(user, punishment);
+			}
+		}
+		return applicable;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <R extends Record> Punishment mapRecord(Query<R> query, Record record) {
+		return query.mapper().map((R) record);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		if (!super.equals(o)) return false;
+		BulkApplicabilitySelection that = (BulkApplicabilitySelection) o;
+		return users.equals(that.users) && strictness == that.strictness;
+	}
+
+	@Override
+	public int hashCode() {
+		int result = super.hashCode();
+		result = 31 * result + users.hashCode();
+		result = 31 * result + strictness.hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "BulkApplicabilitySelection{" +
+				"users=" + users +
+				", strictness=" + strictness +
+				", types=" + getTypes() +
+				'}';
+	}
+
+}
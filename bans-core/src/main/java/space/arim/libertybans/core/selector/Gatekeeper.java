@@ -22,6 +22,7 @@ package space.arim.libertybans.core.selector;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import net.kyori.adventure.text.Component;
+import org.jooq.DSLContext;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.punish.Punishment;
@@ -35,7 +36,12 @@ import space.arim.libertybans.core.alts.DetectedAlt;
 import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.database.execute.QueryExecutor;
+import space.arim.libertybans.core.database.execute.QueryPriority;
+import space.arim.libertybans.core.database.execute.SQLTransactionalFunction;
 import space.arim.libertybans.core.punish.Association;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
@@ -45,6 +51,8 @@ import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 
+import static space.arim.libertybans.core.schema.tables.Bans.BANS;
+
 public final class Gatekeeper {
 
 	private final Configs configs;
@@ -54,12 +62,15 @@ public final class Gatekeeper {
 	private final ConnectionLimiter connectionLimiter;
 	private final AltDetection altDetection;
 	private final AltNotification altNotification;
+	private final ScopedBanCache scopedBanCache;
+	private final RangePunishmentCache rangePunishmentCache;
 	private final Time time;
 
 	@Inject
 	public Gatekeeper(Configs configs, FactoryOfTheFuture futuresFactory, Provider<QueryExecutor> queryExecutor,
 					  InternalFormatter formatter, ConnectionLimiter connectionLimiter, AltDetection altDetection,
-					  AltNotification altNotification, Time time) {
+					  AltNotification altNotification, ScopedBanCache scopedBanCache,
+					  RangePunishmentCache rangePunishmentCache, Time time) {
 		this.configs = configs;
 		this.futuresFactory = futuresFactory;
 		this.queryExecutor = queryExecutor;
@@ -67,23 +78,60 @@ public final class Gatekeeper {
 		this.connectionLimiter = connectionLimiter;
 		this.altDetection = altDetection;
 		this.altNotification = altNotification;
+		this.scopedBanCache = scopedBanCache;
+		this.rangePunishmentCache = rangePunishmentCache;
 		this.time = time;
 	}
 
 	CentralisedFuture<Component> executeAndCheckConnection(UUID uuid, String name, NetworkAddress address,
 														   Set<ServerScope> scopes, SelectorImpl selector) {
-		return queryExecutor.get().queryWithRetry((context, transaction) -> {
+		boolean cacheScopedBans = configs.getMainConfig().platforms().proxies().enforceServerSwitch();
+		long cacheGeneration = scopedBanCache.currentGeneration();
+		LoginCheckEvent event = (FlightRecording.isAvailable()) ? new LoginCheckEvent() : null;
+		if (event != null) {
+			event.begin();
+		}
+		return queryExecutor.get().queryWithRetry(SQLTransactionalFunction.withPriority(QueryPriority.ENFORCEMENT, (context, transaction) -> {
+			if (event != null) {
+				event.attempts++;
+			}
 			Instant currentTime = time.currentTimestamp();
 
 			Association association = new Association(uuid, context);
 			association.associateCurrentName(name, currentTime);
 			association.associateCurrentAddress(address, currentTime);
 
-			Punishment ban = selector.selectionByApplicabilityBuilder(uuid, address)
-					.type(PunishmentType.BAN)
-					.scopes(SelectionPredicate.matchingAnyOf(scopes))
-					.build()
-					.findFirstSpecificPunishment(context, () -> currentTime, SortPunishments.LATEST_END_DATE_FIRST);
+			// Range bans are not matched by applicability, but found in memory
+			Punishment ban = findRangeBan(context, address, scopes);
+			if (ban != null) {
+				if (event != null) {
+					event.punishmentsFound = 1;
+				}
+				return ban;
+			}
+			if (cacheScopedBans) {
+				// Select bans in all scopes at once, so that server switches need not query again
+				List<Punishment> bans = selector.selectionByApplicabilityBuilder(uuid, address)
+						.type(PunishmentType.BAN)
+						.build()
+						.findAllSpecificPunishments(context, () -> currentTime, SortPunishments.LATEST_END_DATE_FIRST);
+				if (event != null) {
+					event.punishmentsFound = bans.size();
+				}
+				ban = bans.stream().filter((b) -> scopes.contains(b.getScope())).findFirst().orElse(null);
+				if (ban == null) {
+					scopedBanCache.cacheScopedBans(uuid, address, bans, cacheGeneration);
+				}
+			} else {
+				ban = selector.selectionByApplicabilityBuilder(uuid, address)
+						.type(PunishmentType.BAN)
+						.scopes(SelectionPredicate.matchingAnyOf(scopes))
+						.build()
+						.findFirstSpecificPunishment(context, () -> currentTime, SortPunishments.LATEST_END_DATE_FIRST);
+				if (event != null) {
+					event.punishmentsFound = (ban == null) ? 0 : 1;
+				}
+			}
 			if (ban != null) {
 				return ban;
 			}
@@ -98,11 +146,13 @@ public final class Gatekeeper {
 				return detectedAlts;
 			}
 			return null;
-		}).thenCompose((banOrLimitMessageOrDetectedAltsOrNull) -> {
+		})).thenCompose((banOrLimitMessageOrDetectedAltsOrNull) -> {
 			if (banOrLimitMessageOrDetectedAltsOrNull instanceof Punishment) {
+				recordOutcome(event, "Banned");
 				return formatter.getPunishmentMessage((Punishment) banOrLimitMessageOrDetectedAltsOrNull);
 			}
 			if (banOrLimitMessageOrDetectedAltsOrNull instanceof Component) {
+				recordOutcome(event, "Connection limit exceeded");
 				return futuresFactory.completedFuture((Component) banOrLimitMessageOrDetectedAltsOrNull);
 			}
 			if (banOrLimitMessageOrDetectedAltsOrNull instanceof List) {
@@ -110,7 +160,30 @@ public final class Gatekeeper {
 				List<DetectedAlt> detectedAlts = (List<DetectedAlt>) banOrLimitMessageOrDetectedAltsOrNull;
 				altNotification.notifyFoundAlts(uuid, name, address, detectedAlts);
 			}
+			recordOutcome(event, "Allowed");
 			return futuresFactory.completedFuture(null);
+		}).whenComplete((denialMessage, ex) -> {
+			if (event != null) {
+				event.finish();
+			}
 		});
 	}
+
+	private Punishment findRangeBan(DSLContext context, NetworkAddress address, Set<ServerScope> scopes) {
+		Punishment rangeBan;
+		while ((rangeBan = rangePunishmentCache.findApplicable(PunishmentType.BAN, address, scopes::contains)) != null) {
+			// The range ban might have been revoked without enforcement, or on another instance
+			if (context.fetchExists(BANS, BANS.ID.eq(rangeBan.getIdentifier()))) {
+				return rangeBan;
+			}
+			rangePunishmentCache.punishmentRemoved(rangeBan.getIdentifier());
+		}
+		return null;
+	}
+
+	private static void recordOutcome(LoginCheckEvent event, String outcome) {
+		if (event != null) {
+			event.outcome = outcome;
+		}
+	}
 }
@@ -97,4 +97,11 @@ public interface Guardian {
 		return checkChat(uuid, NetworkAddress.of(address), command);
 	}
 
+	/**
+	 * Discards the information cached about a player when the player disconnects
+	 *
+	 * @param uuid the player's uuid
+	 */
+	void onDisconnect(UUID uuid);
+
 }
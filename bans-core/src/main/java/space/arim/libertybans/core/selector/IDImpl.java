@@ -25,6 +25,7 @@ import jakarta.inject.Singleton;
 import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.database.sql.EndTimeCondition;
 import space.arim.libertybans.core.database.sql.TableForType;
@@ -61,7 +62,8 @@ public class IDImpl {
 							SIMPLE_ACTIVE.TYPE,
 							SIMPLE_ACTIVE.VICTIM_TYPE, SIMPLE_ACTIVE.VICTIM_UUID, SIMPLE_ACTIVE.VICTIM_ADDRESS,
 							SIMPLE_ACTIVE.OPERATOR, SIMPLE_ACTIVE.REASON, SIMPLE_ACTIVE.SCOPE,
-							SIMPLE_ACTIVE.START, SIMPLE_ACTIVE.END, SIMPLE_ACTIVE.TRACK, SIMPLE_ACTIVE.SCOPE_TYPE
+							SIMPLE_ACTIVE.START, SIMPLE_ACTIVE.END, SIMPLE_ACTIVE.TRACK, SIMPLE_ACTIVE.SCOPE_TYPE,
+							SIMPLE_ACTIVE.VICTIM_PREFIX
 					)
 					.from(SIMPLE_ACTIVE)
 					.where(SIMPLE_ACTIVE.ID.eq(id))
@@ -82,7 +84,8 @@ public class IDImpl {
 					.select(
 							simpleView.victimType(), simpleView.victimUuid(), simpleView.victimAddress(),
 							simpleView.operator(), simpleView.reason(), simpleView.scope(),
-							simpleView.start(), simpleView.end(), simpleView.track(), simpleView.scopeType()
+							simpleView.start(), simpleView.end(), simpleView.track(), simpleView.scopeType(),
+							simpleView.victimPrefix()
 					)
 					.from(simpleView.table())
 					.where(simpleView.id().eq(id))
@@ -91,15 +94,18 @@ public class IDImpl {
 		}));
 	}
 
+	// Historical punishments are looked up by ID when enforcing synchronized punishments
+
 	CentralisedFuture<Punishment> getHistoricalPunishmentById(long id) {
 		InternalDatabase database = dbProvider.get();
-		return database.query(SQLFunction.readOnly((context) -> {
+		return database.query(SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
 			return context
 					.select(
 							SIMPLE_HISTORY.TYPE,
 							SIMPLE_HISTORY.VICTIM_TYPE, SIMPLE_HISTORY.VICTIM_UUID, SIMPLE_HISTORY.VICTIM_ADDRESS,
 							SIMPLE_HISTORY.OPERATOR, SIMPLE_HISTORY.REASON, SIMPLE_HISTORY.SCOPE,
-							SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE
+							SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE,
+							SIMPLE_HISTORY.VICTIM_PREFIX
 					)
 					.from(SIMPLE_HISTORY)
 					.where(SIMPLE_HISTORY.ID.eq(id))
@@ -109,12 +115,13 @@ public class IDImpl {
 
 	CentralisedFuture<Punishment> getHistoricalPunishmentByIdAndType(long id, PunishmentType type) {
 		InternalDatabase database = dbProvider.get();
-		return database.query(SQLFunction.readOnly((context) -> {
+		return database.query(SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
 			return context
 					.select(
 							SIMPLE_HISTORY.VICTIM_TYPE, SIMPLE_HISTORY.VICTIM_UUID, SIMPLE_HISTORY.VICTIM_ADDRESS,
 							SIMPLE_HISTORY.OPERATOR, SIMPLE_HISTORY.REASON, SIMPLE_HISTORY.SCOPE,
-							SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE
+							SIMPLE_HISTORY.START, SIMPLE_HISTORY.END, SIMPLE_HISTORY.TRACK, SIMPLE_HISTORY.SCOPE_TYPE,
+							SIMPLE_HISTORY.VICTIM_PREFIX
 					)
 					.from(SIMPLE_HISTORY)
 					.where(SIMPLE_HISTORY.ID.eq(id))
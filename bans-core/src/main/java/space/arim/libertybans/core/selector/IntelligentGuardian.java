@@ -25,16 +25,23 @@ import net.kyori.adventure.text.Component;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.scope.ScopeManager;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.api.select.SelectionPredicate;
 import space.arim.libertybans.api.select.SortPunishments;
 import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache.PlayerScopedBans;
 import space.arim.libertybans.core.uuid.UUIDManager;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.net.InetAddress;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
@@ -51,10 +58,14 @@ public final class IntelligentGuardian implements Guardian {
 	private final InternalSelector selector;
 	private final UUIDManager uuidManager;
 	private final MuteCache muteCache;
+	private final ScopedBanCache scopedBanCache;
+	private final RangePunishmentCache rangePunishmentCache;
 
 	@Inject
 	public IntelligentGuardian(Configs configs, FactoryOfTheFuture futuresFactory, ScopeManager scopeManager,
-							   InternalFormatter formatter, InternalSelector selector, UUIDManager uuidManager, MuteCache muteCache) {
+							   InternalFormatter formatter, InternalSelector selector, UUIDManager uuidManager,
+							   MuteCache muteCache, ScopedBanCache scopedBanCache,
+							   RangePunishmentCache rangePunishmentCache) {
 		this.configs = configs;
 		this.futuresFactory = futuresFactory;
 		this.scopeManager = scopeManager;
@@ -62,6 +73,8 @@ public final class IntelligentGuardian implements Guardian {
 		this.selector = selector;
 		this.uuidManager = uuidManager;
 		this.muteCache = muteCache;
+		this.scopedBanCache = scopedBanCache;
+		this.rangePunishmentCache = rangePunishmentCache;
 	}
 
 	private static <R> Function<Throwable, R> timeoutHandler(String where) {
@@ -103,12 +116,9 @@ public final class IntelligentGuardian implements Guardian {
 		if (!configs.getMainConfig().platforms().proxies().enforceServerSwitch()) {
 			return futuresFactory.completedFuture(null);
 		}
-		return selector
-				.selectionByApplicabilityBuilder(uuid, address)
-				.type(PunishmentType.BAN)
-				.scope(scopeManager.specificScope(destinationServer))
-				.build()
-				.getFirstSpecificPunishment(SortPunishments.LATEST_END_DATE_FIRST)
+		NetworkAddress networkAddress = NetworkAddress.of(address);
+		ServerScope destinationScope = scopeManager.specificScope(destinationServer);
+		return findServerSwitchBan(uuid, networkAddress, destinationScope)
 				.thenCompose((punishment) -> {
 					if (punishment.isEmpty()) {
 						return futuresFactory.completedFuture(null);
@@ -120,6 +130,46 @@ public final class IntelligentGuardian implements Guardian {
 				.exceptionally(timeoutHandler("server switch"));
 	}
 
+	private CentralisedFuture<Optional<Punishment>> findServerSwitchBan(UUID uuid, NetworkAddress networkAddress,
+																		ServerScope destinationScope) {
+		Punishment rangeBan = rangePunishmentCache.findApplicable(
+				PunishmentType.BAN, networkAddress, destinationScope::equals);
+		if (rangeBan != null) {
+			// The range ban might have been revoked without enforcement, or on another instance
+			return selector
+					.getActivePunishmentByIdAndType(rangeBan.getIdentifier(), PunishmentType.BAN)
+					.toCompletableFuture()
+					.thenCompose((stillActive) -> {
+						if (stillActive.isPresent()) {
+							return futuresFactory.completedFuture(stillActive);
+						}
+						rangePunishmentCache.punishmentRemoved(rangeBan.getIdentifier());
+						return findServerSwitchBan(uuid, networkAddress, destinationScope);
+					});
+		}
+		// Usually, the scoped bans were cached at login
+		PlayerScopedBans cachedBans = scopedBanCache.getCachedScopedBans(uuid, networkAddress);
+		CentralisedFuture<PlayerScopedBans> futureScopedBans;
+		if (cachedBans != null) {
+			futureScopedBans = futuresFactory.completedFuture(cachedBans);
+		} else {
+			long cacheGeneration = scopedBanCache.currentGeneration();
+			futureScopedBans = selector
+					.selectionByApplicabilityBuilder(uuid, networkAddress)
+					.type(PunishmentType.BAN)
+					.scopes(SelectionPredicate.matchingNone(scopeManager.globalScope()))
+					.build()
+					.getAllSpecificPunishments(SortPunishments.LATEST_END_DATE_FIRST)
+					.toCompletableFuture()
+					.thenApply((bans) -> {
+						scopedBanCache.cacheScopedBans(uuid, networkAddress, bans, cacheGeneration);
+						return new PlayerScopedBans(networkAddress, bans);
+					});
+		}
+		return futureScopedBans
+				.thenApply((scopedBans) -> Optional.ofNullable(scopedBanCache.findBan(scopedBans, destinationScope)));
+	}
+
 	@Override
 	public CentralisedFuture<Component> checkChat(UUID uuid, NetworkAddress address, String command) {
 		if (command != null && !blockForMuted(command)) {
@@ -164,4 +214,9 @@ public final class IntelligentGuardian implements Guardian {
 		return false;
 	}
 
+	@Override
+	public void onDisconnect(UUID uuid) {
+		scopedBanCache.playerDisconnected(uuid);
+	}
+
 }
@@ -0,0 +1,60 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recording the check of an incoming connection. Costs next to nothing
+ * unless enabled in a flight recording.
+ *
+ */
+@Name("space.arim.libertybans.LoginCheck")
+@Label("Login Check")
+@Category({"LibertyBans", "Enforcement"})
+@Description("Checks an incoming player for bans, connection limits and alts")
+@StackTrace(false)
+final class LoginCheckEvent extends Event {
+
+	@Label("Outcome")
+	@Description("Whether the player was allowed, banned, or denied due to the connection limit")
+	String outcome;
+
+	@Label("Punishments Found")
+	@Description("Number of applicable bans retrieved from the database")
+	int punishmentsFound;
+
+	@Label("Attempts")
+	@Description("Number of times the transaction was attempted")
+	int attempts;
+
+	void finish() {
+		end();
+		if (shouldCommit()) {
+			commit();
+		}
+	}
+
+}
@@ -41,7 +41,7 @@ abstract class SelectionBaseImpl implements SelectionBase {
 	record Details(SelectionPredicate<PunishmentType> types,
 				   SelectionPredicate<Operator> operators, SelectionPredicate<ServerScope> scopes,
 				   SelectionPredicate<Optional<EscalationTrack>> escalationTracks,
-				   boolean selectActiveOnly, int skipCount, int limitToRetrieve,
+				   boolean selectActiveOnly, boolean includeArchived, int skipCount, int limitToRetrieve,
 				   Instant seekAfterStartTime, long seekAfterId, Instant seekBeforeStartTime, long seekBeforeId) {
 
 		Details {
@@ -83,6 +83,11 @@ abstract class SelectionBaseImpl implements SelectionBase {
 		return details.selectActiveOnly;
 	}
 
+	@Override
+	public boolean includeArchived() {
+		return details.includeArchived;
+	}
+
 	@Override
 	public int skipCount() {
 		return details.skipCount;
@@ -37,6 +37,7 @@ import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.scope.ServerScope;
 import space.arim.libertybans.api.select.SelectionPredicate;
 import space.arim.libertybans.api.select.SortPunishments;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
 import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.database.sql.ApplicableViewFields;
 import space.arim.libertybans.core.database.sql.EndTimeCondition;
@@ -57,8 +58,10 @@ import java.util.function.Supplier;
 
 import static org.jooq.impl.DSL.*;
 import static space.arim.libertybans.core.schema.tables.ApplicableActive.APPLICABLE_ACTIVE;
+import static space.arim.libertybans.core.schema.tables.ApplicableFullHistory.APPLICABLE_FULL_HISTORY;
 import static space.arim.libertybans.core.schema.tables.ApplicableHistory.APPLICABLE_HISTORY;
 import static space.arim.libertybans.core.schema.tables.SimpleActive.SIMPLE_ACTIVE;
+import static space.arim.libertybans.core.schema.tables.SimpleFullHistory.SIMPLE_FULL_HISTORY;
 import static space.arim.libertybans.core.schema.tables.SimpleHistory.SIMPLE_HISTORY;
 
 public abstract class SelectionBaseSQL extends SelectionBaseImpl {
@@ -70,6 +73,10 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 		this.resources = resources;
 	}
 
+	SelectionResources resources() {
+		return resources;
+	}
+
 	/*
 	 * The objective is to dynamically build SQL queries while avoiding
 	 * security-poor concatenated SQL.
@@ -89,15 +96,27 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 	SimpleViewFields<?> requestSimpleView() {
 		return determineFields(
 				TableForType::simpleView,
-				(active) -> active ? new SimpleViewFields<>(SIMPLE_ACTIVE) : new SimpleViewFields<>(SIMPLE_HISTORY)
+				(active) -> {
+					if (active) {
+						return new SimpleViewFields<>(SIMPLE_ACTIVE);
+					}
+					// The archive is only consulted when requested, because it may be very large
+					return includeArchived() ?
+							new SimpleViewFields<>(SIMPLE_FULL_HISTORY) : new SimpleViewFields<>(SIMPLE_HISTORY);
+				}
 		);
 	}
 
 	ApplicableViewFields<?> requestApplicableView() {
 		return determineFields(
 				TableForType::applicableView,
-				(active) -> active ?
-						new ApplicableViewFields<>(APPLICABLE_ACTIVE) : new ApplicableViewFields<>(APPLICABLE_HISTORY)
+				(active) -> {
+					if (active) {
+						return new ApplicableViewFields<>(APPLICABLE_ACTIVE);
+					}
+					return includeArchived() ?
+							new ApplicableViewFields<>(APPLICABLE_FULL_HISTORY) : new ApplicableViewFields<>(APPLICABLE_HISTORY);
+				}
 		);
 	}
 
@@ -329,6 +348,15 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 
 	abstract Query<?> requestQuery(QueryParameters parameters);
 
+	/**
+	 * The read consistency of queries made by this selection
+	 *
+	 * @return the read consistency
+	 */
+	ReadConsistency readConsistency() {
+		return ReadConsistency.EVENTUAL;
+	}
+
 	private boolean selectActiveKicks() {
 		return selectActiveOnly()
 				&& getTypes().isSimpleEquality()
@@ -363,6 +391,22 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 		).fetchOne();
 	}
 
+	/**
+	 * Visible for internal use, for the efficiency of reusing a database connection
+	 * during execution of incoming logins
+	 *
+	 * @param context the database access
+	 * @param timeSupplier the current time supplier
+	 * @param ordering sorting ordering
+	 * @return finds all punishments from this selection
+	 */
+	public List<Punishment> findAllSpecificPunishments(DSLContext context, Supplier<Instant> timeSupplier,
+													   SortPunishments...ordering) {
+		return requestQuery(
+				new QueryParameters(context, limitToRetrieve(), timeSupplier, ordering)
+		).fetch();
+	}
+
 	@Override
 	public ReactionStage<Optional<Punishment>> getFirstSpecificPunishment(SortPunishments...prioritization) {
 		if (selectActiveKicks()) {
@@ -370,7 +414,7 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 			return resources.futuresFactory().completedFuture(Optional.empty());
 		}
 		return resources.dbProvider().get()
-				.query(SQLFunction.readOnly((context) -> {
+				.query(SQLFunction.readOnly(readConsistency(), (context) -> {
 					return findFirstSpecificPunishment(context, resources.time()::currentTimestamp, prioritization);
 				}))
 				.thenApply(Optional::ofNullable);
@@ -382,7 +426,7 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 			// Kicks cannot possibly be active
 			return resources.futuresFactory().completedFuture(List.of());
 		}
-		return resources.dbProvider().get().query(SQLFunction.readOnly((context) -> requestQuery(
+		return resources.dbProvider().get().query(SQLFunction.readOnly(readConsistency(), (context) -> requestQuery(
 				new QueryParameters(
 						context,
 						limitToRetrieve(),
@@ -398,7 +442,7 @@ public abstract class SelectionBaseSQL extends SelectionBaseImpl {
 			// Kicks cannot possibly be active
 			return resources.futuresFactory().completedFuture(0);
 		}
-		return resources.dbProvider().get().query(SQLFunction.readOnly((context) -> {
+		return resources.dbProvider().get().query(SQLFunction.readOnly(readConsistency(), (context) -> {
 			Query<?> query = requestQuery(
 					new QueryParameters(
 							context,
@@ -39,6 +39,7 @@ abstract class SelectionBuilderBaseImpl<B extends SelectionBuilderBase<B, S>, S
 	private SelectionPredicate<ServerScope> scopes = SelectionPredicate.matchingAll();
 	private SelectionPredicate<Optional<EscalationTrack>> escalationTracks = SelectionPredicate.matchingAll();
 	private boolean selectActiveOnly = true;
+	private boolean includeArchived;
 	private int skipCount;
 	private int limitToRetrieve;
 	private Instant seekAfterStartTime = Instant.EPOCH;
@@ -80,6 +81,12 @@ abstract class SelectionBuilderBaseImpl<B extends SelectionBuilderBase<B, S>, S
 		return yieldSelf();
 	}
 
+	@Override
+	public B includeArchived(boolean includeArchived) {
+		this.includeArchived = includeArchived;
+		return yieldSelf();
+	}
+
 	@Override
 	public B skipFirstRetrieved(int skipCount) {
 		if (skipCount < 0) {
@@ -115,7 +122,7 @@ abstract class SelectionBuilderBaseImpl<B extends SelectionBuilderBase<B, S>, S
 	@Override
 	public S build() {
 		return buildWith(new SelectionBaseImpl.Details(
-				types, operators, scopes, escalationTracks, selectActiveOnly, skipCount, limitToRetrieve,
+				types, operators, scopes, escalationTracks, selectActiveOnly, includeArchived, skipCount, limitToRetrieve,
 				seekAfterStartTime, seekAfterId, seekBeforeStartTime, seekBeforeId
 		));
 	}
@@ -28,6 +28,7 @@ import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.Victim.VictimType;
 import space.arim.libertybans.api.select.AddressStrictness;
 import space.arim.libertybans.api.select.SelectionByApplicability;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
 import space.arim.libertybans.core.database.sql.ApplicableViewFields;
 import space.arim.libertybans.core.database.sql.DeserializedVictim;
 import space.arim.libertybans.core.database.sql.PunishmentFields;
@@ -69,6 +70,12 @@ public final class SelectionByApplicabilityImpl extends SelectionBaseSQL impleme
 		return strictness;
 	}
 
+	@Override
+	ReadConsistency readConsistency() {
+		// Used to enforce punishments, such as checking mutes
+		return ReadConsistency.ENFORCEMENT;
+	}
+
 	@Override
 	Query<?> requestQuery(QueryParameters parameters) {
 		PunishmentFields fields = null;
@@ -109,7 +116,7 @@ public final class SelectionByApplicabilityImpl extends SelectionBaseSQL impleme
 			}
 		};
 		List<Field<?>> additionalColumns = List.of(
-				fields.victimType(), fields.victimUuid(), fields.victimAddress()
+				fields.victimType(), fields.victimUuid(), fields.victimAddress(), fields.victimPrefix()
 		);
 		assert table != null;
 		return new QueryBuilder(parameters, fields, table) {
@@ -117,7 +124,8 @@ public final class SelectionByApplicabilityImpl extends SelectionBaseSQL impleme
 			Victim victimFromRecord(Record record) {
 				return new DeserializedVictim(
 						record.get(aggregateIfNeeded(fields.victimUuid())),
-						record.get(aggregateIfNeeded(fields.victimAddress()))
+						record.get(aggregateIfNeeded(fields.victimAddress())),
+						record.get(aggregateIfNeeded(fields.victimPrefix()))
 				).victim(
 						record.get(aggregateIfNeeded(fields.victimType()))
 				);
@@ -158,6 +166,7 @@ public final class SelectionByApplicabilityImpl extends SelectionBaseSQL impleme
 				", operators=" + getOperators() +
 				", scopes=" + getScopes() +
 				", selectActiveOnly=" + selectActiveOnly() +
+				", includeArchived=" + includeArchived() +
 				", skipCount=" + skipCount() +
 				", limitToRetrieve=" + limitToRetrieve() +
 				", seekAfterStartTime=" + seekAfterStartTime() +
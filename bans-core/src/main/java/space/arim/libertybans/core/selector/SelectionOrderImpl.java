@@ -22,13 +22,19 @@ package space.arim.libertybans.core.selector;
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.jooq.Record;
+import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EscalationTrack;
 import space.arim.libertybans.api.select.SelectionOrder;
 import space.arim.libertybans.api.select.SelectionPredicate;
+import space.arim.libertybans.core.database.execute.SQLFunction;
 import space.arim.libertybans.core.database.sql.DeserializedVictim;
 import space.arim.libertybans.core.database.sql.PunishmentFields;
+import space.arim.libertybans.core.database.sql.TrackCounts;
 import space.arim.libertybans.core.database.sql.VictimCondition;
+import space.arim.omnibus.util.concurrent.ReactionStage;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -61,13 +67,14 @@ final class SelectionOrderImpl extends SelectionBaseSQL implements SelectionOrde
 	Query<?> requestQuery(QueryParameters parameters) {
 		PunishmentFields fields = requestSimpleView();
 
-		List<Field<?>> additionalColumns = new ArrayList<>(3);
+		List<Field<?>> additionalColumns = new ArrayList<>(4);
 		if (getVictims().isNotSimpleEquality()) {
 			if (getVictimTypes().isNotSimpleEquality()) {
 				additionalColumns.add(fields.victimType());
 			}
 			additionalColumns.add(fields.victimUuid());
 			additionalColumns.add(fields.victimAddress());
+			additionalColumns.add(fields.victimPrefix());
 		}
 		Condition additionalPredication = noCondition()
 				.and(new SingleFieldCriterion<>(fields.victimType()).matches(getVictimTypes()))
@@ -84,7 +91,8 @@ final class SelectionOrderImpl extends SelectionBaseSQL implements SelectionOrde
 					);
 					return new DeserializedVictim(
 							record.get(aggregateIfNeeded(fields.victimUuid())),
-							record.get(aggregateIfNeeded(fields.victimAddress()))
+							record.get(aggregateIfNeeded(fields.victimAddress())),
+							record.get(aggregateIfNeeded(fields.victimPrefix()))
 					).victim(victimType);
 				}
 			}
@@ -96,6 +104,52 @@ final class SelectionOrderImpl extends SelectionBaseSQL implements SelectionOrde
 		}.constructSelect(additionalColumns, additionalPredication);
 	}
 
+	@Override
+	public ReactionStage<Integer> countNumberOfPunishments() {
+		if (isCountedByTrack()) {
+			// Use the maintained count rather than counting the victim's punishments
+			Victim victim = getVictims().acceptedValues().iterator().next();
+			EscalationTrack escalationTrack = getEscalationTracks().acceptedValues().iterator().next().orElseThrow();
+			return resources().dbProvider().get().query(SQLFunction.readOnly(readConsistency(), (context) -> {
+				return new TrackCounts(context).retrieveTotal(victim, escalationTrack);
+			}));
+		}
+		return super.countNumberOfPunishments();
+	}
+
+	/**
+	 * Whether this selection counts all punishments of exactly one victim on exactly one escalation track,
+	 * in which case the count is available from the track counts table. Archived punishments remain
+	 * counted in the track counts table, so the selection must include them.
+	 *
+	 * @return true if the selection can be counted using the track counts table
+	 */
+	boolean isCountedByTrack() {
+		if (selectActiveOnly() || !includeArchived() || skipCount() != 0 || limitToRetrieve() != 0
+				|| !seekAfterStartTime().equals(Instant.EPOCH) || !seekBeforeStartTime().equals(Instant.MAX)) {
+			return false;
+		}
+		if (!matchesAll(getTypes()) || !matchesAll(getOperators())
+				|| !matchesAll(getScopes()) || !matchesAll(getVictimTypes())) {
+			return false;
+		}
+		if (getEscalationTracks().isNotSimpleEquality()
+				|| getEscalationTracks().acceptedValues().iterator().next().isEmpty()) {
+			return false;
+		}
+		if (getVictims().isNotSimpleEquality()) {
+			return false;
+		}
+		Victim victim = getVictims().acceptedValues().iterator().next();
+		return !(victim instanceof CompositeVictim compositeVictim)
+				|| !compositeVictim.getUUID().equals(CompositeVictim.WILDCARD_UUID)
+				&& !compositeVictim.getAddress().equals(CompositeVictim.WILDCARD_ADDRESS);
+	}
+
+	private static boolean matchesAll(SelectionPredicate<?> predicate) {
+		return predicate.acceptedValues().isEmpty() && predicate.rejectedValues().isEmpty();
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) return true;
@@ -122,6 +176,7 @@ final class SelectionOrderImpl extends SelectionBaseSQL implements SelectionOrde
 				", operators=" + getOperators() +
 				", scopes=" + getScopes() +
 				", selectActiveOnly=" + selectActiveOnly() +
+				", includeArchived=" + includeArchived() +
 				", skipCount=" + skipCount() +
 				", limitToRetrieve=" + limitToRetrieve() +
 				", seekAfterStartTime=" + seekAfterStartTime() +
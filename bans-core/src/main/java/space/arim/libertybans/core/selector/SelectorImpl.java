@@ -24,16 +24,29 @@ import jakarta.inject.Provider;
 import jakarta.inject.Singleton;
 import net.kyori.adventure.text.Component;
 import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.scope.ServerScope;
 import space.arim.libertybans.api.select.AddressStrictness;
 import space.arim.libertybans.api.select.SelectionOrderBuilder;
 import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.database.execute.QueryPriority;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
+import space.arim.libertybans.core.database.execute.SQLFunction;
+import space.arim.libertybans.core.database.sql.TableForType;
+import space.arim.libertybans.core.database.sql.WarnCounts;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.ReactionStage;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -46,15 +59,20 @@ public class SelectorImpl implements InternalSelector {
 	private final IDImpl idImpl;
 	private final Gatekeeper gatekeeper;
 	private final Provider<MuteCache> muteCache;
+	private final RangePunishmentCache rangePunishmentCache;
 	private final SelectionResources resources;
 
+	private static final int BULK_CHUNK_SIZE = 500;
+
 	@Inject
 	public SelectorImpl(Configs configs, IDImpl idImpl, Gatekeeper gatekeeper,
-						Provider<MuteCache> muteCache, SelectionResources resources) {
+						Provider<MuteCache> muteCache, RangePunishmentCache rangePunishmentCache,
+						SelectionResources resources) {
 		this.configs = configs;
 		this.idImpl = idImpl;
 		this.gatekeeper = gatekeeper;
 		this.muteCache = muteCache;
+		this.rangePunishmentCache = rangePunishmentCache;
 		this.resources = resources;
 	}
 
@@ -100,6 +118,32 @@ public class SelectorImpl implements InternalSelector {
 		return idImpl.getHistoricalPunishmentByIdAndType(id, type).thenApply(Optional::ofNullable);
 	}
 
+	/*
+	 * 
+	 * Counting methods
+	 * 
+	 */
+
+	@Override
+	public ReactionStage<Integer> countActiveWarns(Victim victim) {
+		Objects.requireNonNull(victim, "victim");
+		if (victim instanceof CompositeVictim compositeVictim
+				&& (compositeVictim.getUUID().equals(CompositeVictim.WILDCARD_UUID)
+				|| compositeVictim.getAddress().equals(CompositeVictim.WILDCARD_ADDRESS))) {
+			// Wildcards match multiple victims, which the maintained count cannot provide
+			return selectionBuilder()
+					.victim(victim)
+					.type(PunishmentType.WARN)
+					.selectActiveOnly()
+					.build()
+					.countNumberOfPunishments();
+		}
+		// Strict consistency since warn actions are decided immediately after a warn is added
+		return resources.dbProvider().get().query(SQLFunction.readOnly(ReadConsistency.STRICT, (context) -> {
+			return new WarnCounts(context).retrieveTotal(victim);
+		}));
+	}
+
 	/*
 	 * 
 	 * Applicability methods
@@ -112,6 +156,90 @@ public class SelectorImpl implements InternalSelector {
 		return gatekeeper.executeAndCheckConnection(uuid, name, address, scopes, this);
 	}
 
+	@Override
+	public ReactionStage<Optional<Punishment>> getApplicablePunishment(UUID uuid, NetworkAddress address,
+																	   PunishmentType type) {
+		Punishment rangePunishment = rangePunishmentCache.findApplicable(type, address, (scope) -> true);
+		ReactionStage<Optional<Punishment>> futureExact = InternalSelector.super.getApplicablePunishment(
+				uuid, address, type);
+		if (rangePunishment == null) {
+			return futureExact;
+		}
+		return futureExact.thenCompose((exact) -> {
+			if (exact.isPresent() && !rangePunishment.getEndDate().isAfter(exact.get().getEndDate())) {
+				return resources.futuresFactory().completedFuture(exact);
+			}
+			// The range punishment may have been revoked without enforcement
+			return getActivePunishmentByIdAndType(rangePunishment.getIdentifier(), type).thenApply((stillActive) -> {
+				if (stillActive.isEmpty()) {
+					rangePunishmentCache.punishmentRemoved(rangePunishment.getIdentifier());
+					return exact;
+				}
+				return stillActive;
+			});
+		});
+	}
+
+	@Override
+	public ReactionStage<Map<UUID, Punishment>> getApplicablePunishments(Map<UUID, NetworkAddress> users,
+																		 PunishmentType type) {
+		Objects.requireNonNull(users, "users");
+		Objects.requireNonNull(type, "type");
+		if (users.isEmpty() || type == PunishmentType.KICK) {
+			// Kicks cannot possibly be active
+			return resources.futuresFactory().completedFuture(Map.of());
+		}
+		AddressStrictness strictness = configs.getMainConfig().enforcement().addressStrictness();
+		// Chunk the users so that the IN-lists stay within the parameter limits of all vendors
+		List<BulkApplicabilitySelection> selections = new ArrayList<>();
+		Map<UUID, NetworkAddress> chunk = new HashMap<>();
+		Map<UUID, Punishment> rangePunishments = new HashMap<>();
+		for (Map.Entry<UUID, NetworkAddress> user : users.entrySet()) {
+			chunk.put(user.getKey(), user.getValue());
+			if (chunk.size() == BULK_CHUNK_SIZE) {
+				selections.add(new BulkApplicabilitySelection(resources, type, chunk, strictness));
+				chunk.clear();
+			}
+			Punishment rangePunishment = rangePunishmentCache.findApplicable(type, user.getValue(), (scope) -> true);
+			if (rangePunishment != null) {
+				rangePunishments.put(user.getKey(), rangePunishment);
+			}
+		}
+		if (!chunk.isEmpty()) {
+			selections.add(new BulkApplicabilitySelection(resources, type, chunk, strictness));
+		}
+		SQLFunction<Map<UUID, Punishment>> command = SQLFunction.readOnly(ReadConsistency.ENFORCEMENT, (context) -> {
+			Map<UUID, Punishment> applicable = new HashMap<>();
+			for (BulkApplicabilitySelection selection : selections) {
+				applicable.putAll(selection.findApplicablePunishments(context, resources.time()::currentTimestamp));
+			}
+			if (rangePunishments.isEmpty()) {
+				return applicable;
+			}
+			// The range punishments may have been revoked without enforcement
+			var dataTable = new TableForType(type).dataTable();
+			Set<Long> rangeIds = new HashSet<>();
+			rangePunishments.values().forEach((rangePunishment) -> rangeIds.add(rangePunishment.getIdentifier()));
+			Set<Long> stillActive = context
+					.select(dataTable.id())
+					.from(dataTable.table())
+					.where(dataTable.id().in(rangeIds))
+					.fetchSet(dataTable.id());
+			rangePunishments.forEach((uuid, rangePunishment) -> {
+				if (!stillActive.contains(rangePunishment.getIdentifier())) {
+					rangePunishmentCache.punishmentRemoved(rangePunishment.getIdentifier());
+					return;
+				}
+				applicable.merge(uuid, rangePunishment, (exact, range) -> {
+					return range.getEndDate().isAfter(exact.getEndDate()) ? range : exact;
+				});
+			});
+			return applicable;
+		});
+		// Bulk checks should not occupy the threads reserved for individual players' enforcement
+		return resources.dbProvider().get().query(SQLFunction.withPriority(QueryPriority.PUNISHMENT, command));
+	}
+
 	@Override
 	public ReactionStage<Optional<Punishment>> getCachedMute(UUID uuid, NetworkAddress address) {
 		Objects.requireNonNull(uuid, "uuid");
@@ -0,0 +1,174 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Binary radix (Patricia) trie of address ranges, each associated with one or more values.
+ * Paths without branches are compressed, so that looking up an address visits at most one node
+ * per distinct prefix length along its path, regardless of the number of ranges. <br>
+ * <br>
+ * All keys must have the same length, so IPv4 and IPv6 ranges belong in separate tries.
+ * Not thread safe.
+ *
+ * @param <V> the value type
+ */
+final class AddressRangeTrie<V> {
+
+	private Node<V> root;
+
+	private static final class Node<V> {
+
+		/** Any address within this node's prefix. Bits beyond the prefix length are ignored */
+		final byte[] key;
+		final int prefixLength;
+		final List<V> values = new ArrayList<>(1);
+		@SuppressWarnings("unchecked")
+		final Node<V>[] children = new Node[2];
+
+		Node(byte[] key, int prefixLength) {
+			this.key = key;
+			this.prefixLength = prefixLength;
+		}
+	}
+
+	private static int bitAt(byte[] address, int index) {
+		return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+	}
+
+	private static int commonPrefixLength(byte[] first, byte[] second, int maxLength) {
+		int length = 0;
+		// Compare whole bytes, then the remaining bits
+		while (length + 8 <= maxLength && first[length >>> 3] == second[length >>> 3]) {
+			length += 8;
+		}
+		while (length < maxLength && bitAt(first, length) == bitAt(second, length)) {
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Adds a value for the given range
+	 *
+	 * @param network the network address of the range
+	 * @param prefixLength the prefix length of the range
+	 * @param value the value
+	 */
+	void add(byte[] network, int prefixLength, V value) {
+		root = add(root, network, prefixLength, value);
+	}
+
+	private Node<V> add(Node<V> node, byte[] network, int prefixLength, V value) {
+		if (node == null) {
+			Node<V> leaf = new Node<>(network, prefixLength);
+			leaf.values.add(value);
+			return leaf;
+		}
+		int common = commonPrefixLength(node.key, network, Math.min(node.prefixLength, prefixLength));
+		if (common == node.prefixLength) {
+			if (common == prefixLength) {
+				node.values.add(value);
+			} else {
+				int bit = bitAt(network, common);
+				node.children[bit] = add(node.children[bit], network, prefixLength, value);
+			}
+			return node;
+		}
+		// The new range diverges from, or contains, this node's range
+		Node<V> parent = new Node<>(network, common);
+		parent.children[bitAt(node.key, common)] = node;
+		if (common == prefixLength) {
+			parent.values.add(value);
+		} else {
+			Node<V> leaf = new Node<>(network, prefixLength);
+			leaf.values.add(value);
+			parent.children[bitAt(network, common)] = leaf;
+		}
+		return parent;
+	}
+
+	/**
+	 * Removes values for the given range
+	 *
+	 * @param network the network address of the range
+	 * @param prefixLength the prefix length of the range
+	 * @param removeIf which values to remove
+	 */
+	void remove(byte[] network, int prefixLength, Predicate<V> removeIf) {
+		root = remove(root, network, prefixLength, removeIf);
+	}
+
+	private Node<V> remove(Node<V> node, byte[] network, int prefixLength, Predicate<V> removeIf) {
+		if (node == null || node.prefixLength > prefixLength
+				|| commonPrefixLength(node.key, network, node.prefixLength) != node.prefixLength) {
+			return node;
+		}
+		if (node.prefixLength == prefixLength) {
+			node.values.removeIf(removeIf);
+		} else {
+			int bit = bitAt(network, node.prefixLength);
+			node.children[bit] = remove(node.children[bit], network, prefixLength, removeIf);
+		}
+		// Compact nodes which no longer hold values or branch
+		if (!node.values.isEmpty()) {
+			return node;
+		}
+		if (node.children[0] == null) {
+			return node.children[1];
+		}
+		if (node.children[1] == null) {
+			return node.children[0];
+		}
+		return node;
+	}
+
+	/**
+	 * Visits the values of all ranges containing the given address
+	 *
+	 * @param address the address
+	 * @param action the action to perform on each value
+	 */
+	void forEachContaining(byte[] address, Consumer<V> action) {
+		int addressLength = address.length * 8;
+		Node<V> node = root;
+		while (node != null
+				&& commonPrefixLength(node.key, address, node.prefixLength) == node.prefixLength) {
+			node.values.forEach(action);
+			if (node.prefixLength == addressLength) {
+				break;
+			}
+			node = node.children[bitAt(address, node.prefixLength)];
+		}
+	}
+
+	/**
+	 * Removes all ranges
+	 *
+	 */
+	void clear() {
+		root = null;
+	}
+
+}
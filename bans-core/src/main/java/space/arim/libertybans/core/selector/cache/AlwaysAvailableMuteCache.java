@@ -29,6 +29,7 @@ import space.arim.libertybans.api.select.PunishmentSelector;
 import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.env.EnvUserResolver;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.DelayCalculators;
@@ -44,6 +45,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 /**
@@ -125,16 +127,31 @@ public final class AlwaysAvailableMuteCache extends BaseMuteCache {
 
 	@Override
 	public CentralisedFuture<Optional<Punishment>> getCachedMute(UUID uuid, NetworkAddress address) {
-		return cacheRequest(new MuteCacheKey(uuid, address))
+		return recordedCacheRequest(new MuteCacheKey(uuid, address))
 				.thenApply((opt) -> opt.map(MuteAndMessage::mute));
 	}
 
 	@Override
 	public CentralisedFuture<Optional<Component>> getCachedMuteMessage(UUID uuid, NetworkAddress address) {
-		return cacheRequest(new MuteCacheKey(uuid, address))
+		return recordedCacheRequest(new MuteCacheKey(uuid, address))
 				.thenApply((opt) -> opt.map(MuteAndMessage::message));
 	}
 
+	private CentralisedFuture<Optional<MuteAndMessage>> recordedCacheRequest(MuteCacheKey cacheKey) {
+		if (!FlightRecording.isAvailable()) {
+			return cacheRequest(cacheKey);
+		}
+		MuteCacheLookupEvent event = new MuteCacheLookupEvent("Always-available");
+		if (!event.isEnabled()) {
+			// Avoid the extra stage when not recording
+			return cacheRequest(cacheKey);
+		}
+		event.begin();
+		CentralisedFuture<Optional<MuteAndMessage>> lookup = cacheRequest(cacheKey);
+		event.cacheHit = lookup.isDone();
+		return lookup.whenComplete((muteAndMessage, ex) -> event.finish(muteAndMessage));
+	}
+
 	private CentralisedFuture<Optional<MuteAndMessage>> cacheRequest(MuteCacheKey cacheKey) {
 		Cache cache = this.cache;
 		Entry cacheEntry = cache.map.computeIfPresent(cacheKey, (key, entry) -> {
@@ -258,6 +275,28 @@ public final class AlwaysAvailableMuteCache extends BaseMuteCache {
 		});
 	}
 
+	@Override
+	public void forEachCachedUnmuted(BiConsumer<UUID, NetworkAddress> action) {
+		cache.map.forEach((key, entry) -> {
+			CentralisedFuture<MuteAndMessage> nextValue = entry.nextValue;
+			boolean unmuted;
+			if (nextValue == null) {
+				unmuted = entry.currentValue == null;
+			} else {
+				// Only the completed value is reliable
+				unmuted = nextValue.isDone() && !nextValue.isCompletedExceptionally() && nextValue.join() == null;
+			}
+			if (unmuted) {
+				action.accept(key.uuid(), key.address());
+			}
+		});
+	}
+
+	@Override
+	public void restoreCachedUnmuted(UUID uuid, NetworkAddress address) {
+		cache.map.putIfAbsent(new MuteCacheKey(uuid, address), new Entry(null, nanoTime(), null));
+	}
+
 	private final class Cache {
 
 		private final ConcurrentHashMap<MuteCacheKey, Entry> map;
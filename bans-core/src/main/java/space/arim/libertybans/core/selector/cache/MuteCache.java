@@ -27,6 +27,7 @@ import space.arim.omnibus.util.concurrent.CentralisedFuture;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 
 public interface MuteCache extends Part {
 
@@ -49,4 +50,20 @@ public interface MuteCache extends Part {
 
 	void clearCachedMute(long id);
 
+	/**
+	 * Passes every cached player who is known not to be muted to the given action
+	 *
+	 * @param action the action, receiving the user's uuid and address
+	 */
+	void forEachCachedUnmuted(BiConsumer<UUID, NetworkAddress> action);
+
+	/**
+	 * Caches that a player is not muted, if nothing is yet cached for the player. Used to
+	 * restore cache contents from a previous run
+	 *
+	 * @param uuid the user's uuid
+	 * @param address the user's address
+	 */
+	void restoreCachedUnmuted(UUID uuid, NetworkAddress address);
+
 }
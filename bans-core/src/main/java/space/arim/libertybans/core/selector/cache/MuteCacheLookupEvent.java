@@ -0,0 +1,64 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Optional;
+
+/**
+ * JFR event recording a lookup in the mute cache
+ *
+ */
+@Name("space.arim.libertybans.MuteCacheLookup")
+@Label("Mute Cache Lookup")
+@Category({"LibertyBans", "Enforcement"})
+@Description("Looks up whether a player is muted, querying the database if necessary")
+@StackTrace(false)
+final class MuteCacheLookupEvent extends Event {
+
+	@Label("Cache")
+	String cache;
+
+	@Label("Cache Hit")
+	@Description("Whether the lookup was answered without waiting for the database")
+	boolean cacheHit;
+
+	@Label("Muted")
+	boolean muted;
+
+	MuteCacheLookupEvent(String cache) {
+		this.cache = cache;
+	}
+
+	void finish(Optional<?> mute) {
+		end();
+		if (shouldCommit()) {
+			muted = mute != null && mute.isPresent();
+			commit();
+		}
+	}
+
+}
@@ -31,12 +31,14 @@ import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.select.PunishmentSelector;
 import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.config.InternalFormatter;
+import space.arim.libertybans.core.service.FlightRecording;
 import space.arim.libertybans.core.service.Time;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Predicate;
 
 /**
@@ -96,12 +98,12 @@ public final class OnDemandMuteCache extends BaseMuteCache {
 
 	@Override
 	public CentralisedFuture<Optional<Punishment>> getCachedMute(UUID uuid, NetworkAddress address) {
-		return cacheRequest(new MuteCacheKey(uuid, address));
+		return recordedCacheRequest(new MuteCacheKey(uuid, address));
 	}
 
 	@Override
 	public CentralisedFuture<Optional<Component>> getCachedMuteMessage(UUID uuid, NetworkAddress address) {
-		return cacheRequest(new MuteCacheKey(uuid, address)).thenCompose((optMute) -> {
+		return recordedCacheRequest(new MuteCacheKey(uuid, address)).thenCompose((optMute) -> {
 			if (optMute.isEmpty()) {
 				return futuresFactory.completedFuture(Optional.empty());
 			}
@@ -109,6 +111,21 @@ public final class OnDemandMuteCache extends BaseMuteCache {
 		});
 	}
 
+	private CentralisedFuture<Optional<Punishment>> recordedCacheRequest(MuteCacheKey key) {
+		if (!FlightRecording.isAvailable()) {
+			return cacheRequest(key);
+		}
+		MuteCacheLookupEvent event = new MuteCacheLookupEvent("On-demand");
+		if (!event.isEnabled()) {
+			// Avoid the extra stage when not recording
+			return cacheRequest(key);
+		}
+		event.begin();
+		CentralisedFuture<Optional<Punishment>> lookup = cacheRequest(key);
+		event.cacheHit = lookup.isDone();
+		return lookup.whenComplete((mute, ex) -> event.finish(mute));
+	}
+
 	private CentralisedFuture<Optional<Punishment>> cacheRequest(MuteCacheKey key) {
 		var cache = this.cache;
 		var muteFuture = cache.get(key);
@@ -131,6 +148,21 @@ public final class OnDemandMuteCache extends BaseMuteCache {
 		});
 	}
 
+	@Override
+	public void forEachCachedUnmuted(BiConsumer<UUID, NetworkAddress> action) {
+		// The synchronous view only contains completed values
+		cache.synchronous().asMap().forEach((key, mute) -> {
+			if (mute.isEmpty()) {
+				action.accept(key.uuid(), key.address());
+			}
+		});
+	}
+
+	@Override
+	public void restoreCachedUnmuted(UUID uuid, NetworkAddress address) {
+		cache.asMap().putIfAbsent(new MuteCacheKey(uuid, address), futuresFactory.completedFuture(Optional.empty()));
+	}
+
 	@Override
 	public CentralisedFuture<?> cacheOnLogin(UUID uuid, NetworkAddress address) {
 		// Correctness: It is possible a cached mute's details changed while the player was offline
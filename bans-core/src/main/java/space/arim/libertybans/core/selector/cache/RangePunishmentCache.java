@@ -0,0 +1,265 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.api.select.PunishmentSelector;
+import space.arim.libertybans.api.select.SelectionPredicate;
+import space.arim.libertybans.core.Part;
+import space.arim.libertybans.core.service.Time;
+import space.arim.omnibus.util.ThisClass;
+import space.arim.omnibus.util.concurrent.DelayCalculators;
+import space.arim.omnibus.util.concurrent.EnhancedExecutor;
+import space.arim.omnibus.util.concurrent.ScheduledTask;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Holds the active bans and mutes of {@link RangeVictim}s in memory, indexed by a radix trie.
+ * Checking whether an address is within a punished range therefore costs a single walk of the
+ * trie, regardless of how many ranges are punished. <br>
+ * <br>
+ * The punishments are loaded at startup, then kept up-to-date as punishments are enforced and
+ * unenforced, including when synchronized from other instances. Since punishments may also be
+ * enacted or revoked without enforcement, or on other instances without synchronization, the
+ * cache is additionally reloaded periodically. Expired punishments are skipped when looked up,
+ * and discarded when the cache is reloaded. <br>
+ * <br>
+ * This cache is authoritative: no query looks for range punishments in the database. A range
+ * punishment enacted without enforcement, or on another instance without synchronization, therefore
+ * applies once the cache is next reloaded. Callers acting on a punishment found here should confirm
+ * it still exists, since it might have been revoked in the same way.
+ *
+ */
+@Singleton
+public final class RangePunishmentCache implements Part {
+
+	private final Provider<PunishmentSelector> selector;
+	private final EnhancedExecutor enhancedExecutor;
+	private final Time time;
+
+	private final AddressRangeTrie<Punishment> ipv4Ranges = new AddressRangeTrie<>();
+	private final AddressRangeTrie<Punishment> ipv6Ranges = new AddressRangeTrie<>();
+	private final Map<Long, Punishment> byId = new HashMap<>();
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private ScheduledTask reloadTask;
+
+	static final Duration RELOAD_INTERVAL = Duration.ofMinutes(1L);
+	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
+
+	@Inject
+	public RangePunishmentCache(Provider<PunishmentSelector> selector, EnhancedExecutor enhancedExecutor, Time time) {
+		this.selector = selector;
+		this.enhancedExecutor = enhancedExecutor;
+		this.time = time;
+	}
+
+	private static boolean isCached(Punishment punishment) {
+		PunishmentType type = punishment.getType();
+		return (type == PunishmentType.BAN || type == PunishmentType.MUTE)
+				&& punishment.getVictim() instanceof RangeVictim;
+	}
+
+	@Override
+	public void startup() {
+		reload();
+		reloadTask = enhancedExecutor.scheduleRepeating(() -> {
+			try {
+				reload();
+			} catch (RuntimeException ex) {
+				logger.warn("Failed to reload range punishments", ex);
+			}
+		}, RELOAD_INTERVAL, DelayCalculators.fixedDelay());
+	}
+
+	private void reload() {
+		// Punishments added while loading must not be discarded
+		Set<Long> previousIds;
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			previousIds = Set.copyOf(byId.keySet());
+		} finally {
+			readLock.unlock();
+		}
+		List<Punishment> rangePunishments = selector.get()
+				.selectionBuilder()
+				.victimType(Victim.VictimType.RANGE)
+				.types(SelectionPredicate.matchingAnyOf(PunishmentType.BAN, PunishmentType.MUTE))
+				.selectActiveOnly()
+				.build()
+				.getAllSpecificPunishments()
+				.toCompletableFuture()
+				.join();
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			previousIds.forEach(this::remove);
+			for (Punishment punishment : rangePunishments) {
+				remove(punishment.getIdentifier());
+				add(punishment);
+			}
+		} finally {
+			writeLock.unlock();
+		}
+		logger.debug("Loaded {} range punishments", rangePunishments.size());
+	}
+
+	@Override
+	public void restart() {
+		// The database may have changed
+		shutdown();
+		startup();
+	}
+
+	@Override
+	public void shutdown() {
+		if (reloadTask != null) {
+			reloadTask.cancel();
+			reloadTask = null;
+		}
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			clear();
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	private AddressRangeTrie<Punishment> trieFor(byte[] address) {
+		return (address.length == 4) ? ipv4Ranges : ipv6Ranges;
+	}
+
+	// Requires write lock
+	private void add(Punishment punishment) {
+		RangeVictim range = (RangeVictim) punishment.getVictim();
+		byte[] network = range.getNetwork().getRawAddress();
+		trieFor(network).add(network, range.getPrefixLength(), punishment);
+		byId.put(punishment.getIdentifier(), punishment);
+	}
+
+	// Requires write lock
+	private void remove(long id) {
+		Punishment existing = byId.remove(id);
+		if (existing != null) {
+			RangeVictim range = (RangeVictim) existing.getVictim();
+			byte[] network = range.getNetwork().getRawAddress();
+			trieFor(network).remove(network, range.getPrefixLength(), (punishment) -> punishment.getIdentifier() == id);
+		}
+	}
+
+	// Requires write lock
+	private void clear() {
+		ipv4Ranges.clear();
+		ipv6Ranges.clear();
+		byId.clear();
+	}
+
+	/**
+	 * Updates the cache when a punishment is enforced or its details are updated
+	 *
+	 * @param punishment the punishment
+	 */
+	public void punishmentEnforced(Punishment punishment) {
+		if (!isCached(punishment)) {
+			return;
+		}
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			remove(punishment.getIdentifier());
+			add(punishment);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Updates the cache when a punishment is unenforced or expunged
+	 *
+	 * @param id the punishment ID
+	 */
+	public void punishmentRemoved(long id) {
+		Lock writeLock = lock.writeLock();
+		writeLock.lock();
+		try {
+			remove(id);
+		} finally {
+			writeLock.unlock();
+		}
+	}
+
+	/**
+	 * Finds the unexpired punishment of a range containing the given address. If there are multiple,
+	 * the one with the latest end date is returned.
+	 *
+	 * @param type the punishment type, either ban or mute
+	 * @param address the address
+	 * @param scopeFilter which scopes are applicable
+	 * @return the punishment if there is one, or null
+	 */
+	public @Nullable Punishment findApplicable(PunishmentType type, NetworkAddress address,
+											   Predicate<ServerScope> scopeFilter) {
+		class Finder {
+			final Clock clock = time.toJdkClock();
+			Punishment found;
+
+			void consider(Punishment punishment) {
+				if (punishment.getType() == type && scopeFilter.test(punishment.getScope())
+						&& !punishment.isExpired(clock)
+						&& (found == null || punishment.getEndDate().isAfter(found.getEndDate()))) {
+					found = punishment;
+				}
+			}
+		}
+		Finder finder = new Finder();
+		byte[] rawAddress = address.getRawAddress();
+		Lock readLock = lock.readLock();
+		readLock.lock();
+		try {
+			trieFor(rawAddress).forEachContaining(rawAddress, finder::consider);
+		} finally {
+			readLock.unlock();
+		}
+		return finder.found;
+	}
+
+}
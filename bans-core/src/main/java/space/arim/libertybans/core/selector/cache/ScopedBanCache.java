@@ -0,0 +1,205 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.core.scope.ScopeType;
+import space.arim.libertybans.core.scope.InternalScopeManager;
+import space.arim.libertybans.core.service.Time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the bans applicable to online players, but scoped to servers other than the current one.
+ * Used on proxies to enforce server switches without querying the database. <br>
+ * <br>
+ * The bans are loaded at login, alongside the check for bans applicable to the current server,
+ * invalidated when bans are enforced or unenforced, and discarded when the player disconnects. <br>
+ * <br>
+ * To guard against a ban being enforced while bans are being loaded, callers obtain the
+ * {@link #currentGeneration()} before querying, and pass it when caching the loaded bans.
+ *
+ */
+@Singleton
+public final class ScopedBanCache {
+
+	private final InternalScopeManager scopeManager;
+	private final Time time;
+
+	private final Cache<UUID, PlayerScopedBans> cache;
+	private final AtomicLong generation = new AtomicLong();
+
+	// Only online players are cached. Entries are left behind when another plugin denies a login
+	private static final long MAXIMUM_SIZE = 10_000L;
+
+	@Inject
+	public ScopedBanCache(InternalScopeManager scopeManager, Time time) {
+		this.scopeManager = scopeManager;
+		this.time = time;
+		cache = Caffeine.newBuilder()
+				.ticker(time.toCaffeineTicker())
+				.expireAfterAccess(Duration.ofMinutes(30L))
+				.maximumSize(MAXIMUM_SIZE)
+				.build();
+	}
+
+	/**
+	 * The bans scoped to other servers applicable to a player
+	 *
+	 * @param address the player's address when the bans were loaded
+	 * @param bans the bans, sorted by latest end date first
+	 */
+	public record PlayerScopedBans(NetworkAddress address, List<Punishment> bans) {
+
+		public PlayerScopedBans {
+			bans = List.copyOf(bans);
+		}
+
+		Punishment findBan(ServerScope scope, Clock clock) {
+			for (Punishment ban : bans) {
+				if (ban.getScope().equals(scope) && !ban.isExpired(clock)) {
+					return ban;
+				}
+			}
+			return null;
+		}
+
+		boolean containsId(long id) {
+			for (Punishment ban : bans) {
+				if (ban.getIdentifier() == id) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Gets the current generation of this cache, which changes whenever the cache is invalidated
+	 *
+	 * @return the current generation
+	 */
+	public long currentGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Caches the scoped bans of a player, unless the cache has been invalidated in the meantime
+	 *
+	 * @param uuid the player's uuid
+	 * @param address the player's address
+	 * @param bans the bans scoped to other servers, sorted by latest end date first
+	 * @param generationBeforeQuery the generation obtained before the bans were queried
+	 */
+	public void cacheScopedBans(UUID uuid, NetworkAddress address, List<Punishment> bans,
+								long generationBeforeQuery) {
+		PlayerScopedBans scopedBans = new PlayerScopedBans(address, bans);
+		cache.put(uuid, scopedBans);
+		// Invalidation increments the generation, then removes entries
+		// Therefore, if the generation is unchanged now, a later invalidation will remove this entry
+		if (generation.get() != generationBeforeQuery) {
+			cache.asMap().remove(uuid, scopedBans);
+		}
+	}
+
+	/**
+	 * Gets the cached scoped bans of a player
+	 *
+	 * @param uuid the player's uuid
+	 * @param address the player's address
+	 * @return the scoped bans, or null if not cached
+	 */
+	public PlayerScopedBans getCachedScopedBans(UUID uuid, NetworkAddress address) {
+		PlayerScopedBans scopedBans = cache.getIfPresent(uuid);
+		if (scopedBans == null || !scopedBans.address().equals(address)) {
+			return null;
+		}
+		return scopedBans;
+	}
+
+	/**
+	 * Finds the unexpired ban in the given scope, from a player's scoped bans
+	 *
+	 * @param scopedBans the player's scoped bans
+	 * @param scope the scope
+	 * @return the ban with the latest end date, or null if there is none
+	 */
+	public Punishment findBan(PlayerScopedBans scopedBans, ServerScope scope) {
+		return scopedBans.findBan(scope, time.toJdkClock());
+	}
+
+	/**
+	 * Invalidates the cache as needed, when a punishment is enforced
+	 *
+	 * @param punishment the punishment
+	 */
+	public void punishmentEnforced(Punishment punishment) {
+		if (punishment.getType() != PunishmentType.BAN) {
+			return;
+		}
+		ScopeType scopeType = scopeManager.deconstruct(punishment.getScope(), (type, value) -> type);
+		if (scopeType == ScopeType.GLOBAL) {
+			// Global bans are never cached here
+			return;
+		}
+		// Determining which players this ban applies to would require a query
+		generation.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Discards the scoped bans of a player who has disconnected
+	 *
+	 * @param uuid the player's uuid
+	 */
+	public void playerDisconnected(UUID uuid) {
+		cache.invalidate(uuid);
+	}
+
+	/**
+	 * Invalidates the whole cache, such as when the database is switched
+	 */
+	public void clear() {
+		generation.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	/**
+	 * Invalidates the cache as needed, when a punishment is unenforced or expunged
+	 *
+	 * @param id the punishment ID
+	 */
+	public void punishmentRemoved(long id) {
+		generation.incrementAndGet();
+		cache.asMap().values().removeIf((scopedBans) -> scopedBans.containsId(id));
+	}
+
+}
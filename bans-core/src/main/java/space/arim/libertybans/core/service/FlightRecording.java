@@ -0,0 +1,42 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.service;
+
+/**
+ * Detects support for JFR events. Runtime images built without the {@code jdk.jfr} module
+ * cannot load event classes, so events must not be created on such runtimes.
+ *
+ */
+public final class FlightRecording {
+
+	private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+	private FlightRecording() {}
+
+	/**
+	 * Whether JFR events can be created
+	 *
+	 * @return true if the jdk.jfr module is present
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+}
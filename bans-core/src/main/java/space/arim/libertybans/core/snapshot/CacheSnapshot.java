@@ -0,0 +1,146 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.snapshot;
+
+import space.arim.libertybans.api.NetworkAddress;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Contents of caches saved when the server stops
+ *
+ * @param created when the snapshot was taken
+ * @param dataRevision the state of the data cached mute information depends on. Cached mute
+ *                     information is only valid if it is unchanged
+ * @param names cached player names, keyed by uuid
+ * @param unmutedPlayers players known not to be muted
+ * @param offlinePlayerNames the names of recently joined players with their last join times
+ */
+record CacheSnapshot(Instant created, DataRevision dataRevision, Map<UUID, String> names,
+					 List<UnmutedPlayer> unmutedPlayers, Map<String, Instant> offlinePlayerNames) {
+
+	private static final int MAGIC = 0x4C425753;
+	private static final int VERSION = 2;
+
+	CacheSnapshot {
+		Objects.requireNonNull(created, "created");
+		Objects.requireNonNull(dataRevision, "dataRevision");
+		names = Map.copyOf(names);
+		unmutedPlayers = List.copyOf(unmutedPlayers);
+		offlinePlayerNames = Map.copyOf(offlinePlayerNames);
+	}
+
+	/**
+	 * The state of the data which cached mute information depends on. If any part differs, a
+	 * player known not to be muted might have been muted since
+	 *
+	 * @param lastPunishmentId the highest punishment ID, which changes when any punishment is added,
+	 *                         provided IDs are not allocated in blocks
+	 * @param activeMutes the number of active mutes, which changes when mutes are revoked or expunged
+	 * @param lastAddressUpdate when an address was last associated with a player, in epoch seconds.
+	 *                          This changes when players are linked as alts
+	 */
+	record DataRevision(long lastPunishmentId, long activeMutes, long lastAddressUpdate) { }
+
+	record UnmutedPlayer(UUID uuid, NetworkAddress address) { }
+
+	void writeTo(OutputStream outputStream) throws IOException {
+		DataOutputStream output = new DataOutputStream(outputStream);
+		output.writeInt(MAGIC);
+		output.writeInt(VERSION);
+		output.writeLong(created.getEpochSecond());
+		output.writeLong(dataRevision.lastPunishmentId());
+		output.writeLong(dataRevision.activeMutes());
+		output.writeLong(dataRevision.lastAddressUpdate());
+
+		output.writeInt(names.size());
+		for (Map.Entry<UUID, String> name : names.entrySet()) {
+			writeUuid(output, name.getKey());
+			output.writeUTF(name.getValue());
+		}
+		output.writeInt(unmutedPlayers.size());
+		for (UnmutedPlayer unmutedPlayer : unmutedPlayers) {
+			writeUuid(output, unmutedPlayer.uuid());
+			byte[] address = unmutedPlayer.address().getRawAddress();
+			output.writeByte(address.length);
+			output.write(address);
+		}
+		output.writeInt(offlinePlayerNames.size());
+		for (Map.Entry<String, Instant> offlinePlayerName : offlinePlayerNames.entrySet()) {
+			output.writeUTF(offlinePlayerName.getKey());
+			output.writeLong(offlinePlayerName.getValue().getEpochSecond());
+		}
+		output.flush();
+	}
+
+	static CacheSnapshot readFrom(InputStream inputStream) throws IOException {
+		DataInputStream input = new DataInputStream(inputStream);
+		if (input.readInt() != MAGIC) {
+			throw new IOException("Not a cache snapshot");
+		}
+		int version = input.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported cache snapshot version " + version);
+		}
+		Instant created = Instant.ofEpochSecond(input.readLong());
+		DataRevision dataRevision = new DataRevision(input.readLong(), input.readLong(), input.readLong());
+
+		int nameCount = input.readInt();
+		Map<UUID, String> names = new HashMap<>(nameCount);
+		for (int n = 0; n < nameCount; n++) {
+			names.put(readUuid(input), input.readUTF());
+		}
+		int unmutedCount = input.readInt();
+		List<UnmutedPlayer> unmutedPlayers = new ArrayList<>(unmutedCount);
+		for (int n = 0; n < unmutedCount; n++) {
+			UUID uuid = readUuid(input);
+			byte[] address = new byte[input.readUnsignedByte()];
+			input.readFully(address);
+			unmutedPlayers.add(new UnmutedPlayer(uuid, NetworkAddress.of(address)));
+		}
+		int offlineNameCount = input.readInt();
+		Map<String, Instant> offlinePlayerNames = new HashMap<>(offlineNameCount);
+		for (int n = 0; n < offlineNameCount; n++) {
+			offlinePlayerNames.put(input.readUTF(), Instant.ofEpochSecond(input.readLong()));
+		}
+		return new CacheSnapshot(created, dataRevision, names, unmutedPlayers, offlinePlayerNames);
+	}
+
+	private static void writeUuid(DataOutputStream output, UUID uuid) throws IOException {
+		output.writeLong(uuid.getMostSignificantBits());
+		output.writeLong(uuid.getLeastSignificantBits());
+	}
+
+	private static UUID readUuid(DataInputStream input) throws IOException {
+		return new UUID(input.readLong(), input.readLong());
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.snapshot;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import jakarta.inject.Provider;
+import jakarta.inject.Singleton;
+import org.jooq.impl.DSL;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import space.arim.libertybans.core.commands.extra.TabCompletion;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.config.SqlConfig;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.database.execute.ReadConsistency;
+import space.arim.libertybans.core.database.execute.SQLFunction;
+import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.core.uuid.UUIDManager;
+import space.arim.omnibus.util.ThisClass;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static space.arim.libertybans.core.schema.tables.Addresses.ADDRESSES;
+import static space.arim.libertybans.core.schema.tables.Mutes.MUTES;
+import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
+
+/**
+ * Saves the contents of caches when the server stops, and restores them when it starts,
+ * so that players joining right after a restart are served from warm caches. <br>
+ * <br>
+ * Must be started after the uuid manager and mute cache, but before tab completion.
+ * Must be shut down before any of them. Since snapshots are only taken and restored across
+ * restarts of the server, nothing happens when the plugin is reloaded.
+ *
+ */
+@Singleton
+public final class CacheSnapshotManager {
+
+	private final Path snapshotFile;
+	private final Configs configs;
+	private final Provider<InternalDatabase> dbProvider;
+	private final UUIDManager uuidManager;
+	private final MuteCache muteCache;
+	private final TabCompletion tabCompletion;
+	private final Time time;
+
+	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
+
+	@Inject
+	public CacheSnapshotManager(@Named("folder") Path folder, Configs configs, Provider<InternalDatabase> dbProvider,
+								UUIDManager uuidManager, MuteCache muteCache, TabCompletion tabCompletion, Time time) {
+		this.snapshotFile = folder.resolve("internal").resolve("cache-snapshot.dat");
+		this.configs = configs;
+		this.dbProvider = dbProvider;
+		this.uuidManager = uuidManager;
+		this.muteCache = muteCache;
+		this.tabCompletion = tabCompletion;
+		this.time = time;
+	}
+
+	private SqlConfig.WarmStartSnapshot config() {
+		return configs.getSqlConfig().warmStartSnapshot();
+	}
+
+	public void startup() {
+		CacheSnapshot snapshot;
+		try {
+			snapshot = readSnapshot();
+			// A snapshot is used at most once. Afterward, it would be outdated
+			Files.deleteIfExists(snapshotFile);
+		} catch (IOException | IllegalArgumentException ex) {
+			logger.warn("Unable to read cache snapshot. It will be ignored.", ex);
+			return;
+		}
+		if (snapshot == null || !config().enable()) {
+			return;
+		}
+		Duration maxAge = Duration.ofMinutes(config().maxAgeMinutes());
+		if (snapshot.created().plus(maxAge).isBefore(time.currentTimestamp())) {
+			logger.info("Ignoring cache snapshot which is older than {} minutes", maxAge.toMinutes());
+			return;
+		}
+		snapshot.names().forEach(uuidManager::addCache);
+		// Punishments or alts added in the meantime, including by another instance, might mute a player
+		boolean mutesValid = !idsAllocatedInBlocks() && snapshot.dataRevision().equals(currentDataRevision());
+		if (mutesValid) {
+			for (CacheSnapshot.UnmutedPlayer unmutedPlayer : snapshot.unmutedPlayers()) {
+				muteCache.restoreCachedUnmuted(unmutedPlayer.uuid(), unmutedPlayer.address());
+			}
+		}
+		tabCompletion.restoreOfflinePlayerNames(snapshot.offlinePlayerNames());
+		logger.info("Restored cache snapshot with {} names, {} mute entries, and {} offline player names",
+				snapshot.names().size(), mutesValid ? snapshot.unmutedPlayers().size() : 0,
+				snapshot.offlinePlayerNames().size());
+	}
+
+	public void shutdown() {
+		if (!config().enable()) {
+			return;
+		}
+		List<CacheSnapshot.UnmutedPlayer> unmutedPlayers = new ArrayList<>();
+		if (!idsAllocatedInBlocks()) {
+			muteCache.forEachCachedUnmuted((uuid, address) -> {
+				unmutedPlayers.add(new CacheSnapshot.UnmutedPlayer(uuid, address));
+			});
+		}
+		CacheSnapshot snapshot;
+		try {
+			snapshot = new CacheSnapshot(
+					time.currentTimestamp(), currentDataRevision(), uuidManager.cachedNames(),
+					unmutedPlayers, tabCompletion.exportOfflinePlayerNames()
+			);
+		} catch (RuntimeException ex) {
+			logger.warn("Unable to take cache snapshot", ex);
+			return;
+		}
+		try {
+			writeSnapshot(snapshot);
+		} catch (IOException ex) {
+			logger.warn("Unable to save cache snapshot", ex);
+		}
+	}
+
+	/*
+	 * When each instance hands out IDs from its own block, another instance may add a mute whose
+	 * ID is below the highest punishment ID. Since the data revision would then stay the same,
+	 * mute entries cannot be validated and are neither saved nor restored.
+	 */
+	private boolean idsAllocatedInBlocks() {
+		SqlConfig sqlConfig = configs.getSqlConfig();
+		return sqlConfig.vendor() == Vendor.MYSQL && sqlConfig.mysqlIdBlockSize() != 0;
+	}
+
+	private CacheSnapshot.DataRevision currentDataRevision() {
+		return dbProvider.get().query(SQLFunction.readOnly(ReadConsistency.STRICT, (context) -> {
+			Long lastPunishmentId = context
+					.select(DSL.max(PUNISHMENTS.ID))
+					.from(PUNISHMENTS)
+					.fetchSingle().value1();
+			int activeMutes = context.fetchCount(MUTES);
+			Instant lastAddressUpdate = context
+					.select(DSL.max(ADDRESSES.UPDATED))
+					.from(ADDRESSES)
+					.fetchSingle().value1();
+			return new CacheSnapshot.DataRevision(
+					(lastPunishmentId == null) ? 0L : lastPunishmentId,
+					activeMutes,
+					(lastAddressUpdate == null) ? 0L : lastAddressUpdate.getEpochSecond()
+			);
+		})).join();
+	}
+
+	private CacheSnapshot readSnapshot() throws IOException {
+		try (InputStream input = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+			return CacheSnapshot.readFrom(input);
+		} catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	private void writeSnapshot(CacheSnapshot snapshot) throws IOException {
+		Files.createDirectories(snapshotFile.getParent());
+		Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+		try (OutputStream output = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+			snapshot.writeTo(output);
+		}
+		Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+}
@@ -37,11 +37,19 @@ import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 @Singleton
 public final class CachingUUIDManager implements UUIDManager {
@@ -56,6 +64,29 @@ public final class CachingUUIDManager implements UUIDManager {
 	private Cache<@NonNull String, @NonNull UUID> nameToUuidCache;
 	private Cache<@NonNull UUID, @NonNull String> uuidToNameCache;
 
+	/*
+	 * Negative caches remember lookups which found nothing, so that typos and
+	 * nonexistent players do not repeatedly reach the database and web APIs.
+	 * They are kept small and short-lived, and are invalidated by addCache.
+	 */
+	private Cache<@NonNull String, @NonNull Boolean> missingNameCache;
+	private Cache<@NonNull UUID, @NonNull Boolean> missingUuidCache;
+
+	/*
+	 * Lookups currently in progress, keyed by lowercase name or by uuid.
+	 * Concurrent requests for the same key share a single lookup
+	 */
+	private final Map<String, CentralisedFuture<Optional<UUID>>> pendingUuidLookups = new ConcurrentHashMap<>();
+	private final Map<UUID, CentralisedFuture<Optional<String>>> pendingNameLookups = new ConcurrentHashMap<>();
+
+	private static final long NEGATIVE_CACHE_SIZE = 2_000L;
+	private static final Duration NEGATIVE_CACHE_DURATION = Duration.ofSeconds(30L);
+
+	/*
+	 * Web APIs such as Mojang's are rate limited, so bulk lookups reach them a few names at a time
+	 */
+	private static final int MAX_CONCURRENT_WEB_LOOKUPS = 4;
+
 	@Inject
 	public CachingUUIDManager(Configs configs, FactoryOfTheFuture futuresFactory,
 							  Provider<InternalDatabase> dbProvider, EnvUserResolver envResolver,
@@ -84,6 +115,16 @@ public final class CachingUUIDManager implements UUIDManager {
 				.ticker(time.toCaffeineTicker())
 				.expireAfterAccess(Duration.ofMinutes(15L))
 				.build();
+		missingNameCache = Caffeine.newBuilder()
+				.ticker(time.toCaffeineTicker())
+				.expireAfterWrite(NEGATIVE_CACHE_DURATION)
+				.maximumSize(NEGATIVE_CACHE_SIZE)
+				.build();
+		missingUuidCache = Caffeine.newBuilder()
+				.ticker(time.toCaffeineTicker())
+				.expireAfterWrite(NEGATIVE_CACHE_DURATION)
+				.maximumSize(NEGATIVE_CACHE_SIZE)
+				.build();
 	}
 
 	@Override
@@ -94,10 +135,18 @@ public final class CachingUUIDManager implements UUIDManager {
 	@Override
 	public void shutdown() { }
 
+	@Override
+	public Map<UUID, String> cachedNames() {
+		return Map.copyOf(uuidToNameCache.asMap());
+	}
+
 	@Override
 	public void addCache(UUID uuid, String name) {
-		nameToUuidCache.put(name.toLowerCase(Locale.ROOT), uuid);
+		String lowerName = name.toLowerCase(Locale.ROOT);
+		nameToUuidCache.put(lowerName, uuid);
 		uuidToNameCache.put(uuid, name);
+		missingNameCache.invalidate(lowerName);
+		missingUuidCache.invalidate(uuid);
 	}
 
 	private <T> CentralisedFuture<T> completedFuture(T value) {
@@ -111,11 +160,13 @@ public final class CachingUUIDManager implements UUIDManager {
 	/*
 	 * UUID resolution works as follows:
 	 * 
-	 * 1. Check cache
+	 * 1. Check cache, including the cache of recent misses
 	 * 2. Check online players
 	 * 3. Check own database
 	 * 4. If online server, check Mojang API and third party web APIs where configured.
 	 * If offline server and exact name provided, compute offline uuid.
+	 *
+	 * Concurrent lookups for the same name or uuid are coalesced into one.
 	 */
 
 	@Override
@@ -132,7 +183,8 @@ public final class CachingUUIDManager implements UUIDManager {
 		if (!nameValidator.validateNameArgument(name)) {
 			return completedFuture(Optional.empty());
 		}
-		UUID cachedResolve = nameToUuidCache.getIfPresent(name.toLowerCase(Locale.ROOT));
+		String lowerName = name.toLowerCase(Locale.ROOT);
+		UUID cachedResolve = nameToUuidCache.getIfPresent(lowerName);
 		if (cachedResolve != null) {
 			return completedFuture(Optional.of(cachedResolve));
 		}
@@ -142,11 +194,138 @@ public final class CachingUUIDManager implements UUIDManager {
 			addCache(offlineUuid, name);
 			return completedFuture(Optional.of(offlineUuid));
 		}
-		return lookupUUIDUncached(name).thenApply((optExternalUuid) -> {
-			if (optExternalUuid.isPresent()) {
-				addCache(optExternalUuid.get(), name);
+		if (missingNameCache.getIfPresent(lowerName) != null) {
+			return completedFuture(Optional.empty());
+		}
+		return coalesce(pendingUuidLookups, lowerName, () -> {
+			return lookupUUIDUncached(name).thenApply((optExternalUuid) -> {
+				cacheUUIDResult(name, optExternalUuid);
+				return optExternalUuid;
+			});
+		});
+	}
+
+	private void cacheUUIDResult(String name, Optional<UUID> optUuid) {
+		if (optUuid.isPresent()) {
+			addCache(optUuid.get(), name);
+		} else {
+			missingNameCache.put(name.toLowerCase(Locale.ROOT), Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Shares a single lookup among all concurrent callers requesting the same key
+	 *
+	 * @param pendingLookups the lookups in progress
+	 * @param key the key being looked up
+	 * @param lookup begins the actual lookup
+	 * @return a future yielding the lookup result
+	 */
+	private <K, V> CentralisedFuture<V> coalesce(Map<K, CentralisedFuture<V>> pendingLookups, K key,
+												 Supplier<? extends CompletableFuture<V>> lookup) {
+		CentralisedFuture<V> placeholder = futuresFactory.newIncompleteFuture();
+		CentralisedFuture<V> existing = pendingLookups.putIfAbsent(key, placeholder);
+		if (existing != null) {
+			return futuresFactory.copyFuture(existing);
+		}
+		CompletableFuture<V> actualLookup;
+		try {
+			actualLookup = lookup.get();
+		} catch (RuntimeException ex) {
+			pendingLookups.remove(key, placeholder);
+			throw ex;
+		}
+		actualLookup.whenComplete((result, ex) -> {
+			// Remove before completing, so that dependent actions see an up-to-date map
+			pendingLookups.remove(key, placeholder);
+			if (ex != null) {
+				placeholder.completeExceptionally(ex);
+			} else {
+				placeholder.complete(result);
 			}
-			return optExternalUuid;
+		});
+		return placeholder;
+	}
+
+	@Override
+	public CentralisedFuture<Map<String, UUID>> lookupUUIDsFromExactNames(Collection<String> names) {
+		boolean offline = uuidResolution().serverType() == ServerType.OFFLINE;
+		Map<String, UUID> resolved = new HashMap<>();
+		// Lowercase name -> name, for names which need a full lookup
+		Map<String, String> unresolved = new HashMap<>();
+		for (String name : names) {
+			if (!nameValidator.validateNameArgument(name)) {
+				continue;
+			}
+			String lowerName = name.toLowerCase(Locale.ROOT);
+			UUID cachedResolve = nameToUuidCache.getIfPresent(lowerName);
+			if (cachedResolve != null) {
+				resolved.put(name, cachedResolve);
+			} else if (offline) {
+				// Offline server and exact lookup
+				UUID offlineUuid = OfflineUUID.computeOfflineUuid(name);
+				addCache(offlineUuid, name);
+				resolved.put(name, offlineUuid);
+			} else if (missingNameCache.getIfPresent(lowerName) == null) {
+				unresolved.putIfAbsent(lowerName, name);
+			}
+		}
+		if (unresolved.isEmpty()) {
+			return completedFuture(resolved);
+		}
+		// 1. Resolve by environment
+		Map<String, CentralisedFuture<Optional<UUID>>> envResolves = new HashMap<>();
+		for (Map.Entry<String, String> entry : unresolved.entrySet()) {
+			envResolves.put(entry.getKey(), envResolver.lookupUUID(entry.getValue()));
+		}
+		return futuresFactory.allOf(envResolves.values()).thenCompose((ignore) -> {
+			for (Map.Entry<String, CentralisedFuture<Optional<UUID>>> envResolve : envResolves.entrySet()) {
+				Optional<UUID> optUuid = envResolve.getValue().join();
+				if (optUuid.isPresent()) {
+					String name = unresolved.remove(envResolve.getKey());
+					addCache(optUuid.get(), name);
+					resolved.put(name, optUuid.get());
+				}
+			}
+			if (unresolved.isEmpty()) {
+				return completedFuture(null);
+			}
+			// 2. Resolve by a single database query
+			return queryingImpl.resolveAll(Set.copyOf(unresolved.keySet())).thenCompose((queriedUuids) -> {
+				for (Map.Entry<String, UUID> queriedUuid : queriedUuids.entrySet()) {
+					String name = unresolved.remove(queriedUuid.getKey());
+					if (name != null) {
+						addCache(queriedUuid.getValue(), name);
+						resolved.put(name, queriedUuid.getValue());
+					}
+				}
+				// 3. Resolve the remainder individually, which may use the web API
+				List<Map.Entry<String, String>> remaining = new ArrayList<>(unresolved.entrySet());
+				CentralisedFuture<Void> webResolves = completedFuture(null);
+				for (int n = 0; n < remaining.size(); n += MAX_CONCURRENT_WEB_LOOKUPS) {
+					var batch = remaining.subList(n, Math.min(n + MAX_CONCURRENT_WEB_LOOKUPS, remaining.size()));
+					webResolves = webResolves.thenCompose((ignore2) -> webLookupUUIDs(batch, resolved));
+				}
+				return webResolves;
+			});
+		}).thenApply((ignore) -> resolved);
+	}
+
+	private CentralisedFuture<Void> webLookupUUIDs(List<Map.Entry<String, String>> batch, Map<String, UUID> resolved) {
+		Map<String, CentralisedFuture<Optional<UUID>>> batchResolves = new HashMap<>();
+		for (Map.Entry<String, String> entry : batch) {
+			String name = entry.getValue();
+			batchResolves.put(name, coalesce(pendingUuidLookups, entry.getKey(), () -> {
+				return webLookupUUID(name).thenApply((optExternalUuid) -> {
+					cacheUUIDResult(name, optExternalUuid);
+					return optExternalUuid;
+				});
+			}));
+		}
+		return futuresFactory.allOf(batchResolves.values()).thenAccept((ignore) -> {
+			batchResolves.forEach((name, future) -> {
+				future.join().ifPresent((uuid) -> resolved.put(name, uuid));
+			});
 		});
 	}
 
@@ -162,26 +341,37 @@ public final class CachingUUIDManager implements UUIDManager {
 					return completedFuture(Optional.of(queriedUuid));
 				}
 				// 3. Resolve by web API
-				if (nameValidator.isVanillaName(name)) {
-					return webLookup((remoteApi) -> remoteApi.lookupUUID(name));
-				} else {
-					return completedFuture(Optional.empty());
-				}
+				return webLookupUUID(name);
 			});
 		});
 	}
 
+	private CompletableFuture<Optional<UUID>> webLookupUUID(String name) {
+		if (nameValidator.isVanillaName(name)) {
+			return webLookup((remoteApi) -> remoteApi.lookupUUID(name));
+		} else {
+			return completedFuture(Optional.empty());
+		}
+	}
+
 	@Override
 	public CentralisedFuture<Optional<String>> lookupName(UUID uuid) {
 		String cachedResolve = uuidToNameCache.getIfPresent(uuid);
 		if (cachedResolve != null) {
 			return completedFuture(Optional.of(cachedResolve));
 		}
-		return lookupNameUncached(uuid).thenApply((optExternalName) -> {
-			if (optExternalName.isPresent()) {
-				addCache(uuid, optExternalName.get());
-			}
-			return optExternalName;
+		if (missingUuidCache.getIfPresent(uuid) != null) {
+			return completedFuture(Optional.empty());
+		}
+		return coalesce(pendingNameLookups, uuid, () -> {
+			return lookupNameUncached(uuid).thenApply((optExternalName) -> {
+				if (optExternalName.isPresent()) {
+					addCache(uuid, optExternalName.get());
+				} else {
+					missingUuidCache.put(uuid, Boolean.TRUE);
+				}
+				return optExternalName;
+			});
 		});
 	}
 
@@ -211,7 +401,15 @@ public final class CachingUUIDManager implements UUIDManager {
 		if (uuidResolution.serverType() != ServerType.ONLINE) {
 			return completedFuture(Optional.empty());
 		}
-		return uuidResolution.remoteApis().lookup(resultFunction).thenApply(Optional::ofNullable);
+		RemoteApiBundle remoteApis = uuidResolution.remoteApis();
+		long hedgeDelay = uuidResolution.webApiHedgeDelayMillis();
+		CompletableFuture<T> lookup;
+		if (hedgeDelay > 0) {
+			lookup = remoteApis.lookupHedged(Duration.ofMillis(hedgeDelay), resultFunction);
+		} else {
+			lookup = remoteApis.lookup(resultFunction);
+		}
+		return lookup.thenApply(Optional::ofNullable);
 	}
 
 	// Other lookups
@@ -19,6 +19,9 @@
 
 package space.arim.libertybans.core.uuid;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import jakarta.inject.Provider;
@@ -55,6 +58,28 @@ class QueryingImpl {
 		}));
 	}
 
+	/**
+	 * Resolves many names at once
+	 *
+	 * @param lowerNames the lowercased names
+	 * @return a future yielding the latest uuid for each lowercased name found
+	 */
+	CentralisedFuture<Map<String, UUID>> resolveAll(Set<String> lowerNames) {
+		InternalDatabase database = dbProvider.get();
+		return database.query(SQLFunction.readOnly((context) -> {
+			Map<String, UUID> uuids = new HashMap<>();
+			context
+					.select(NAMES.LOWER_NAME, NAMES.UUID)
+					.from(NAMES)
+					.where(NAMES.LOWER_NAME.in(lowerNames))
+					.orderBy(NAMES.UPDATED.desc())
+					.fetch()
+					// Ordered by most recent first
+					.forEach((record) -> uuids.putIfAbsent(record.value1(), record.value2()));
+			return uuids;
+		}));
+	}
+
 	CentralisedFuture<String> resolve(UUID uuid) {
 		InternalDatabase database = dbProvider.get();
 		return database.query(SQLFunction.readOnly((context) -> {
@@ -20,10 +20,14 @@
 package space.arim.libertybans.core.uuid;
 
 import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,11 +48,32 @@ import space.arim.dazzleconf.serialiser.ValueSerialiser;
 public class RemoteApiBundle {
 
 	private final List<RemoteNameUUIDApi> remotes;
+	private final List<RemoteApiHealth> healths;
+	private final LongSupplier nanoTime;
 
 	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
 
 	public RemoteApiBundle(List<RemoteNameUUIDApi> remotes) {
+		this(remotes, System::nanoTime);
+	}
+
+	RemoteApiBundle(List<RemoteNameUUIDApi> remotes, LongSupplier nanoTime) {
 		this.remotes = List.copyOf(remotes);
+		List<RemoteApiHealth> healths = new ArrayList<>(this.remotes.size());
+		for (int n = 0; n < this.remotes.size(); n++) {
+			healths.add(new RemoteApiHealth());
+		}
+		this.healths = List.copyOf(healths);
+		this.nanoTime = nanoTime;
+	}
+
+	/**
+	 * Gets the health of each remote API, in the configured order
+	 *
+	 * @return the health of the remote APIs
+	 */
+	List<RemoteApiHealth> healths() {
+		return healths;
 	}
 
 	private <T> T unboxResult(RemoteNameUUIDApi remoteApi, RemoteApiResult<T> remoteApiResult) {
@@ -65,21 +90,71 @@ public class RemoteApiBundle {
 			}
 		};
 	}
-	
+
+	/**
+	 * Queries a single remote API, recording its latency and outcome
+	 *
+	 * @param index the index of the remote API
+	 * @param intermediateResultFunction the request to make
+	 * @return a future yielding the result, or {@code null} if not found or the request failed
+	 */
+	private <T> CompletableFuture<T> queryRemote(
+			int index, Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction) {
+		RemoteNameUUIDApi remoteApi = remotes.get(index);
+		RemoteApiHealth health = healths.get(index);
+		long startTime = nanoTime.getAsLong();
+		CompletableFuture<RemoteApiResult<T>> future;
+		try {
+			future = intermediateResultFunction.apply(remoteApi);
+		} catch (RuntimeException ex) {
+			future = CompletableFuture.failedFuture(ex);
+		}
+		return future.handle((remoteApiResult, ex) -> {
+			long endTime = nanoTime.getAsLong();
+			boolean wasOpen = health.isOpen(endTime);
+			RemoteApiHealth.Outcome outcome;
+			T value;
+			if (ex == null) {
+				outcome = switch (remoteApiResult.getResultType()) {
+					case FOUND, NOT_FOUND -> RemoteApiHealth.Outcome.ANSWERED;
+					case RATE_LIMITED -> RemoteApiHealth.Outcome.RATE_LIMITED;
+					case ERROR -> RemoteApiHealth.Outcome.FAILED;
+				};
+				value = unboxResult(remoteApi, remoteApiResult);
+			} else {
+				logger.warn("Request for name to remote web API {} failed", remoteApi, ex);
+				outcome = RemoteApiHealth.Outcome.FAILED;
+				value = null;
+			}
+			health.record(outcome, endTime - startTime, endTime);
+			if (!wasOpen && health.isOpen(endTime)) {
+				logger.warn("Remote web API {} will not be used for some time, since it is failing or rate limiting. " +
+						"Its recent health is {}", remoteApi, health);
+			}
+			return value;
+		});
+	}
+
+	/**
+	 * Queries the remote APIs sequentially, in the configured order, until one finds a result.
+	 * Remote APIs whose circuit is open are skipped.
+	 *
+	 * @param intermediateResultFunction the request to make
+	 * @return a future yielding the result, or {@code null} if not found
+	 */
 	<T> CompletableFuture<T> lookup(Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction) {
 		CompletableFuture<T> future = null;
-		for (RemoteNameUUIDApi remoteApi : remotes) {
+		for (int n = 0; n < remotes.size(); n++) {
+			int index = n;
 
 			if (future == null) {
-				future = intermediateResultFunction.apply(remoteApi)
-						.thenApply((remoteApiResult) -> unboxResult(remoteApi, remoteApiResult));
+				future = lookupIfClosed(index, intermediateResultFunction);
 			} else {
 				future = future.thenCompose((result) -> {
 					if (result != null) {
 						return CompletableFuture.completedFuture(result);
 					}
-					return intermediateResultFunction.apply(remoteApi)
-							.thenApply((remoteApiResult) -> unboxResult(remoteApi, remoteApiResult));
+					return lookupIfClosed(index, intermediateResultFunction);
 				});
 			}
 		}
@@ -88,7 +163,133 @@ public class RemoteApiBundle {
 		}
 		return future;
 	}
-	
+
+	private <T> CompletableFuture<T> lookupIfClosed(
+			int index, Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction) {
+		if (healths.get(index).isOpen(nanoTime.getAsLong())) {
+			return CompletableFuture.completedFuture(null);
+		}
+		return queryRemote(index, intermediateResultFunction);
+	}
+
+	/**
+	 * Queries the remote APIs with hedging. The first remote API is queried immediately. If it has not
+	 * answered after the hedge delay, or if it does not find a result, the next remote API is queried,
+	 * and so on. The first result found is used. Remote APIs whose circuit is open are skipped.
+	 *
+	 * @param hedgeDelay the delay after which to query the next remote API
+	 * @param intermediateResultFunction the request to make
+	 * @return a future yielding the result, or {@code null} if not found
+	 */
+	<T> CompletableFuture<T> lookupHedged(Duration hedgeDelay,
+										  Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction) {
+		long currentTime = nanoTime.getAsLong();
+		List<Integer> available = new ArrayList<>(remotes.size());
+		for (int n = 0; n < remotes.size(); n++) {
+			if (!healths.get(n).isOpen(currentTime)) {
+				available.add(n);
+			}
+		}
+		if (available.isEmpty()) {
+			return CompletableFuture.completedFuture(null);
+		}
+		Executor delayedExecutor = CompletableFuture.delayedExecutor(hedgeDelay.toNanos(), TimeUnit.NANOSECONDS);
+		return new HedgedLookup<>(available, delayedExecutor, intermediateResultFunction).begin();
+	}
+
+	private final class HedgedLookup<T> {
+
+		private final List<Integer> available;
+		private final Executor delayedExecutor;
+		private final Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction;
+		private final CompletableFuture<T> result = new CompletableFuture<>();
+
+		// Guarded by this
+		private int launched;
+		private int completed;
+
+		HedgedLookup(List<Integer> available, Executor delayedExecutor,
+					 Function<RemoteNameUUIDApi, CompletableFuture<RemoteApiResult<T>>> intermediateResultFunction) {
+			this.available = available;
+			this.delayedExecutor = delayedExecutor;
+			this.intermediateResultFunction = intermediateResultFunction;
+		}
+
+		CompletableFuture<T> begin() {
+			launchNext(0);
+			return result;
+		}
+
+		/**
+		 * Queries the next remote API, unless another has been queried in the meantime
+		 *
+		 * @param expectedLaunched the number of remote APIs expected to have been queried
+		 */
+		private void launchNext(int expectedLaunched) {
+			int index;
+			int nowLaunched;
+			synchronized (this) {
+				if (result.isDone() || launched != expectedLaunched || launched == available.size()) {
+					return;
+				}
+				index = available.get(launched);
+				nowLaunched = ++launched;
+			}
+			if (nowLaunched < available.size()) {
+				// Schedule the hedged request
+				CompletableFuture.runAsync(() -> launchNext(nowLaunched), delayedExecutor);
+			}
+			queryRemote(index, intermediateResultFunction).thenAccept((value) -> {
+				boolean allCompleted;
+				int currentlyLaunched;
+				synchronized (this) {
+					allCompleted = ++completed == available.size();
+					currentlyLaunched = launched;
+				}
+				if (value != null) {
+					result.complete(value);
+				} else if (allCompleted) {
+					result.complete(null);
+				} else {
+					// Not found here, so move on without waiting for the hedge delay
+					launchNext(currentlyLaunched);
+				}
+			});
+		}
+	}
+
+	private List<Class<?>> remoteClasses() {
+		List<Class<?>> remoteClasses = new ArrayList<>(remotes.size());
+		for (RemoteNameUUIDApi remote : remotes) {
+			remoteClasses.add(remote.getClass());
+		}
+		return remoteClasses;
+	}
+
+	/*
+	 * Bundles querying the same remote APIs in the same order are equal. This way, reloading
+	 * an unchanged configuration keeps the UUID manager, along with its health and caches
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		RemoteApiBundle that = (RemoteApiBundle) o;
+		return remoteClasses().equals(that.remoteClasses());
+	}
+
+	@Override
+	public int hashCode() {
+		return remoteClasses().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "RemoteApiBundle{" +
+				"remotes=" + remotes +
+				'}';
+	}
+
 	private enum RemoteType {
 		ASHCON(HttpAshconApi::create),
 		MCHEADS(HttpMcHeadsApi::create),
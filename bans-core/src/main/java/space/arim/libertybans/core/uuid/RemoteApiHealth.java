@@ -0,0 +1,108 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.uuid;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the latency and error rate of a remote API, and acts as its circuit breaker. <br>
+ * <br>
+ * The circuit opens, meaning the remote API is temporarily not used, if the remote API
+ * rate limits us or if it fails several times in a row. After some time, the circuit closes
+ * again, and a single further failure will re-open it.
+ *
+ */
+final class RemoteApiHealth {
+
+	/**
+	 * Weight given to the newest sample in the moving averages
+	 */
+	private static final double SMOOTHING = 0.2;
+	static final int FAILURE_THRESHOLD = 3;
+	static final long OPEN_DURATION_NANOS = TimeUnit.SECONDS.toNanos(60L);
+	static final long RATE_LIMITED_OPEN_DURATION_NANOS = TimeUnit.MINUTES.toNanos(5L);
+
+	// Guarded by this
+	private double averageLatencyNanos;
+	private double errorRate;
+	private int consecutiveFailures;
+	private long openUntil;
+	private boolean open;
+
+	enum Outcome {
+		ANSWERED,
+		FAILED,
+		RATE_LIMITED
+	}
+
+	synchronized void record(Outcome outcome, long latencyNanos, long currentTime) {
+		averageLatencyNanos = (averageLatencyNanos == 0) ?
+				latencyNanos : SMOOTHING * latencyNanos + (1 - SMOOTHING) * averageLatencyNanos;
+		errorRate = SMOOTHING * ((outcome == Outcome.ANSWERED) ? 0 : 1) + (1 - SMOOTHING) * errorRate;
+		switch (outcome) {
+		case ANSWERED -> consecutiveFailures = 0;
+		case FAILED -> {
+			if (++consecutiveFailures >= FAILURE_THRESHOLD) {
+				openFor(OPEN_DURATION_NANOS, currentTime);
+			}
+		}
+		case RATE_LIMITED -> {
+			consecutiveFailures = Math.max(consecutiveFailures, FAILURE_THRESHOLD);
+			openFor(RATE_LIMITED_OPEN_DURATION_NANOS, currentTime);
+		}
+		}
+	}
+
+	private void openFor(long durationNanos, long currentTime) {
+		open = true;
+		openUntil = currentTime + durationNanos;
+	}
+
+	/**
+	 * Whether the circuit is open, meaning the remote API should not be used
+	 *
+	 * @param currentTime the current nano time
+	 * @return true if open
+	 */
+	synchronized boolean isOpen(long currentTime) {
+		if (open && currentTime - openUntil >= 0) {
+			open = false;
+		}
+		return open;
+	}
+
+	synchronized double averageLatencyMillis() {
+		return averageLatencyNanos / 1_000_000D;
+	}
+
+	synchronized double errorRate() {
+		return errorRate;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "RemoteApiHealth{" +
+				"averageLatencyMillis=" + averageLatencyNanos / 1_000_000D +
+				", errorRate=" + errorRate +
+				", consecutiveFailures=" + consecutiveFailures +
+				", open=" + open +
+				'}';
+	}
+}
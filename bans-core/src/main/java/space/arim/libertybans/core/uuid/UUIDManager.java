@@ -18,6 +18,8 @@
  */
 package space.arim.libertybans.core.uuid;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -32,6 +34,13 @@ public interface UUIDManager extends UserResolver, Part {
 
 	void addCache(UUID uuid, String name);
 
+	/**
+	 * Gets the player names currently cached
+	 *
+	 * @return a copy of the cached names, keyed by uuid
+	 */
+	Map<UUID, String> cachedNames();
+
 	/**
 	 * Looks up an address from a player name
 	 * 
@@ -51,6 +60,18 @@ public interface UUIDManager extends UserResolver, Part {
 	 */
 	CentralisedFuture<Optional<UUID>> lookupUUIDFromExactName(String name);
 
+	/**
+	 * Looks up the uuids of many players at once, from exact player names. Names which are
+	 * not cached are resolved with a single database query, rather than one query per name. <br>
+	 * <br>
+	 * Like {@link #lookupUUIDFromExactName(String)}, offline UUIDs are calculated from the names
+	 * if the server is in offline mode.
+	 *
+	 * @param names the exact player names. Must be correctly cased
+	 * @return a future yielding the uuids of the names which were found, keyed by the names as given
+	 */
+	CentralisedFuture<Map<String, UUID>> lookupUUIDsFromExactNames(Collection<String> names);
+
 	/**
 	 * Looks up player details from a player name
 	 *
@@ -20,6 +20,7 @@
 package space.arim.libertybans.core.uuid;
 
 import space.arim.dazzleconf.annote.ConfComments;
+import space.arim.dazzleconf.annote.ConfDefault.DefaultLong;
 import space.arim.dazzleconf.annote.ConfDefault.DefaultString;
 import space.arim.dazzleconf.annote.ConfDefault.DefaultStrings;
 import space.arim.dazzleconf.annote.ConfHeader;
@@ -51,6 +52,17 @@ public interface UUIDResolutionConfig {
 	@DefaultStrings("MOJANG")
 	RemoteApiBundle remoteApis();
 
+	@ConfKey("web-api-hedge-delay-millis")
+	@ConfComments({"",
+		"If you specify multiple web API resolvers, LibertyBans can query them in parallel.",
+		"If a web API has not answered after this many milliseconds, the next web API is queried, and the first answer is used.",
+		"Set to 0 to query the web APIs strictly one after another.",
+		"",
+		"Regardless of this option, a web API which is rate limiting LibertyBans or which fails repeatedly",
+		"is skipped for a few minutes."})
+	@DefaultLong(0)
+	long webApiHedgeDelayMillis();
+
 	@ConfKey("force-geyser-prefix")
 	@ConfComments({
 			"By default, LibertyBans will automatically detect if you are running Geyser or Floodgate.",
@@ -0,0 +1,19 @@
+-- Maintained count of punishments per victim and escalation track
+-- Used to compute escalation without counting the victim's punishments every time
+
+CREATE TABLE "${tableprefix}track_counts" (
+  "victim" INT NOT NULL,
+  "track" INT NOT NULL,
+  "total" INT NOT NULL,
+  CONSTRAINT "${tableprefix}track_count_uniqueness" UNIQUE ("victim", "track"),
+  CONSTRAINT "${tableprefix}track_count_victim_validity" FOREIGN KEY ("victim") REFERENCES "${tableprefix}victims" ("id"),
+  CONSTRAINT "${tableprefix}track_count_total_validity" CHECK ("total" >= 0)
+)${extratableoptions};
+
+INSERT INTO "${tableprefix}track_counts" ("victim", "track", "total")
+  SELECT "history"."victim", "puns"."track", COUNT(*)
+  FROM "${tableprefix}history" AS "history"
+  INNER JOIN "${tableprefix}punishments" AS "puns"
+  ON "history"."id" = "puns"."id"
+  WHERE "puns"."track" IS NOT NULL
+  GROUP BY "history"."victim", "puns"."track";
@@ -0,0 +1,15 @@
+-- Maintained count of warns per victim, equal to the number of the victim's rows in the warns table
+-- Used by warn actions to avoid counting the victim's warns every time a warn is added
+
+CREATE TABLE "${tableprefix}warn_counts" (
+  "victim" INT NOT NULL,
+  "total" INT NOT NULL,
+  CONSTRAINT "${tableprefix}warn_count_uniqueness" UNIQUE ("victim"),
+  CONSTRAINT "${tableprefix}warn_count_victim_validity" FOREIGN KEY ("victim") REFERENCES "${tableprefix}victims" ("id"),
+  CONSTRAINT "${tableprefix}warn_count_total_validity" CHECK ("total" >= 0)
+)${extratableoptions};
+
+INSERT INTO "${tableprefix}warn_counts" ("victim", "total")
+  SELECT "warns"."victim", COUNT(*)
+  FROM "${tableprefix}warns" AS "warns"
+  GROUP BY "warns"."victim";
@@ -0,0 +1,206 @@
+-- Allow range victims, whose victim type is 3
+-- A range is stored with its network address in the address column and its prefix length
+-- in the new prefix column, which is 0 for other victims
+
+ALTER TABLE "${tableprefix}victims"
+  ${dropcheckconstraint} "${tableprefix}victim_type_validity";
+
+ALTER TABLE "${tableprefix}victims"
+  ADD CONSTRAINT "${tableprefix}victim_type_validity"
+  CHECK ("type" >= 0 AND "type" <= 3);
+
+ALTER TABLE "${tableprefix}victims" ADD COLUMN "prefix" SMALLINT DEFAULT 0 NOT NULL;
+
+ALTER TABLE "${tableprefix}victims"
+  ADD CONSTRAINT "${tableprefix}victim_prefix_validity"
+  CHECK ("prefix" >= 0 AND "prefix" <= 128);
+
+-- Ranges with the same network address but different prefix lengths are different victims
+
+${dropuniqueconstraintstart}"${tableprefix}victims"${dropuniqueconstraintmiddle}"${tableprefix}victim_uniqueness"${dropuniqueconstraintend};
+
+ALTER TABLE "${tableprefix}victims"
+  ADD CONSTRAINT "${tableprefix}victim_uniqueness"
+  UNIQUE ("type", "uuid", "address", "prefix");
+
+-- Recreate every punishment view to include the prefix column
+
+-- Bans
+
+${alterviewstatement} "${tableprefix}simple_bans" AS
+  SELECT "puns"."id", "puns"."type",
+    "victims"."type" AS "victim_type", "victims"."uuid" AS "victim_uuid", "victims"."address" AS "victim_address",
+    "puns"."operator", "puns"."reason",
+    ${migratescopestart}(CASE
+      WHEN "puns"."scope_id" IS NULL THEN ''
+      ELSE "scopes"."value"
+    END)${migratescopeend} AS "scope",
+    "puns"."start", "puns"."end",
+    (CASE
+      WHEN "tracks"."namespace" IS NULL THEN NULL
+      ELSE (("tracks"."namespace" || ':') || "tracks"."value")
+    END) AS "track",
+    (CASE
+      WHEN "puns"."scope_id" IS NULL THEN ${zerosmallintliteral}
+      ELSE "scopes"."type"
+    END) AS "scope_type",
+    "victims"."prefix" AS "victim_prefix"
+  FROM "${tableprefix}bans" AS "thetype"
+  INNER JOIN "${tableprefix}punishments" AS "puns"
+  ON "thetype"."id" = "puns"."id"
+  INNER JOIN "${tableprefix}victims" AS "victims"
+  ON "thetype"."victim" = "victims"."id"
+  LEFT JOIN "${tableprefix}tracks" AS "tracks"
+  ON "puns"."track" = "tracks"."id"
+  LEFT JOIN "${tableprefix}scopes" AS "scopes"
+  ON "puns"."scope_id" = "scopes"."id";
+
+${alterviewstatement} "${tableprefix}applicable_bans" AS
+  SELECT "puns"."id", "puns"."type", "puns"."victim_type", "puns"."victim_uuid", "puns"."victim_address",
+    "puns"."operator", "puns"."reason", "puns"."scope", "puns"."start", "puns"."end", "addrs"."uuid", "addrs"."address",
+    "puns"."track", "puns"."scope_type", "puns"."victim_prefix"
+  FROM "${tableprefix}simple_bans" AS "puns"
+  INNER JOIN "${tableprefix}addresses" AS "addrs"
+  ON ("puns"."victim_type" = 0 AND "puns"."victim_uuid" = "addrs"."uuid"
+    OR "puns"."victim_type" = 1 AND "puns"."victim_address" = "addrs"."address"
+    OR "puns"."victim_type" = 2 AND ("puns"."victim_uuid" = "addrs"."uuid" OR "puns"."victim_address" = "addrs"."address"));
+
+-- Mutes
+
+${alterviewstatement} "${tableprefix}simple_mutes" AS
+  SELECT "puns"."id", "puns"."type",
+    "victims"."type" AS "victim_type", "victims"."uuid" AS "victim_uuid", "victims"."address" AS "victim_address",
+    "puns"."operator", "puns"."reason",
+    ${migratescopestart}(CASE
+      WHEN "puns"."scope_id" IS NULL THEN ''
+      ELSE "scopes"."value"
+    END)${migratescopeend} AS "scope",
+    "puns"."start", "puns"."end",
+    (CASE
+      WHEN "tracks"."namespace" IS NULL THEN NULL
+      ELSE (("tracks"."namespace" || ':') || "tracks"."value")
+    END) AS "track",
+    (CASE
+      WHEN "puns"."scope_id" IS NULL THEN ${zerosmallintliteral}
+      ELSE "scopes"."type"
+    END) AS "scope_type",
+    "victims"."prefix" AS "victim_prefix"
+  FROM "${tableprefix}mutes" AS "thetype"
+  INNER JOIN "${tableprefix}punishments" AS "puns"
+  ON "thetype"."id" = "puns"."id"
+  INNER JOIN "${tableprefix}victims" AS "victims"
+  ON "thetype"."victim" = "victims"."id"
+  LEFT JOIN "${tableprefix}tracks" AS "tracks"
+  ON "puns"."track" = "tracks"."id"
+  LEFT JOIN "${tableprefix}scopes" AS "scopes"
+  ON "puns"."scope_id" = "scopes"."id";
+
+${alterviewstatement} "${tableprefix}applicable_mutes" AS
+  SELECT "puns"."id", "puns"."type", "puns"."victim_type", "puns"."victim_uuid", "puns"."victim_address",
+    "puns"."operator", "puns"."reason", "puns"."scope", "puns"."start", "puns"."end", "addrs"."uuid", "addrs"."address",
+    "puns"."track", "puns"."scope_type", "puns"."victim_prefix"
+  FROM "${tableprefix}simple_mutes" AS "puns"
+  INNER JOIN "${tableprefix}addresses" AS "addrs"
+  ON ("puns"."victim_type" = 0 AND "puns"."victim_uuid" = "addrs"."uuid"
+    OR "puns"."victim_type" = 1 AND "puns"."victim_address" = "addrs"."address"
+    OR "puns"."victim_type" = 2 AND ("puns"."victim_uuid" = "addrs"."uuid" OR "puns"."victim_address" = "addrs"."address"));
+
+-- Warns
+
+${alterviewstatement} "${tableprefix}simple_warns" AS
+  SELECT "puns"."id", "puns"."type",
+    "victims"."type" AS "victim_type", "victims"."uuid" AS "victim_uuid", "victims"."address" AS "victim_address",
+    "puns"."operator", "puns"."reason",
+    ${migratescopestart}(CASE
+      WHEN "puns"."scope_id" IS NULL THEN ''
+      ELSE "scopes"."value"
+    END)${migratescopeend} AS "scope",
+    "puns"."start", "puns"."end",
+    (CASE
+      WHEN "tracks"."namespace" IS NULL THEN NULL
+      ELSE (("tracks"."namespace" || ':') || "tracks"."value")
+    END) AS "track",
+    (CASE
+      WHEN "puns"."scope_id" IS NULL THEN ${zerosmallintliteral}
+      ELSE "scopes"."type"
+    END) AS "scope_type",
+    "victims"."prefix" AS "victim_prefix"
+  FROM "${tableprefix}warns" AS "thetype"
+  INNER JOIN "${tableprefix}punishments" AS "puns"
+  ON "thetype"."id" = "puns"."id"
+  INNER JOIN "${tableprefix}victims" AS "victims"
+  ON "thetype"."victim" = "victims"."id"
+  LEFT JOIN "${tableprefix}tracks" AS "tracks"
+  ON "puns"."track" = "tracks"."id"
+  LEFT JOIN "${tableprefix}scopes" AS "scopes"
+  ON "puns"."scope_id" = "scopes"."id";
+
+${alterviewstatement} "${tableprefix}applicable_warns" AS
+  SELECT "puns"."id", "puns"."type", "puns"."victim_type", "puns"."victim_uuid", "puns"."victim_address",
+    "puns"."operator", "puns"."reason", "puns"."scope", "puns"."start", "puns"."end", "addrs"."uuid", "addrs"."address",
+    "puns"."track", "puns"."scope_type", "puns"."victim_prefix"
+  FROM "${tableprefix}simple_warns" AS "puns"
+  INNER JOIN "${tableprefix}addresses" AS "addrs"
+  ON ("puns"."victim_type" = 0 AND "puns"."victim_uuid" = "addrs"."uuid"
+    OR "puns"."victim_type" = 1 AND "puns"."victim_address" = "addrs"."address"
+    OR "puns"."victim_type" = 2 AND ("puns"."victim_uuid" = "addrs"."uuid" OR "puns"."victim_address" = "addrs"."address"));
+
+-- Other helpers
+
+${alterviewstatement} "${tableprefix}simple_history" AS
+  SELECT "puns"."id", "puns"."type",
+    "victims"."type" AS "victim_type", "victims"."uuid" AS "victim_uuid", "victims"."address" AS "victim_address",
+    "puns"."operator", "puns"."reason",
+    ${migratescopestart}(CASE
+      WHEN "puns"."scope_id" IS NULL THEN ''
+      ELSE "scopes"."value"
+    END)${migratescopeend} AS "scope",
+    "puns"."start", "puns"."end",
+    (CASE
+      WHEN "tracks"."namespace" IS NULL THEN NULL
+      ELSE (("tracks"."namespace" || ':') || "tracks"."value")
+    END) AS "track",
+    (CASE
+      WHEN "puns"."scope_id" IS NULL THEN ${zerosmallintliteral}
+      ELSE "scopes"."type"
+    END) AS "scope_type",
+    "victims"."prefix" AS "victim_prefix"
+  FROM "${tableprefix}history" AS "thetype"
+  INNER JOIN "${tableprefix}punishments" AS "puns"
+  ON "thetype"."id" = "puns"."id"
+  INNER JOIN "${tableprefix}victims" AS "victims"
+  ON "thetype"."victim" = "victims"."id"
+  LEFT JOIN "${tableprefix}tracks" AS "tracks"
+  ON "puns"."track" = "tracks"."id"
+  LEFT JOIN "${tableprefix}scopes" AS "scopes"
+  ON "puns"."scope_id" = "scopes"."id";
+
+${alterviewstatement} "${tableprefix}simple_active" AS
+  SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "track", "scope_type", "victim_prefix"
+  FROM "${tableprefix}simple_bans"
+  UNION ALL
+    SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "track", "scope_type", "victim_prefix"
+    FROM "${tableprefix}simple_mutes"
+  UNION ALL
+    SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "track", "scope_type", "victim_prefix"
+    FROM "${tableprefix}simple_warns";
+
+${alterviewstatement} "${tableprefix}applicable_active" AS
+  SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "uuid", "address", "track", "scope_type", "victim_prefix"
+  FROM "${tableprefix}applicable_bans"
+  UNION ALL
+    SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "uuid", "address", "track", "scope_type", "victim_prefix"
+    FROM "${tableprefix}applicable_mutes"
+  UNION ALL
+    SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "uuid", "address", "track", "scope_type", "victim_prefix"
+    FROM "${tableprefix}applicable_warns";
+
+${alterviewstatement} "${tableprefix}applicable_history" AS
+  SELECT "puns"."id", "puns"."type", "puns"."victim_type", "puns"."victim_uuid", "puns"."victim_address",
+    "puns"."operator", "puns"."reason", "puns"."scope", "puns"."start", "puns"."end", "addrs"."uuid", "addrs"."address",
+    "puns"."track", "puns"."scope_type", "puns"."victim_prefix"
+  FROM "${tableprefix}simple_history" AS "puns"
+  INNER JOIN "${tableprefix}addresses" AS "addrs"
+  ON ("puns"."victim_type" = 0 AND "puns"."victim_uuid" = "addrs"."uuid"
+    OR "puns"."victim_type" = 1 AND "puns"."victim_address" = "addrs"."address"
+    OR "puns"."victim_type" = 2 AND ("puns"."victim_uuid" = "addrs"."uuid" OR "puns"."victim_address" = "addrs"."address"));
@@ -0,0 +1,70 @@
+-- Archive of punishments which expired long ago
+-- Archived punishments are moved out of the punishments and history tables, so that those stay small
+-- The victim is stored alongside the punishment, because archived punishments are never active
+
+CREATE TABLE "${tableprefix}archived_punishments" (
+  "id" BIGINT NOT NULL,
+  "type" SMALLINT NOT NULL,
+  "victim" INT NOT NULL,
+  "operator" ${uuidtype} NOT NULL,
+  "reason" CHARACTER VARYING(256) NOT NULL,
+  "scope" CHARACTER VARYING(32) NOT NULL,
+  "start" BIGINT NOT NULL,
+  "end" BIGINT NOT NULL,
+  "track" INT NULL,
+  "scope_id" INT NULL,
+  CONSTRAINT "${tableprefix}archived_punishment_id_uniqueness" UNIQUE ("id"),
+  CONSTRAINT "${tableprefix}archived_punishment_type_validity" CHECK ("type" >= 0 AND "type" <= 3),
+  CONSTRAINT "${tableprefix}archived_punishment_victim_validity" FOREIGN KEY ("victim") REFERENCES "${tableprefix}victims" ("id")
+)${extratableoptions};
+
+CREATE INDEX "${tableprefix}archived_punishment_victim_index" ON "${tableprefix}archived_punishments" ("victim");
+CREATE INDEX "${tableprefix}archived_punishment_operator_index" ON "${tableprefix}archived_punishments" ("operator");
+CREATE INDEX "${tableprefix}archived_punishment_start_index" ON "${tableprefix}archived_punishments" ("start");
+
+-- Same columns as simple_history
+
+CREATE VIEW "${tableprefix}simple_archive" AS
+  SELECT "puns"."id", "puns"."type",
+    "victims"."type" AS "victim_type", "victims"."uuid" AS "victim_uuid", "victims"."address" AS "victim_address",
+    "puns"."operator", "puns"."reason",
+    ${migratescopestart}(CASE
+      WHEN "puns"."scope_id" IS NULL THEN ''
+      ELSE "scopes"."value"
+    END)${migratescopeend} AS "scope",
+    "puns"."start", "puns"."end",
+    (CASE
+      WHEN "tracks"."namespace" IS NULL THEN NULL
+      ELSE (("tracks"."namespace" || ':') || "tracks"."value")
+    END) AS "track",
+    (CASE
+      WHEN "puns"."scope_id" IS NULL THEN ${zerosmallintliteral}
+      ELSE "scopes"."type"
+    END) AS "scope_type",
+    "victims"."prefix" AS "victim_prefix"
+  FROM "${tableprefix}archived_punishments" AS "puns"
+  INNER JOIN "${tableprefix}victims" AS "victims"
+  ON "puns"."victim" = "victims"."id"
+  LEFT JOIN "${tableprefix}tracks" AS "tracks"
+  ON "puns"."track" = "tracks"."id"
+  LEFT JOIN "${tableprefix}scopes" AS "scopes"
+  ON "puns"."scope_id" = "scopes"."id";
+
+-- History including archived punishments, used only when explicitly requested
+
+CREATE VIEW "${tableprefix}simple_full_history" AS
+  SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "track", "scope_type", "victim_prefix"
+  FROM "${tableprefix}simple_history"
+  UNION ALL
+    SELECT "id", "type", "victim_type", "victim_uuid", "victim_address", "operator", "reason", "scope", "start", "end", "track", "scope_type", "victim_prefix"
+    FROM "${tableprefix}simple_archive";
+
+CREATE VIEW "${tableprefix}applicable_full_history" AS
+  SELECT "puns"."id", "puns"."type", "puns"."victim_type", "puns"."victim_uuid", "puns"."victim_address",
+    "puns"."operator", "puns"."reason", "puns"."scope", "puns"."start", "puns"."end", "addrs"."uuid", "addrs"."address",
+    "puns"."track", "puns"."scope_type", "puns"."victim_prefix"
+  FROM "${tableprefix}simple_full_history" AS "puns"
+  INNER JOIN "${tableprefix}addresses" AS "addrs"
+  ON ("puns"."victim_type" = 0 AND "puns"."victim_uuid" = "addrs"."uuid"
+    OR "puns"."victim_type" = 1 AND "puns"."victim_address" = "addrs"."address"
+    OR "puns"."victim_type" = 2 AND ("puns"."victim_uuid" = "addrs"."uuid" OR "puns"."victim_address" = "addrs"."address"));
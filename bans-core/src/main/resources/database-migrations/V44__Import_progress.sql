@@ -0,0 +1,14 @@
+-- Progress of an interrupted import from another plugin, at most one row per import source
+-- Updated in the same transaction as the imported data, so that resuming continues exactly where the import stopped
+
+CREATE TABLE "${tableprefix}import_progress" (
+  "source" CHARACTER VARYING(32) NOT NULL,
+  "phase" SMALLINT NOT NULL,
+  "rows_consumed" BIGINT NOT NULL,
+  "last_foreign_id" INT NULL,
+  "active" INT NOT NULL,
+  "historical" INT NOT NULL,
+  "name_address_records" INT NOT NULL,
+  CONSTRAINT "${tableprefix}import_progress_source_uniqueness" UNIQUE ("source"),
+  CONSTRAINT "${tableprefix}import_progress_rows_validity" CHECK ("rows_consumed" >= 0)
+)${extratableoptions};
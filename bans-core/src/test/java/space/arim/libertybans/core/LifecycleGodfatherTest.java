@@ -20,12 +20,25 @@
 package space.arim.libertybans.core;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
 import space.arim.api.util.testing.InjectableConstructor;
 import space.arim.libertybans.core.addon.Addon;
+import space.arim.libertybans.core.config.MainConfig;
+import space.arim.libertybans.core.config.SqlConfig;
+import space.arim.libertybans.core.config.StandardConfigs;
 
+import java.nio.file.Path;
 import java.util.Set;
 import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
 public class LifecycleGodfatherTest {
 
 	@Test
@@ -37,4 +50,20 @@ public class LifecycleGodfatherTest {
 				.verifyParametersContainSubclassesOf(Part.class, subClassFilter);
 	}
 
+	@Test
+	public void unchangedReloadKeepsParts(@TempDir Path folder, @Mock Part databaseManager, @Mock Part uuidManager) {
+		StandardConfigs configs = new StandardConfigs(folder);
+		assumeTrue(configs.reloadConfigs().join());
+		SqlConfig previousSqlConfig = configs.getSqlConfig();
+		MainConfig previousMainConfig = configs.getMainConfig();
+		assumeTrue(configs.reloadConfigs().join());
+
+		LifecycleGodfather.restartIfChanged(databaseManager, "database connection pool",
+				previousSqlConfig, configs.getSqlConfig());
+		LifecycleGodfather.restartIfChanged(uuidManager, "uuid caches",
+				previousMainConfig.uuidResolution(), configs.getMainConfig().uuidResolution());
+		verify(databaseManager, never()).restart();
+		verify(uuidManager, never()).restart();
+	}
+
 }
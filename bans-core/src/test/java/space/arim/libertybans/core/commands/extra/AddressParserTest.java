@@ -21,6 +21,7 @@ package space.arim.libertybans.core.commands.extra;
 
 import org.junit.jupiter.api.Test;
 import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.RangeVictim;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class AddressParserTest {
 
@@ -51,4 +53,20 @@ public class AddressParserTest {
 		NetworkAddress address = randomIpv4();
 		assertEquals(address, AddressParser.parseIpv4(ipv4ToString(address)));
 	}
+
+	@Test
+	public void parseIpv4Range() {
+		RangeVictim expected = RangeVictim.of(NetworkAddress.of(new byte[] {(byte) 192, (byte) 168, 0, 0}), 16);
+		assertEquals(expected, AddressParser.parseIpv4Range("192.168.0.0/16"));
+		assertEquals(expected, AddressParser.parseIpv4Range("192.168.37.2/16"), "Host bits are cleared");
+	}
+
+	@Test
+	public void parseInvalidIpv4Range() {
+		assertNull(AddressParser.parseIpv4Range("192.168.0.0"));
+		assertNull(AddressParser.parseIpv4Range("192.168.0.0/33"));
+		assertNull(AddressParser.parseIpv4Range("192.168.0.0/-1"));
+		assertNull(AddressParser.parseIpv4Range("192.168.0/16"));
+		assertNull(AddressParser.parseIpv4Range("192.168.0.0/"));
+	}
 }
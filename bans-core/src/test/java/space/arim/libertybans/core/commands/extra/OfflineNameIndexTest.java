@@ -0,0 +1,80 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.commands.extra;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OfflineNameIndexTest {
+
+	private final Instant now = Instant.ofEpochSecond(1628954750);
+	private OfflineNameIndex index;
+
+	@BeforeEach
+	public void setIndex() {
+		index = new OfflineNameIndex();
+		index.add("Player2", now);
+		index.add("player1", now.minusSeconds(10L));
+		index.add("Other", now.minusSeconds(20L));
+	}
+
+	private List<String> complete(String prefix, int limit) {
+		return index.complete(prefix, limit).toList();
+	}
+
+	@Test
+	public void completeAll() {
+		assertEquals(List.of("Other", "player1", "Player2"), complete("", 10));
+	}
+
+	@Test
+	public void completeCaseInsensitivePrefix() {
+		assertEquals(List.of("player1", "Player2"), complete("PLAY", 10));
+		assertEquals(List.of("Player2"), complete("player2", 10));
+		assertEquals(List.of(), complete("player3", 10));
+	}
+
+	@Test
+	public void completeLimited() {
+		assertEquals(List.of("player1"), complete("p", 1));
+	}
+
+	@Test
+	public void newerNameReplacesOlder() {
+		index.add("PLAYER1", now.plusSeconds(5L));
+		assertEquals(List.of("PLAYER1", "Player2"), complete("p", 10));
+		assertEquals(now.plusSeconds(5L), index.latestUpdate());
+
+		index.add("Player1", now.minusSeconds(100L));
+		assertEquals(List.of("PLAYER1", "Player2"), complete("p", 10), "Older name should be ignored");
+	}
+
+	@Test
+	public void evictOldNames() {
+		index.evictUpTo(now.minusSeconds(10L));
+		assertEquals(List.of("Player2"), complete("", 10));
+		assertEquals(1, index.size());
+	}
+}
@@ -35,6 +35,7 @@ import space.arim.libertybans.api.NetworkAddress;
 import space.arim.libertybans.api.Operator;
 import space.arim.libertybans.api.PlayerOperator;
 import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.formatter.PunishmentFormatter;
 import space.arim.libertybans.api.scope.ServerScope;
@@ -279,6 +280,15 @@ public class StandardArgumentParserTest {
 			verify(sender, never()).sendMessage(any());
 		}
 
+		@Test
+		public void parseIpv4Range() {
+			NetworkAddress network = NetworkAddress.of(new byte[] {
+					(byte) 10, (byte) 8, (byte) 0, (byte) 0});
+			assertEquals(RangeVictim.of(network, 14), parseVictim("10.8.0.0/14"));
+			verify(uuidManager, never()).lookupAddress(any());
+			verify(sender, never()).sendMessage(any());
+		}
+
 		@Test
 		public void lookupAddressVictim() {
 			String name = "A248";
@@ -0,0 +1,89 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ConnectionReservationTest {
+
+	private final DataSource dataSource;
+	private final ConnectionReservation reservation;
+
+	public ConnectionReservationTest(@Mock DataSource dataSource) {
+		this.dataSource = dataSource;
+		reservation = new ConnectionReservation(dataSource, 3, 1, Duration.ofMillis(100L));
+	}
+
+	@Test
+	public void enforcementUsesReservedConnections() throws SQLException {
+		when(dataSource.getConnection()).thenAnswer((invocation) -> mock(Connection.class));
+		reservation.getConnection(QueryPriority.LISTING);
+		reservation.getConnection(QueryPriority.MAINTENANCE);
+		assertThrows(SQLTransientConnectionException.class, () -> reservation.getConnection(QueryPriority.PUNISHMENT));
+		assertNotNull(reservation.getConnection(QueryPriority.ENFORCEMENT));
+	}
+
+	@Test
+	public void closeReleasesConnection() throws SQLException {
+		Connection underlying = mock(Connection.class);
+		when(dataSource.getConnection()).thenReturn(underlying);
+		Connection first = reservation.getConnection(QueryPriority.LISTING);
+		reservation.getConnection(QueryPriority.LISTING);
+		first.close();
+		// Closing twice must not release twice
+		first.close();
+		verify(underlying, times(2)).close();
+		assertNotNull(reservation.getConnection(QueryPriority.LISTING));
+		assertThrows(SQLTransientConnectionException.class, () -> reservation.getConnection(QueryPriority.LISTING));
+	}
+
+	@Test
+	public void failedCheckoutReleasesPermit() throws SQLException {
+		when(dataSource.getConnection()).thenThrow(new SQLException("Unreachable"));
+		for (int n = 0; n < 3; n++) {
+			assertThrows(SQLException.class, () -> reservation.getConnection(QueryPriority.LISTING));
+		}
+		verify(dataSource, times(3)).getConnection();
+	}
+
+	@Test
+	public void reserveLessThanPoolSize() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new ConnectionReservation(dataSource, 2, 2, Duration.ZERO));
+	}
+
+}
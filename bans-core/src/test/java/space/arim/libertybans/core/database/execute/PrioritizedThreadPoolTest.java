@@ -0,0 +1,145 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrioritizedThreadPoolTest {
+
+	private PrioritizedThreadPool threadPool;
+
+	@AfterEach
+	public void shutdownThreadPool() throws InterruptedException {
+		threadPool.shutdownNow();
+		assertTrue(threadPool.awaitTermination(5L, TimeUnit.SECONDS));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5L, TimeUnit.SECONDS), "Timed out");
+		} catch (InterruptedException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+
+	@Test
+	public void highestPriorityFirst() {
+		threadPool = new PrioritizedThreadPool(1, 0, Thread::new);
+		CountDownLatch release = new CountDownLatch(1);
+		threadPool.execute(QueryPriority.MAINTENANCE, () -> await(release));
+
+		List<QueryPriority> order = new CopyOnWriteArrayList<>();
+		CountDownLatch finished = new CountDownLatch(4);
+		for (QueryPriority priority : new QueryPriority[] {
+				QueryPriority.MAINTENANCE, QueryPriority.LISTING, QueryPriority.ENFORCEMENT, QueryPriority.PUNISHMENT}) {
+			threadPool.execute(priority, () -> {
+				order.add(priority);
+				finished.countDown();
+			});
+		}
+		release.countDown();
+		await(finished);
+		assertEquals(List.of(
+				QueryPriority.ENFORCEMENT, QueryPriority.PUNISHMENT, QueryPriority.LISTING, QueryPriority.MAINTENANCE
+		), order);
+	}
+
+	@Test
+	public void reservedThreadsRunEnforcement() {
+		threadPool = new PrioritizedThreadPool(3, 1, Thread::new);
+		CountDownLatch release = new CountDownLatch(1);
+		// Occupy both unreserved threads
+		threadPool.execute(QueryPriority.LISTING, () -> await(release));
+		threadPool.execute(QueryPriority.MAINTENANCE, () -> await(release));
+
+		CountDownLatch enforced = new CountDownLatch(1);
+		threadPool.execute(QueryPriority.ENFORCEMENT, enforced::countDown);
+		await(enforced);
+		release.countDown();
+	}
+
+	@Test
+	public void reservedThreadsSkipOtherWork() throws InterruptedException {
+		threadPool = new PrioritizedThreadPool(2, 1, Thread::new);
+		CountDownLatch release = new CountDownLatch(1);
+		threadPool.execute(QueryPriority.LISTING, () -> await(release));
+
+		CountDownLatch listed = new CountDownLatch(1);
+		threadPool.execute(QueryPriority.LISTING, listed::countDown);
+		assertFalse(listed.await(200L, TimeUnit.MILLISECONDS), "Reserved thread ran a listing");
+		release.countDown();
+		await(listed);
+	}
+
+	@Test
+	public void recordQueueWaits() {
+		threadPool = new PrioritizedThreadPool(1, 0, Thread::new);
+		CountDownLatch finished = new CountDownLatch(2);
+		threadPool.execute(QueryPriority.LISTING, finished::countDown);
+		threadPool.execute(QueryPriority.LISTING, finished::countDown);
+		await(finished);
+		var queueWaits = threadPool.queueWaits();
+		assertEquals(2L, queueWaits.get(QueryPriority.LISTING).count());
+		assertEquals(0L, queueWaits.get(QueryPriority.ENFORCEMENT).count());
+	}
+
+	@Test
+	public void drainOnShutdown() throws InterruptedException {
+		threadPool = new PrioritizedThreadPool(2, 1, Thread::new);
+		CountDownLatch finished = new CountDownLatch(3);
+		for (int n = 0; n < 3; n++) {
+			threadPool.execute(QueryPriority.PUNISHMENT, finished::countDown);
+		}
+		threadPool.shutdown();
+		assertThrows(RejectedExecutionException.class, () -> threadPool.execute(QueryPriority.ENFORCEMENT, () -> {}));
+		assertTrue(threadPool.awaitTermination(5L, TimeUnit.SECONDS));
+		assertEquals(0L, finished.getCount());
+	}
+
+	@Test
+	public void survivesErrors() {
+		threadPool = new PrioritizedThreadPool(1, 0, Thread::new);
+		threadPool.execute(QueryPriority.LISTING, () -> {
+			throw new AssertionError("Expected error");
+		});
+		CountDownLatch finished = new CountDownLatch(1);
+		threadPool.execute(QueryPriority.LISTING, finished::countDown);
+		await(finished);
+	}
+
+	@Test
+	public void reserveLessThanTotal() {
+		threadPool = new PrioritizedThreadPool(1, 0, Thread::new);
+		assertThrows(IllegalArgumentException.class, () -> new PrioritizedThreadPool(2, 2, Thread::new));
+	}
+
+}
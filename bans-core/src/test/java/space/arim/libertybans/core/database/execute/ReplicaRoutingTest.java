@@ -0,0 +1,94 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.execute;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(MockitoExtension.class)
+public class ReplicaRoutingTest {
+
+	private final AtomicLong nanoTime = new AtomicLong();
+	private DataSource replica;
+
+	@BeforeEach
+	public void setReplica(@Mock DataSource replica) {
+		this.replica = replica;
+	}
+
+	private ReplicaRouting createRouting(boolean enforcementReadsOnReplica) {
+		return new ReplicaRouting(replica, enforcementReadsOnReplica, Duration.ofSeconds(30L), nanoTime::get);
+	}
+
+	private static SQLFunction<Void> readOnly(ReadConsistency readConsistency) {
+		return SQLFunction.readOnly(readConsistency, (context) -> null);
+	}
+
+	@Test
+	public void routeByReadConsistency() {
+		ReplicaRouting routing = createRouting(false);
+		assertFalse(routing.routesToReplica((context) -> null), "Writes stay on the primary");
+		assertTrue(routing.routesToReplica(readOnly(ReadConsistency.EVENTUAL)));
+		assertFalse(routing.routesToReplica(readOnly(ReadConsistency.ENFORCEMENT)));
+		assertFalse(routing.routesToReplica(readOnly(ReadConsistency.STRICT)));
+	}
+
+	@Test
+	public void routeEnforcementReadsIfConfigured() {
+		ReplicaRouting routing = createRouting(true);
+		assertTrue(routing.routesToReplica(readOnly(ReadConsistency.EVENTUAL)));
+		assertTrue(routing.routesToReplica(readOnly(ReadConsistency.ENFORCEMENT)));
+		assertFalse(routing.routesToReplica(readOnly(ReadConsistency.STRICT)));
+	}
+
+	@Test
+	public void failBackWhileUnreachable() {
+		ReplicaRouting routing = createRouting(false);
+		SQLFunction<Void> command = readOnly(ReadConsistency.EVENTUAL);
+		routing.markUnreachable(new SQLTransientConnectionException("Connection refused"));
+		assertFalse(routing.routesToReplica(command));
+
+		nanoTime.addAndGet(Duration.ofSeconds(29L).toNanos());
+		assertFalse(routing.routesToReplica(command));
+
+		nanoTime.addAndGet(Duration.ofSeconds(2L).toNanos());
+		assertTrue(routing.routesToReplica(command), "Replica should be retried after the delay");
+	}
+
+	@Test
+	public void detectConnectionFailure() {
+		assertTrue(ReplicaRouting.isConnectionFailure(new SQLTransientConnectionException()));
+		assertTrue(ReplicaRouting.isConnectionFailure(new SQLException("Communications link failure", "08S01")));
+		assertFalse(ReplicaRouting.isConnectionFailure(new SQLException("Syntax error", "42000")));
+	}
+
+}
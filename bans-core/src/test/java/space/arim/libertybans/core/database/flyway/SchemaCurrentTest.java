@@ -0,0 +1,154 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.database.flyway;
+
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.bootstrap.plugin.PluginInfo;
+import space.arim.libertybans.core.database.jooq.JooqContext;
+import space.arim.libertybans.core.importing.ConnectionSource;
+import space.arim.libertybans.core.importing.LocalDatabaseSetup;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(LocalDatabaseSetup.class)
+@LocalDatabaseSetup.Hsqldb
+public class SchemaCurrentTest {
+
+	private static final Pattern VERSIONED_MIGRATION = Pattern.compile("^V(\\d+)__");
+
+	private Connection connection;
+	private DSLContext context;
+	private DSLContext unmappedContext;
+
+	@BeforeEach
+	public void createTables(ConnectionSource connectionSource) throws SQLException {
+		connection = connectionSource.openConnection();
+		context = new JooqContext(SQLDialect.HSQLDB).createContext(connection);
+		unmappedContext = DSL.using(connection, SQLDialect.HSQLDB);
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE \"libertybans_revision\" (" +
+					"\"constant\" CHARACTER VARYING(8) NOT NULL, \"major\" INT NOT NULL, \"minor\" INT NOT NULL)");
+			statement.execute("CREATE TABLE \"libertybans_schema_history\" (" +
+					"\"installed_rank\" INT NOT NULL, \"version\" VARCHAR(50), \"success\" BOOLEAN NOT NULL)");
+		}
+	}
+
+	@AfterEach
+	public void closeConnection() throws SQLException {
+		connection.close();
+	}
+
+	private void setRevision(int major, int minor) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("DELETE FROM \"libertybans_revision\"");
+			statement.execute("INSERT INTO \"libertybans_revision\" VALUES ('Constant', " + major + ", " + minor + ")");
+		}
+	}
+
+	private void addHistory(int installedRank, String version, boolean success) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("INSERT INTO \"libertybans_schema_history\" VALUES (" + installedRank + ", "
+					+ (version == null ? "NULL" : "'" + version + "'") + ", " + success + ")");
+		}
+	}
+
+	private void setCurrentRevision() throws SQLException {
+		setRevision(PluginInfo.DATABASE_REVISION_MAJOR, PluginInfo.DATABASE_REVISION_MINOR);
+	}
+
+	@Test
+	public void current() throws SQLException {
+		setCurrentRevision();
+		addHistory(1, "0.0", true);
+		addHistory(2, "36", true);
+		addHistory(3, MigrateWithFlyway.LATEST_MIGRATION_VERSION, true);
+		addHistory(4, null, true);
+		assertTrue(MigrateWithFlyway.isSchemaCurrent(context, unmappedContext));
+	}
+
+	@Test
+	public void outdatedRevision() throws SQLException {
+		setRevision(PluginInfo.DATABASE_REVISION_MAJOR, PluginInfo.DATABASE_REVISION_MINOR - 1);
+		addHistory(1, MigrateWithFlyway.LATEST_MIGRATION_VERSION, true);
+		assertFalse(MigrateWithFlyway.isSchemaCurrent(context, unmappedContext));
+	}
+
+	@Test
+	public void pendingMigration() throws SQLException {
+		setCurrentRevision();
+		addHistory(1, "36", true);
+		assertFalse(MigrateWithFlyway.isSchemaCurrent(context, unmappedContext));
+	}
+
+	@Test
+	public void failedMigration() throws SQLException {
+		setCurrentRevision();
+		addHistory(1, "36", false);
+		addHistory(2, MigrateWithFlyway.LATEST_MIGRATION_VERSION, true);
+		assertFalse(MigrateWithFlyway.isSchemaCurrent(context, unmappedContext));
+	}
+
+	@Test
+	public void latestMigrationVersionIsBundled() throws IOException, URISyntaxException {
+		URL migrationsUrl = getClass().getClassLoader().getResource("database-migrations");
+		assertNotNull(migrationsUrl, "Migrations directory");
+		int latestSqlVersion;
+		try (Stream<Path> sqlMigrations = Files.list(Path.of(migrationsUrl.toURI()))) {
+			latestSqlVersion = latestVersion(sqlMigrations.map((file) -> file.getFileName().toString()));
+		}
+		int latestJavaVersion = latestVersion(MigrateWithFlyway.JAVA_MIGRATIONS.stream().map(Class::getSimpleName));
+		assertEquals(
+				Integer.toString(Math.max(latestSqlVersion, latestJavaVersion)),
+				MigrateWithFlyway.LATEST_MIGRATION_VERSION
+		);
+	}
+
+	private static int latestVersion(Stream<String> migrationNames) {
+		return migrationNames
+				.map(VERSIONED_MIGRATION::matcher)
+				.filter(Matcher::find)
+				.map((matcher) -> Integer.parseInt(matcher.group(1)))
+				.max(Comparator.naturalOrder())
+				.orElse(0);
+	}
+
+}
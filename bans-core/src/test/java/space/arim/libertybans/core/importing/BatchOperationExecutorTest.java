@@ -0,0 +1,130 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.execute.SQLTransactionalRunnable;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchOperationExecutorTest {
+
+	private final InternalDatabase database;
+	private final Connection connection;
+
+	public BatchOperationExecutorTest(@Mock InternalDatabase database, @Mock Connection connection) {
+		this.database = database;
+		this.connection = connection;
+	}
+
+	private void runTransactionsWith(List<String> written) throws SQLException {
+		when(database.getConnection()).thenReturn(connection);
+		doAnswer((invocation) -> {
+			written.add("begin");
+			invocation.getArgument(1, SQLTransactionalRunnable.class).run(null, null);
+			written.add("commit");
+			return null;
+		}).when(database).executeWithExistingConnection(same(connection), any());
+	}
+
+	@Test
+	public void writeTransactionsAsEnded() throws SQLException {
+		List<String> written = new ArrayList<>();
+		runTransactionsWith(written);
+		try (BatchOperationExecutor executor = new BatchOperationExecutor(database, 2)) {
+			executor.runOperation((context, transaction) -> written.add("first"));
+			executor.runOperation((context, transaction) -> written.add("second"));
+			executor.endTransaction((context, transaction) -> written.add("progress"));
+			executor.runOperation((context, transaction) -> written.add("third"));
+			executor.endTransaction((context, transaction) -> written.add("progress"));
+			executor.finish();
+		}
+		assertEquals(
+				List.of("begin", "first", "second", "progress", "commit", "begin", "third", "progress", "commit"),
+				written
+		);
+		verify(connection, times(2)).close();
+	}
+
+	@Test
+	public void discardUnendedTransaction() throws SQLException {
+		List<String> written = new ArrayList<>();
+		runTransactionsWith(written);
+		BatchOperationExecutor executor = new BatchOperationExecutor(database, 2);
+		executor.runOperation((context, transaction) -> written.add("first"));
+		executor.endTransaction((context, transaction) -> {});
+		executor.runOperation((context, transaction) -> written.add("abandoned"));
+		assertThrows(ImportException.class, executor::finish, "Discarded operations must not go unnoticed");
+		assertEquals(List.of("begin", "first", "commit"), written);
+	}
+
+	@Test
+	public void failingTransactionSurfacesThroughFinish() throws SQLException {
+		when(database.getConnection()).thenReturn(connection);
+		SQLException cause = new SQLException("Constraint violation");
+		doAnswer((invocation) -> {
+			throw cause;
+		}).when(database).executeWithExistingConnection(same(connection), any());
+
+		BatchOperationExecutor executor = new BatchOperationExecutor(database, 2);
+		executor.runOperation((context, transaction) -> {});
+		executor.endTransaction((context, transaction) -> {});
+		ImportException failure = assertThrows(ImportException.class, executor::finish);
+		assertEquals(cause, failure.getCause());
+		assertThrows(ImportException.class, () -> executor.runOperation((context, transaction) -> {}),
+				"Operations are rejected once writing failed");
+	}
+
+	@Test
+	public void failingOperationSurfacesThroughFinish() throws SQLException {
+		List<String> written = new ArrayList<>();
+		runTransactionsWith(written);
+		RuntimeException cause = new IllegalStateException("Failed operation");
+
+		BatchOperationExecutor executor = new BatchOperationExecutor(database, 2);
+		executor.runOperation((context, transaction) -> {
+			throw cause;
+		});
+		executor.endTransaction((context, transaction) -> written.add("progress"));
+		ImportException failure = assertThrows(ImportException.class, executor::finish);
+		assertEquals(cause, failure.getCause());
+		assertTrue(!written.contains("commit") && !written.contains("progress"),
+				"Nothing may be committed after a failed operation");
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.importing;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.Test;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.core.schema.tables.records.AddressesRecord;
+import space.arim.libertybans.core.schema.tables.records.NamesRecord;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static space.arim.libertybans.core.schema.tables.Addresses.ADDRESSES;
+import static space.arim.libertybans.core.schema.tables.Names.NAMES;
+
+public class PostgresCopyEncoderTest {
+
+	private final DSLContext context = DSL.using(SQLDialect.POSTGRES);
+	private final UUID uuid = UUID.fromString("ed5f12cd-6007-45d9-a4b9-940524ddaecf");
+
+	@Test
+	public void encodeNames() {
+		NamesRecord record = context.newRecord(NAMES);
+		record.setUuid(uuid);
+		record.setName("A\"B");
+		record.setUpdated(Instant.ofEpochSecond(1600000000L));
+		StringBuilder output = new StringBuilder();
+		new PostgresCopyEncoder(new Field<?>[] {NAMES.UUID, NAMES.NAME, NAMES.UPDATED})
+				.encodeRow(record, output);
+		assertEquals(uuid + ",\"A\"\"B\",1600000000\n", output.toString());
+	}
+
+	@Test
+	public void encodeAddressesAndNull() {
+		AddressesRecord record = context.newRecord(ADDRESSES);
+		record.setUuid(null);
+		record.setAddress(NetworkAddress.of(new byte[] {127, 0, 0, 1}));
+		record.setUpdated(Instant.ofEpochSecond(5L));
+		StringBuilder output = new StringBuilder();
+		new PostgresCopyEncoder(new Field<?>[] {ADDRESSES.UUID, ADDRESSES.ADDRESS, ADDRESSES.UPDATED})
+				.encodeRow(record, output);
+		assertEquals(",\\x7f000001,5\n", output.toString());
+	}
+
+	@Test
+	public void encodeEmptyString() {
+		NamesRecord record = context.newRecord(NAMES);
+		record.setUuid(uuid);
+		record.setName("");
+		record.setUpdated(Instant.ofEpochSecond(0L));
+		StringBuilder output = new StringBuilder();
+		new PostgresCopyEncoder(new Field<?>[] {NAMES.NAME})
+				.encodeRow(record, output);
+		assertEquals("\"\"\n", output.toString());
+	}
+
+}
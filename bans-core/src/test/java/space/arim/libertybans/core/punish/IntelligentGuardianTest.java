@@ -26,8 +26,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.scope.ScopeManager;
+import space.arim.libertybans.api.scope.ServerScope;
 import space.arim.libertybans.core.config.Configs;
 import space.arim.libertybans.core.config.InternalFormatter;
 import space.arim.libertybans.core.config.MainConfig;
@@ -36,20 +38,27 @@ import space.arim.libertybans.core.selector.Guardian;
 import space.arim.libertybans.core.selector.IntelligentGuardian;
 import space.arim.libertybans.core.selector.InternalSelector;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache.PlayerScopedBans;
 import space.arim.libertybans.core.uuid.UUIDManager;
 import space.arim.libertybans.it.util.RandomUtil;
 import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 import space.arim.omnibus.util.concurrent.impl.IndifferentFactoryOfTheFuture;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,19 +71,31 @@ public class IntelligentGuardianTest {
 	private NetworkAddress address;
 	private Guardian guardian;
 
+	private MainConfig mainConfig;
+	private ScopeManager scopeManager;
+	private InternalSelector selector;
+	private ScopedBanCache scopedBanCache;
+	private RangePunishmentCache rangePunishmentCache;
+
 	public IntelligentGuardianTest(@Mock MuteCache muteCache) {
 		this.muteCache = muteCache;
 	}
 
 	@BeforeEach
 	public void setup(@Mock Configs configs, @Mock ScopeManager scopeManager, @Mock InternalFormatter formatter,
-					  @Mock InternalSelector selector, @Mock UUIDManager uuidManager) {
+					  @Mock InternalSelector selector, @Mock UUIDManager uuidManager, @Mock ScopedBanCache scopedBanCache,
+					  @Mock RangePunishmentCache rangePunishmentCache) {
 		uuid = UUID.randomUUID();
 		address = RandomUtil.randomAddress();
 
-		guardian = new IntelligentGuardian(configs, futuresFactory, scopeManager, formatter, selector, uuidManager, muteCache);
+		guardian = new IntelligentGuardian(configs, futuresFactory, scopeManager, formatter, selector, uuidManager, muteCache,
+				scopedBanCache, rangePunishmentCache);
+		this.scopeManager = scopeManager;
+		this.selector = selector;
+		this.scopedBanCache = scopedBanCache;
+		this.rangePunishmentCache = rangePunishmentCache;
 
-		MainConfig mainConfig = mock(MainConfig.class);
+		mainConfig = mock(MainConfig.class);
 		EnforcementConfig enforcementConfig = mock(EnforcementConfig.class);
 		lenient().when(configs.getMainConfig()).thenReturn(mainConfig);
 		lenient().when(mainConfig.enforcement()).thenReturn(enforcementConfig);
@@ -107,4 +128,25 @@ public class IntelligentGuardianTest {
 		assertEquals(denyMessage, guardian.checkChat(uuid, address, "msg Player1 hi").join(),
 				"ibid");
 	}
+
+	@Test
+	public void checkServerSwitchRangeBanRevokedElsewhere(@Mock Punishment rangeBan, @Mock ServerScope destination,
+														  @Mock MainConfig.Platforms.Proxies proxiesConfig) {
+		MainConfig.Platforms platformsConfig = mock(MainConfig.Platforms.class);
+		when(mainConfig.platforms()).thenReturn(platformsConfig);
+		when(platformsConfig.proxies()).thenReturn(proxiesConfig);
+		when(proxiesConfig.enforceServerSwitch()).thenReturn(true);
+		when(scopeManager.specificScope("lobby")).thenReturn(destination);
+		when(rangeBan.getIdentifier()).thenReturn(4L);
+		when(rangePunishmentCache.findApplicable(eq(PunishmentType.BAN), eq(address), any()))
+				.thenReturn(rangeBan, (Punishment) null);
+		when(selector.getActivePunishmentByIdAndType(4L, PunishmentType.BAN))
+				.thenReturn(completedFuture(Optional.empty()));
+		PlayerScopedBans noBans = new PlayerScopedBans(address, List.of());
+		when(scopedBanCache.getCachedScopedBans(uuid, address)).thenReturn(noBans);
+
+		assertNull(guardian.checkServerSwitch(uuid, address.toInetAddress(), "lobby").join(),
+				"The range ban no longer exists");
+		verify(rangePunishmentCache).punishmentRemoved(4L);
+	}
 }
@@ -0,0 +1,153 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import org.junit.jupiter.api.Test;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.RangeVictim;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AddressRangeTrieTest {
+
+	private final AddressRangeTrie<String> trie = new AddressRangeTrie<>();
+
+	private static byte[] address(String address) {
+		try {
+			return InetAddress.getByName(address).getAddress();
+		} catch (UnknownHostException ex) {
+			throw new AssertionError(ex);
+		}
+	}
+
+	private void add(String network, int prefixLength, String value) {
+		trie.add(address(network), prefixLength, value);
+	}
+
+	private Set<String> containing(String address) {
+		Set<String> values = new HashSet<>();
+		trie.forEachContaining(address(address), values::add);
+		return values;
+	}
+
+	@Test
+	public void emptyTrie() {
+		assertEquals(Set.of(), containing("192.168.1.1"));
+	}
+
+	@Test
+	public void nestedRanges() {
+		add("10.0.0.0", 8, "/8");
+		add("10.1.0.0", 16, "/16");
+		add("10.1.2.0", 24, "/24");
+		add("10.1.2.3", 32, "/32");
+		assertEquals(Set.of("/8", "/16", "/24", "/32"), containing("10.1.2.3"));
+		assertEquals(Set.of("/8", "/16", "/24"), containing("10.1.2.4"));
+		assertEquals(Set.of("/8", "/16"), containing("10.1.3.4"));
+		assertEquals(Set.of("/8"), containing("10.2.0.0"));
+		assertEquals(Set.of(), containing("11.0.0.0"));
+	}
+
+	@Test
+	public void siblingRangesInAnyOrder() {
+		add("192.168.16.0", 20, "hosting");
+		add("192.168.0.0", 20, "neighbour");
+		add("192.168.0.0", 16, "wide");
+		add("0.0.0.0", 0, "everything");
+		assertEquals(Set.of("hosting", "wide", "everything"), containing("192.168.31.255"));
+		assertEquals(Set.of("neighbour", "wide", "everything"), containing("192.168.15.0"));
+		assertEquals(Set.of("wide", "everything"), containing("192.168.32.0"));
+		assertEquals(Set.of("everything"), containing("8.8.8.8"));
+	}
+
+	@Test
+	public void multipleValuesForRange() {
+		add("172.16.0.0", 12, "first");
+		add("172.16.0.0", 12, "second");
+		assertEquals(Set.of("first", "second"), containing("172.20.1.1"));
+		trie.remove(address("172.16.0.0"), 12, "first"::equals);
+		assertEquals(Set.of("second"), containing("172.20.1.1"));
+	}
+
+	@Test
+	public void removeCompactsTrie() {
+		add("10.0.0.0", 8, "/8");
+		add("10.1.0.0", 16, "/16");
+		add("10.2.0.0", 16, "other /16");
+		trie.remove(address("10.0.0.0"), 8, (value) -> true);
+		assertEquals(Set.of("/16"), containing("10.1.0.1"));
+		assertEquals(Set.of("other /16"), containing("10.2.0.1"));
+		trie.remove(address("10.1.0.0"), 16, (value) -> true);
+		assertEquals(Set.of(), containing("10.1.0.1"));
+		assertEquals(Set.of("other /16"), containing("10.2.0.1"));
+		// Removing a range which was never added does nothing
+		trie.remove(address("10.3.0.0"), 16, (value) -> true);
+		assertEquals(Set.of("other /16"), containing("10.2.0.1"));
+	}
+
+	@Test
+	public void ipv6Ranges() {
+		AddressRangeTrie<String> trie = new AddressRangeTrie<>();
+		trie.add(address("2001:db8::"), 32, "documentation");
+		trie.add(address("2001:db8:abcd::"), 48, "site");
+		Set<String> values = new HashSet<>();
+		trie.forEachContaining(address("2001:db8:abcd:12::1"), values::add);
+		assertEquals(Set.of("documentation", "site"), values);
+	}
+
+	@Test
+	public void matchesRangeVictimContains() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<RangeVictim> ranges = new ArrayList<>();
+		for (int n = 0; n < 200; n++) {
+			byte[] network = new byte[4];
+			random.nextBytes(network);
+			// Concentrate ranges so that many overlap
+			network[0] = (byte) random.nextInt(4);
+			RangeVictim range = RangeVictim.of(NetworkAddress.of(network), random.nextInt(33));
+			ranges.add(range);
+			trie.add(range.getNetwork().getRawAddress(), range.getPrefixLength(), range.toString());
+		}
+		for (int n = 0; n < 2000; n++) {
+			byte[] rawAddress = new byte[4];
+			random.nextBytes(rawAddress);
+			rawAddress[0] = (byte) random.nextInt(4);
+			NetworkAddress address = NetworkAddress.of(rawAddress);
+			Set<String> expected = new HashSet<>();
+			for (RangeVictim range : ranges) {
+				if (range.contains(address)) {
+					expected.add(range.toString());
+				}
+			}
+			Set<String> actual = new HashSet<>();
+			trie.forEachContaining(rawAddress, actual::add);
+			assertEquals(expected, actual, "Address " + address);
+		}
+	}
+
+}
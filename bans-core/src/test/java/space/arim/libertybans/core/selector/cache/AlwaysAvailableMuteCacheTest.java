@@ -412,4 +412,22 @@ public class AlwaysAvailableMuteCacheTest {
 		assertTrue(cachedMute.isDone());
 		assertEquals(Optional.empty(), cachedMute.join());
 	}
+
+	// Warm start
+
+	@Test
+	public void restoreCachedUnmuted() {
+		muteCache.restoreCachedUnmuted(uuid, address);
+		// No database query is needed upon login
+		assertTrue(muteCache.cacheOnLogin(uuid, address).isDone());
+		assertAvailableCacheResult(null);
+		runScheduledTasks();
+
+		List<UUID> unmuted = new ArrayList<>();
+		muteCache.forEachCachedUnmuted((unmutedUuid, unmutedAddress) -> {
+			assertEquals(address, unmutedAddress);
+			unmuted.add(unmutedUuid);
+		});
+		assertEquals(List.of(uuid), unmuted);
+	}
 }
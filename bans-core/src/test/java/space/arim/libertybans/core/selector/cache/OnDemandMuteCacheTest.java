@@ -19,9 +19,13 @@
 
 package space.arim.libertybans.core.selector.cache;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import space.arim.libertybans.api.NetworkAddress;
@@ -37,12 +41,16 @@ import space.arim.libertybans.it.util.RandomUtil;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 import space.arim.omnibus.util.concurrent.impl.IndifferentFactoryOfTheFuture;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -106,6 +114,31 @@ public class OnDemandMuteCacheTest {
 		verify(selector, times(1)).getApplicablePunishment(uuid, address, PunishmentType.MUTE);
 	}
 
+	@Test
+	public void recordsLookupEvents(@Mock Punishment punishment, @TempDir Path tempDir) throws IOException {
+		when(selector.getApplicablePunishment(uuid, address, PunishmentType.MUTE))
+				.thenReturn(futuresFactory.completedFuture(Optional.of(punishment)));
+		when(punishment.isExpired(any())).thenReturn(false);
+
+		List<RecordedEvent> events;
+		try (Recording recording = new Recording()) {
+			recording.enable("space.arim.libertybans.MuteCacheLookup");
+			recording.start();
+			muteCache.getCachedMute(uuid, address).join();
+			muteCache.getCachedMute(uuid, address).join();
+			recording.stop();
+
+			Path recordingFile = tempDir.resolve("recording.jfr");
+			recording.dump(recordingFile);
+			events = RecordingFile.readAllEvents(recordingFile);
+		}
+		assertEquals(2, events.size());
+		for (RecordedEvent event : events) {
+			assertEquals("On-demand", event.getString("cache"));
+			assertTrue(event.getBoolean("muted"));
+		}
+	}
+
 	@Test
 	public void recomputeAfterCacheExpiry(@Mock Punishment punishment) {
 		when(selector.getApplicablePunishment(uuid, address, PunishmentType.MUTE))
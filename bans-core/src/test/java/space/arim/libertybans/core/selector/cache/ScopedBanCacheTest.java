@@ -0,0 +1,151 @@
+/*
+ * LibertyBans
+ * Copyright © 2022 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.selector.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.core.scope.GlobalScope;
+import space.arim.libertybans.core.scope.InternalScopeManager;
+import space.arim.libertybans.core.scope.ScopeType;
+import space.arim.libertybans.core.scope.SpecificServerScope;
+import space.arim.libertybans.core.selector.cache.ScopedBanCache.PlayerScopedBans;
+import space.arim.libertybans.core.service.SettableTime;
+import space.arim.libertybans.core.service.SettableTimeImpl;
+import space.arim.libertybans.it.util.RandomUtil;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+public class ScopedBanCacheTest {
+
+	private final SettableTime time = new SettableTimeImpl(Instant.EPOCH);
+	private final ServerScope lobby = new SpecificServerScope("lobby");
+	private final ServerScope survival = new SpecificServerScope("survival");
+
+	private ScopedBanCache scopedBanCache;
+	private UUID uuid;
+	private NetworkAddress address;
+
+	@BeforeEach
+	public void setScopedBanCache(@Mock InternalScopeManager scopeManager) {
+		lenient().when(scopeManager.deconstruct(any(), any())).thenAnswer((invocation) -> {
+			ServerScope scope = invocation.getArgument(0);
+			BiFunction<ScopeType, String, ?> computeResult = invocation.getArgument(1);
+			if (scope instanceof SpecificServerScope specificScope) {
+				return computeResult.apply(ScopeType.SERVER, specificScope.server());
+			}
+			return computeResult.apply(ScopeType.GLOBAL, "");
+		});
+		scopedBanCache = new ScopedBanCache(scopeManager, time);
+		uuid = UUID.randomUUID();
+		address = RandomUtil.randomAddress();
+	}
+
+	private static Punishment ban(long id, ServerScope scope) {
+		Punishment ban = mock(Punishment.class);
+		lenient().when(ban.getIdentifier()).thenReturn(id);
+		lenient().when(ban.getType()).thenReturn(PunishmentType.BAN);
+		lenient().when(ban.getScope()).thenReturn(scope);
+		return ban;
+	}
+
+	private Punishment findCachedBan(ServerScope scope) {
+		PlayerScopedBans scopedBans = scopedBanCache.getCachedScopedBans(uuid, address);
+		assertNotNull(scopedBans, "Scoped bans should be cached");
+		return scopedBanCache.findBan(scopedBans, scope);
+	}
+
+	@Test
+	public void findCachedBanInScope() {
+		Punishment lobbyBan = ban(1L, lobby);
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(lobbyBan), scopedBanCache.currentGeneration());
+
+		assertEquals(lobbyBan, findCachedBan(lobby));
+		assertNull(findCachedBan(survival));
+	}
+
+	@Test
+	public void addressChangeIsCacheMiss() {
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(), scopedBanCache.currentGeneration());
+
+		assertNull(scopedBanCache.getCachedScopedBans(uuid, RandomUtil.randomAddress()));
+	}
+
+	@Test
+	public void enforceScopedBanInvalidates() {
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(), scopedBanCache.currentGeneration());
+		scopedBanCache.punishmentEnforced(ban(2L, survival));
+
+		assertNull(scopedBanCache.getCachedScopedBans(uuid, address));
+	}
+
+	@Test
+	public void enforceGlobalBanDoesNotInvalidate() {
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(), scopedBanCache.currentGeneration());
+		scopedBanCache.punishmentEnforced(ban(2L, GlobalScope.INSTANCE));
+
+		assertNotNull(scopedBanCache.getCachedScopedBans(uuid, address));
+	}
+
+	@Test
+	public void removeCachedBan() {
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(ban(1L, lobby)), scopedBanCache.currentGeneration());
+		scopedBanCache.punishmentRemoved(3L);
+		assertNotNull(scopedBanCache.getCachedScopedBans(uuid, address));
+
+		scopedBanCache.punishmentRemoved(1L);
+		assertNull(scopedBanCache.getCachedScopedBans(uuid, address));
+	}
+
+	@Test
+	public void enforcementDuringQueryPreventsCaching() {
+		long generation = scopedBanCache.currentGeneration();
+		scopedBanCache.punishmentEnforced(ban(2L, lobby));
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(), generation);
+
+		assertNull(scopedBanCache.getCachedScopedBans(uuid, address));
+	}
+
+	@Test
+	public void disconnectDiscards() {
+		scopedBanCache.cacheScopedBans(uuid, address, List.of(), scopedBanCache.currentGeneration());
+		scopedBanCache.playerDisconnected(uuid);
+
+		assertNull(scopedBanCache.getCachedScopedBans(uuid, address));
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.core.snapshot;
+
+import org.junit.jupiter.api.Test;
+import space.arim.libertybans.api.NetworkAddress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CacheSnapshotTest {
+
+	@Test
+	public void writeThenRead() throws IOException {
+		UUID uuid = UUID.randomUUID();
+		CacheSnapshot snapshot = new CacheSnapshot(
+				Instant.ofEpochSecond(1_700_000_000L), new CacheSnapshot.DataRevision(42L, 3L, 1_699_999_500L),
+				Map.of(uuid, "A248", UUID.randomUUID(), "Aerodactyl"),
+				List.of(
+						new CacheSnapshot.UnmutedPlayer(uuid, NetworkAddress.of(new byte[] {127, 0, 0, 1})),
+						new CacheSnapshot.UnmutedPlayer(uuid, NetworkAddress.of(new byte[16]))
+				),
+				Map.of("A248", Instant.ofEpochSecond(1_699_999_000L))
+		);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		snapshot.writeTo(output);
+		assertEquals(snapshot, CacheSnapshot.readFrom(new ByteArrayInputStream(output.toByteArray())));
+	}
+
+	@Test
+	public void readGarbage() {
+		byte[] garbage = {1, 2, 3, 4, 5, 6, 7, 8};
+		assertThrows(IOException.class, () -> CacheSnapshot.readFrom(new ByteArrayInputStream(garbage)));
+	}
+
+}
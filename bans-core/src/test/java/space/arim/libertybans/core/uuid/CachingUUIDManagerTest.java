@@ -36,14 +36,20 @@ import space.arim.omnibus.util.concurrent.CentralisedFuture;
 import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
 import space.arim.omnibus.util.concurrent.impl.IndifferentFactoryOfTheFuture;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -300,6 +306,132 @@ public class CachingUUIDManagerTest {
 		assertNull(lookupName(uuid));
 	}
 
+	@Test
+	public void missingUUIDNegativelyCached() {
+		when(queryingImpl.resolve(name)).thenReturn(completedFuture(null));
+
+		assertNull(lookupUUID(name));
+		assertNull(lookupUUID(name), "miss should be cached");
+
+		verify(queryingImpl).resolve(name);
+	}
+
+	@Test
+	public void missingNameNegativelyCached() {
+		when(queryingImpl.resolve(uuid)).thenReturn(completedFuture(null));
+
+		assertNull(lookupName(uuid));
+		assertNull(lookupName(uuid), "miss should be cached");
+
+		verify(queryingImpl).resolve(uuid);
+	}
+
+	@Test
+	public void addCacheOverridesNegativeCache() {
+		when(queryingImpl.resolve(name)).thenReturn(completedFuture(null));
+		when(queryingImpl.resolve(uuid)).thenReturn(completedFuture(null));
+
+		assertNull(lookupUUID(name));
+		assertNull(lookupName(uuid));
+		uuidManager.addCache(uuid, name);
+		assertEquals(uuid, lookupUUID(name));
+		assertEquals(name, lookupName(uuid));
+	}
+
+	@Test
+	public void concurrentUUIDLookupsCoalesced() {
+		CentralisedFuture<UUID> queryFuture = futuresFactory.newIncompleteFuture();
+		when(queryingImpl.resolve(name)).thenReturn(queryFuture);
+
+		CentralisedFuture<Optional<UUID>> firstLookup = uuidManager.lookupUUID(name);
+		CentralisedFuture<Optional<UUID>> secondLookup = uuidManager.lookupUUID(name);
+		assertFalse(firstLookup.isDone());
+		assertFalse(secondLookup.isDone());
+		queryFuture.complete(uuid);
+
+		assertEquals(Optional.of(uuid), firstLookup.join());
+		assertEquals(Optional.of(uuid), secondLookup.join());
+		verify(queryingImpl).resolve(name);
+	}
+
+	@Test
+	public void concurrentNameLookupsCoalesced() {
+		CentralisedFuture<String> queryFuture = futuresFactory.newIncompleteFuture();
+		when(queryingImpl.resolve(uuid)).thenReturn(queryFuture);
+
+		CentralisedFuture<Optional<String>> firstLookup = uuidManager.lookupName(uuid);
+		CentralisedFuture<Optional<String>> secondLookup = uuidManager.lookupName(uuid);
+		queryFuture.complete(name);
+
+		assertEquals(Optional.of(name), firstLookup.join());
+		assertEquals(Optional.of(name), secondLookup.join());
+		verify(queryingImpl).resolve(uuid);
+	}
+
+	@Test
+	public void bulkLookupUUIDs() {
+		String cachedName = "Cached";
+		UUID cachedUuid = UUID.randomUUID();
+		String queriedName = "Queried";
+		UUID queriedUuid = UUID.randomUUID();
+		String missingName = "Missing";
+		when(nameValidator.validateNameArgument(any())).thenReturn(true);
+		uuidManager.addCache(cachedUuid, cachedName);
+		when(queryingImpl.resolveAll(Set.of("queried", "missing"))).thenReturn(
+				completedFuture(Map.of("queried", queriedUuid)));
+		when(envUserResolver.lookupUUID(name)).thenReturn(completedFuture(Optional.of(uuid)));
+		when(nameValidator.isVanillaName(missingName)).thenReturn(false);
+
+		assertEquals(
+				Map.of(cachedName, cachedUuid, queriedName, queriedUuid, name, uuid),
+				uuidManager.lookupUUIDsFromExactNames(List.of(cachedName, queriedName, missingName, name)).join()
+		);
+		assertEquals(queriedUuid, lookupUUID(queriedName), "uuid should be cached");
+		assertNull(lookupUUID(missingName), "miss should be cached");
+		verify(queryingImpl, never()).resolve(any(String.class));
+	}
+
+	@Test
+	public void bulkLookupUUIDsLimitsWebLookups() {
+		List<String> names = List.of("Alpha", "Bravo", "Charlie", "Delta", "Echo", "Foxtrot");
+		when(nameValidator.validateNameArgument(any())).thenReturn(true);
+		when(nameValidator.isVanillaName(any())).thenReturn(true);
+		when(queryingImpl.resolveAll(any())).thenReturn(completedFuture(Map.of()));
+
+		RemoteApiBundle remoteApiBundle = mock(RemoteApiBundle.class);
+		mockConfig(ServerType.ONLINE, remoteApiBundle);
+		List<CentralisedFuture<UUID>> webLookups = new ArrayList<>();
+		when(remoteApiBundle.lookup(any())).thenAnswer((invocation) -> {
+			CentralisedFuture<UUID> webLookup = futuresFactory.newIncompleteFuture();
+			webLookups.add(webLookup);
+			return webLookup;
+		});
+
+		CentralisedFuture<Map<String, UUID>> bulkLookup = uuidManager.lookupUUIDsFromExactNames(names);
+		assertEquals(4, webLookups.size(), "Web lookups should be limited");
+		List.copyOf(webLookups).forEach((webLookup) -> webLookup.complete(null));
+		assertEquals(6, webLookups.size());
+		webLookups.forEach((webLookup) -> webLookup.complete(null));
+		assertEquals(Map.of(), bulkLookup.join());
+	}
+
+	@Test
+	public void bulkLookupUUIDsComputeOffline() {
+		String cachedName = "Cached";
+		UUID cachedUuid = UUID.randomUUID();
+		when(nameValidator.validateNameArgument(any())).thenReturn(true);
+		uuidManager.addCache(cachedUuid, cachedName);
+		mockConfig(ServerType.OFFLINE, mock(RemoteApiBundle.class));
+
+		UUID offlineUuid = OfflineUUID.computeOfflineUuid(name);
+		assertEquals(
+				Map.of(cachedName, cachedUuid, name, offlineUuid),
+				uuidManager.lookupUUIDsFromExactNames(List.of(cachedName, name)).join()
+		);
+		assertEquals(offlineUuid, lookupUUID(name), "uuid should be cached");
+		verify(queryingImpl, never()).resolveAll(any());
+	}
+
 	@Test
 	public void badName() {
 		String badName = "lol_haha_dead";
@@ -22,17 +22,26 @@ package space.arim.libertybans.core.uuid;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import space.arim.api.util.web.HttpAshconApi;
+import space.arim.api.util.web.HttpMojangApi;
 import space.arim.api.util.web.RemoteApiResult;
 import space.arim.api.util.web.RemoteNameUUIDApi;
 import space.arim.omnibus.util.UUIDUtil;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -93,4 +102,90 @@ public class RemoteApiBundleTest {
 		verify(consistentRemoteApi).lookupUUID(name);
 		verify(consistentRemoteApi).lookupName(uuid);
 	}
+
+	private <T> CompletableFuture<RemoteApiResult<T>> failedResult() {
+		return CompletableFuture.failedFuture(new RuntimeException("Failed request"));
+	}
+
+	@Test
+	public void hedgedFirstResolverAnswers() {
+		RemoteNameUUIDApi firstRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(firstRemoteApi.lookupUUID(name)).thenReturn(completedResult(uuid));
+		RemoteNameUUIDApi secondRemoteApi = mock(RemoteNameUUIDApi.class);
+		RemoteApiBundle remoteApiBundle = new RemoteApiBundle(List.of(firstRemoteApi, secondRemoteApi));
+
+		assertEquals(uuid, remoteApiBundle.lookupHedged(
+				Duration.ofSeconds(10L), (remoteApi) -> remoteApi.lookupUUID(name)).join());
+		verify(secondRemoteApi, never()).lookupUUID(name);
+	}
+
+	@Test
+	public void hedgedSlowResolver() {
+		RemoteNameUUIDApi slowRemoteApi = mock(RemoteNameUUIDApi.class);
+		CompletableFuture<RemoteApiResult<UUID>> neverCompletes = new CompletableFuture<>();
+		when(slowRemoteApi.lookupUUID(name)).thenReturn(neverCompletes);
+		RemoteNameUUIDApi fastRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(fastRemoteApi.lookupUUID(name)).thenReturn(completedResult(uuid));
+		RemoteApiBundle remoteApiBundle = new RemoteApiBundle(List.of(slowRemoteApi, fastRemoteApi));
+
+		assertEquals(uuid, remoteApiBundle.lookupHedged(
+				Duration.ofMillis(50L), (remoteApi) -> remoteApi.lookupUUID(name)).join());
+		verify(slowRemoteApi).lookupUUID(name);
+		verify(fastRemoteApi).lookupUUID(name);
+	}
+
+	@Test
+	public void hedgedNotFoundMovesOnImmediately() {
+		RemoteNameUUIDApi firstRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(firstRemoteApi.lookupUUID(name)).thenReturn(emptyResult());
+		RemoteNameUUIDApi secondRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(secondRemoteApi.lookupUUID(name)).thenReturn(emptyResult());
+		RemoteApiBundle remoteApiBundle = new RemoteApiBundle(List.of(firstRemoteApi, secondRemoteApi));
+
+		// The hedge delay is never reached, since each API answers immediately
+		assertNull(remoteApiBundle.lookupHedged(
+				Duration.ofDays(1L), (remoteApi) -> remoteApi.lookupUUID(name)).join());
+		verify(firstRemoteApi).lookupUUID(name);
+		verify(secondRemoteApi).lookupUUID(name);
+	}
+
+	@Test
+	public void circuitBreakerOpensAndCloses() {
+		AtomicLong nanoTime = new AtomicLong();
+		RemoteNameUUIDApi failingRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(failingRemoteApi.lookupUUID(name)).thenReturn(failedResult());
+		RemoteNameUUIDApi workingRemoteApi = mock(RemoteNameUUIDApi.class);
+		when(workingRemoteApi.lookupUUID(name)).thenReturn(completedResult(uuid));
+		RemoteApiBundle remoteApiBundle = new RemoteApiBundle(List.of(failingRemoteApi, workingRemoteApi), nanoTime::get);
+		RemoteApiHealth failingHealth = remoteApiBundle.healths().get(0);
+
+		for (int n = 0; n < RemoteApiHealth.FAILURE_THRESHOLD; n++) {
+			assertFalse(failingHealth.isOpen(nanoTime.get()));
+			assertEquals(uuid, remoteApiBundle.lookup((remoteApi) -> remoteApi.lookupUUID(name)).join());
+		}
+		assertTrue(failingHealth.isOpen(nanoTime.get()));
+		assertTrue(failingHealth.errorRate() > 0);
+		assertEquals(uuid, remoteApiBundle.lookup((remoteApi) -> remoteApi.lookupUUID(name)).join());
+		verify(failingRemoteApi, times(RemoteApiHealth.FAILURE_THRESHOLD)).lookupUUID(name);
+
+		nanoTime.addAndGet(RemoteApiHealth.OPEN_DURATION_NANOS);
+		assertFalse(failingHealth.isOpen(nanoTime.get()));
+		assertEquals(uuid, remoteApiBundle.lookup((remoteApi) -> remoteApi.lookupUUID(name)).join());
+		assertTrue(failingHealth.isOpen(nanoTime.get()), "A single failure should re-open the circuit");
+	}
+
+	@Test
+	public void equalIfSameRemoteApis() {
+		HttpClient httpClient = HttpClient.newHttpClient();
+		HttpClient otherHttpClient = HttpClient.newHttpClient();
+		RemoteApiBundle bundle = new RemoteApiBundle(
+				List.of(HttpAshconApi.create(httpClient), HttpMojangApi.create(httpClient)));
+		RemoteApiBundle reloadedBundle = new RemoteApiBundle(
+				List.of(HttpAshconApi.create(otherHttpClient), HttpMojangApi.create(otherHttpClient)));
+		assertEquals(bundle, reloadedBundle);
+		assertEquals(bundle.hashCode(), reloadedBundle.hashCode());
+		assertNotEquals(bundle, new RemoteApiBundle(
+				List.of(HttpMojangApi.create(httpClient), HttpAshconApi.create(httpClient))),
+				"The order of remote APIs matters");
+	}
 }
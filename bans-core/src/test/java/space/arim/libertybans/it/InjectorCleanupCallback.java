@@ -23,6 +23,7 @@ import org.junit.jupiter.api.extension.AfterEachCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import space.arim.injector.Injector;
 import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.punish.EnactionIdCache;
 import space.arim.libertybans.core.punish.sync.SQLSynchronizationMessenger;
 import space.arim.libertybans.core.service.SettableTime;
 
@@ -38,6 +39,7 @@ final class InjectorCleanupCallback implements AfterEachCallback {
 	public void afterEach(ExtensionContext context) throws Exception {
 		// Reset database
 		injector.request(InternalDatabase.class).truncateAllTables();
+		injector.request(EnactionIdCache.class).clear();
 		// Reset global clock
 		injector.request(SettableTime.class).reset();
 		// Reset synchronization
@@ -0,0 +1,132 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.applicable;
+
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.AddressVictim;
+import space.arim.libertybans.api.CompositeVictim;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.api.select.PunishmentSelector;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetAddressStrictness;
+import space.arim.libertybans.it.util.RandomUtil;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+public class BulkApplicableIT {
+
+	private final PunishmentDrafter drafter;
+	private final PunishmentSelector selector;
+	private final StrictnessAssertHelper assertHelper;
+
+	@Inject
+	public BulkApplicableIT(PunishmentDrafter drafter, PunishmentSelector selector,
+							StrictnessAssertHelper assertHelper) {
+		this.drafter = drafter;
+		this.selector = selector;
+		this.assertHelper = assertHelper;
+	}
+
+	private void addPunishment(PunishmentType type, Victim victim, Duration duration) {
+		drafter.draftBuilder()
+				.type(type)
+				.victim(victim)
+				.reason("bulk applicability")
+				.duration(duration)
+				.build()
+				.enactPunishment()
+				.toCompletableFuture()
+				.join()
+				.orElseThrow(AssertionError::new);
+	}
+
+	private Map<UUID, Punishment> individually(Map<UUID, NetworkAddress> users, PunishmentType type) {
+		Map<UUID, Punishment> applicable = new HashMap<>();
+		users.forEach((uuid, address) -> {
+			selector.getApplicablePunishment(uuid, address, type)
+					.toCompletableFuture().join()
+					.ifPresent((punishment) -> applicable.put(uuid, punishment));
+		});
+		return applicable;
+	}
+
+	private Map<UUID, Punishment> inBulk(Map<UUID, NetworkAddress> users, PunishmentType type) {
+		return selector.getApplicablePunishments(users, type).toCompletableFuture().join();
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(all = true)
+	public void sameAsIndividually() {
+		NetworkAddress commonAddress = RandomUtil.randomAddress();
+		List<User> users = List.of(
+				User.randomUser(), User.randomUser(), User.randomUser(), User.randomUser(), User.randomUser(),
+				new User(UUID.randomUUID(), commonAddress), new User(UUID.randomUUID(), commonAddress)
+		);
+		Map<UUID, NetworkAddress> online = new HashMap<>();
+		for (User user : users) {
+			assertHelper.connectAndAssumeUnbannedUser(user.uuid(), "name", user.address());
+			online.put(user.uuid(), user.address());
+		}
+		// Link the first user to the common address in the past
+		assertHelper.connectAndAssumeUnbannedUser(users.get(0).uuid(), "name", commonAddress);
+
+		addPunishment(PunishmentType.BAN, PlayerVictim.of(users.get(1).uuid()), Duration.ZERO);
+		addPunishment(PunishmentType.BAN, AddressVictim.of(users.get(2).address()), Duration.ofHours(1L));
+		addPunishment(PunishmentType.BAN, CompositeVictim.of(users.get(3).uuid(), users.get(3).address()), Duration.ZERO);
+		addPunishment(PunishmentType.BAN, AddressVictim.of(commonAddress), Duration.ofDays(1L));
+		addPunishment(PunishmentType.MUTE, PlayerVictim.of(users.get(4).uuid()), Duration.ZERO);
+
+		Map<UUID, Punishment> expectedBans = individually(online, PunishmentType.BAN);
+		assertTrue(expectedBans.size() >= 5, "Most users are banned");
+		assertEquals(expectedBans, inBulk(online, PunishmentType.BAN));
+		assertEquals(individually(online, PunishmentType.MUTE), inBulk(online, PunishmentType.MUTE));
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(all = true)
+	public void noUsers() {
+		assertTrue(inBulk(Map.of(), PunishmentType.BAN).isEmpty());
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(all = true)
+	public void kicksNeverApplicable() {
+		User user = User.randomUser();
+		assertHelper.connectAndAssumeUnbannedUser(user.uuid(), "name", user.address());
+		addPunishment(PunishmentType.KICK, PlayerVictim.of(user.uuid()), Duration.ZERO);
+		assertTrue(inBulk(Map.of(user.uuid(), user.address()), PunishmentType.KICK).isEmpty());
+	}
+
+}
@@ -92,6 +92,7 @@ public class OptimizedQueriesIT {
 			case LENIENT -> context
 					.select(
 							simpleView.victimType(), simpleView.victimUuid(), simpleView.victimAddress(),
+							simpleView.victimPrefix(),
 							simpleView.operator(), simpleView.reason(), simpleView.scopeType(), simpleView.scope(),
 							simpleView.start(), simpleView.end(), simpleView.track(), simpleView.id()
 					)
@@ -103,6 +104,7 @@ public class OptimizedQueriesIT {
 			case NORMAL -> context
 					.select(
 							applView.victimType(), applView.victimUuid(), applView.victimAddress(),
+							applView.victimPrefix(),
 							applView.operator(), applView.reason(), applView.scopeType(), applView.scope(),
 							applView.start(), applView.end(), applView.track(), applView.id()
 					).from(applView.table())
@@ -113,6 +115,7 @@ public class OptimizedQueriesIT {
 			case STERN, STRICT -> context
 					.select(
 							applView.victimType(), applView.victimUuid(), applView.victimAddress(),
+							applView.victimPrefix(),
 							applView.operator(), applView.reason(), applView.scopeType(), applView.scope(),
 							applView.start(), applView.end(), applView.track(), applView.id()
 					).from(applView.table())
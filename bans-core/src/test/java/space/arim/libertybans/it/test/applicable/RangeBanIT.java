@@ -0,0 +1,155 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.applicable;
+
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.ConsoleOperator;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
+import space.arim.libertybans.api.punish.EnforcementOptions;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.api.select.AddressStrictness;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.punish.Enaction;
+import space.arim.libertybans.core.punish.EnforcementOpts;
+import space.arim.libertybans.core.punish.PunishmentCreator;
+import space.arim.libertybans.core.scope.InternalScopeManager;
+import space.arim.libertybans.core.selector.Guardian;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetAddressStrictness;
+import space.arim.libertybans.it.util.RandomUtil;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+public class RangeBanIT {
+
+	private final StrictnessAssertHelper assertHelper;
+	private final Guardian guardian;
+
+	@Inject
+	public RangeBanIT(StrictnessAssertHelper helper, Guardian guardian) {
+		this.assertHelper = helper;
+		this.guardian = guardian;
+	}
+
+	private static NetworkAddress ipv4(byte[] network, int lastOctet) {
+		byte[] address = network.clone();
+		address[3] = (byte) lastOctet;
+		return NetworkAddress.of(address);
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(AddressStrictness.LENIENT)
+	public void enforceRangeBan() {
+		byte[] network = RandomUtil.randomBytes(4);
+		network[3] = 0;
+		NetworkAddress insideAddress = ipv4(network, 17);
+		NetworkAddress otherInsideAddress = ipv4(network, 250);
+		byte[] outsideNetwork = network.clone();
+		outsideNetwork[2] ^= 1;
+		NetworkAddress outsideAddress = ipv4(outsideNetwork, 17);
+
+		UUID user = UUID.randomUUID();
+		UUID otherUser = UUID.randomUUID();
+		assertHelper.connectAndAssumeUnbannedUser(user, "namesdontmatter", insideAddress);
+		assertHelper.connectAndAssumeUnbannedUser(otherUser, "yesreally", outsideAddress);
+
+		assertHelper.banVictim(RangeVictim.of(NetworkAddress.of(network), 24), "Range is banned");
+
+		assertHelper.assertBanned(user, insideAddress, "Address is within banned range");
+		assertHelper.assertBanned(otherUser, otherInsideAddress, "Address is within banned range");
+		assertNotNull(guardian.executeAndCheckConnection(otherUser, "yesreally", otherInsideAddress).join(),
+				"Connections from within the range are denied");
+		// Ensure no overreach, even though the user was banned from another address
+		assertHelper.assertNotBanned(otherUser, outsideAddress, "Address is outside banned range");
+		assertHelper.assertNotBanned(user, outsideAddress, "Range bans do not extend to alts");
+	}
+
+	private static EnforcementOptions noEnforcement() {
+		return EnforcementOpts.builder().enforcement(EnforcementOptions.Enforcement.NONE).build();
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(AddressStrictness.LENIENT)
+	public void enforceRangeBanFromAnotherInstance(InternalDatabase database, PunishmentCreator creator,
+												   InternalScopeManager scopeManager, Time time,
+												   RangePunishmentCache rangePunishmentCache) {
+		byte[] network = RandomUtil.randomBytes(4);
+		network[3] = 0;
+		NetworkAddress insideAddress = ipv4(network, 17);
+		UUID user = UUID.randomUUID();
+		assertHelper.connectAndAssumeUnbannedUser(user, "otherinstance", insideAddress);
+
+		// Write the ban directly, as another instance would, bypassing this instance's enforcement
+		Enaction enaction = new Enaction(new Enaction.OrderDetails(
+				PunishmentType.BAN, RangeVictim.of(NetworkAddress.of(network), 24), ConsoleOperator.INSTANCE,
+				"Banned on another instance", scopeManager.globalScope(), time.currentTimestamp(),
+				Punishment.PERMANENT_END_DATE, null
+		), creator);
+		Punishment ban = database.queryWithRetry(enaction::enactActive).join();
+		assertNull(rangePunishmentCache.findApplicable(PunishmentType.BAN, insideAddress, (scope) -> true),
+				"Not yet known to this instance");
+
+		// As happens periodically
+		rangePunishmentCache.restart();
+		assertNotNull(guardian.executeAndCheckConnection(user, "otherinstance", insideAddress).join(),
+				"Range ban from another instance is enforced at login after reloading");
+
+		ban.undoPunishment(noEnforcement()).toCompletableFuture().join();
+		assertNull(guardian.executeAndCheckConnection(user, "otherinstance", insideAddress).join(),
+				"Range ban revoked on another instance no longer applies");
+	}
+
+	@TestTemplate
+	@SetAddressStrictness(AddressStrictness.LENIENT)
+	public void enforceRangeBanWithoutEnforcement(PunishmentDrafter drafter,
+												  RangePunishmentCache rangePunishmentCache) {
+		byte[] network = RandomUtil.randomBytes(4);
+		network[3] = 0;
+		NetworkAddress insideAddress = ipv4(network, 17);
+		UUID user = UUID.randomUUID();
+		assertHelper.connectAndAssumeUnbannedUser(user, "noenforcement", insideAddress);
+
+		Punishment ban = drafter.draftBuilder()
+				.type(PunishmentType.BAN)
+				.victim(RangeVictim.of(NetworkAddress.of(network), 24))
+				.reason("Range is banned without enforcement")
+				.build()
+				.enactPunishment(noEnforcement())
+				.toCompletableFuture().join().orElse(null);
+		assertNotNull(ban);
+
+		// As happens periodically
+		rangePunishmentCache.restart();
+		assertNotNull(guardian.executeAndCheckConnection(user, "noenforcement", insideAddress).join(),
+				"Range ban enacted without enforcement applies to the next login after reloading");
+	}
+
+}
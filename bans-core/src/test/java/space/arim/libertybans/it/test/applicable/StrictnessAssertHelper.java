@@ -32,8 +32,10 @@ import space.arim.libertybans.it.env.platform.QuackPlatform;
 import space.arim.libertybans.it.env.platform.QuackPlayer;
 import space.arim.libertybans.it.env.platform.QuackPlayerBuilder;
 
+import java.util.Map;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -80,10 +82,16 @@ public class StrictnessAssertHelper {
 	}
 
 	private Punishment getBan(UUID uuid, NetworkAddress address) {
-		return selector
+		Punishment ban = selector
 				.getApplicablePunishment(uuid, address, PunishmentType.BAN)
 				.toCompletableFuture()
 				.join().orElse(null);
+		Punishment bulkBan = selector
+				.getApplicablePunishments(Map.of(uuid, address), PunishmentType.BAN)
+				.toCompletableFuture()
+				.join().get(uuid);
+		assertEquals(ban, bulkBan, "Bulk applicability must agree with individual applicability");
+		return ban;
 	}
 
 	void assertBanned(UUID uuid, NetworkAddress address, String assertion) {
@@ -106,6 +106,10 @@ public class OfflineNamesIT {
 		tabCompletion.startup();
 
 		assertEquals(Set.of("Sender", "Player1", "Player2"),
-				tabCompletion.completeOfflinePlayerNames(sender).collect(Collectors.toUnmodifiableSet()));
+				tabCompletion.completeOfflinePlayerNames(sender, "").collect(Collectors.toUnmodifiableSet()));
+		assertEquals(Set.of("Player1", "Player2"),
+				tabCompletion.completeOfflinePlayerNames(sender, "play").collect(Collectors.toUnmodifiableSet()));
+		assertEquals(Set.of(),
+				tabCompletion.completeOfflinePlayerNames(sender, "player3").collect(Collectors.toUnmodifiableSet()));
 	}
 }
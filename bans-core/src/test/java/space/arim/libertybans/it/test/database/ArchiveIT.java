@@ -0,0 +1,235 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.database;
+
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.Operator;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EscalationTrack;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.punish.PunishmentRevoker;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.api.select.PunishmentSelector;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.sql.PunishmentArchive;
+import space.arim.libertybans.core.punish.Enaction;
+import space.arim.libertybans.core.punish.PunishmentCreator;
+import space.arim.libertybans.core.scope.InternalScopeManager;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.resolver.RandomOperatorResolver;
+import space.arim.libertybans.it.resolver.RandomVictimResolver;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static space.arim.libertybans.core.schema.tables.ArchivedPunishments.ARCHIVED_PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.Punishments.PUNISHMENTS;
+import static space.arim.libertybans.core.schema.tables.TrackCounts.TRACK_COUNTS;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+@ExtendWith({RandomVictimResolver.class, RandomOperatorResolver.class})
+public class ArchiveIT {
+
+	private static final int BATCH_SIZE = 100;
+
+	private final InternalDatabase database;
+	private final PunishmentCreator creator;
+	private final PunishmentSelector selector;
+	private final PunishmentRevoker revoker;
+	private final ServerScope scope;
+	private final Instant currentTime;
+	private final Instant archiveBefore;
+
+	@Inject
+	public ArchiveIT(InternalDatabase database, PunishmentCreator creator, PunishmentSelector selector,
+					 PunishmentRevoker revoker, InternalScopeManager scopeManager, Time time) {
+		this.database = database;
+		this.creator = creator;
+		this.selector = selector;
+		this.revoker = revoker;
+		scope = scopeManager.globalScope();
+		currentTime = time.currentTimestamp();
+		archiveBefore = daysAgo(30L);
+	}
+
+	private Instant daysAgo(long days) {
+		return currentTime.minus(Duration.ofDays(days));
+	}
+
+	private Punishment enact(PunishmentType type, Victim victim, Operator operator, Instant start, Instant end,
+							 EscalationTrack escalationTrack, boolean active) {
+		Enaction enaction = new Enaction(new Enaction.OrderDetails(
+				type, victim, operator, "archive", scope, start, end, escalationTrack
+		), creator);
+		return database.queryWithRetry((context, transaction) -> {
+			return active ? enaction.enactActive(context, transaction) : enaction.enactHistorical(context);
+		}).join();
+	}
+
+	private Punishment enactHistorical(PunishmentType type, Victim victim, Operator operator,
+									   Instant start, Instant end) {
+		return enact(type, victim, operator, start, end, null, false);
+	}
+
+	private int archive() {
+		return database.queryWithRetry((context, transaction) -> {
+			return new PunishmentArchive(context).archiveExpired(archiveBefore, BATCH_SIZE);
+		}).join();
+	}
+
+	private boolean isLive(Punishment punishment) {
+		return database.query((context) -> {
+			return context.fetchExists(PUNISHMENTS, PUNISHMENTS.ID.eq(punishment.getIdentifier()));
+		}).join();
+	}
+
+	private boolean isArchived(Punishment punishment) {
+		return database.query((context) -> {
+			return context.fetchExists(ARCHIVED_PUNISHMENTS, ARCHIVED_PUNISHMENTS.ID.eq(punishment.getIdentifier()));
+		}).join();
+	}
+
+	private int trackCountTotal() {
+		return database.query((context) -> {
+			return context
+					.select(TRACK_COUNTS.TOTAL)
+					.from(TRACK_COUNTS)
+					.fetch(TRACK_COUNTS.TOTAL)
+					.stream().mapToInt(Integer::intValue).sum();
+		}).join();
+	}
+
+	private boolean expunge(Punishment punishment) {
+		return revoker.expungePunishment(punishment.getIdentifier()).expunge().toCompletableFuture().join();
+	}
+
+	@TestTemplate
+	public void archiveOnlyBeforeCutoff(Victim victim, Operator operator) {
+		Punishment oldBan = enactHistorical(PunishmentType.BAN, victim, operator, daysAgo(100L), daysAgo(60L));
+		Punishment oldKick = enactHistorical(
+				PunishmentType.KICK, victim, operator, daysAgo(90L), Punishment.PERMANENT_END_DATE);
+		Punishment recentBan = enactHistorical(PunishmentType.BAN, victim, operator, daysAgo(50L), daysAgo(10L));
+		Punishment recentKick = enactHistorical(
+				PunishmentType.KICK, victim, operator, daysAgo(5L), Punishment.PERMANENT_END_DATE);
+
+		assertEquals(2, archive());
+		assertTrue(isArchived(oldBan));
+		assertFalse(isLive(oldBan));
+		assertTrue(isArchived(oldKick));
+		assertFalse(isLive(oldKick));
+		assertTrue(isLive(recentBan), "Expired after the cutoff");
+		assertFalse(isArchived(recentBan));
+		assertTrue(isLive(recentKick), "Issued after the cutoff");
+		assertFalse(isArchived(recentKick));
+
+		assertEquals(0, archive(), "Nothing further to archive");
+	}
+
+	@TestTemplate
+	public void activePunishmentsStayPut(Victim victim, Operator operator) {
+		// Expired long ago, but not yet cleared from the bans table
+		Punishment expiredBan = enact(
+				PunishmentType.BAN, victim, operator, daysAgo(100L), daysAgo(60L), null, true);
+		Punishment permanentMute = enact(
+				PunishmentType.MUTE, victim, operator, daysAgo(100L), Punishment.PERMANENT_END_DATE, null, true);
+		Punishment revokedPermanentBan = enactHistorical(
+				PunishmentType.BAN, victim, operator, daysAgo(100L), Punishment.PERMANENT_END_DATE);
+
+		assertEquals(0, archive());
+		for (Punishment punishment : List.of(expiredBan, permanentMute, revokedPermanentBan)) {
+			assertTrue(isLive(punishment));
+			assertFalse(isArchived(punishment));
+		}
+	}
+
+	@TestTemplate
+	public void selectIncludingArchived(Victim victim, Operator operator) {
+		Punishment oldWarn = enactHistorical(PunishmentType.WARN, victim, operator, daysAgo(100L), daysAgo(60L));
+		Punishment recentWarn = enactHistorical(PunishmentType.WARN, victim, operator, daysAgo(20L), daysAgo(10L));
+		assertEquals(1, archive());
+
+		List<Punishment> live = selector.selectionBuilder()
+				.victim(victim)
+				.selectAll()
+				.build()
+				.getAllSpecificPunishments()
+				.toCompletableFuture().join();
+		assertEquals(List.of(recentWarn.getIdentifier()), live.stream().map(Punishment::getIdentifier).toList(),
+				"Archived punishments are not selected by default");
+
+		List<Punishment> withArchived = selector.selectionBuilder()
+				.victim(victim)
+				.selectAll()
+				.includeArchived(true)
+				.build()
+				.getAllSpecificPunishments()
+				.toCompletableFuture().join();
+		assertEquals(
+				Set.of(recentWarn.getIdentifier(), oldWarn.getIdentifier()),
+				withArchived.stream().map(Punishment::getIdentifier).collect(Collectors.toUnmodifiableSet())
+		);
+	}
+
+	@TestTemplate
+	public void expungeArchived(Victim victim, Operator operator) {
+		Punishment oldMute = enactHistorical(PunishmentType.MUTE, victim, operator, daysAgo(100L), daysAgo(60L));
+		assertEquals(1, archive());
+		assumeArchived(oldMute);
+
+		assertTrue(expunge(oldMute));
+		assertFalse(isArchived(oldMute));
+		assertFalse(isLive(oldMute));
+		assertFalse(expunge(oldMute), "Already expunged");
+	}
+
+	private void assumeArchived(Punishment punishment) {
+		assertTrue(isArchived(punishment), "Punishment " + punishment + " should be archived");
+	}
+
+	@TestTemplate
+	public void trackCountsSurviveArchiving(Victim victim, Operator operator) {
+		EscalationTrack track = EscalationTrack.create("archive", "spam");
+		Punishment firstWarn = enact(
+				PunishmentType.WARN, victim, operator, daysAgo(100L), daysAgo(60L), track, false);
+		Punishment secondWarn = enact(
+				PunishmentType.WARN, victim, operator, daysAgo(90L), daysAgo(50L), track, false);
+		enact(PunishmentType.WARN, victim, operator, daysAgo(5L), Punishment.PERMANENT_END_DATE, track, false);
+		assertEquals(3, trackCountTotal());
+
+		assertEquals(2, archive());
+		assumeArchived(firstWarn);
+		assumeArchived(secondWarn);
+		assertEquals(3, trackCountTotal(), "Archived punishments still count towards escalation");
+
+		assertTrue(expunge(firstWarn));
+		assertEquals(2, trackCountTotal(), "Expunging an archived punishment uncounts it");
+	}
+
+}
@@ -41,7 +41,7 @@ public class DatabaseRequirementsIT {
 		Vendor vendor = database.getVendor();
 		try (Connection connection = database.getConnection()) {
 			assertDoesNotThrow(
-					new DatabaseRequirements(vendor, connection)::checkRequirementsAndYieldRetroSupport);
+					() -> new DatabaseRequirements(vendor, connection).checkRequirementsAndYieldRetroSupport(true));
 		}
 	}
 
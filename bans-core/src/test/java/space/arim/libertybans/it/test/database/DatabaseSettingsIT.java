@@ -79,6 +79,7 @@ public class DatabaseSettingsIT {
 		when(timeouts.connectionTimeoutSeconds()).thenReturn(30);
 		when(timeouts.maxLifetimeMinutes()).thenReturn(15);
 		when(sqlConfig.timeouts()).thenReturn(timeouts);
+		when(sqlConfig.readReplica()).thenReturn(mock(SqlConfig.ReadReplica.class));
 		return sqlConfig;
 	}
 
@@ -0,0 +1,197 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.database;
+
+import space.arim.libertybans.core.database.Vendor;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The execution plan of a statement, as described by the database's EXPLAIN facility. <br>
+ * <br>
+ * The row counts are approximate and their meaning depends on the vendor. HSQLDB only reports
+ * the size of tables which it scans fully. MariaDB and MySQL report estimates per table access,
+ * which are multiplied along the join order.
+ * PostgreSQL executes the statement in a rolled back transaction and reports the rows actually read.
+ *
+ * @param sql the explained statement
+ * @param accesses each access of a table made by the statement
+ */
+record QueryPlan(String sql, List<TableAccess> accesses) {
+
+	/**
+	 * Full scans of tables smaller than this are tolerated. Databases sensibly prefer
+	 * scanning tiny tables, such as those holding scopes and tracks, to using an index.
+	 */
+	static final long FULL_SCAN_THRESHOLD = 100L;
+
+	record TableAccess(String table, boolean fullScan, long rowsExamined) { }
+
+	List<TableAccess> fullScans() {
+		return accesses.stream()
+				.filter((access) -> access.fullScan() && access.rowsExamined() >= FULL_SCAN_THRESHOLD)
+				.toList();
+	}
+
+	long rowsExamined() {
+		return accesses.stream().mapToLong(TableAccess::rowsExamined).sum();
+	}
+
+	static boolean isExplainable(String sql) {
+		String start = sql.stripLeading().toLowerCase(Locale.ROOT);
+		return start.startsWith("select") || start.startsWith("with")
+				|| start.startsWith("delete") || start.startsWith("update");
+	}
+
+	static QueryPlan explain(Connection connection, Vendor vendor, String sql) throws SQLException {
+		List<TableAccess> accesses = switch (vendor) {
+			case HSQLDB -> explainHsqldb(connection, sql);
+			case MARIADB, MYSQL -> explainMySQLLike(connection, sql);
+			case POSTGRES -> explainPostgres(connection, sql);
+			default -> throw new UnsupportedOperationException("Cannot explain queries on " + vendor);
+		};
+		return new QueryPlan(sql, List.copyOf(accesses));
+	}
+
+	private static List<TableAccess> explainHsqldb(Connection connection, String sql) throws SQLException {
+		// HSQLDB describes views as tables of their own. Only base tables are of interest
+		Set<String> baseTables = new HashSet<>();
+		DatabaseMetaData metaData = connection.getMetaData();
+		try (ResultSet tables = metaData.getTables(null, null, "%", new String[] {"TABLE"})) {
+			while (tables.next()) {
+				baseTables.add(tables.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+			}
+		}
+		List<TableAccess> accesses = new ArrayList<>();
+		try (Statement statement = connection.createStatement();
+			 ResultSet plan = statement.executeQuery("EXPLAIN PLAN FOR " + sql)) {
+
+			String table = null;
+			long cardinality = 0L;
+			while (plan.next()) {
+				for (String line : plan.getString(1).split("\n")) {
+					line = line.strip();
+					if (line.startsWith("table=")) {
+						table = line.substring("table=".length()).toLowerCase(Locale.ROOT);
+					} else if (line.startsWith("cardinality=")) {
+						cardinality = Long.parseLong(line.substring("cardinality=".length()));
+					} else if (line.startsWith("access=") && baseTables.contains(table)) {
+						boolean fullScan = line.equals("access=FULL SCAN");
+						accesses.add(new TableAccess(table, fullScan, (fullScan) ? cardinality : 0L));
+					}
+				}
+			}
+		}
+		return accesses;
+	}
+
+	private static List<TableAccess> explainMySQLLike(Connection connection, String sql) throws SQLException {
+		List<TableAccess> accesses = new ArrayList<>();
+		try (Statement statement = connection.createStatement();
+			 ResultSet plan = statement.executeQuery("EXPLAIN " + sql)) {
+
+			long selectId = -1L;
+			long joinedRows = 1L;
+			while (plan.next()) {
+				String table = plan.getString("table");
+				String type = plan.getString("type");
+				long id = plan.getLong("id");
+				long rows = plan.getLong("rows");
+				if (table == null || plan.wasNull()) {
+					// No table accessed, e.g. 'Impossible WHERE' or the result of a UNION
+					continue;
+				}
+				if (id != selectId) {
+					selectId = id;
+					joinedRows = 1L;
+				}
+				// Each table is accessed once for every row joined from the preceding tables
+				joinedRows *= Math.max(rows, 1L);
+				// 'index' denotes a scan of the entire index, which is no better than a table scan
+				boolean fullScan = "ALL".equals(type) || "index".equals(type);
+				accesses.add(new TableAccess(table, fullScan, joinedRows));
+			}
+		}
+		return accesses;
+	}
+
+	private static final Pattern POSTGRES_SCAN = Pattern.compile(
+			"(?<!Bitmap )(?:Parallel )?(Seq Scan|Index Only Scan|Index Scan|Bitmap Heap Scan)(?: Backward)?(?: using \\S+)? on (\\S+)"
+	);
+	private static final Pattern POSTGRES_ACTUAL = Pattern.compile("actual time=\\S+ rows=(\\d+) loops=(\\d+)");
+	private static final Pattern POSTGRES_REMOVED = Pattern.compile("Rows Removed by (?:Filter|Index Recheck): (\\d+)");
+
+	private static List<TableAccess> explainPostgres(Connection connection, String sql) throws SQLException {
+		List<TableAccess> accesses = new ArrayList<>();
+		boolean autoCommit = connection.getAutoCommit();
+		// EXPLAIN ANALYZE executes the statement, so make sure to undo its effects
+		connection.setAutoCommit(false);
+		try (Statement statement = connection.createStatement();
+			 ResultSet plan = statement.executeQuery("EXPLAIN (ANALYZE, FORMAT TEXT) " + sql)) {
+
+			String table = null;
+			boolean fullScan = false;
+			long rows = 0L, loops = 0L, removed = 0L;
+			while (plan.next()) {
+				String line = plan.getString(1);
+				Matcher scan = POSTGRES_SCAN.matcher(line);
+				if (scan.find()) {
+					if (table != null) {
+						accesses.add(new TableAccess(table, fullScan, (rows + removed) * loops));
+					}
+					table = scan.group(2);
+					fullScan = scan.group(1).equals("Seq Scan");
+					rows = 0L;
+					loops = 0L;
+					removed = 0L;
+					Matcher actual = POSTGRES_ACTUAL.matcher(line);
+					if (actual.find()) {
+						rows = Long.parseLong(actual.group(1));
+						loops = Long.parseLong(actual.group(2));
+					}
+					continue;
+				}
+				Matcher removal = POSTGRES_REMOVED.matcher(line);
+				if (table != null && removal.find()) {
+					removed += Long.parseLong(removal.group(1));
+				}
+			}
+			if (table != null) {
+				accesses.add(new TableAccess(table, fullScan, (rows + removed) * loops));
+			}
+		} finally {
+			connection.rollback();
+			connection.setAutoCommit(autoCommit);
+		}
+		return accesses;
+	}
+
+}
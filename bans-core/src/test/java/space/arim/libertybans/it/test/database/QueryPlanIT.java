@@ -0,0 +1,363 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.database;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.AddressVictim;
+import space.arim.libertybans.api.CompositeVictim;
+import space.arim.libertybans.api.ConsoleOperator;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EnforcementOptions;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.api.select.AddressStrictness;
+import space.arim.libertybans.api.select.SelectionPredicate;
+import space.arim.libertybans.core.alts.AltDetection;
+import space.arim.libertybans.core.alts.ConnectionLimitConfig;
+import space.arim.libertybans.core.alts.ConnectionLimiter;
+import space.arim.libertybans.core.alts.WhichAlts;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.config.MainConfig;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.env.EnvUserResolver;
+import space.arim.libertybans.core.punish.Association;
+import space.arim.libertybans.core.punish.Enaction;
+import space.arim.libertybans.core.punish.EnforcementOpts;
+import space.arim.libertybans.core.punish.GlobalEnforcement;
+import space.arim.libertybans.core.punish.PunishmentCreator;
+import space.arim.libertybans.core.punish.Revoker;
+import space.arim.libertybans.core.scope.InternalScopeManager;
+import space.arim.libertybans.core.selector.EnforcementConfig;
+import space.arim.libertybans.core.selector.Gatekeeper;
+import space.arim.libertybans.core.selector.IDImpl;
+import space.arim.libertybans.core.selector.SelectionResources;
+import space.arim.libertybans.core.selector.SelectorImpl;
+import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.core.selector.cache.RangePunishmentCache;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.core.uuid.CachingUUIDManager;
+import space.arim.libertybans.core.uuid.NameValidator;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetVendor;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static space.arim.libertybans.it.util.RandomUtil.randomAddress;
+
+/**
+ * Runs EXPLAIN on the queries generated by the plugin against a seeded dataset. Fails if a
+ * point lookup stops using an index, or if any query examines more rows than its budget.
+ *
+ */
+@ExtendWith(InjectionInvocationContextProvider.class)
+public class QueryPlanIT {
+
+	private static final int PLAYERS = 1_000;
+	private static final int PUNISHMENTS_PER_TYPE = PLAYERS / 4;
+
+	/**
+	 * Budget for lookups by name, uuid, or address, which should read only a handful of rows
+	 */
+	private static final long POINT_LOOKUP_BUDGET = 50L;
+	/**
+	 * Budget for all other queries. Queries over the punishment views may legitimately read
+	 * entire tables, but a join which multiplies the rows examined will exceed this budget
+	 */
+	private static final long ROW_BUDGET = 10L * PLAYERS;
+
+	private final InternalDatabase database;
+	private final FactoryOfTheFuture futuresFactory;
+	private final Time time;
+
+	private final List<Player> players = new ArrayList<>();
+	private final Map<PunishmentType, List<Punishment>> punishments = new EnumMap<>(PunishmentType.class);
+
+	@Inject
+	public QueryPlanIT(InternalDatabase database, FactoryOfTheFuture futuresFactory, Time time) {
+		this.database = database;
+		this.futuresFactory = futuresFactory;
+		this.time = time;
+	}
+
+	private record Player(UUID uuid, String name, NetworkAddress address) { }
+
+	private void seedDataset(PunishmentCreator creator, InternalScopeManager scopeManager) throws SQLException {
+		Instant currentTime = time.currentTimestamp();
+		ServerScope globalScope = scopeManager.globalScope();
+		database.executeWithRetry((context, transaction) -> {
+			players.clear();
+			punishments.clear();
+			for (int n = 0; n < PLAYERS; n++) {
+				Player player = new Player(UUID.randomUUID(), "QueryPlan" + n, randomAddress());
+				Association association = new Association(player.uuid(), context);
+				association.associateCurrentName(player.name(), currentTime);
+				association.associateCurrentAddress(player.address(), currentTime);
+				if (n % 4 == 3) {
+					// Every fourth player is an alt of the previous player
+					association.associatePastAddress(players.get(n - 1).address(), currentTime.minus(Duration.ofDays(1L)));
+				}
+				players.add(player);
+			}
+			PunishmentType[] types = PunishmentType.values();
+			for (int t = 0; t < types.length; t++) {
+				PunishmentType type = types[t];
+				List<Punishment> punishmentsOfType = new ArrayList<>();
+				for (int n = 0; n < PUNISHMENTS_PER_TYPE; n++) {
+					Player player = players.get(t * PUNISHMENTS_PER_TYPE + n);
+					Victim victim = switch (n % 3) {
+						case 0 -> PlayerVictim.of(player.uuid());
+						case 1 -> AddressVictim.of(player.address());
+						default -> CompositeVictim.of(player.uuid(), player.address());
+					};
+					Instant end = (n % 2 == 0) ? Punishment.PERMANENT_END_DATE : currentTime.plus(Duration.ofDays(30L));
+					Enaction enaction = new Enaction(new Enaction.OrderDetails(
+							type, victim, ConsoleOperator.INSTANCE, "query plan", globalScope,
+							currentTime.minusSeconds(PUNISHMENTS_PER_TYPE - n), end, null
+					), creator);
+					Punishment punishment = (type == PunishmentType.KICK) ?
+							enaction.enactHistorical(context) : enaction.enactActive(context, transaction);
+					punishmentsOfType.add(punishment);
+				}
+				punishments.put(type, punishmentsOfType);
+			}
+		}).join();
+		// Give the query planner up-to-date statistics
+		try (Connection connection = database.getConnection();
+			 Statement statement = connection.createStatement()) {
+			switch (database.getVendor()) {
+			case POSTGRES -> statement.execute("ANALYZE");
+			case MARIADB, MYSQL -> {
+				DatabaseMetaData metaData = connection.getMetaData();
+				List<String> tables = new ArrayList<>();
+				try (ResultSet tableResults = metaData.getTables(connection.getCatalog(), null, "%", new String[] {"TABLE"})) {
+					while (tableResults.next()) {
+						tables.add(tableResults.getString("TABLE_NAME"));
+					}
+				}
+				for (String table : tables) {
+					statement.execute("ANALYZE TABLE " + table);
+				}
+			}
+			default -> {}
+			}
+			if (!connection.getAutoCommit()) {
+				connection.commit();
+			}
+		}
+	}
+
+	private List<QueryPlan> explainQueries(Consumer<RecordingDatabase> action) throws SQLException {
+		List<String> statements = RecordingDatabase.record(database, futuresFactory, action);
+		List<QueryPlan> plans = new ArrayList<>();
+		try (Connection connection = database.getConnection()) {
+			for (String sql : statements) {
+				if (QueryPlan.isExplainable(sql)) {
+					plans.add(QueryPlan.explain(connection, database.getVendor(), sql));
+				}
+			}
+		}
+		assertFalse(plans.isEmpty(), "No queries were recorded");
+		return plans;
+	}
+
+	private static void assertUsesIndexes(List<QueryPlan> plans) {
+		for (QueryPlan plan : plans) {
+			assertEquals(
+					List.of(), plan.fullScans(),
+					() -> "Query no longer uses an index: " + plan.sql()
+			);
+		}
+	}
+
+	private static void assertWithinBudget(List<QueryPlan> plans, long budget) {
+		for (QueryPlan plan : plans) {
+			long rowsExamined = plan.rowsExamined();
+			assertTrue(
+					rowsExamined <= budget,
+					() -> "Query examined " + rowsExamined + " rows, exceeding the budget of " + budget
+							+ ": " + plan.sql() + "\nPlan: " + plan.accesses()
+			);
+		}
+	}
+
+	@TestTemplate
+	@SetVendor({Vendor.HSQLDB, Vendor.MARIADB, Vendor.MYSQL, Vendor.POSTGRES})
+	public void uuidAndNameLookups(PunishmentCreator creator, InternalScopeManager scopeManager, Configs configs,
+								   EnvUserResolver envResolver, NameValidator nameValidator) throws SQLException {
+		seedDataset(creator, scopeManager);
+		Player player = players.get(PLAYERS / 2);
+
+		List<QueryPlan> plans = explainQueries((recordingDatabase) -> {
+			CachingUUIDManager uuidManager = new CachingUUIDManager(
+					configs, futuresFactory, () -> recordingDatabase, envResolver, nameValidator, time
+			);
+			uuidManager.startup();
+			assertEquals(player.uuid(), uuidManager.lookupUUID(player.name()).join().orElseThrow());
+			List<String> names = players.subList(0, 10).stream().map(Player::name).toList();
+			assertEquals(names.size(), uuidManager.lookupUUIDsFromExactNames(names).join().size());
+			Player lastPlayer = players.get(PLAYERS - 1);
+			assertEquals(lastPlayer.name(), uuidManager.lookupName(lastPlayer.uuid()).join().orElseThrow());
+			assertEquals(player.address(), uuidManager.lookupAddress(player.name()).join());
+			assertTrue(uuidManager.lookupPlayer(player.name()).join().isPresent());
+			assertEquals(player.address(), uuidManager.lookupLastAddress(player.uuid()).join().orElseThrow());
+		});
+		assertUsesIndexes(plans);
+		assertWithinBudget(plans, POINT_LOOKUP_BUDGET);
+	}
+
+	@TestTemplate
+	@SetVendor({Vendor.HSQLDB, Vendor.MARIADB, Vendor.MYSQL, Vendor.POSTGRES})
+	public void connectionLimiter(PunishmentCreator creator, InternalScopeManager scopeManager) throws SQLException {
+		seedDataset(creator, scopeManager);
+		Configs configs = mock(Configs.class);
+		MainConfig mainConfig = mock(MainConfig.class);
+		EnforcementConfig enforcementConfig = mock(EnforcementConfig.class);
+		ConnectionLimitConfig conf = mock(ConnectionLimitConfig.class);
+		when(configs.getMainConfig()).thenReturn(mainConfig);
+		when(mainConfig.enforcement()).thenReturn(enforcementConfig);
+		when(enforcementConfig.connectionLimiter()).thenReturn(conf);
+		when(conf.enable()).thenReturn(true);
+		when(conf.durationSeconds()).thenReturn(Duration.ofHours(4L).toSeconds());
+		when(conf.limit()).thenReturn(5);
+		ConnectionLimiter limiter = new ConnectionLimiter(configs);
+		NetworkAddress address = players.get(PLAYERS / 2).address();
+
+		List<QueryPlan> plans = explainQueries((recordingDatabase) -> {
+			recordingDatabase.query((context) -> {
+				return limiter.hasExceededLimit(context, address, time.currentTimestamp());
+			}).join();
+		});
+		assertUsesIndexes(plans);
+		assertWithinBudget(plans, POINT_LOOKUP_BUDGET);
+	}
+
+	@TestTemplate
+	@SetVendor({Vendor.HSQLDB, Vendor.MARIADB, Vendor.MYSQL, Vendor.POSTGRES})
+	public void altDetection(PunishmentCreator creator, InternalScopeManager scopeManager,
+							 Configs configs) throws SQLException {
+		seedDataset(creator, scopeManager);
+		// The previous player's address is shared with this player
+		Player player = players.get(2);
+
+		List<QueryPlan> plans = explainQueries((recordingDatabase) -> {
+			AltDetection altDetection = new AltDetection(configs, () -> recordingDatabase, time);
+			assertFalse(altDetection.detectAlts(player.uuid(), player.address(), WhichAlts.ALL_ALTS).join().isEmpty());
+		});
+		assertWithinBudget(plans, ROW_BUDGET);
+	}
+
+	@TestTemplate
+	@SetVendor({Vendor.HSQLDB, Vendor.MARIADB, Vendor.MYSQL, Vendor.POSTGRES})
+	public void selections(PunishmentCreator creator, InternalScopeManager scopeManager, Configs configs,
+						   IDImpl idImpl, Gatekeeper gatekeeper, Provider<MuteCache> muteCache,
+						   RangePunishmentCache rangePunishmentCache) throws SQLException {
+		seedDataset(creator, scopeManager);
+		Punishment ban = punishments.get(PunishmentType.BAN).get(0);
+		Player bannedPlayer = players.get(0);
+
+		List<QueryPlan> plans = explainQueries((recordingDatabase) -> {
+			SelectorImpl selector = new SelectorImpl(
+					configs, idImpl, gatekeeper, muteCache, rangePunishmentCache,
+					new SelectionResources(futuresFactory, () -> recordingDatabase, scopeManager, creator, time)
+			);
+			for (AddressStrictness strictness : AddressStrictness.values()) {
+				assertEquals(ban, selector
+						.selectionByApplicabilityBuilder(bannedPlayer.uuid(), bannedPlayer.address())
+						.type(PunishmentType.BAN)
+						.addressStrictness(strictness)
+						.build()
+						.getFirstSpecificPunishment()
+						.toCompletableFuture().join().orElseThrow());
+			}
+			Map<UUID, NetworkAddress> users = new HashMap<>();
+			for (Player player : players.subList(0, 50)) {
+				users.put(player.uuid(), player.address());
+			}
+			assertFalse(selector.getApplicablePunishments(users, PunishmentType.BAN).toCompletableFuture().join().isEmpty());
+			assertEquals(10, selector.selectionBuilder()
+					.type(PunishmentType.BAN)
+					.limitToRetrieve(10)
+					.build()
+					.getAllSpecificPunishments()
+					.toCompletableFuture().join().size());
+			assertEquals(List.of(ban), selector.selectionBuilder()
+					.victims(SelectionPredicate.matchingOnly(ban.getVictim()))
+					.selectActiveOnly(false)
+					.build()
+					.getAllSpecificPunishments()
+					.toCompletableFuture().join());
+		});
+		assertWithinBudget(plans, ROW_BUDGET);
+	}
+
+	@TestTemplate
+	@SetVendor({Vendor.HSQLDB, Vendor.MARIADB, Vendor.MYSQL, Vendor.POSTGRES})
+	public void revocation(PunishmentCreator creator, InternalScopeManager scopeManager,
+						   GlobalEnforcement enforcement) throws SQLException {
+		seedDataset(creator, scopeManager);
+		EnforcementOptions enforcementOptions = EnforcementOpts.builder()
+				.enforcement(EnforcementOptions.Enforcement.NONE)
+				.build();
+		Punishment ban = punishments.get(PunishmentType.BAN).get(0);
+		Punishment mute = punishments.get(PunishmentType.MUTE).get(0);
+		Punishment warn = punishments.get(PunishmentType.WARN).get(0);
+		Punishment kick = punishments.get(PunishmentType.KICK).get(0);
+
+		List<QueryPlan> plans = explainQueries((recordingDatabase) -> {
+			Revoker revoker = new Revoker(futuresFactory, () -> recordingDatabase, creator, enforcement, time);
+			assertTrue(revoker.revokeById(ban.getIdentifier())
+					.undoPunishment(enforcementOptions).toCompletableFuture().join());
+			assertTrue(revoker.revokeByIdAndType(mute.getIdentifier(), PunishmentType.MUTE)
+					.undoAndGetPunishment(enforcementOptions).toCompletableFuture().join().isPresent());
+			assertTrue(revoker.revokeByTypeAndVictim(PunishmentType.WARN, warn.getVictim())
+					.undoPunishment(enforcementOptions).toCompletableFuture().join());
+			assertTrue(revoker.expungePunishment(kick.getIdentifier())
+					.expunge().toCompletableFuture().join());
+		});
+		assertWithinBudget(plans, ROW_BUDGET);
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.database;
+
+import org.jooq.Configuration;
+import org.jooq.DSLContext;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.conf.SettingsTools;
+import org.jooq.conf.StatementType;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.database.PunishmentDatabase;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.database.execute.PrioritizedThreadPool;
+import space.arim.libertybans.core.database.execute.QueryPriority;
+import space.arim.libertybans.core.database.execute.SQLFunction;
+import space.arim.libertybans.core.database.execute.SQLRunnable;
+import space.arim.libertybans.core.database.execute.SQLTransactionalFunction;
+import space.arim.libertybans.core.database.execute.SQLTransactionalRunnable;
+import space.arim.libertybans.core.database.execute.Transaction;
+import space.arim.omnibus.util.concurrent.CentralisedFuture;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * A database which runs every query synchronously, inside a single transaction which is
+ * rolled back afterward, and records the SQL of each statement executed. Statements are
+ * rendered with inlined values so that they can be passed directly to EXPLAIN.
+ *
+ */
+final class RecordingDatabase implements InternalDatabase {
+
+	private final InternalDatabase delegate;
+	private final FactoryOfTheFuture futuresFactory;
+	private final DSLContext context;
+	private final Transaction transaction;
+
+	private RecordingDatabase(InternalDatabase delegate, FactoryOfTheFuture futuresFactory,
+							  DSLContext context, Transaction transaction) {
+		this.delegate = delegate;
+		this.futuresFactory = futuresFactory;
+		this.context = context;
+		this.transaction = transaction;
+	}
+
+	/**
+	 * Runs the given action against a recording database, then rolls back any changes it made
+	 *
+	 * @param delegate the real database
+	 * @param futuresFactory the futures factory
+	 * @param action the action, which should wait for any futures it creates
+	 * @return the SQL of all statements executed by the action, in order
+	 */
+	static List<String> record(InternalDatabase delegate, FactoryOfTheFuture futuresFactory,
+							   Consumer<RecordingDatabase> action) {
+		return delegate.queryWithRetry(1, (context, transaction) -> {
+			List<String> statements = new ArrayList<>();
+			ExecuteListener recorder = new ExecuteListener() {
+				@Override
+				public void executeStart(ExecuteContext ctx) {
+					String sql = ctx.sql();
+					if (sql != null) {
+						statements.add(sql);
+					}
+				}
+			};
+			Configuration configuration = context.configuration();
+			ExecuteListenerProvider[] existingListeners = configuration.executeListenerProviders();
+			ExecuteListenerProvider[] listeners = Arrays.copyOf(existingListeners, existingListeners.length + 1);
+			listeners[existingListeners.length] = new DefaultExecuteListenerProvider(recorder);
+
+			DSLContext recordingContext = configuration
+					.derive(SettingsTools.clone(configuration.settings()).withStatementType(StatementType.STATIC_STATEMENT))
+					.derive(listeners)
+					.dsl();
+			action.accept(new RecordingDatabase(delegate, futuresFactory, recordingContext, transaction));
+			// Leave the seeded data intact for the next recording
+			transaction.rollback();
+			return statements;
+		}).join();
+	}
+
+	@Override
+	public void executeWithExistingConnection(Connection connection, SQLTransactionalRunnable command) {
+		throw new UnsupportedOperationException("Recording database uses its own connection");
+	}
+
+	@Override
+	public CentralisedFuture<Void> execute(SQLRunnable command) {
+		command.run(context);
+		return futuresFactory.completedFuture(null);
+	}
+
+	@Override
+	public <R> CentralisedFuture<R> query(SQLFunction<R> command) {
+		return futuresFactory.completedFuture(command.obtain(context));
+	}
+
+	@Override
+	public CentralisedFuture<Void> executeWithRetry(int retryCount, SQLTransactionalRunnable command) {
+		command.run(context, transaction);
+		return futuresFactory.completedFuture(null);
+	}
+
+	@Override
+	public <R> CentralisedFuture<R> queryWithRetry(int retryCount, SQLTransactionalFunction<R> command) {
+		return futuresFactory.completedFuture(command.obtain(context, transaction));
+	}
+
+	@Override
+	public PunishmentDatabase asExternal() {
+		return delegate.asExternal();
+	}
+
+	@Override
+	public Vendor getVendor() {
+		return delegate.getVendor();
+	}
+
+	@Override
+	public void clearExpiredPunishments(DSLContext context, PunishmentType type, Instant currentTime) {
+		delegate.clearExpiredPunishments(context, type, currentTime);
+	}
+
+	@Override
+	public void truncateAllTables() {
+		throw new UnsupportedOperationException("Recording database must not truncate tables");
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return delegate.getConnection();
+	}
+
+	@Override
+	public Map<QueryPriority, PrioritizedThreadPool.QueueWait> queueWaits() {
+		return delegate.queueWaits();
+	}
+
+}
@@ -0,0 +1,140 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.database;
+
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Param;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.ConsoleOperator;
+import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.database.jooq.JooqContext;
+import space.arim.libertybans.core.database.sql.SequenceBlockAllocator;
+import space.arim.libertybans.core.database.sql.SequenceValue;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetVendor;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static space.arim.libertybans.core.schema.Sequences.LIBERTYBANS_PUNISHMENT_IDS;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+public class SequenceBlockIT {
+
+	private static final int PUNISHMENTS = 50;
+	private static final int VALUES_PER_THREAD = 100;
+
+	@TestTemplate
+	@SetVendor(Vendor.MYSQL)
+	public void uniqueIdsFromBlocks(PunishmentDrafter drafter, InternalDatabase database, Configs configs) {
+		int blockSize = configs.getSqlConfig().mysqlIdBlockSize();
+
+		List<CompletableFuture<Optional<Punishment>>> futures = new ArrayList<>(PUNISHMENTS);
+		for (int n = 0; n < PUNISHMENTS; n++) {
+			futures.add(drafter
+					.draftBuilder()
+					.type(PunishmentType.WARN)
+					.victim(PlayerVictim.of(UUID.randomUUID()))
+					.operator(ConsoleOperator.INSTANCE)
+					.reason("reason")
+					.build()
+					.enactPunishment()
+					.toCompletableFuture());
+		}
+		Set<Long> ids = new HashSet<>();
+		for (CompletableFuture<Optional<Punishment>> future : futures) {
+			ids.add(future.join().orElseThrow(AssertionError::new).getIdentifier());
+		}
+		assertEquals(PUNISHMENTS, ids.size(), "Punishment IDs must be unique");
+
+		long sequenceValue = database.query((context) -> {
+			return context
+					.select(DSL.field("value", Long.class))
+					.from(DSL.table("libertybans_punishment_ids"))
+					.fetchSingle()
+					.value1();
+		}).join();
+		long maxId = ids.stream().mapToLong(Long::longValue).max().orElseThrow();
+		assertTrue(maxId < sequenceValue, "IDs must come from reserved blocks");
+		assertTrue(sequenceValue - maxId <= blockSize, "No more than one block should be reserved in advance");
+	}
+
+	@SuppressWarnings("unchecked")
+	private static long nextValue(DSLContext context) {
+		Field<Long> value = new SequenceValue<>(context, LIBERTYBANS_PUNISHMENT_IDS).nextValue();
+		return ((Param<Long>) value).getValue();
+	}
+
+	@TestTemplate
+	@SetVendor(Vendor.MYSQL)
+	public void uniqueIdsAcrossInstances(InternalDatabase database) throws SQLException {
+		DataSource dataSource = mock(DataSource.class);
+		when(dataSource.getConnection()).thenAnswer((invocation) -> database.getConnection());
+		// Each allocator stands in for a separate instance sharing the database
+		List<DSLContext> instances = List.of(
+				new JooqContext(SQLDialect.MYSQL, false, new SequenceBlockAllocator(dataSource, 7)).createRenderOnlyContext(),
+				new JooqContext(SQLDialect.MYSQL, false, new SequenceBlockAllocator(dataSource, 3)).createRenderOnlyContext()
+		);
+		Set<Long> values = ConcurrentHashMap.newKeySet();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<CompletableFuture<?>> futures = new ArrayList<>();
+			for (DSLContext instance : instances) {
+				for (int thread = 0; thread < 2; thread++) {
+					futures.add(CompletableFuture.runAsync(() -> {
+						for (int n = 0; n < VALUES_PER_THREAD; n++) {
+							values.add(nextValue(instance));
+						}
+					}, executor));
+				}
+			}
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+		} finally {
+			executor.shutdown();
+		}
+		assertEquals(instances.size() * 2 * VALUES_PER_THREAD, values.size(),
+				"Blocks reserved by different instances must not overlap");
+	}
+
+}
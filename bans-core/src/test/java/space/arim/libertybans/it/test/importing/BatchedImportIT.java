@@ -0,0 +1,161 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.importing;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Provider;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import space.arim.libertybans.api.scope.ScopeManager;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.importing.ConnectionSource;
+import space.arim.libertybans.core.importing.ImportConfig;
+import space.arim.libertybans.core.importing.ImportExecutor;
+import space.arim.libertybans.core.importing.ImportFunction;
+import space.arim.libertybans.core.importing.ImportSource;
+import space.arim.libertybans.core.importing.ImportStatistics;
+import space.arim.libertybans.core.importing.LocalDatabaseSetup;
+import space.arim.libertybans.core.importing.PluginDatabaseSetup;
+import space.arim.libertybans.core.punish.EnactionIdCache;
+import space.arim.libertybans.core.punish.PunishmentCreator;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.it.DontInject;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetTime;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static space.arim.libertybans.core.schema.Tables.ADDRESSES;
+import static space.arim.libertybans.core.schema.Tables.NAMES;
+import static space.arim.libertybans.core.schema.Tables.SIMPLE_ACTIVE;
+import static space.arim.libertybans.core.schema.Tables.SIMPLE_HISTORY;
+
+/**
+ * Verifies that batching writes into larger transactions does not change the imported data
+ *
+ */
+@ExtendWith(InjectionInvocationContextProvider.class)
+@ExtendWith(MockitoExtension.class)
+@ExtendWith(LocalDatabaseSetup.class)
+@LocalDatabaseSetup.H2
+public class BatchedImportIT {
+
+	private final FactoryOfTheFuture futuresFactory;
+	private final Configs configs;
+	private final ImportFunction importFunction;
+	private final Provider<InternalDatabase> dbProvider;
+	private final PunishmentCreator creator;
+	private final Time time;
+	private final EnactionIdCache idCache;
+	private final ScopeManager scopeManager;
+	private PluginDatabaseSetup pluginDatabaseSetup;
+
+	@Inject
+	public BatchedImportIT(FactoryOfTheFuture futuresFactory, Configs configs, ImportFunction importFunction,
+						   Provider<InternalDatabase> dbProvider, PunishmentCreator creator, Time time,
+						   EnactionIdCache idCache, ScopeManager scopeManager) {
+		this.futuresFactory = futuresFactory;
+		this.configs = configs;
+		this.importFunction = importFunction;
+		this.dbProvider = dbProvider;
+		this.creator = creator;
+		this.time = time;
+		this.idCache = idCache;
+		this.scopeManager = scopeManager;
+	}
+
+	@BeforeEach
+	public void setup(@DontInject ConnectionSource connectionSource) {
+		this.pluginDatabaseSetup = new PluginDatabaseSetup(connectionSource);
+	}
+
+	private ImportExecutor importExecutor(int transactionSize) {
+		ImportConfig importConfig = mock(ImportConfig.class, delegatesTo(configs.getImportConfig()));
+		when(importConfig.transactionSize()).thenReturn(transactionSize);
+		Configs configs = mock(Configs.class, delegatesTo(this.configs));
+		when(configs.getImportConfig()).thenReturn(importConfig);
+		return new ImportExecutor(futuresFactory, configs, importFunction, dbProvider, creator, time);
+	}
+
+	private ImportStatistics importWith(ImportSource importSource, int transactionSize) {
+		ImportStatistics statistics = importExecutor(transactionSize).performImport(importSource).join();
+		assertTrue(statistics.success(), "Import failed with transaction size " + transactionSize);
+		return statistics;
+	}
+
+	private List<List<Object>> fetchAll(Table<?> table, Field<?>...excludedFields) {
+		// Identifiers depend on the order of writes, so they are excluded
+		List<Field<?>> excluded = List.of(excludedFields);
+		Field<?>[] fields = Arrays.stream(table.fields())
+				.filter((field) -> !excluded.contains(field))
+				.toArray(Field[]::new);
+		return dbProvider.get().query((context) -> {
+			return context
+					.select(fields)
+					.from(table)
+					.orderBy(fields)
+					.fetch(Record::intoList);
+		}).join();
+	}
+
+	private ImportedData fetchImportedData() {
+		return new ImportedData(
+				fetchAll(SIMPLE_ACTIVE, SIMPLE_ACTIVE.ID),
+				fetchAll(SIMPLE_HISTORY, SIMPLE_HISTORY.ID),
+				fetchAll(NAMES),
+				fetchAll(ADDRESSES)
+		);
+	}
+
+	private record ImportedData(List<List<Object>> active, List<List<Object>> history,
+								List<List<Object>> names, List<List<Object>> addresses) {}
+
+	@TestTemplate
+	@SetTime(unixTime = 1622836000)
+	public void sameDataWithAndWithoutBatching() {
+		// This sample already contains the schema definition
+		pluginDatabaseSetup.runSqlFromResource("import-data/litebans/sample-two.sql");
+		ImportSource importSource = pluginDatabaseSetup.createLiteBansImportSource(scopeManager);
+
+		ImportStatistics unbatchedStatistics = importWith(importSource, 1);
+		ImportedData unbatchedData = fetchImportedData();
+
+		dbProvider.get().truncateAllTables();
+		idCache.clear();
+
+		ImportStatistics batchedStatistics = importWith(importSource, 500);
+		assertEquals(unbatchedStatistics, batchedStatistics);
+		assertEquals(unbatchedData, fetchImportedData());
+	}
+
+}
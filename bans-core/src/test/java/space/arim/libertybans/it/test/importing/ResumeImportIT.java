@@ -0,0 +1,152 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.importing;
+
+import jakarta.inject.Inject;
+import org.jooq.Table;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.scope.ScopeManager;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.importing.ImportException;
+import space.arim.libertybans.core.importing.ImportExecutor;
+import space.arim.libertybans.core.importing.ImportSource;
+import space.arim.libertybans.core.importing.ImportStatistics;
+import space.arim.libertybans.core.importing.PortablePunishment;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.SetTime;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static space.arim.libertybans.core.schema.Tables.HISTORY;
+import static space.arim.libertybans.core.schema.Tables.NAMES;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+public class ResumeImportIT {
+
+	private static final String PROGRESS_KEY = "resume-test";
+	private static final int TOTAL_ROWS = 1300;
+	private static final int INTERRUPT_AFTER_ROWS = 1150;
+
+	private final ImportExecutor importExecutor;
+	private final InternalDatabase database;
+	private final ScopeManager scopeManager;
+
+	@Inject
+	public ResumeImportIT(ImportExecutor importExecutor, InternalDatabase database, ScopeManager scopeManager) {
+		this.importExecutor = importExecutor;
+		this.database = database;
+		this.scopeManager = scopeManager;
+	}
+
+	/**
+	 * Import source whose rows are all identical except for their foreign IDs
+	 *
+	 */
+	private final class IdenticalRowsSource implements ImportSource {
+
+		private final UUID victim = UUID.randomUUID();
+		private final Instant start = Instant.ofEpochSecond(1_600_000_000L);
+		private final int interruptAfterRows;
+
+		IdenticalRowsSource(int interruptAfterRows) {
+			this.interruptAfterRows = interruptAfterRows;
+		}
+
+		@Override
+		public Stream<PortablePunishment> sourcePunishments() {
+			return IntStream.rangeClosed(1, TOTAL_ROWS).mapToObj((foreignId) -> {
+				if (foreignId > interruptAfterRows) {
+					throw new ImportException("Simulated interruption at row " + foreignId);
+				}
+				return new PortablePunishment(
+						foreignId,
+						new PortablePunishment.KnownDetails(
+								PunishmentType.BAN, "Duplicate reason", scopeManager.globalScope(),
+								start, start.plus(Duration.ofDays(1L))
+						),
+						new PortablePunishment.VictimInfo(victim, "DuplicateVictim", null),
+						PortablePunishment.OperatorInfo.createConsole(),
+						false
+				);
+			});
+		}
+	}
+
+	private ImportStatistics runImport(ImportSource importSource, boolean resume) {
+		return importExecutor.performImport(importSource, PROGRESS_KEY, resume).join();
+	}
+
+	private int countRows(Table<?> table) {
+		return database.query((context) -> context.fetchCount(table)).join();
+	}
+
+	@TestTemplate
+	@SetTime(unixTime = 1_700_000_000L)
+	public void resumeAfterInterruption() {
+		ImportStatistics interrupted = runImport(new IdenticalRowsSource(INTERRUPT_AFTER_ROWS), false);
+		assertFalse(interrupted.success());
+		assertTrue(importExecutor.hasCheckpoint(PROGRESS_KEY).join());
+
+		int committedRows = countRows(HISTORY);
+		assertTrue(committedRows > 0 && committedRows <= INTERRUPT_AFTER_ROWS,
+				"Whole transactions before the interruption should be kept, but found " + committedRows);
+
+		ImportStatistics resumed = runImport(new IdenticalRowsSource(TOTAL_ROWS), true);
+		assertTrue(resumed.success());
+		assertFalse(importExecutor.hasCheckpoint(PROGRESS_KEY).join(), "Progress is deleted once complete");
+
+		// Identical rows are distinct punishments, so none may be dropped or duplicated
+		assertEquals(TOTAL_ROWS, countRows(HISTORY));
+		assertEquals(new ImportStatistics(0, TOTAL_ROWS, TOTAL_ROWS), resumed,
+				"Statistics should count each row exactly once across both runs");
+		assertEquals(1, countRows(NAMES));
+	}
+
+	@TestTemplate
+	@SetTime(unixTime = 1_700_000_000L)
+	public void resumeWithoutProgress() {
+		assertFalse(importExecutor.hasCheckpoint(PROGRESS_KEY).join());
+		ImportStatistics statistics = runImport(new IdenticalRowsSource(TOTAL_ROWS), true);
+		assertFalse(statistics.success());
+		assertEquals(0, countRows(HISTORY));
+	}
+
+	@TestTemplate
+	@SetTime(unixTime = 1_700_000_000L)
+	public void restartDiscardsProgress() {
+		runImport(new IdenticalRowsSource(INTERRUPT_AFTER_ROWS), false);
+		assertTrue(importExecutor.hasCheckpoint(PROGRESS_KEY).join());
+
+		ImportStatistics statistics = runImport(new IdenticalRowsSource(TOTAL_ROWS), false);
+		assertTrue(statistics.success());
+		assertEquals(new ImportStatistics(0, TOTAL_ROWS, TOTAL_ROWS), statistics);
+		assertFalse(importExecutor.hasCheckpoint(PROGRESS_KEY).join());
+	}
+
+}
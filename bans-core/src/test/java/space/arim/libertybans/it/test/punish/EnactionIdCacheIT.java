@@ -0,0 +1,199 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.it.test.punish;
+
+import jakarta.inject.Inject;
+import org.jooq.Configuration;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteListenerProvider;
+import org.jooq.Select;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.junit.jupiter.api.TestTemplate;
+import org.junit.jupiter.api.extension.ExtendWith;
+import space.arim.libertybans.api.Operator;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.EscalationTrack;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.api.scope.ScopeManager;
+import space.arim.libertybans.api.scope.ServerScope;
+import space.arim.libertybans.core.database.InternalDatabase;
+import space.arim.libertybans.core.punish.Enaction;
+import space.arim.libertybans.core.punish.EnactionIdCache;
+import space.arim.libertybans.core.punish.PunishmentCreator;
+import space.arim.libertybans.core.service.Time;
+import space.arim.libertybans.it.DontInject;
+import space.arim.libertybans.it.InjectionInvocationContextProvider;
+import space.arim.libertybans.it.resolver.NonNullTrack;
+import space.arim.libertybans.it.resolver.RandomEscalationTrackResolver;
+import space.arim.libertybans.it.resolver.RandomOperatorResolver;
+import space.arim.libertybans.it.resolver.RandomVictimResolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static space.arim.libertybans.core.schema.tables.History.HISTORY;
+import static space.arim.libertybans.core.schema.tables.Scopes.SCOPES;
+import static space.arim.libertybans.core.schema.tables.Tracks.TRACKS;
+import static space.arim.libertybans.core.schema.tables.Victims.VICTIMS;
+
+@ExtendWith(InjectionInvocationContextProvider.class)
+@ExtendWith({RandomVictimResolver.class, RandomOperatorResolver.class, RandomEscalationTrackResolver.class})
+public class EnactionIdCacheIT {
+
+	private final PunishmentDrafter drafter;
+	private final InternalDatabase database;
+	private final EnactionIdCache idCache;
+	private final PunishmentCreator creator;
+	private final Time time;
+	private final ServerScope scope;
+
+	@Inject
+	public EnactionIdCacheIT(PunishmentDrafter drafter, InternalDatabase database, EnactionIdCache idCache,
+							 PunishmentCreator creator, Time time, ScopeManager scopeManager) {
+		this.drafter = drafter;
+		this.database = database;
+		this.idCache = idCache;
+		this.creator = creator;
+		this.time = time;
+		scope = scopeManager.specificScope("servername");
+	}
+
+	private Optional<Punishment> enact(PunishmentType type, Victim victim, Operator operator,
+									   EscalationTrack escalationTrack) {
+		return drafter
+				.draftBuilder()
+				.type(type)
+				.victim(victim)
+				.operator(operator)
+				.reason("reason")
+				.scope(scope)
+				.escalationTrack(escalationTrack)
+				.build()
+				.enactPunishment()
+				.toCompletableFuture()
+				.join();
+	}
+
+	private void assertSingleVictimScopeAndTrack(List<Punishment> punishments) {
+		List<Long> ids = punishments.stream().map(Punishment::getIdentifier).toList();
+		database.execute((context) -> {
+			assertEquals(1, context.fetchCount(
+					context.selectDistinct(HISTORY.VICTIM).from(HISTORY).where(HISTORY.ID.in(ids))
+			));
+			assertEquals(1, context.fetchCount(VICTIMS));
+			assertEquals(1, context.fetchCount(SCOPES));
+			assertEquals(1, context.fetchCount(TRACKS));
+		}).join();
+	}
+
+	/**
+	 * Enacts a warn, recording the selects of scope, track and victim identifiers
+	 *
+	 * @return the SQL of the selects issued for identifiers
+	 */
+	private List<String> enactRecordingIdentifierSelects(Victim victim, Operator operator,
+														 EscalationTrack escalationTrack) {
+		Enaction enaction = new Enaction(new Enaction.OrderDetails(
+				PunishmentType.WARN, victim, operator, "reason", scope,
+				time.currentTimestamp(), Punishment.PERMANENT_END_DATE, escalationTrack
+		), creator, idCache);
+		return database.queryWithRetry((context, transaction) -> {
+			Set<String> identifierTables = Set.of(context.render(SCOPES), context.render(TRACKS), context.render(VICTIMS));
+			List<String> identifierSelects = new ArrayList<>();
+			ExecuteListener recorder = new ExecuteListener() {
+				@Override
+				public void executeStart(ExecuteContext ctx) {
+					String sql = ctx.sql();
+					if (ctx.query() instanceof Select<?> && sql != null
+							&& identifierTables.stream().anyMatch(sql::contains)) {
+						identifierSelects.add(sql);
+					}
+				}
+			};
+			Configuration configuration = context.configuration();
+			ExecuteListenerProvider[] existingListeners = configuration.executeListenerProviders();
+			ExecuteListenerProvider[] listeners = Arrays.copyOf(existingListeners, existingListeners.length + 1);
+			listeners[existingListeners.length] = new DefaultExecuteListenerProvider(recorder);
+
+			assertNotNull(enaction.enactActive(configuration.derive(listeners).dsl(), transaction));
+			return identifierSelects;
+		}).join();
+	}
+
+	@TestTemplate
+	public void cacheHitIssuesNoSelect(@DontInject Victim victim, @DontInject Operator operator,
+									   @DontInject @NonNullTrack EscalationTrack escalationTrack) {
+		// The first enactment generates the identifiers, which are found and cached by the second
+		enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+		enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+
+		assertEquals(List.of(), enactRecordingIdentifierSelects(victim, operator, escalationTrack));
+
+		idCache.clear();
+		assertEquals(3, enactRecordingIdentifierSelects(victim, operator, escalationTrack).size(),
+				"Once cleared, the scope, track and victim should each be selected");
+		assertEquals(List.of(), enactRecordingIdentifierSelects(victim, operator, escalationTrack));
+	}
+
+	@TestTemplate
+	public void repeatOffender(@DontInject Victim victim, @DontInject Operator operator,
+							   @DontInject @NonNullTrack EscalationTrack escalationTrack) {
+		List<Punishment> punishments = List.of(
+				enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new),
+				enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new),
+				enact(PunishmentType.MUTE, victim, operator, escalationTrack).orElseThrow(AssertionError::new),
+				enact(PunishmentType.BAN, victim, operator, escalationTrack).orElseThrow(AssertionError::new)
+		);
+		assertSingleVictimScopeAndTrack(punishments);
+	}
+
+	@TestTemplate
+	public void cachedAfterConflictRollback(@DontInject Victim victim, @DontInject Operator operator,
+											@DontInject @NonNullTrack EscalationTrack escalationTrack) {
+		Punishment ban = enact(PunishmentType.BAN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+		// The conflicting ban is rolled back
+		assertTrue(enact(PunishmentType.BAN, victim, operator, escalationTrack).isEmpty());
+		Punishment warn = enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+		assertSingleVictimScopeAndTrack(List.of(ban, warn));
+	}
+
+	@TestTemplate
+	public void clearedAfterTruncation(@DontInject Victim victim, @DontInject Operator operator,
+									   @DontInject @NonNullTrack EscalationTrack escalationTrack) {
+		enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+		enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+
+		database.truncateAllTables();
+		idCache.clear();
+
+		Punishment warn = enact(PunishmentType.WARN, victim, operator, escalationTrack).orElseThrow(AssertionError::new);
+		assertSingleVictimScopeAndTrack(List.of(warn));
+	}
+
+}
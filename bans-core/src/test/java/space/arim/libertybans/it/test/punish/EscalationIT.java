@@ -28,6 +28,7 @@ import space.arim.libertybans.api.punish.EscalationTrack;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.punish.PunishmentDetailsCalculator;
 import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.api.punish.PunishmentRevoker;
 import space.arim.libertybans.api.scope.ScopeManager;
 import space.arim.libertybans.it.DontInject;
 import space.arim.libertybans.it.InjectionInvocationContextProvider;
@@ -40,26 +41,29 @@ import space.arim.libertybans.it.resolver.RandomVictimResolver;
 import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(InjectionInvocationContextProvider.class)
 @ExtendWith({RandomVictimResolver.class, RandomOperatorResolver.class, RandomEscalationTrackResolver.class})
 public class EscalationIT {
 
 	private final PunishmentDrafter drafter;
+	private final PunishmentRevoker revoker;
 	private final ScopeManager scopeManager;
 	private final Victim victim;
 	private final EscalationTrack escalationTrack;
 
-	public EscalationIT(PunishmentDrafter drafter, ScopeManager scopeManager, 
+	public EscalationIT(PunishmentDrafter drafter, PunishmentRevoker revoker, ScopeManager scopeManager,
 						@DontInject Victim victim, @DontInject @NonNullTrack EscalationTrack escalationTrack) {
 		this.drafter = drafter;
+		this.revoker = revoker;
 		this.scopeManager = scopeManager;
 		this.victim = victim;
 		this.escalationTrack = escalationTrack;
 	}
 
-	private void addPunishment(PunishmentType type, Operator operator, String reason) {
-		drafter
+	private Punishment addPunishment(PunishmentType type, Operator operator, String reason) {
+		return drafter
 				.draftBuilder()
 				.type(type)
 				.victim(victim)
@@ -143,4 +147,33 @@ public class EscalationIT {
 		assertEquals("Now at 7", calculate(operator1, calculator).getReason());
 	}
 
+	@TestTemplate
+	public void escalateCountingAll(@DontInject Operator operator1, @DontInject Operator operator2) {
+		PunishmentDetailsCalculator calculator = (track, victim, selectionOrderBuilder) -> {
+			Integer existingPunishments = selectionOrderBuilder
+					.victim(victim)
+					.escalationTrack(track)
+					.selectAll()
+					.build()
+					.countNumberOfPunishments()
+					.toCompletableFuture()
+					.getNow(null);
+			if (existingPunishments == null) {
+				throw new AssertionError("Selection should be instantly complete");
+			}
+			return new PunishmentDetailsCalculator.CalculationResult(
+					PunishmentType.WARN, "Now at " + (existingPunishments + 1), Duration.ZERO, scopeManager.globalScope()
+			);
+		};
+		Punishment firstWarn = addPunishment(PunishmentType.WARN, operator1, "first warn");
+		Punishment kick = addPunishment(PunishmentType.KICK, operator2, "kicked");
+		assertEquals("Now at 3", calculate(operator1, calculator).getReason());
+		// Revoked punishments are still counted
+		assertTrue(firstWarn.undoPunishment().toCompletableFuture().join());
+		assertEquals("Now at 4", calculate(operator2, calculator).getReason());
+		// Expunged punishments are not
+		assertTrue(revoker.expungePunishment(kick.getIdentifier()).expunge().toCompletableFuture().join());
+		assertEquals("Now at 4", calculate(operator1, calculator).getReason());
+	}
+
 }
@@ -29,6 +29,7 @@ import space.arim.libertybans.api.PunishmentType;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.api.punish.PunishmentDrafter;
+import space.arim.libertybans.api.punish.PunishmentRevoker;
 import space.arim.libertybans.api.select.PunishmentSelector;
 import space.arim.libertybans.it.DontInject;
 import space.arim.libertybans.it.InjectionInvocationContextProvider;
@@ -42,7 +43,9 @@ import space.arim.libertybans.it.util.RandomUtil;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 @ExtendWith(InjectionInvocationContextProvider.class)
@@ -52,16 +55,18 @@ public class SelectorIT {
 	private final StrictnessAssertHelper assertHelper;
 	private final PunishmentDrafter drafter;
 	private final PunishmentSelector selector;
+	private final PunishmentRevoker revoker;
 	private final Operator operator;
 	private final Victim victim;
 	private final String reason;
 
 	@Inject
 	public SelectorIT(StrictnessAssertHelper assertHelper, PunishmentDrafter drafter, PunishmentSelector selector,
-					  @DontInject Operator operator, @DontInject Victim victim, @DontInject @Reason String reason) {
+					  PunishmentRevoker revoker, @DontInject Operator operator, @DontInject Victim victim, @DontInject @Reason String reason) {
 		this.assertHelper = assertHelper;
 		this.drafter = drafter;
 		this.selector = selector;
+		this.revoker = revoker;
 		this.operator = operator;
 		this.victim = victim;
 		this.reason = reason;
@@ -142,4 +147,27 @@ public class SelectorIT {
 		);
 	}
 
+	private int countActiveWarns() {
+		return selector.countActiveWarns(victim).toCompletableFuture().join();
+	}
+
+	@TestTemplate
+	public void countActiveWarns() {
+		assertEquals(0, countActiveWarns());
+		Punishment firstWarn = enactPunishment(PunishmentType.WARN);
+		enactPunishment(PunishmentType.MUTE);
+		Punishment secondWarn = enactPunishment(PunishmentType.WARN);
+		Punishment thirdWarn = enactPunishment(PunishmentType.WARN);
+		assertEquals(3, countActiveWarns());
+		assertTrue(firstWarn.undoPunishment().toCompletableFuture().join());
+		assertEquals(2, countActiveWarns());
+		assertTrue(revoker.expungePunishment(secondWarn.getIdentifier()).expunge().toCompletableFuture().join());
+		assertEquals(1, countActiveWarns());
+		// Undoing twice has no effect
+		assertFalse(firstWarn.undoPunishment().toCompletableFuture().join());
+		assertEquals(1, countActiveWarns());
+		assertTrue(thirdWarn.undoPunishment().toCompletableFuture().join());
+		assertEquals(0, countActiveWarns());
+	}
+
 }
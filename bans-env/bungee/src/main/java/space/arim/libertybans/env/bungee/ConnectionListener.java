@@ -27,6 +27,7 @@ import net.md_5.bungee.api.chat.TextComponent;
 import net.md_5.bungee.api.connection.PendingConnection;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.event.LoginEvent;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
 import net.md_5.bungee.api.event.ServerConnectEvent;
 import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
@@ -116,4 +117,9 @@ public final class ConnectionListener implements Listener, PlatformListener {
 		}
 	}
 
+	@EventHandler
+	public void onDisconnect(PlayerDisconnectEvent event) {
+		guardian.onDisconnect(event.getPlayer().getUniqueId());
+	}
+
 }
@@ -23,6 +23,7 @@ import jakarta.inject.Singleton;
 import org.spongepowered.api.Game;
 import org.spongepowered.api.command.CommandCause;
 import org.spongepowered.plugin.PluginContainer;
+import space.arim.injector.MultiBinding;
 import space.arim.api.env.AudienceRepresenter;
 import space.arim.api.env.PlatformHandle;
 import space.arim.api.env.sponge.SpongeAudienceRepresenter;
@@ -33,8 +34,10 @@ import space.arim.libertybans.core.env.EnvServerNameDetection;
 import space.arim.libertybans.core.env.EnvUserResolver;
 import space.arim.libertybans.core.env.Environment;
 import space.arim.libertybans.core.importing.PlatformImportSource;
+import space.arim.libertybans.core.punish.LocalEnforcementListener;
 import space.arim.libertybans.core.selector.cache.AlwaysAvailableMuteCache;
 import space.arim.libertybans.core.selector.cache.MuteCache;
+import space.arim.libertybans.env.sponge.banservice.BanSnapshot;
 import space.arim.libertybans.env.sponge.banservice.BanTypeHolder;
 import space.arim.libertybans.env.sponge.plugin.PlatformAccess;
 
@@ -77,6 +80,11 @@ public class SpongeBindModule {
 		return importSource;
 	}
 
+	@MultiBinding
+	public LocalEnforcementListener banSnapshot(BanSnapshot banSnapshot) {
+		return banSnapshot;
+	}
+
 	public BanTypeHolder banTypeHolder(BanTypeHolder.Sponge banTypeHolder) {
 		return banTypeHolder;
 	}
@@ -23,6 +23,7 @@ import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import space.arim.libertybans.core.env.Environment;
 import space.arim.libertybans.core.env.PlatformListener;
+import space.arim.libertybans.env.sponge.banservice.BanSnapshot;
 import space.arim.libertybans.env.sponge.plugin.PlatformAccess;
 
 import java.util.Set;
@@ -32,14 +33,17 @@ public final class SpongeEnv implements Environment {
 	private final Provider<ConnectionListener> connectionListener;
 	private final Provider<ChatListener> chatListener;
 	private final Provider<ServerNameListener> serverNameListener;
+	private final Provider<BanSnapshot> banSnapshot;
 	private final PlatformAccess platformAccess;
 
 	@Inject
 	public SpongeEnv(Provider<ConnectionListener> connectionListener, Provider<ChatListener> chatListener,
-					 Provider<ServerNameListener> serverNameListener, PlatformAccess platformAccess) {
+					 Provider<ServerNameListener> serverNameListener, Provider<BanSnapshot> banSnapshot,
+					 PlatformAccess platformAccess) {
 		this.connectionListener = connectionListener;
 		this.chatListener = chatListener;
 		this.serverNameListener = serverNameListener;
+		this.banSnapshot = banSnapshot;
 		this.platformAccess = platformAccess;
 	}
 
@@ -48,7 +52,8 @@ public final class SpongeEnv implements Environment {
 		return Set.of(
 				connectionListener.get(),
 				chatListener.get(),
-				serverNameListener.get()
+				serverNameListener.get(),
+				banSnapshot.get()
 		);
 	}
 
@@ -27,6 +27,7 @@ import space.arim.libertybans.api.AddressVictim;
 import space.arim.libertybans.api.CompositeVictim;
 import space.arim.libertybans.api.PlayerVictim;
 import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.RangeVictim;
 import space.arim.libertybans.api.Victim;
 import space.arim.libertybans.api.punish.Punishment;
 import space.arim.libertybans.core.config.InternalFormatter;
@@ -70,6 +71,11 @@ public final class BanConversion {
 				InetAddress address = ((CompositeVictim) victim).getAddress().toInetAddress();
 				yield new PunishmentAsBan.WithIP(punishment, banTypeHolder, formattedOperator, address);
 			}
+			case RANGE -> {
+				// Sponge has no notion of ranges; the network address is the closest equivalent
+				InetAddress address = ((RangeVictim) victim).getNetwork().toInetAddress();
+				yield new PunishmentAsBan.WithIP(punishment, banTypeHolder, formattedOperator, address);
+			}
 			};
 		});
 	}
@@ -0,0 +1,352 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.sponge.banservice;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.service.ban.Ban;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.Victim;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.select.PunishmentSelector;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.env.PlatformListener;
+import space.arim.libertybans.core.punish.LocalEnforcementListener;
+import space.arim.libertybans.core.service.Time;
+import space.arim.omnibus.util.ThisClass;
+import space.arim.omnibus.util.concurrent.CentralisedFuture;
+import space.arim.omnibus.util.concurrent.DelayCalculators;
+import space.arim.omnibus.util.concurrent.EnhancedExecutor;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
+import space.arim.omnibus.util.concurrent.ScheduledTask;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of active bans already converted to Sponge bans, which backs the
+ * {@link PluginBanService}. The snapshot is loaded in the background when the platform starts,
+ * then replaced as bans are enforced and unenforced. Until the first load completes, the ban
+ * service queries the database instead. <br>
+ * <br>
+ * Each replacement copies the snapshot, which is cheap compared to the queries it saves,
+ * since bans are enforced far less often than plugins poll the ban service. Expired bans
+ * are purged when the earliest expiration passes. <br>
+ * <br>
+ * Bans enacted or revoked without enforcement, or on other instances when synchronization
+ * is disabled, are never reported to this instance. To bound that staleness, the snapshot
+ * is reloaded periodically.
+ *
+ */
+@Singleton
+public final class BanSnapshot implements LocalEnforcementListener, PlatformListener {
+
+	private final Configs configs;
+	private final FactoryOfTheFuture futuresFactory;
+	private final EnhancedExecutor enhancedExecutor;
+	private final PunishmentSelector selector;
+	private final BanConversion conversion;
+	private final Time time;
+
+	private volatile Snapshot snapshot;
+
+	// All of the following are guarded by this lock
+	private final Object updateLock = new Object();
+	private boolean active;
+	private Loading loading;
+	private ScheduledTask reloadTask;
+	private final Set<Long> pendingConversions = new HashSet<>();
+
+	static final Duration RELOAD_INTERVAL = Duration.ofMinutes(5L);
+
+	private static final Logger logger = LoggerFactory.getLogger(ThisClass.get());
+
+	@Inject
+	public BanSnapshot(Configs configs, FactoryOfTheFuture futuresFactory, EnhancedExecutor enhancedExecutor,
+					   PunishmentSelector selector, BanConversion conversion, Time time) {
+		this.configs = configs;
+		this.futuresFactory = futuresFactory;
+		this.enhancedExecutor = enhancedExecutor;
+		this.selector = selector;
+		this.conversion = conversion;
+		this.time = time;
+	}
+
+	/**
+	 * Changes which happen while the active bans are being loaded. The loaded bans may or may not
+	 * reflect these changes, so they are replayed over the loaded bans once loading completes.
+	 *
+	 */
+	private static final class Loading {
+
+		final Map<Long, PunishmentAsBan> added = new HashMap<>();
+		final Set<Long> removed = new HashSet<>();
+	}
+
+	@Override
+	public void register() {
+		if (!configs.getMainConfig().platforms().sponge().registerBanService()) {
+			return;
+		}
+		synchronized (updateLock) {
+			active = true;
+			reloadTask = enhancedExecutor.scheduleRepeating(
+					this::load, RELOAD_INTERVAL, DelayCalculators.fixedDelay()
+			);
+		}
+		load();
+	}
+
+	/**
+	 * Loads all active bans in the background, then replaces the snapshot
+	 *
+	 * @return a future completed once the snapshot is replaced or the load is abandoned
+	 */
+	CentralisedFuture<?> load() {
+		Loading loading;
+		synchronized (updateLock) {
+			if (!active || this.loading != null) {
+				return futuresFactory.completedFuture(null);
+			}
+			loading = this.loading = new Loading();
+		}
+		return selector.selectionBuilder()
+				.type(PunishmentType.BAN)
+				.selectActiveOnly()
+				.build()
+				.getAllSpecificPunishments()
+				.thenCompose((bans) -> {
+					List<CentralisedFuture<Ban>> spongeBans = new ArrayList<>(bans.size());
+					for (Punishment ban : bans) {
+						spongeBans.add(conversion.toSpongeBan(ban));
+					}
+					return futuresFactory.allOf(spongeBans).thenApply((ignore) -> {
+						Map<Long, PunishmentAsBan> loaded = new HashMap<>();
+						for (CentralisedFuture<Ban> spongeBan : spongeBans) {
+							PunishmentAsBan ban = (PunishmentAsBan) spongeBan.join();
+							loaded.put(ban.underlyingPunishment().getIdentifier(), ban);
+						}
+						return loaded;
+					});
+				})
+				.toCompletableFuture()
+				.handle((loaded, ex) -> {
+					synchronized (updateLock) {
+						// Abandon the load if unregistered in the meantime
+						if (this.loading != loading) {
+							return null;
+						}
+						this.loading = null;
+						if (ex != null) {
+							logger.warn("Failed to load active bans for the ban service", ex);
+							return null;
+						}
+						loaded.keySet().removeAll(loading.removed);
+						loaded.putAll(loading.added);
+						snapshot = Snapshot.of(loaded, time.currentTimestamp());
+					}
+					return null;
+				});
+	}
+
+	@Override
+	public void unregister() {
+		synchronized (updateLock) {
+			active = false;
+			loading = null;
+			if (reloadTask != null) {
+				reloadTask.cancel();
+				reloadTask = null;
+			}
+			pendingConversions.clear();
+			snapshot = null;
+		}
+	}
+
+	@Override
+	public void punishmentEnforced(Punishment punishment) {
+		if (punishment.getType() != PunishmentType.BAN) {
+			return;
+		}
+		long id = punishment.getIdentifier();
+		synchronized (updateLock) {
+			if (!active) {
+				return;
+			}
+			pendingConversions.add(id);
+		}
+		conversion.toSpongeBan(punishment).thenAccept((spongeBan) -> {
+			synchronized (updateLock) {
+				// The ban may have been removed while it was converted
+				if (!pendingConversions.remove(id)) {
+					return;
+				}
+				if (loading != null) {
+					loading.removed.remove(id);
+					loading.added.put(id, (PunishmentAsBan) spongeBan);
+				}
+				Snapshot snapshot = this.snapshot;
+				if (snapshot != null) {
+					Map<Long, PunishmentAsBan> byId = new HashMap<>(snapshot.byId);
+					byId.put(id, (PunishmentAsBan) spongeBan);
+					this.snapshot = Snapshot.of(byId, time.currentTimestamp());
+				}
+			}
+		});
+	}
+
+	@Override
+	public void punishmentRemoved(long id) {
+		synchronized (updateLock) {
+			pendingConversions.remove(id);
+			if (loading != null) {
+				loading.added.remove(id);
+				loading.removed.add(id);
+			}
+			Snapshot snapshot = this.snapshot;
+			if (snapshot != null && snapshot.byId.containsKey(id)) {
+				Map<Long, PunishmentAsBan> byId = new HashMap<>(snapshot.byId);
+				byId.remove(id);
+				this.snapshot = Snapshot.of(byId, time.currentTimestamp());
+			}
+		}
+	}
+
+	/**
+	 * Gets the current snapshot, purging expired bans if necessary
+	 *
+	 * @return the snapshot, or null if not yet loaded
+	 */
+	@Nullable Snapshot current() {
+		Snapshot snapshot = this.snapshot;
+		if (snapshot == null) {
+			return null;
+		}
+		Instant now = time.currentTimestamp();
+		if (now.isAfter(snapshot.earliestExpiration)) {
+			synchronized (updateLock) {
+				if (this.snapshot == null) {
+					return null;
+				}
+				snapshot = this.snapshot = Snapshot.of(this.snapshot.byId, now);
+			}
+		}
+		return snapshot;
+	}
+
+	static final class Snapshot {
+
+		private final Map<Long, PunishmentAsBan> byId;
+		private final Collection<Ban> bans;
+		private final Collection<Ban.Profile> profileBans;
+		private final Collection<Ban.IP> ipBans;
+		private final Map<UUID, Ban.Profile> byProfile;
+		private final Map<InetAddress, Ban.IP> byAddress;
+		private final Instant earliestExpiration;
+
+		private Snapshot(Map<Long, PunishmentAsBan> byId, Collection<Ban> bans,
+						 Collection<Ban.Profile> profileBans, Collection<Ban.IP> ipBans,
+						 Map<UUID, Ban.Profile> byProfile, Map<InetAddress, Ban.IP> byAddress,
+						 Instant earliestExpiration) {
+			this.byId = byId;
+			this.bans = bans;
+			this.profileBans = profileBans;
+			this.ipBans = ipBans;
+			this.byProfile = byProfile;
+			this.byAddress = byAddress;
+			this.earliestExpiration = earliestExpiration;
+		}
+
+		static Snapshot of(Map<Long, PunishmentAsBan> allBans, Instant now) {
+			Map<Long, PunishmentAsBan> byId = new HashMap<>();
+			List<Ban> bans = new ArrayList<>();
+			List<Ban.Profile> profileBans = new ArrayList<>();
+			List<Ban.IP> ipBans = new ArrayList<>();
+			Map<UUID, Ban.Profile> byProfile = new HashMap<>();
+			Map<InetAddress, Ban.IP> byAddress = new HashMap<>();
+			Instant earliestExpiration = Instant.MAX;
+
+			for (PunishmentAsBan ban : allBans.values()) {
+				Instant expiration = ban.expirationDate().orElse(Instant.MAX);
+				if (now.isAfter(expiration)) {
+					continue;
+				}
+				if (expiration.isBefore(earliestExpiration)) {
+					earliestExpiration = expiration;
+				}
+				byId.put(ban.underlyingPunishment().getIdentifier(), ban);
+				bans.add(ban);
+				if (ban instanceof Ban.Profile profileBan) {
+					profileBans.add(profileBan);
+					byProfile.merge(profileBan.profile().uniqueId(), profileBan, Snapshot::latest);
+				} else if (ban instanceof Ban.IP ipBan) {
+					ipBans.add(ipBan);
+					// Ranges are listed, but cannot be found by a single address
+					if (ban.underlyingPunishment().getVictim().getType() != Victim.VictimType.RANGE) {
+						byAddress.merge(ipBan.address(), ipBan, Snapshot::latest);
+					}
+				}
+			}
+			return new Snapshot(
+					Collections.unmodifiableMap(byId), Collections.unmodifiableList(bans),
+					Collections.unmodifiableList(profileBans), Collections.unmodifiableList(ipBans),
+					byProfile, byAddress, earliestExpiration
+			);
+		}
+
+		private static <B extends Ban> B latest(B ban1, B ban2) {
+			return ban1.creationDate().isAfter(ban2.creationDate()) ? ban1 : ban2;
+		}
+
+		Collection<Ban> bans() {
+			return bans;
+		}
+
+		Collection<Ban.Profile> profileBans() {
+			return profileBans;
+		}
+
+		Collection<Ban.IP> ipBans() {
+			return ipBans;
+		}
+
+		Ban.Profile findProfileBan(UUID uuid) {
+			return byProfile.get(uuid);
+		}
+
+		Ban.IP findIpBan(InetAddress address) {
+			return byAddress.get(address);
+		}
+	}
+
+}
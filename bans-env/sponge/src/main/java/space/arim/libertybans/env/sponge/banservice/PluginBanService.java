@@ -53,14 +53,16 @@ public final class PluginBanService implements BanService {
 	private final PunishmentRevoker revoker;
 	private final PunishmentSelector selector;
 	private final BanConversion conversion;
+	private final BanSnapshot banSnapshot;
 
 	@Inject
 	public PluginBanService(FactoryOfTheFuture futuresFactory, PunishmentRevoker revoker,
-							PunishmentSelector selector, BanConversion conversion) {
+							PunishmentSelector selector, BanConversion conversion, BanSnapshot banSnapshot) {
 		this.futuresFactory = futuresFactory;
 		this.revoker = revoker;
 		this.selector = selector;
 		this.conversion = conversion;
+		this.banSnapshot = banSnapshot;
 	}
 
 	private <B extends Ban> CompletableFuture<Collection<B>> selectCertainBans(
@@ -89,9 +91,15 @@ public final class PluginBanService implements BanService {
 				});
 	}
 
+	// Until the snapshot is loaded, query the database
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public CompletableFuture<Collection<? extends Ban>> bans() {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		if (snapshot != null) {
+			return futuresFactory.completedFuture(snapshot.bans());
+		}
 		CompletableFuture<?> blameGenerics = selectCertainBans(
 				Set.of(Victim.VictimType.values()), Function.identity()
 		);
@@ -100,6 +108,10 @@ public final class PluginBanService implements BanService {
 
 	@Override
 	public CompletableFuture<Collection<Ban.Profile>> profileBans() {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		if (snapshot != null) {
+			return futuresFactory.completedFuture(snapshot.profileBans());
+		}
 		return selectCertainBans(
 				Set.of(Victim.VictimType.PLAYER), (ban) -> (Ban.Profile) ban
 		);
@@ -107,13 +119,21 @@ public final class PluginBanService implements BanService {
 
 	@Override
 	public CompletableFuture<Collection<Ban.IP>> ipBans() {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		if (snapshot != null) {
+			return futuresFactory.completedFuture(snapshot.ipBans());
+		}
 		return selectCertainBans(
-				Set.of(Victim.VictimType.ADDRESS, Victim.VictimType.COMPOSITE), (ban) -> (Ban.IP) ban
+				Set.of(Victim.VictimType.ADDRESS, Victim.VictimType.COMPOSITE, Victim.VictimType.RANGE), (ban) -> (Ban.IP) ban
 		);
 	}
 
 	@Override
 	public CompletableFuture<Optional<Ban.Profile>> find(GameProfile profile) {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		if (snapshot != null) {
+			return futuresFactory.completedFuture(Optional.ofNullable(snapshot.findProfileBan(profile.uniqueId())));
+		}
 		return selector.selectionBuilder()
 				.type(PunishmentType.BAN)
 				.victim(PlayerVictim.of(profile.uniqueId()))
@@ -131,6 +151,10 @@ public final class PluginBanService implements BanService {
 
 	@Override
 	public CompletableFuture<Optional<Ban.IP>> find(InetAddress address) {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		if (snapshot != null) {
+			return futuresFactory.completedFuture(Optional.ofNullable(snapshot.findIpBan(address)));
+		}
 		return selector.selectionBuilder()
 				.type(PunishmentType.BAN)
 				.victims(SelectionPredicate.matchingAnyOf(
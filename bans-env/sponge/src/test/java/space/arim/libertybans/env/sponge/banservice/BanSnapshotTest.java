@@ -0,0 +1,261 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.sponge.banservice;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.spongepowered.api.Game;
+import org.spongepowered.api.service.ban.Ban;
+import space.arim.libertybans.api.AddressVictim;
+import space.arim.libertybans.api.ConsoleOperator;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.api.select.PunishmentSelector;
+import space.arim.libertybans.api.select.SelectionOrder;
+import space.arim.libertybans.api.select.SelectionOrderBuilder;
+import space.arim.libertybans.core.config.Configs;
+import space.arim.libertybans.core.config.InternalFormatter;
+import space.arim.libertybans.core.service.Time;
+import space.arim.omnibus.util.concurrent.CentralisedFuture;
+import space.arim.omnibus.util.concurrent.EnhancedExecutor;
+import space.arim.omnibus.util.concurrent.FactoryOfTheFuture;
+import space.arim.omnibus.util.concurrent.impl.IndifferentFactoryOfTheFuture;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BanSnapshotTest {
+
+	private final FactoryOfTheFuture futuresFactory = new IndifferentFactoryOfTheFuture();
+	private final Instant currentTime = Instant.ofEpochSecond(1_700_000_000L);
+
+	private final Configs configs;
+	private final EnhancedExecutor enhancedExecutor;
+	private final PunishmentSelector selector;
+	private final InternalFormatter formatter;
+	private final Time time;
+
+	private final SelectionOrder selection;
+	private BanSnapshot banSnapshot;
+
+	public BanSnapshotTest(@Mock(answer = Answers.RETURNS_DEEP_STUBS) Configs configs,
+						   @Mock EnhancedExecutor enhancedExecutor, @Mock PunishmentSelector selector,
+						   @Mock InternalFormatter formatter, @Mock Time time, @Mock SelectionOrder selection) {
+		this.configs = configs;
+		this.enhancedExecutor = enhancedExecutor;
+		this.selector = selector;
+		this.formatter = formatter;
+		this.time = time;
+		this.selection = selection;
+	}
+
+	@BeforeEach
+	public void setup(@Mock Game game, @Mock BanTypeHolder banTypeHolder) {
+		lenient().when(configs.getMainConfig().platforms().sponge().registerBanService()).thenReturn(true);
+		SelectionOrderBuilder selectionBuilder = mock(SelectionOrderBuilder.class, Answers.RETURNS_SELF);
+		lenient().when(selector.selectionBuilder()).thenReturn(selectionBuilder);
+		lenient().when(selectionBuilder.build()).thenReturn(selection);
+		lenient().when(formatter.formatOperator(any())).thenReturn(futuresFactory.completedFuture("Console"));
+		lenient().when(time.currentTimestamp()).thenReturn(currentTime);
+		BanConversion conversion = new BanConversion(formatter, game, banTypeHolder);
+		banSnapshot = new BanSnapshot(configs, futuresFactory, enhancedExecutor, selector, conversion, time);
+	}
+
+	private Punishment ban(long id) {
+		Punishment ban = mock(Punishment.class);
+		lenient().when(ban.getIdentifier()).thenReturn(id);
+		lenient().when(ban.getType()).thenReturn(PunishmentType.BAN);
+		lenient().when(ban.getVictim()).thenReturn(AddressVictim.of(new byte[] {127, 0, 0, (byte) id}));
+		lenient().when(ban.getOperator()).thenReturn(ConsoleOperator.INSTANCE);
+		lenient().when(ban.getStartDate()).thenReturn(currentTime);
+		lenient().when(ban.isPermanent()).thenReturn(true);
+		return ban;
+	}
+
+	private CentralisedFuture<List<Punishment>> nextLoad() {
+		CentralisedFuture<List<Punishment>> load = futuresFactory.newIncompleteFuture();
+		when(selection.getAllSpecificPunishments()).thenReturn(load);
+		return load;
+	}
+
+	private Set<Long> snapshotIds() {
+		BanSnapshot.Snapshot snapshot = banSnapshot.current();
+		assertNotNull(snapshot, "Snapshot should be loaded");
+		return snapshot.bans().stream()
+				.map((ban) -> ((PunishmentAsBan) ban).underlyingPunishment().getIdentifier())
+				.collect(Collectors.toUnmodifiableSet());
+	}
+
+	@Test
+	public void notReadyUntilLoaded() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		assertNull(banSnapshot.current(), "Ban service should query the database until loaded");
+
+		load.complete(List.of(ban(1L), ban(2L)));
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+	}
+
+	@Test
+	public void notRegisteredIfDisabled() {
+		when(configs.getMainConfig().platforms().sponge().registerBanService()).thenReturn(false);
+		banSnapshot.register();
+		banSnapshot.punishmentEnforced(ban(1L));
+		assertNull(banSnapshot.current());
+	}
+
+	@Test
+	public void enforcedWhileLoading() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		banSnapshot.punishmentEnforced(ban(2L));
+
+		// The load started before the ban was enacted
+		load.complete(List.of(ban(1L)));
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+	}
+
+	@Test
+	public void removedWhileLoading() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		banSnapshot.punishmentRemoved(1L);
+
+		// The load read the ban before it was removed
+		load.complete(List.of(ban(1L), ban(2L)));
+		assertEquals(Set.of(2L), snapshotIds());
+	}
+
+	@Test
+	public void enforcedThenRemovedWhileLoading() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		banSnapshot.punishmentEnforced(ban(2L));
+		banSnapshot.punishmentRemoved(2L);
+
+		load.complete(List.of(ban(1L), ban(2L)));
+		assertEquals(Set.of(1L), snapshotIds());
+	}
+
+	@Test
+	public void removedThenEnforcedWhileLoading() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		banSnapshot.punishmentRemoved(2L);
+		banSnapshot.punishmentEnforced(ban(2L));
+
+		load.complete(List.of(ban(1L)));
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+	}
+
+	@Test
+	public void removedWhileConverting() {
+		nextLoad().complete(List.of(ban(1L)));
+		banSnapshot.register();
+
+		CentralisedFuture<String> formattedOperator = futuresFactory.newIncompleteFuture();
+		Punishment ban = ban(2L);
+		when(formatter.formatOperator(ban.getOperator())).thenReturn(formattedOperator);
+		banSnapshot.punishmentEnforced(ban);
+		banSnapshot.punishmentRemoved(2L);
+
+		formattedOperator.complete("Console");
+		assertEquals(Set.of(1L), snapshotIds());
+	}
+
+	@Test
+	public void updatedAfterLoad() {
+		nextLoad().complete(List.of(ban(1L)));
+		banSnapshot.register();
+
+		banSnapshot.punishmentEnforced(ban(2L));
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+		banSnapshot.punishmentRemoved(1L);
+		assertEquals(Set.of(2L), snapshotIds());
+	}
+
+	@Test
+	public void reloadDiscardsUnreportedRevocations() {
+		nextLoad().complete(List.of(ban(1L), ban(2L)));
+		banSnapshot.register();
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+
+		// Revoked without enforcement, or on another instance without synchronization
+		CentralisedFuture<List<Punishment>> reload = nextLoad();
+		banSnapshot.load();
+		assertEquals(Set.of(1L, 2L), snapshotIds(), "Previous snapshot is served while reloading");
+
+		reload.complete(List.of(ban(2L)));
+		assertEquals(Set.of(2L), snapshotIds());
+	}
+
+	@Test
+	public void unregisterAbandonsLoad() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		banSnapshot.unregister();
+
+		load.complete(List.of(ban(1L)));
+		assertNull(banSnapshot.current());
+	}
+
+	@Test
+	public void failedLoadKeepsQueryingDatabase() {
+		CentralisedFuture<List<Punishment>> load = nextLoad();
+		banSnapshot.register();
+		load.completeExceptionally(new IllegalStateException("Database unavailable"));
+		assertNull(banSnapshot.current());
+
+		nextLoad().complete(List.of(ban(1L)));
+		banSnapshot.load();
+		assertEquals(Set.of(1L), snapshotIds());
+	}
+
+	@Test
+	public void expiredBansPurged() {
+		Punishment temporary = ban(1L);
+		when(temporary.isPermanent()).thenReturn(false);
+		when(temporary.getEndDate()).thenReturn(currentTime.plusSeconds(60L));
+		nextLoad().complete(List.of(temporary, ban(2L)));
+		banSnapshot.register();
+		assertEquals(Set.of(1L, 2L), snapshotIds());
+
+		when(time.currentTimestamp()).thenReturn(currentTime.plusSeconds(61L));
+		assertEquals(Set.of(2L), snapshotIds());
+		Ban.IP permanent = banSnapshot.current().ipBans().iterator().next();
+		assertEquals(2L, ((PunishmentAsBan) permanent).underlyingPunishment().getIdentifier());
+	}
+
+}
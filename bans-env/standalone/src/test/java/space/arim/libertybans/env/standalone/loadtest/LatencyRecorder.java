@@ -0,0 +1,91 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency samples for a single operation. Thread safe
+ *
+ */
+final class LatencyRecorder {
+
+	private long[] samples = new long[1024];
+	private int size;
+	private int failures;
+
+	synchronized void record(long nanos) {
+		if (size == samples.length) {
+			samples = Arrays.copyOf(samples, size * 2);
+		}
+		samples[size++] = nanos;
+	}
+
+	synchronized void recordFailure() {
+		failures++;
+	}
+
+	synchronized void clear() {
+		size = 0;
+		failures = 0;
+	}
+
+	synchronized Summary summarize(long elapsedNanos) {
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		double throughput = (elapsedNanos == 0) ? 0D : size / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+		return new Summary(
+				size, failures, throughput,
+				percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999),
+				(size == 0) ? 0L : sorted[size - 1]
+		);
+	}
+
+	/*
+	 * Nearest-rank percentile
+	 */
+	static long percentile(long[] sorted, double percentile) {
+		if (sorted.length == 0) {
+			return 0L;
+		}
+		int rank = (int) Math.ceil(percentile * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	record Summary(int count, int failures, double throughput, long p50, long p99, long p999, long max) {
+
+		String format(String operation) {
+			return String.format("%-8s %9d %8d %11.1f %10.3f %10.3f %10.3f %10.3f",
+					operation, count, failures, throughput,
+					millis(p50), millis(p99), millis(p999), millis(max));
+		}
+
+		static String header() {
+			return String.format("%-8s %9s %8s %11s %10s %10s %10s %10s",
+					"op", "count", "failed", "ops/sec", "p50 ms", "p99 ms", "p999 ms", "max ms");
+		}
+
+		private static double millis(long nanos) {
+			return nanos / 1_000_000D;
+		}
+	}
+
+}
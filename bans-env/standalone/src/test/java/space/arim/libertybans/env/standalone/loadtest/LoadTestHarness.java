@@ -0,0 +1,294 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import net.kyori.adventure.text.ComponentLike;
+import space.arim.libertybans.api.ConsoleOperator;
+import space.arim.libertybans.api.NetworkAddress;
+import space.arim.libertybans.api.Operator;
+import space.arim.libertybans.api.PlayerVictim;
+import space.arim.libertybans.api.PunishmentType;
+import space.arim.libertybans.core.commands.StringCommandPackage;
+import space.arim.libertybans.core.env.CmdSender;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Headless load generator. Boots one or more real LibertyBans instances using the standalone
+ * environment, then issues waves of joins, chat messages, commands and punishments against them
+ * from a simulated player pool. When running several instances, punishments are synchronized
+ * between them through the database, and the time taken is reported as the sync operation. <br>
+ * <br>
+ * Run {@link #main(String[])} with the test classpath, configured through {@link LoadTestSettings}.
+ * Alternatively, run {@code LoadTestHarnessTest} with {@code -Dlibertybans.loadtest.enable=true}
+ *
+ */
+public final class LoadTestHarness {
+
+	private static final Duration OPERATION_TIMEOUT = Duration.ofSeconds(30L);
+	private static final PunishmentType[] PUNISHMENT_TYPES = {
+			PunishmentType.BAN, PunishmentType.MUTE, PunishmentType.WARN
+	};
+
+	private final LoadTestSettings settings;
+	private final Path folder;
+	private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+
+	private final List<SimulatedPlayer> players;
+	private final List<LoadTestInstance> instances = new ArrayList<>();
+
+	public LoadTestHarness(LoadTestSettings settings, Path folder) {
+		this.settings = settings;
+		this.folder = folder;
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new LatencyRecorder());
+		}
+		players = new ArrayList<>(settings.players());
+		for (int n = 0; n < settings.players(); n++) {
+			players.add(SimulatedPlayer.create(n));
+		}
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Path folder = Files.createTempDirectory("libertybans-loadtest");
+		new LoadTestHarness(LoadTestSettings.fromSystemProperties(), folder).run(System.out);
+	}
+
+	enum Operation {
+		JOIN,
+		CHAT,
+		COMMAND,
+		PUNISH,
+		SYNC
+	}
+
+	/**
+	 * Boots the instances, runs every wave, prints the report, and shuts down the instances
+	 *
+	 * @param output where to print progress and the report
+	 * @return the per-operation summaries
+	 * @throws IOException if the instance folders could not be prepared
+	 * @throws InterruptedException if interrupted while waiting for operations
+	 */
+	Map<Operation, LatencyRecorder.Summary> run(PrintStream output) throws IOException, InterruptedException {
+		SyncProbe syncProbe = new SyncProbe(recorders.get(Operation.SYNC));
+		try {
+			for (int n = 0; n < settings.instances(); n++) {
+				long startTime = System.nanoTime();
+				instances.add(LoadTestInstance.start(folder.resolve("instance-" + n), settings, syncProbe.listenerFor(n)));
+				output.printf("Started instance %d in %d ms%n", n, elapsedMillis(startTime));
+			}
+			// Warm up: make each player known, so that commands can find them by name
+			long warmupStart = System.nanoTime();
+			runBatch(players.size(), (index) -> join(instances.get(0), players.get(index)));
+			output.printf("Warmed up %d players in %d ms%n", players.size(), elapsedMillis(warmupStart));
+			for (LatencyRecorder recorder : recorders.values()) {
+				recorder.clear();
+			}
+			long totalElapsed = 0L;
+			for (int wave = 1; wave <= settings.waves(); wave++) {
+				long waveStart = System.nanoTime();
+				runBatch(settings.operationsPerWave(), (ignore) -> randomOperation());
+				long waveElapsed = System.nanoTime() - waveStart;
+				totalElapsed += waveElapsed;
+				output.printf("Wave %d: %d operations in %d ms (%.1f ops/sec)%n",
+						wave, settings.operationsPerWave(), TimeUnit.NANOSECONDS.toMillis(waveElapsed),
+						settings.operationsPerWave() / (waveElapsed / (double) TimeUnit.SECONDS.toNanos(1)));
+			}
+			if (settings.synchronization()) {
+				// Allow the last punishments to arrive at the other instances
+				Thread.sleep(settings.pollRateMillis() * 4L);
+			}
+			Map<Operation, LatencyRecorder.Summary> summaries = new EnumMap<>(Operation.class);
+			output.println(LatencyRecorder.Summary.header());
+			for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+				LatencyRecorder.Summary summary = entry.getValue().summarize(totalElapsed);
+				summaries.put(entry.getKey(), summary);
+				output.println(summary.format(entry.getKey().name()));
+			}
+			return summaries;
+		} finally {
+			for (LoadTestInstance instance : instances) {
+				instance.close();
+			}
+			instances.clear();
+		}
+	}
+
+	private static long elapsedMillis(long startTime) {
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+	}
+
+	/*
+	 * Runs the given number of tasks, keeping at most the configured concurrency in flight
+	 */
+	private void runBatch(int count, IntFunction<CompletionStage<?>> task) throws InterruptedException {
+		Semaphore inFlight = new Semaphore(settings.concurrency());
+		CountDownLatch completion = new CountDownLatch(count);
+		for (int n = 0; n < count; n++) {
+			inFlight.acquire();
+			task.apply(n).whenComplete((ignore1, ignore2) -> {
+				inFlight.release();
+				completion.countDown();
+			});
+		}
+		completion.await();
+	}
+
+	private CompletionStage<?> randomOperation() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		LoadTestInstance instance = instances.get(random.nextInt(instances.size()));
+		SimulatedPlayer player = players.get(random.nextInt(players.size()));
+
+		int choice = random.nextInt(
+				settings.joinWeight() + settings.chatWeight() + settings.commandWeight() + settings.punishWeight()
+		);
+		if ((choice -= settings.joinWeight()) < 0) {
+			return join(instance, player);
+		}
+		if ((choice -= settings.chatWeight()) < 0) {
+			return timed(Operation.CHAT, () -> instance.guardian().checkChat(player.uuid(), player.address(), null));
+		}
+		if ((choice -= settings.commandWeight()) < 0) {
+			String command = (random.nextBoolean() ? "history " : "warns ") + player.name();
+			return timed(Operation.COMMAND, () -> {
+				CompletingSender sender = new CompletingSender();
+				instance.commands().execute(sender, StringCommandPackage.create(command));
+				return sender.firstMessage;
+			});
+		}
+		PunishmentType type = PUNISHMENT_TYPES[random.nextInt(PUNISHMENT_TYPES.length)];
+		return timed(Operation.PUNISH, () -> instance.api()
+				.getDrafter()
+				.draftBuilder()
+				.type(type)
+				.victim(PlayerVictim.of(player.uuid()))
+				.reason("Load test")
+				.duration(Duration.ofMinutes(random.nextInt(1, 10)))
+				.build()
+				.enactPunishment());
+	}
+
+	private CompletionStage<?> join(LoadTestInstance instance, SimulatedPlayer player) {
+		return timed(Operation.JOIN, () -> instance.guardian().executeAndCheckConnection(
+				player.uuid(), player.name(), player.address()
+		));
+	}
+
+	private CompletionStage<?> timed(Operation operation, Supplier<CompletionStage<?>> action) {
+		LatencyRecorder recorder = recorders.get(operation);
+		long startTime = System.nanoTime();
+		CompletableFuture<?> future;
+		try {
+			future = action.get().toCompletableFuture();
+		} catch (RuntimeException ex) {
+			recorder.recordFailure();
+			return CompletableFuture.completedFuture(null);
+		}
+		return future
+				.orTimeout(OPERATION_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)
+				.handle((ignore, ex) -> {
+					if (ex == null) {
+						recorder.record(System.nanoTime() - startTime);
+					} else {
+						recorder.recordFailure();
+					}
+					return null;
+				});
+	}
+
+	private record SimulatedPlayer(UUID uuid, String name, NetworkAddress address) {
+
+		static SimulatedPlayer create(int index) {
+			return new SimulatedPlayer(
+					new UUID(0x4c6f6164L, index), // Deterministic, so that reruns find the same players
+					"loadtest" + index,
+					NetworkAddress.of(new byte[] {10, (byte) (index >> 16), (byte) (index >> 8), (byte) index})
+			);
+		}
+	}
+
+	/*
+	 * Command sender whose future completes when the command first replies
+	 */
+	private static final class CompletingSender implements CmdSender {
+
+		final CompletableFuture<Void> firstMessage = new CompletableFuture<>();
+
+		@Override
+		public Operator getOperator() {
+			return ConsoleOperator.INSTANCE;
+		}
+
+		@Override
+		public boolean hasPermission(String permission) {
+			return true;
+		}
+
+		@Override
+		public void sendMessageNoPrefix(ComponentLike message) {
+			firstMessage.complete(null);
+		}
+
+		@Override
+		public void sendMessage(ComponentLike message) {
+			firstMessage.complete(null);
+		}
+
+		@Override
+		public void sendLiteralMessageNoPrefix(String messageToParse) {
+			firstMessage.complete(null);
+		}
+
+		@Override
+		public void sendLiteralMessage(String messageToParse) {
+			firstMessage.complete(null);
+		}
+
+		@Override
+		public Stream<String> getPlayerNames() {
+			return Stream.empty();
+		}
+
+		@Override
+		public Stream<String> getPlayerNamesOnSameServer() {
+			return Stream.empty();
+		}
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import space.arim.libertybans.core.database.Vendor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LoadTestHarnessTest {
+
+	@Test
+	public void percentiles() {
+		long[] sorted = new long[1000];
+		for (int n = 0; n < sorted.length; n++) {
+			sorted[n] = n + 1;
+		}
+		assertEquals(500L, LatencyRecorder.percentile(sorted, 0.5));
+		assertEquals(990L, LatencyRecorder.percentile(sorted, 0.99));
+		assertEquals(999L, LatencyRecorder.percentile(sorted, 0.999));
+		assertEquals(0L, LatencyRecorder.percentile(new long[0], 0.5));
+		assertEquals(7L, LatencyRecorder.percentile(new long[] {7L}, 0.999));
+	}
+
+	@Test
+	public void smallRun(@TempDir Path folder) throws IOException, InterruptedException {
+		LoadTestSettings settings = new LoadTestSettings(
+				1, 20, 1, 200, 8,
+				40, 45, 10, 5,
+				Vendor.HSQLDB, "", 0, "", "", "",
+				2, 250
+		);
+		Map<LoadTestHarness.Operation, LatencyRecorder.Summary> summaries =
+				new LoadTestHarness(settings, folder).run(new PrintStream(OutputStream.nullOutputStream()));
+		int total = 0;
+		for (LoadTestHarness.Operation operation : LoadTestHarness.Operation.values()) {
+			LatencyRecorder.Summary summary = summaries.get(operation);
+			assertEquals(0, summary.failures(), "Failures for " + operation);
+			if (operation != LoadTestHarness.Operation.SYNC) {
+				total += summary.count();
+			}
+		}
+		assertEquals(200, total);
+		assertEquals(0, summaries.get(LoadTestHarness.Operation.SYNC).count());
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = "libertybans.loadtest.enable", matches = "true")
+	public void configuredRun(@TempDir Path folder) throws IOException, InterruptedException {
+		Map<LoadTestHarness.Operation, LatencyRecorder.Summary> summaries =
+				new LoadTestHarness(LoadTestSettings.fromSystemProperties(), folder).run(System.out);
+		assertTrue(summaries.values().stream().mapToInt(LatencyRecorder.Summary::count).sum() > 0);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import space.arim.injector.Identifier;
+import space.arim.injector.Injector;
+import space.arim.injector.InjectorBuilder;
+import space.arim.injector.MultiBinding;
+import space.arim.injector.SpecificationSupport;
+import space.arim.libertybans.api.LibertyBans;
+import space.arim.libertybans.bootstrap.BaseFoundation;
+import space.arim.libertybans.core.ApiBindModule;
+import space.arim.libertybans.core.CommandsModule;
+import space.arim.libertybans.core.PillarOneBindModule;
+import space.arim.libertybans.core.PillarTwoBindModule;
+import space.arim.libertybans.core.commands.Commands;
+import space.arim.libertybans.core.database.Vendor;
+import space.arim.libertybans.core.env.InstanceType;
+import space.arim.libertybans.core.punish.LocalEnforcementListener;
+import space.arim.libertybans.core.selector.Guardian;
+import space.arim.libertybans.env.standalone.ConsoleAudience;
+import space.arim.libertybans.env.standalone.StandaloneBindModule;
+import space.arim.omnibus.DefaultOmnibus;
+import space.arim.omnibus.Omnibus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A booted LibertyBans instance using the standalone environment. Console output is discarded
+ *
+ */
+final class LoadTestInstance implements AutoCloseable {
+
+	private final BaseFoundation base;
+	private final Guardian guardian;
+	private final Commands commands;
+	private final LibertyBans api;
+
+	private LoadTestInstance(Injector injector) {
+		base = injector.request(BaseFoundation.class);
+		guardian = injector.request(Guardian.class);
+		commands = injector.request(Commands.class);
+		api = injector.request(LibertyBans.class);
+	}
+
+	static LoadTestInstance start(Path folder, LoadTestSettings settings,
+								  LocalEnforcementListener enforcementListener) throws IOException {
+		Files.createDirectories(folder);
+		writeSqlConfig(folder, settings);
+
+		Injector injector = new InjectorBuilder()
+				.bindInstance(Identifier.ofTypeAndNamed(Path.class, "folder"), folder)
+				.bindInstance(InstanceType.class, InstanceType.STANDALONE)
+				.bindInstance(Omnibus.class, new DefaultOmnibus())
+				.bindInstance(ConsoleAudience.class, new ConsoleAudience() {})
+				.addBindModules(
+						new ApiBindModule(),
+						new PillarOneBindModule(),
+						new PillarTwoBindModule(),
+						new CommandsModule(),
+						new StandaloneBindModule(),
+						new ListenerModule(enforcementListener))
+				.specification(SpecificationSupport.JAKARTA)
+				.privateInjection(true)
+				.multiBindings(true)
+				.build();
+		LoadTestInstance instance = new LoadTestInstance(injector);
+		instance.base.startup();
+		return instance;
+	}
+
+	/*
+	 * Only the relevant keys are written. The remaining keys are filled with defaults on startup
+	 */
+	private static void writeSqlConfig(Path folder, LoadTestSettings settings) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("rdms-vendor: '" + settings.vendor() + "'");
+		lines.add("connection-pool-size: " + settings.poolSize());
+		if (settings.vendor() != Vendor.HSQLDB) {
+			lines.add("auth-details:");
+			lines.add("  host: '" + settings.host() + "'");
+			lines.add("  port: " + settings.port());
+			lines.add("  database: '" + settings.database() + "'");
+			lines.add("  user: '" + settings.user() + "'");
+			lines.add("  password: '" + settings.password() + "'");
+		}
+		if (settings.synchronization()) {
+			lines.add("synchronization:");
+			lines.add("  mode: 'ANSI_SQL'");
+			lines.add("  poll-rate-millis: " + settings.pollRateMillis());
+		}
+		Files.write(folder.resolve("sql.yml"), lines);
+	}
+
+	Guardian guardian() {
+		return guardian;
+	}
+
+	Commands commands() {
+		return commands;
+	}
+
+	LibertyBans api() {
+		return api;
+	}
+
+	@Override
+	public void close() {
+		base.shutdown();
+	}
+
+	public static final class ListenerModule {
+
+		private final LocalEnforcementListener enforcementListener;
+
+		ListenerModule(LocalEnforcementListener enforcementListener) {
+			this.enforcementListener = enforcementListener;
+		}
+
+		@MultiBinding
+		public LocalEnforcementListener enforcementListener() {
+			return enforcementListener;
+		}
+
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import space.arim.libertybans.core.database.Vendor;
+
+import java.util.Locale;
+
+/**
+ * Settings for a load test run. Every setting may be overridden through a system property
+ * named {@code libertybans.loadtest.<setting>}, for example {@code -Dlibertybans.loadtest.instances=3}
+ *
+ * @param instances how many in-process instances to boot
+ * @param players the size of the simulated player pool
+ * @param waves how many waves of operations to run
+ * @param operationsPerWave the number of operations issued in each wave
+ * @param concurrency the maximum number of operations in flight at once
+ * @param joinWeight the relative frequency of joins
+ * @param chatWeight the relative frequency of chat messages
+ * @param commandWeight the relative frequency of commands
+ * @param punishWeight the relative frequency of punishments
+ * @param vendor the database vendor. Multiple instances need a shared database, so not HSQLDB
+ * @param host the database host, for remote databases
+ * @param port the database port, for remote databases
+ * @param database the database name, for remote databases
+ * @param user the database user, for remote databases
+ * @param password the database password, for remote databases
+ * @param poolSize the connection pool size of each instance
+ * @param pollRateMillis the synchronization poll rate when running multiple instances
+ */
+public record LoadTestSettings(int instances, int players, int waves, int operationsPerWave, int concurrency,
+							   int joinWeight, int chatWeight, int commandWeight, int punishWeight,
+							   Vendor vendor, String host, int port, String database, String user, String password,
+							   int poolSize, int pollRateMillis) {
+
+	private static final String PREFIX = "libertybans.loadtest.";
+
+	public LoadTestSettings {
+		if (instances < 1 || players < 1 || waves < 1 || operationsPerWave < 1 || concurrency < 1
+				|| poolSize < 1) {
+			throw new IllegalArgumentException("Counts must be positive");
+		}
+		if (joinWeight < 0 || chatWeight < 0 || commandWeight < 0 || punishWeight < 0
+				|| joinWeight + chatWeight + commandWeight + punishWeight == 0) {
+			throw new IllegalArgumentException("Operation weights must be non-negative and not all zero");
+		}
+		if (instances > 1 && vendor == Vendor.HSQLDB) {
+			throw new IllegalArgumentException(
+					"Multiple instances must share a remote database. HSQLDB is local to each instance");
+		}
+	}
+
+	public static LoadTestSettings fromSystemProperties() {
+		return new LoadTestSettings(
+				intProperty("instances", 1),
+				intProperty("players", 1000),
+				intProperty("waves", 5),
+				intProperty("operations-per-wave", 10_000),
+				intProperty("concurrency", 64),
+				intProperty("join-weight", 40),
+				intProperty("chat-weight", 45),
+				intProperty("command-weight", 10),
+				intProperty("punish-weight", 5),
+				Vendor.valueOf(stringProperty("vendor", "HSQLDB").toUpperCase(Locale.ROOT)),
+				stringProperty("host", "127.0.0.1"),
+				intProperty("port", 3306),
+				stringProperty("database", "libertybans_loadtest"),
+				stringProperty("user", "root"),
+				stringProperty("password", ""),
+				intProperty("pool-size", 6),
+				intProperty("poll-rate-millis", 250)
+		);
+	}
+
+	private static String stringProperty(String key, String defaultValue) {
+		return System.getProperty(PREFIX + key, defaultValue);
+	}
+
+	private static int intProperty(String key, int defaultValue) {
+		String value = System.getProperty(PREFIX + key);
+		return (value == null) ? defaultValue : Integer.parseInt(value);
+	}
+
+	boolean synchronization() {
+		return instances > 1;
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * LibertyBans
+ * Copyright © 2023 Anand Beh
+ *
+ * LibertyBans is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * LibertyBans is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with LibertyBans. If not, see <https://www.gnu.org/licenses/>
+ * and navigate to version 3 of the GNU Affero General Public License.
+ */
+
+package space.arim.libertybans.env.standalone.loadtest;
+
+import space.arim.libertybans.api.punish.Punishment;
+import space.arim.libertybans.core.punish.LocalEnforcementListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures how long punishments take to reach the other instances. The first instance to enforce
+ * a punishment is the one which enacted it; every later enforcement of the same punishment elsewhere
+ * is a synchronization, timed from that first enforcement.
+ *
+ */
+final class SyncProbe {
+
+	private final LatencyRecorder recorder;
+	private final Map<Long, FirstEnforcement> firstEnforcements = new ConcurrentHashMap<>();
+
+	SyncProbe(LatencyRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	LocalEnforcementListener listenerFor(int instance) {
+		return new LocalEnforcementListener() {
+			@Override
+			public void punishmentEnforced(Punishment punishment) {
+				long now = System.nanoTime();
+				FirstEnforcement first = firstEnforcements.putIfAbsent(
+						punishment.getIdentifier(), new FirstEnforcement(instance, now)
+				);
+				if (first != null && first.instance != instance) {
+					recorder.record(now - first.nanoTime);
+				}
+			}
+
+			@Override
+			public void punishmentRemoved(long id) {}
+		};
+	}
+
+	private record FirstEnforcement(int instance, long nanoTime) {}
+
+}
@@ -23,6 +23,7 @@ import com.velocitypowered.api.event.EventTask;
 import com.velocitypowered.api.event.PostOrder;
 import com.velocitypowered.api.event.ResultedEvent.ComponentResult;
 import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.event.connection.LoginEvent;
 import com.velocitypowered.api.event.player.ServerPreConnectEvent;
 import com.velocitypowered.api.plugin.PluginContainer;
@@ -100,4 +101,9 @@ public final class ConnectionListener implements PlatformListener {
 		}));
 	}
 
+	@Subscribe
+	public void onDisconnect(DisconnectEvent event) {
+		guardian.onDisconnect(event.getPlayer().getUniqueId());
+	}
+
 }